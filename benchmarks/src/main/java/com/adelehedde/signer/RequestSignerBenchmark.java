@@ -0,0 +1,98 @@
+package com.adelehedde.signer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestSignerBenchmark {
+
+    private static final long TIMESTAMP = 1585733039477L;
+
+    @Param
+    private UrlShape urlShape;
+
+    private final RequestSigner requestSigner = new RequestSigner();
+    private final RequestSigner canonicalRequestCachingSigner = new RequestSigner(null, null, null, new CanonicalRequestCache());
+    private final RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+
+    private String url;
+    private String canonicalRequest;
+    private String stringToSign;
+    private byte[] signingKey;
+    private String signature;
+    private AuthorizationHeader.Prefix authorizationHeaderPrefix;
+    private final ByteBuffer headerBuffer = ByteBuffer.allocateDirect(512);
+
+    @Setup
+    public void setUp() {
+        url = urlShape.getUrl();
+        canonicalRequest = requestSigner.createCanonicalRequest("GET", url, true);
+        stringToSign = requestSigner.createStringToSign(RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE, "aaa-bbb-ccc", "v1", TIMESTAMP, canonicalRequest);
+        signingKey = requestSigner.computeSigningKey("secret-aaa-bbb-ccc", "v1", TIMESTAMP);
+        signature = requestSigner.sign(stringToSign, signingKey);
+        authorizationHeaderPrefix = AuthorizationHeader.Prefix.of(requestSignerParameters);
+    }
+
+    @Benchmark
+    public RequestAuthenticationSchema signRequest() {
+        return requestSigner.signRequest("GET", url, requestSignerParameters, TIMESTAMP);
+    }
+
+    @Benchmark
+    public RequestAuthenticationSchema signRequestWithCanonicalRequestCache() {
+        return canonicalRequestCachingSigner.signRequest("GET", url, requestSignerParameters, TIMESTAMP);
+    }
+
+    @Benchmark
+    public String createCanonicalRequest() {
+        return requestSigner.createCanonicalRequest("GET", url, true);
+    }
+
+    @Benchmark
+    public String createStringToSign() {
+        return requestSigner.createStringToSign(RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE, "aaa-bbb-ccc", "v1", TIMESTAMP, canonicalRequest);
+    }
+
+    @Benchmark
+    public byte[] computeSigningKey() {
+        return requestSigner.computeSigningKey("secret-aaa-bbb-ccc", "v1", TIMESTAMP);
+    }
+
+    @Benchmark
+    public String sign() {
+        return requestSigner.sign(stringToSign, signingKey);
+    }
+
+    @Benchmark
+    public String encode() {
+        return requestSigner.encode(signingKey);
+    }
+
+    @Benchmark
+    public String authorizationHeader() {
+        return new RequestAuthenticationSchema(requestSignerParameters, TIMESTAMP, signature).getAuthorizationHeader();
+    }
+
+    @Benchmark
+    public ByteBuffer writeAuthorizationHeader() {
+        headerBuffer.clear();
+        return new AuthorizationHeader(authorizationHeaderPrefix, TIMESTAMP, signature).writeTo(headerBuffer);
+    }
+}
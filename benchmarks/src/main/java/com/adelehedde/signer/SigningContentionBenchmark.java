@@ -0,0 +1,57 @@
+package com.adelehedde.signer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SigningContentionBenchmark {
+
+    private static final long TIMESTAMP = 1585733039477L;
+
+    @Param({"true", "false"})
+    private boolean signingKeyCache;
+
+    private final RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+
+    private RequestSigner requestSigner;
+
+    @Setup
+    public void setUp() {
+        requestSigner = signingKeyCache ? new RequestSigner(new SigningKeyCache()) : new RequestSigner();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public RequestAuthenticationSchema signRequest1Thread() {
+        return requestSigner.signRequest("GET", UrlShape.LONG_QUERY.getUrl(), requestSignerParameters, TIMESTAMP);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public RequestAuthenticationSchema signRequest8Threads() {
+        return requestSigner.signRequest("GET", UrlShape.LONG_QUERY.getUrl(), requestSignerParameters, TIMESTAMP);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public RequestAuthenticationSchema signRequest64Threads() {
+        return requestSigner.signRequest("GET", UrlShape.LONG_QUERY.getUrl(), requestSignerParameters, TIMESTAMP);
+    }
+}
@@ -0,0 +1,70 @@
+package com.adelehedde.signer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+
+    private static final long TIMESTAMP = 1585733039477L;
+
+    @State(Scope.Benchmark)
+    public static class ColdSigner {
+
+        private RequestSigner requestSigner;
+
+        @Setup
+        public void setUp() {
+            requestSigner = new RequestSigner();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FirstSignature {
+
+        @Param({"false", "true"})
+        private boolean warmUp;
+
+        private final RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+
+        private RequestSigner requestSigner;
+
+        @Setup
+        public void setUp() {
+            requestSigner = new RequestSigner();
+            if (warmUp) {
+                requestSigner.warmUp();
+            }
+        }
+    }
+
+    @Benchmark
+    public RequestSigner newSigner() {
+        return new RequestSigner();
+    }
+
+    @Benchmark
+    public int warmUp(ColdSigner coldSigner) {
+        return coldSigner.requestSigner.warmUp();
+    }
+
+    @Benchmark
+    public String firstSignature(FirstSignature firstSignature) {
+        return firstSignature.requestSigner.signRequest("GET", UrlShape.LONG_QUERY.getUrl(), firstSignature.requestSignerParameters, TIMESTAMP).getAuthorizationHeader();
+    }
+}
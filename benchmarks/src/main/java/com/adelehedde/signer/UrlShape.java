@@ -0,0 +1,18 @@
+package com.adelehedde.signer;
+
+public enum UrlShape {
+
+    SHORT_PATH("https://api.com/search"),
+    LONG_QUERY("https://api.com/v1/catalog/products/search?product_id=prd1&customer_id=c1&sort=price&order=desc&page=12&size=100&fields=id,name,price,currency,stock,description&filter=category%3Dshoes%26brand%3Dacme&locale=en_GB&session=3c5b5a56-5f2e-4a7b-9d8b-0d5e9b4c7a11"),
+    NON_ASCII("https://api.com/recherche/catégorie/chaussures?q=été&ville=Zürich&tri=prix↑");
+
+    private final String url;
+
+    UrlShape(String url) {
+        this.url = url;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+}
@@ -0,0 +1,145 @@
+package com.adelehedde.signer;
+
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public abstract class AbstractReplayCache implements ReplayCache {
+
+    public static final Duration DEFAULT_BUCKET_WIDTH = Duration.ofSeconds(10);
+
+    private final long window;
+    private final long bucketWidth;
+    private final long maximumEntries;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final AtomicLong entries = new AtomicLong();
+    private final LongAdder overflowCount = new LongAdder();
+
+    protected AbstractReplayCache(Duration window, Duration bucketWidth, long maximumEntries, OverflowPolicy overflowPolicy) {
+        if (window.isNegative() || window.isZero() || bucketWidth.isNegative() || bucketWidth.isZero()) {
+            throw new IllegalArgumentException(MessageFormat.format("Window and bucket width must be positive : {0}, {1}", window, bucketWidth));
+        }
+        if (maximumEntries <= 0) {
+            throw new IllegalArgumentException(MessageFormat.format("Maximum entries must be positive : {0}", maximumEntries));
+        }
+        this.window = window.toMillis();
+        this.bucketWidth = bucketWidth.toMillis();
+        this.maximumEntries = maximumEntries;
+        this.overflowPolicy = overflowPolicy;
+        this.buckets = new AtomicReferenceArray<>((int) ((2 * this.window + this.bucketWidth - 1) / this.bucketWidth) + 2);
+    }
+
+    protected int getBucketCount() {
+        return buckets.length();
+    }
+
+    protected int getWindowBucketCount() {
+        return (int) ((window + bucketWidth - 1) / bucketWidth) + 1;
+    }
+
+    protected long getMaximumEntries() {
+        return maximumEntries;
+    }
+
+    @Override
+    public boolean register(String apiKey, long timestamp, String signature, long currentTimestamp) {
+        if (timestamp < currentTimestamp - window || timestamp > currentTimestamp + window) {
+            return false;
+        }
+        Bucket bucket = bucketFor(Math.floorDiv(timestamp, bucketWidth), Math.floorDiv(currentTimestamp - window, bucketWidth));
+        if (bucket == null) {
+            return false;
+        }
+        if (entries.get() >= maximumEntries || isFull(bucket)) {
+            overflowCount.increment();
+            return overflowPolicy == OverflowPolicy.ACCEPT;
+        }
+        if (!bucket.add(apiKey, timestamp, signature)) {
+            return false;
+        }
+        entries.incrementAndGet();
+        return true;
+    }
+
+    private Bucket bucketFor(long epoch, long minimumEpoch) {
+        int index = (int) Math.floorMod(epoch, (long) buckets.length());
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.epoch == epoch) {
+                return bucket;
+            }
+            if (bucket != null && bucket.epoch > epoch) {
+                return null;
+            }
+            Bucket newBucket = createBucket(epoch);
+            if (buckets.compareAndSet(index, bucket, newBucket)) {
+                if (bucket != null) {
+                    entries.addAndGet(-bucket.size());
+                }
+                expireBuckets(minimumEpoch);
+                return newBucket;
+            }
+        }
+    }
+
+    private void expireBuckets(long minimumEpoch) {
+        for (int index = 0; index < buckets.length(); index++) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.epoch < minimumEpoch && buckets.compareAndSet(index, bucket, null)) {
+                entries.addAndGet(-bucket.size());
+            }
+        }
+    }
+
+    protected abstract Bucket createBucket(long epoch);
+
+    protected boolean isFull(Bucket bucket) {
+        return false;
+    }
+
+    @Override
+    public long size() {
+        return entries.get();
+    }
+
+    public long getOverflowCount() {
+        return overflowCount.sum();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    protected static long hash(String apiKey, long timestamp, String signature) {
+        long hash = 0xcbf29ce484222325L ^ timestamp;
+        hash = mix(hash, apiKey);
+        hash = mix(hash * 0x100000001b3L, signature);
+        return hash ^ (hash >>> 31);
+    }
+
+    private static long mix(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    protected abstract static class Bucket {
+
+        private final long epoch;
+
+        protected Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+
+        protected abstract boolean add(String apiKey, long timestamp, String signature);
+
+        protected abstract long size();
+    }
+}
@@ -1,16 +1,13 @@
 package com.adelehedde.signer;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
 import java.text.MessageFormat;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public abstract class AbstractRequestSigner {
 
@@ -18,6 +15,18 @@ public abstract class AbstractRequestSigner {
     public static final String SHA_256_ALGORITHM = "SHA-256";
     public static final String HMAC_SHA_256_ALGORITHM = "HmacSHA256";
 
+    private final Provider provider;
+    private volatile CryptoEngine cryptoEngine;
+    private final AtomicReferenceArray<CryptoEngine> suiteCryptoEngines = new AtomicReferenceArray<>(SignatureAlgorithmSuite.values().length);
+
+    protected AbstractRequestSigner() {
+        this(null);
+    }
+
+    protected AbstractRequestSigner(Provider provider) {
+        this.provider = provider;
+    }
+
     protected Charset getCharset() {
         return UTF8_CHARSET;
     }
@@ -34,6 +43,41 @@ public abstract class AbstractRequestSigner {
         return HMAC_SHA_256_ALGORITHM;
     }
 
+    protected Provider getProvider() {
+        return provider;
+    }
+
+    protected CryptoEngine getCryptoEngine() {
+        CryptoEngine currentCryptoEngine = cryptoEngine;
+        if (currentCryptoEngine == null || !currentCryptoEngine.supports(getHashAlgorithm(), getHashMacAlgorithm())) {
+            currentCryptoEngine = createCryptoEngine();
+            cryptoEngine = currentCryptoEngine;
+        }
+        return currentCryptoEngine;
+    }
+
+    protected boolean supportsAuthenticationType(String authenticationType) {
+        return SignatureAlgorithmSuite.fromAuthenticationType(authenticationType) != null;
+    }
+
+    protected CryptoEngine getCryptoEngine(String authenticationType) {
+        SignatureAlgorithmSuite suite = SignatureAlgorithmSuite.fromAuthenticationType(authenticationType);
+        if (suite == null || suite == SignatureAlgorithmSuite.REQUEST_SIGNATURE) {
+            return getCryptoEngine();
+        }
+        CryptoEngine suiteCryptoEngine = suiteCryptoEngines.get(suite.ordinal());
+        if (suiteCryptoEngine == null) {
+            suiteCryptoEngine = new CryptoEngine(suite.getHashAlgorithm(), suite.getHashMacAlgorithm(), getProvider());
+            suiteCryptoEngines.compareAndSet(suite.ordinal(), null, suiteCryptoEngine);
+            suiteCryptoEngine = suiteCryptoEngines.get(suite.ordinal());
+        }
+        return suiteCryptoEngine;
+    }
+
+    protected CryptoEngine createCryptoEngine() {
+        return new CryptoEngine(getHashAlgorithm(), getHashMacAlgorithm(), getProvider());
+    }
+
     protected long getCurrentTimestamp() {
         return Instant.now().toEpochMilli();
     }
@@ -51,22 +95,10 @@ public abstract class AbstractRequestSigner {
     }
 
     protected byte[] hash(byte[] data) {
-        try {
-            MessageDigest messageDigest = MessageDigest.getInstance(getHashAlgorithm());
-            messageDigest.update(data);
-            return messageDigest.digest();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RequestSignerException(MessageFormat.format("Unable to hash data : {0}", e.getMessage()), e);
-        }
+        return getCryptoEngine().hash(data);
     }
 
     protected byte[] hash_hmac(String text, byte[] key) {
-        try {
-            Mac mac = Mac.getInstance(getHashMacAlgorithm());
-            mac.init(new SecretKeySpec(key, getHashMacAlgorithm()));
-            return mac.doFinal(text.getBytes(getCharset()));
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-            throw new RequestSignerException(MessageFormat.format("Unable to hash_hmac : {0}", e.getMessage()), e);
-        }
+        return getCryptoEngine().hashHmac(text.getBytes(getCharset()), key);
     }
 }
@@ -0,0 +1,73 @@
+package com.adelehedde.signer;
+
+public final class AuditMismatch {
+
+    private final long position;
+    private final String httpMethod;
+    private final String url;
+    private final String authorizationHeader;
+    private final RequestVerificationResult requestVerificationResult;
+
+    public AuditMismatch(long position, String httpMethod, String url, String authorizationHeader, RequestVerificationResult requestVerificationResult) {
+        this.position = position;
+        this.httpMethod = httpMethod;
+        this.url = url;
+        this.authorizationHeader = authorizationHeader;
+        this.requestVerificationResult = requestVerificationResult;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getAuthorizationHeader() {
+        return authorizationHeader;
+    }
+
+    public RequestVerificationResult getRequestVerificationResult() {
+        return requestVerificationResult;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditMismatch{" +
+                "position=" + position +
+                ", httpMethod='" + httpMethod + '\'' +
+                ", url='" + url + '\'' +
+                ", authorizationHeader='" + authorizationHeader + '\'' +
+                ", requestVerificationResult=" + requestVerificationResult +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AuditMismatch)) return false;
+
+        AuditMismatch that = (AuditMismatch) o;
+
+        if (position != that.position) return false;
+        if (httpMethod != null ? !httpMethod.equals(that.httpMethod) : that.httpMethod != null) return false;
+        if (url != null ? !url.equals(that.url) : that.url != null) return false;
+        if (authorizationHeader != null ? !authorizationHeader.equals(that.authorizationHeader) : that.authorizationHeader != null) return false;
+        return requestVerificationResult == that.requestVerificationResult;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (position ^ (position >>> 32));
+        result = 31 * result + (httpMethod != null ? httpMethod.hashCode() : 0);
+        result = 31 * result + (url != null ? url.hashCode() : 0);
+        result = 31 * result + (authorizationHeader != null ? authorizationHeader.hashCode() : 0);
+        result = 31 * result + (requestVerificationResult != null ? requestVerificationResult.hashCode() : 0);
+        return result;
+    }
+}
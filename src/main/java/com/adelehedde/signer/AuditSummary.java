@@ -0,0 +1,70 @@
+package com.adelehedde.signer;
+
+import java.util.Arrays;
+
+public final class AuditSummary {
+
+    private static final RequestVerificationResult[] RESULTS = RequestVerificationResult.values();
+
+    private final long[] counts;
+
+    public AuditSummary() {
+        this(new long[RESULTS.length]);
+    }
+
+    private AuditSummary(long[] counts) {
+        this.counts = counts;
+    }
+
+    void record(RequestVerificationResult requestVerificationResult) {
+        counts[requestVerificationResult.ordinal()]++;
+    }
+
+    public AuditSummary merge(AuditSummary auditSummary) {
+        long[] mergedCounts = counts.clone();
+        for (int i = 0; i < mergedCounts.length; i++) {
+            mergedCounts[i] += auditSummary.counts[i];
+        }
+        return new AuditSummary(mergedCounts);
+    }
+
+    public long getRecordCount() {
+        long recordCount = 0;
+        for (long count : counts) {
+            recordCount += count;
+        }
+        return recordCount;
+    }
+
+    public long getCount(RequestVerificationResult requestVerificationResult) {
+        return counts[requestVerificationResult.ordinal()];
+    }
+
+    public long getMismatchCount() {
+        return getRecordCount() - getCount(RequestVerificationResult.VALID);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("AuditSummary{recordCount=").append(getRecordCount());
+        for (RequestVerificationResult result : RESULTS) {
+            builder.append(", ").append(result).append('=').append(counts[result.ordinal()]);
+        }
+        return builder.append('}').toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AuditSummary)) return false;
+
+        AuditSummary that = (AuditSummary) o;
+
+        return Arrays.equals(counts, that.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+}
@@ -0,0 +1,80 @@
+package com.adelehedde.signer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class AuditTool {
+
+    static final int EXIT_SUCCESS = 0;
+    static final int EXIT_MISMATCH = 1;
+    static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = "Usage: AuditTool [--threads <count>] [--chunk-size <bytes>] <secrets.properties> <log>...";
+
+    private AuditTool() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int chunkSize = AuditVerifier.DEFAULT_CHUNK_SIZE;
+        List<Path> paths = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("--threads".equals(args[i]) && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if ("--chunk-size".equals(args[i]) && i + 1 < args.length) {
+                    chunkSize = Integer.parseInt(args[++i]);
+                } else {
+                    paths.add(Paths.get(args[i]));
+                }
+            }
+        } catch (NumberFormatException e) {
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        if (paths.size() < 2 || threads <= 0 || chunkSize <= 0) {
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        Properties secretApiKeys = new Properties();
+        try (Reader reader = Files.newBufferedReader(paths.get(0), StandardCharsets.UTF_8)) {
+            secretApiKeys.load(reader);
+        } catch (IOException e) {
+            err.println("Unable to read secrets : " + e.getMessage());
+            return EXIT_USAGE;
+        }
+        AuditVerifier auditVerifier = new AuditVerifier(new RequestSigner(), secretApiKeys::getProperty, chunkSize);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            AuditSummary auditSummary = new AuditSummary();
+            for (Path path : paths.subList(1, paths.size())) {
+                auditSummary = auditSummary.merge(auditVerifier.audit(path, mismatch -> out.println(format(path, mismatch)), executor));
+            }
+            out.println(auditSummary);
+            return auditSummary.getMismatchCount() == 0 ? EXIT_SUCCESS : EXIT_MISMATCH;
+        } catch (RequestSignerException e) {
+            err.println(e.getMessage());
+            return EXIT_USAGE;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String format(Path path, AuditMismatch mismatch) {
+        return path + ":" + mismatch.getPosition() + "\t" + mismatch.getRequestVerificationResult() + "\t" + mismatch.getHttpMethod() + "\t" + mismatch.getUrl();
+    }
+}
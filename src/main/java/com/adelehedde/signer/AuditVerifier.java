@@ -0,0 +1,260 @@
+package com.adelehedde.signer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class AuditVerifier {
+
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private static final int LINE_SEARCH_BUFFER_SIZE = 8 * 1024;
+    private static final byte FIELD_SEPARATOR = '\t';
+    private static final byte LINE_SEPARATOR = '\n';
+    private static final int MAXIMUM_CHUNK_CREDENTIALS = 1024;
+
+    private final RequestSigner requestSigner;
+    private final Function<String, String> secretApiKeyProvider;
+    private final int chunkSize;
+
+    public AuditVerifier(Function<String, String> secretApiKeyProvider) {
+        this(new RequestSigner(), secretApiKeyProvider, DEFAULT_CHUNK_SIZE);
+    }
+
+    public AuditVerifier(RequestSigner requestSigner, Function<String, String> secretApiKeyProvider, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException(MessageFormat.format("Chunk size must be positive : {0}", chunkSize));
+        }
+        this.requestSigner = requestSigner;
+        this.secretApiKeyProvider = secretApiKeyProvider;
+        this.chunkSize = chunkSize;
+    }
+
+    public RequestSigner getRequestSigner() {
+        return requestSigner;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public AuditSummary audit(Path path, Consumer<AuditMismatch> mismatchConsumer) {
+        return audit(path, mismatchConsumer, null);
+    }
+
+    public AuditSummary audit(Path path, Consumer<AuditMismatch> mismatchConsumer, Executor executor) {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = fileChannel.size();
+            List<CompletableFuture<AuditSummary>> chunks = new ArrayList<>();
+            long chunkStart = 0;
+            while (chunkStart < size) {
+                long chunkEnd = nextLineStart(fileChannel, Math.min(chunkStart + chunkSize, size), size);
+                if (chunkEnd - chunkStart > Integer.MAX_VALUE) {
+                    throw new RequestSignerException(MessageFormat.format("Unable to audit log : line at {0} is too long", chunkStart));
+                }
+                MappedByteBuffer chunk = fileChannel.map(FileChannel.MapMode.READ_ONLY, chunkStart, chunkEnd - chunkStart);
+                long position = chunkStart;
+                if (executor == null) {
+                    chunks.add(CompletableFuture.completedFuture(new ChunkAuditor(mismatchConsumer).audit(chunk, position)));
+                } else {
+                    chunks.add(CompletableFuture.supplyAsync(() -> new ChunkAuditor(mismatchConsumer).audit(chunk, position), executor));
+                }
+                chunkStart = chunkEnd;
+            }
+            AuditSummary auditSummary = new AuditSummary();
+            for (CompletableFuture<AuditSummary> chunk : chunks) {
+                auditSummary = auditSummary.merge(chunk.join());
+            }
+            return auditSummary;
+        } catch (IOException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to audit log : {0}", e.getMessage()), e);
+        } catch (CompletionException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to audit log : {0}", e.getCause().getMessage()), e.getCause());
+        }
+    }
+
+    private static long nextLineStart(FileChannel fileChannel, long position, long size) throws IOException {
+        if (position >= size) {
+            return size;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(LINE_SEARCH_BUFFER_SIZE);
+        long searchPosition = position - 1;
+        while (searchPosition < size) {
+            buffer.clear();
+            int read = fileChannel.read(buffer, searchPosition);
+            if (read <= 0) {
+                return size;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == LINE_SEPARATOR) {
+                    return searchPosition + i + 1;
+                }
+            }
+            searchPosition += read;
+        }
+        return size;
+    }
+
+    private final class ChunkAuditor {
+
+        private final Consumer<AuditMismatch> mismatchConsumer;
+        private final AuditSummary auditSummary = new AuditSummary();
+        private final AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView();
+        private final UrlComponents urlComponents = new UrlComponents();
+        private byte[] line = new byte[1024];
+
+        private final Map<String, String> secretApiKeys = new HashMap<>();
+        private final Map<SigningKeyId, byte[]> signingKeys = new HashMap<>();
+
+        private ChunkAuditor(Consumer<AuditMismatch> mismatchConsumer) {
+            this.mismatchConsumer = mismatchConsumer;
+        }
+
+        private AuditSummary audit(ByteBuffer chunk, long chunkPosition) {
+            int limit = chunk.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && chunk.get(lineEnd) != LINE_SEPARATOR) {
+                    lineEnd++;
+                }
+                int contentEnd = lineEnd > lineStart && chunk.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                if (contentEnd > lineStart) {
+                    auditLine(chunk, lineStart, contentEnd - lineStart, chunkPosition + lineStart);
+                }
+                lineStart = lineEnd + 1;
+            }
+            return auditSummary;
+        }
+
+        private void auditLine(ByteBuffer chunk, int start, int length, long position) {
+            if (line.length < length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            chunk.get(start, line, 0, length);
+            int methodEnd = indexOf(FIELD_SEPARATOR, 0, length);
+            int urlEnd = indexOf(FIELD_SEPARATOR, methodEnd + 1, length);
+            int headerEnd = indexOf(FIELD_SEPARATOR, urlEnd + 1, length);
+            String httpMethod = new String(line, 0, Math.min(methodEnd, length), StandardCharsets.UTF_8);
+            String url = methodEnd < length ? new String(line, methodEnd + 1, urlEnd - methodEnd - 1, StandardCharsets.UTF_8) : null;
+            String payloadHash = headerEnd < length ? new String(line, headerEnd + 1, length - headerEnd - 1, StandardCharsets.US_ASCII) : null;
+            RequestVerificationResult result = urlEnd < length && authorizationHeaderView.parse(line, urlEnd + 1, headerEnd - urlEnd - 1)
+                    ? verify(httpMethod, url, payloadHash)
+                    : RequestVerificationResult.MALFORMED_REQUEST;
+            auditSummary.record(result);
+            if (!result.isValid() && mismatchConsumer != null) {
+                String authorizationHeader = urlEnd < length ? new String(line, urlEnd + 1, headerEnd - urlEnd - 1, StandardCharsets.UTF_8) : null;
+                mismatchConsumer.accept(new AuditMismatch(position, httpMethod, url, authorizationHeader, result));
+            }
+        }
+
+        private int indexOf(byte value, int from, int end) {
+            for (int i = from; i < end; i++) {
+                if (line[i] == value) {
+                    return i;
+                }
+            }
+            return end;
+        }
+
+        private RequestVerificationResult verify(String httpMethod, String url, String payloadHash) {
+            String authenticationType = authorizationHeaderView.getAuthenticationType();
+            if (!requestSigner.supportsAuthenticationType(authenticationType) || (authorizationHeaderView.isSignedPayload() && payloadHash == null)) {
+                return RequestVerificationResult.MALFORMED_REQUEST;
+            }
+            String apiKey = authorizationHeaderView.getApiKey();
+            String secretApiKey = secretApiKey(apiKey);
+            if (secretApiKey == null) {
+                return RequestVerificationResult.UNKNOWN_API_KEY;
+            }
+            RequestSignerParameters requestSignerParameters = new RequestSignerParameters(apiKey, secretApiKey, authorizationHeaderView.getApiVersion(), authorizationHeaderView.isSignedHost(), authenticationType);
+            requestSignerParameters.setSignedPayload(authorizationHeaderView.isSignedPayload());
+            requestSignerParameters.setSignedHeaders(authorizationHeaderView.getSignedHeaders());
+            requestSignerParameters.setCanonicalQuery(authorizationHeaderView.isCanonicalQuery());
+            long timestamp = authorizationHeaderView.getTimestamp();
+            try {
+                urlComponents.split(url);
+                String expectedSignature = requestSigner.calculateSignature(new SignableRequest(httpMethod, url, payloadHash), urlComponents, requestSignerParameters, timestamp, signingKey(requestSignerParameters, timestamp));
+                return RequestSignatureVerifier.constantTimeEquals(expectedSignature, authorizationHeaderView.getSignature()) ? RequestVerificationResult.VALID : RequestVerificationResult.INVALID_SIGNATURE;
+            } catch (RequestSignerException e) {
+                return RequestVerificationResult.MALFORMED_REQUEST;
+            }
+        }
+
+        private String secretApiKey(String apiKey) {
+            String secretApiKey = secretApiKeys.get(apiKey);
+            if (secretApiKey == null && !secretApiKeys.containsKey(apiKey)) {
+                if (secretApiKeys.size() >= MAXIMUM_CHUNK_CREDENTIALS) {
+                    secretApiKeys.clear();
+                }
+                secretApiKey = secretApiKeyProvider.apply(apiKey);
+                secretApiKeys.put(apiKey, secretApiKey);
+            }
+            return secretApiKey;
+        }
+
+        private byte[] signingKey(RequestSignerParameters requestSignerParameters, long timestamp) {
+            SigningKeyId signingKeyId = new SigningKeyId(requestSignerParameters.getApiKey(), requestSignerParameters.getApiVersion(), requestSignerParameters.getAuthenticationType(), timestamp);
+            byte[] signingKey = signingKeys.get(signingKeyId);
+            if (signingKey == null) {
+                if (signingKeys.size() >= MAXIMUM_CHUNK_CREDENTIALS) {
+                    signingKeys.clear();
+                }
+                signingKey = requestSigner.computeSigningKey(requestSignerParameters, timestamp);
+                signingKeys.put(signingKeyId, signingKey);
+            }
+            return signingKey;
+        }
+    }
+
+    private static final class SigningKeyId {
+
+        private final String apiKey;
+        private final String apiVersion;
+        private final String authenticationType;
+        private final long timestamp;
+
+        private SigningKeyId(String apiKey, String apiVersion, String authenticationType, long timestamp) {
+            this.apiKey = apiKey;
+            this.apiVersion = apiVersion;
+            this.authenticationType = authenticationType;
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SigningKeyId)) return false;
+
+            SigningKeyId that = (SigningKeyId) o;
+
+            if (timestamp != that.timestamp) return false;
+            if (!apiKey.equals(that.apiKey)) return false;
+            if (!apiVersion.equals(that.apiVersion)) return false;
+            return authenticationType.equals(that.authenticationType);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = apiKey.hashCode();
+            result = 31 * result + apiVersion.hashCode();
+            result = 31 * result + authenticationType.hashCode();
+            result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
+            return result;
+        }
+    }
+}
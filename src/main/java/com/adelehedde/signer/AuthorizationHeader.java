@@ -0,0 +1,314 @@
+package com.adelehedde.signer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+
+public final class AuthorizationHeader {
+
+    private static final byte[] TIMESTAMP_BYTES = (RequestAuthenticationSchema.TIMESTAMP + RequestAuthenticationSchema.KEY_VALUE_SEPARATOR).getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SIGNATURE_BYTES = (RequestAuthenticationSchema.COMPONENT_SEPARATOR + RequestAuthenticationSchema.SIGNATURE + RequestAuthenticationSchema.KEY_VALUE_SEPARATOR).getBytes(StandardCharsets.US_ASCII);
+
+    private final Prefix prefix;
+    private final long timestamp;
+    private final String signature;
+    private String value;
+
+    public AuthorizationHeader(Prefix prefix, long timestamp, String signature) {
+        this.prefix = prefix;
+        this.timestamp = timestamp;
+        this.signature = signature;
+    }
+
+    public static AuthorizationHeader of(RequestSignerParameters requestSignerParameters, long timestamp, String signature) {
+        return new AuthorizationHeader(requestSignerParameters.getAuthorizationHeaderPrefix(), timestamp, signature);
+    }
+
+    public Prefix getPrefix() {
+        return prefix;
+    }
+
+    public String getAuthenticationType() {
+        return prefix.authenticationType;
+    }
+
+    public String getApiKey() {
+        return prefix.apiKey;
+    }
+
+    public String getApiVersion() {
+        return prefix.apiVersion;
+    }
+
+    public String getKeyId() {
+        return prefix.keyId;
+    }
+
+    public boolean isSignedHost() {
+        return prefix.signedHost;
+    }
+
+    public boolean isSignedPayload() {
+        return prefix.signedPayload;
+    }
+
+    public SignedHeaders getSignedHeaders() {
+        return prefix.signedHeaders;
+    }
+
+    public boolean isCanonicalQuery() {
+        return prefix.canonicalQuery;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    public int length() {
+        return prefix.getValue().length() + TIMESTAMP_BYTES.length + digits(timestamp) + SIGNATURE_BYTES.length + signature.length();
+    }
+
+    public String getValue() {
+        String currentValue = value;
+        if (currentValue == null) {
+            currentValue = appendTo(new StringBuilder(length())).toString();
+            value = currentValue;
+        }
+        return currentValue;
+    }
+
+    public ByteBuffer writeTo(ByteBuffer destination) {
+        int length = length();
+        if (destination.remaining() < length) {
+            throw new RequestSignerException(MessageFormat.format("Destination is too small to write {0} bytes", length));
+        }
+        byte[] prefixBytes = prefix.bytes();
+        checkAscii(signature);
+        destination.put(prefixBytes).put(TIMESTAMP_BYTES);
+        writeDigits(destination, timestamp);
+        destination.put(SIGNATURE_BYTES);
+        for (int i = 0; i < signature.length(); i++) {
+            destination.put((byte) signature.charAt(i));
+        }
+        return destination;
+    }
+
+    private static void checkAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                throw new RequestSignerException(MessageFormat.format("Authorization header must be ascii : {0}", value));
+            }
+        }
+    }
+
+    public <A extends Appendable> A appendTo(A destination) {
+        try {
+            destination.append(prefix.getValue()).append(RequestAuthenticationSchema.TIMESTAMP).append(RequestAuthenticationSchema.KEY_VALUE_SEPARATOR);
+            if (destination instanceof StringBuilder) {
+                ((StringBuilder) destination).append(timestamp);
+            } else {
+                destination.append(Long.toString(timestamp));
+            }
+            destination.append(RequestAuthenticationSchema.COMPONENT_SEPARATOR).append(RequestAuthenticationSchema.SIGNATURE).append(RequestAuthenticationSchema.KEY_VALUE_SEPARATOR).append(signature);
+        } catch (IOException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to write authorization header : {0}", e.getMessage()), e);
+        }
+        return destination;
+    }
+
+    private static int digits(long value) {
+        if (value == Long.MIN_VALUE) {
+            return 20;
+        }
+        int digits = value < 0 ? 2 : 1;
+        for (long remaining = Math.abs(value) / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    private static void writeDigits(ByteBuffer destination, long value) {
+        if (value == Long.MIN_VALUE) {
+            destination.put(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        int length = digits(value);
+        if (value < 0) {
+            destination.put((byte) '-');
+            value = -value;
+            length--;
+        }
+        int index = destination.position() + length;
+        do {
+            destination.put(--index, (byte) ('0' + (value % 10)));
+            value /= 10;
+        } while (value > 0);
+        destination.position(destination.position() + length);
+    }
+
+    @Override
+    public String toString() {
+        return getValue();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AuthorizationHeader)) return false;
+
+        AuthorizationHeader that = (AuthorizationHeader) o;
+
+        if (timestamp != that.timestamp) return false;
+        if (prefix != null ? !prefix.equals(that.prefix) : that.prefix != null) return false;
+        return signature != null ? signature.equals(that.signature) : that.signature == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = prefix != null ? prefix.hashCode() : 0;
+        result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
+        result = 31 * result + (signature != null ? signature.hashCode() : 0);
+        return result;
+    }
+
+    public static final class Prefix {
+
+        private final String authenticationType;
+        private final String apiKey;
+        private final String apiVersion;
+        private final String keyId;
+        private final boolean signedHost;
+        private final boolean signedPayload;
+        private final SignedHeaders signedHeaders;
+        private final boolean canonicalQuery;
+        private volatile String value;
+        private volatile byte[] bytes;
+
+        private Prefix(String authenticationType, String apiKey, String apiVersion, String keyId, boolean signedHost, boolean signedPayload, SignedHeaders signedHeaders, boolean canonicalQuery) {
+            this.authenticationType = authenticationType;
+            this.apiKey = apiKey;
+            this.apiVersion = apiVersion;
+            this.keyId = keyId;
+            this.signedHost = signedHost;
+            this.signedPayload = signedPayload;
+            this.signedHeaders = signedHeaders;
+            this.canonicalQuery = canonicalQuery;
+        }
+
+        public static Prefix of(RequestSignerParameters requestSignerParameters) {
+            return new Prefix(requestSignerParameters.getAuthenticationType(), requestSignerParameters.getApiKey(), requestSignerParameters.getApiVersion(), requestSignerParameters.getKeyId(), requestSignerParameters.isSignedHost(), requestSignerParameters.isSignedPayload(), requestSignerParameters.getSignedHeaders(), requestSignerParameters.isCanonicalQuery());
+        }
+
+        static Prefix of(RequestAuthenticationSchema requestAuthenticationSchema) {
+            return new Prefix(requestAuthenticationSchema.getAuthenticationType(), requestAuthenticationSchema.getApiKey(), requestAuthenticationSchema.getApiVersion(), requestAuthenticationSchema.getKeyId(), requestAuthenticationSchema.isSignedHost(), requestAuthenticationSchema.isSignedPayload(), requestAuthenticationSchema.getSignedHeaders(), requestAuthenticationSchema.isCanonicalQuery());
+        }
+
+        private String render() {
+            StringBuilder prefix = new StringBuilder()
+                    .append(authenticationType)
+                    .append(RequestAuthenticationSchema.SPACE)
+                    .append(RequestAuthenticationSchema.API_KEY).append(RequestAuthenticationSchema.KEY_VALUE_SEPARATOR).append(apiKey).append(RequestAuthenticationSchema.COMPONENT_SEPARATOR)
+                    .append(RequestAuthenticationSchema.API_VERSION).append(RequestAuthenticationSchema.KEY_VALUE_SEPARATOR).append(apiVersion).append(RequestAuthenticationSchema.COMPONENT_SEPARATOR);
+            if (keyId != null) {
+                prefix.append(RequestAuthenticationSchema.KEY_ID).append(RequestAuthenticationSchema.KEY_VALUE_SEPARATOR).append(keyId).append(RequestAuthenticationSchema.COMPONENT_SEPARATOR);
+            }
+            prefix.append(RequestAuthenticationSchema.SIGNED_HOST).append(RequestAuthenticationSchema.KEY_VALUE_SEPARATOR).append(signedHost).append(RequestAuthenticationSchema.COMPONENT_SEPARATOR);
+            if (signedPayload) {
+                prefix.append(RequestAuthenticationSchema.SIGNED_PAYLOAD).append(RequestAuthenticationSchema.KEY_VALUE_SEPARATOR).append(signedPayload).append(RequestAuthenticationSchema.COMPONENT_SEPARATOR);
+            }
+            if (signedHeaders != null) {
+                prefix.append(RequestAuthenticationSchema.SIGNED_HEADERS).append(RequestAuthenticationSchema.KEY_VALUE_SEPARATOR).append(signedHeaders.getValue()).append(RequestAuthenticationSchema.COMPONENT_SEPARATOR);
+            }
+            if (canonicalQuery) {
+                prefix.append(RequestAuthenticationSchema.CANONICAL_QUERY).append(RequestAuthenticationSchema.KEY_VALUE_SEPARATOR).append(canonicalQuery).append(RequestAuthenticationSchema.COMPONENT_SEPARATOR);
+            }
+            return prefix.toString();
+        }
+
+        public boolean matches(RequestSignerParameters requestSignerParameters) {
+            return signedHost == requestSignerParameters.isSignedHost()
+                    && signedPayload == requestSignerParameters.isSignedPayload()
+                    && canonicalQuery == requestSignerParameters.isCanonicalQuery()
+                    && equals(authenticationType, requestSignerParameters.getAuthenticationType())
+                    && equals(apiKey, requestSignerParameters.getApiKey())
+                    && equals(apiVersion, requestSignerParameters.getApiVersion())
+                    && equals(keyId, requestSignerParameters.getKeyId())
+                    && equals(signedHeaders, requestSignerParameters.getSignedHeaders());
+        }
+
+        boolean matches(RequestAuthenticationSchema requestAuthenticationSchema) {
+            return signedHost == requestAuthenticationSchema.isSignedHost()
+                    && signedPayload == requestAuthenticationSchema.isSignedPayload()
+                    && canonicalQuery == requestAuthenticationSchema.isCanonicalQuery()
+                    && equals(authenticationType, requestAuthenticationSchema.getAuthenticationType())
+                    && equals(apiKey, requestAuthenticationSchema.getApiKey())
+                    && equals(apiVersion, requestAuthenticationSchema.getApiVersion())
+                    && equals(keyId, requestAuthenticationSchema.getKeyId())
+                    && equals(signedHeaders, requestAuthenticationSchema.getSignedHeaders());
+        }
+
+        private static boolean equals(Object value, Object other) {
+            return value != null ? value.equals(other) : other == null;
+        }
+
+        public String getValue() {
+            String currentValue = value;
+            if (currentValue == null) {
+                currentValue = render();
+                value = currentValue;
+            }
+            return currentValue;
+        }
+
+        private byte[] bytes() {
+            byte[] currentBytes = bytes;
+            if (currentBytes == null) {
+                String currentValue = getValue();
+                checkAscii(currentValue);
+                currentBytes = currentValue.getBytes(StandardCharsets.US_ASCII);
+                bytes = currentBytes;
+            }
+            return currentBytes;
+        }
+
+        @Override
+        public String toString() {
+            return getValue();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Prefix)) return false;
+
+            Prefix that = (Prefix) o;
+
+            return signedHost == that.signedHost
+                    && signedPayload == that.signedPayload
+                    && canonicalQuery == that.canonicalQuery
+                    && equals(authenticationType, that.authenticationType)
+                    && equals(apiKey, that.apiKey)
+                    && equals(apiVersion, that.apiVersion)
+                    && equals(keyId, that.keyId)
+                    && equals(signedHeaders, that.signedHeaders);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = authenticationType != null ? authenticationType.hashCode() : 0;
+            result = 31 * result + (apiKey != null ? apiKey.hashCode() : 0);
+            result = 31 * result + (apiVersion != null ? apiVersion.hashCode() : 0);
+            result = 31 * result + (keyId != null ? keyId.hashCode() : 0);
+            result = 31 * result + (signedHost ? 1 : 0);
+            result = 31 * result + (signedPayload ? 1 : 0);
+            result = 31 * result + (signedHeaders != null ? signedHeaders.hashCode() : 0);
+            result = 31 * result + (canonicalQuery ? 1 : 0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.adelehedde.signer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+
+public final class AuthorizationHeaderView {
+
+    public static final int DEFAULT_MAXIMUM_LENGTH = 1024;
+
+    private static final int MAXIMUM_TIMESTAMP_DIGITS = 19;
+    private static final String TRUE = "true";
+    private static final String FALSE = "false";
+
+    private static final Component[] COMPONENTS = Component.values();
+    private static final int REQUIRED_COMPONENTS = Component.API_KEY.mask() | Component.API_VERSION.mask() | Component.SIGNED_HOST.mask() | Component.TIMESTAMP.mask() | Component.SIGNATURE.mask();
+
+    private final int maximumLength;
+    private final int[] starts = new int[COMPONENTS.length];
+    private final int[] ends = new int[COMPONENTS.length];
+
+    private byte[] bytes;
+    private ByteBuffer buffer;
+    private CharSequence chars;
+    private boolean valid;
+    private int parsedComponents;
+    private int authenticationTypeStart;
+    private int authenticationTypeEnd;
+    private int headerEnd;
+    private boolean signedHost;
+    private boolean signedPayload;
+    private boolean canonicalQuery;
+    private long timestamp;
+
+    public AuthorizationHeaderView() {
+        this(DEFAULT_MAXIMUM_LENGTH);
+    }
+
+    public AuthorizationHeaderView(int maximumLength) {
+        if (maximumLength <= 0) {
+            throw new IllegalArgumentException(MessageFormat.format("Maximum length must be positive : {0}", maximumLength));
+        }
+        this.maximumLength = maximumLength;
+    }
+
+    public boolean parse(byte[] source) {
+        return parse(source, 0, source.length);
+    }
+
+    public boolean parse(byte[] source, int offset, int length) {
+        reset();
+        bytes = source;
+        return parse(offset, offset + length);
+    }
+
+    public boolean parse(ByteBuffer source) {
+        reset();
+        buffer = source;
+        return parse(source.position(), source.limit());
+    }
+
+    public boolean parse(CharSequence source) {
+        reset();
+        chars = source;
+        return parse(0, source.length());
+    }
+
+    private void reset() {
+        bytes = null;
+        buffer = null;
+        chars = null;
+        valid = false;
+        parsedComponents = 0;
+        signedHost = false;
+        signedPayload = false;
+        canonicalQuery = false;
+        timestamp = 0;
+    }
+
+    private boolean parse(int start, int end) {
+        if (end - start <= 0 || end - start > maximumLength) {
+            return false;
+        }
+        int index = start;
+        while (index < end && charAt(index) != ' ') {
+            if (!isValueChar(charAt(index))) {
+                return false;
+            }
+            index++;
+        }
+        if (index == start || index == end) {
+            return false;
+        }
+        authenticationTypeStart = start;
+        authenticationTypeEnd = index;
+        headerEnd = end;
+        int parsedComponents = 0;
+        index++;
+        while (true) {
+            int nameStart = index;
+            while (index < end && charAt(index) != '=') {
+                index++;
+            }
+            if (index == end) {
+                return false;
+            }
+            Component component = component(nameStart, index);
+            if (component == null || (parsedComponents & component.mask()) != 0) {
+                return false;
+            }
+            parsedComponents |= component.mask();
+            int valueStart = ++index;
+            while (index < end && charAt(index) != ',') {
+                if (!isValueChar(charAt(index))) {
+                    return false;
+                }
+                index++;
+            }
+            if (index == valueStart || !parseValue(component, valueStart, index)) {
+                return false;
+            }
+            starts[component.ordinal()] = valueStart;
+            ends[component.ordinal()] = index;
+            if (index == end) {
+                break;
+            }
+            index++;
+        }
+        this.parsedComponents = parsedComponents;
+        valid = (parsedComponents & REQUIRED_COMPONENTS) == REQUIRED_COMPONENTS;
+        return valid;
+    }
+
+    private Component component(int start, int end) {
+        for (Component component : COMPONENTS) {
+            if (regionEquals(start, end, component.name)) {
+                return component;
+            }
+        }
+        return null;
+    }
+
+    private boolean parseValue(Component component, int start, int end) {
+        switch (component) {
+            case SIGNED_HOST:
+                if (regionEquals(start, end, TRUE) || regionEquals(start, end, FALSE)) {
+                    signedHost = end - start == TRUE.length();
+                    return true;
+                }
+                return false;
+            case SIGNED_PAYLOAD:
+                if (regionEquals(start, end, TRUE) || regionEquals(start, end, FALSE)) {
+                    signedPayload = end - start == TRUE.length();
+                    return true;
+                }
+                return false;
+            case CANONICAL_QUERY:
+                if (regionEquals(start, end, TRUE) || regionEquals(start, end, FALSE)) {
+                    canonicalQuery = end - start == TRUE.length();
+                    return true;
+                }
+                return false;
+            case SIGNED_HEADERS:
+                return parseSignedHeaders(start, end);
+            case TIMESTAMP:
+                return parseTimestamp(start, end);
+            case SIGNATURE:
+                for (int i = start; i < end; i++) {
+                    if (!isBase64UrlChar(charAt(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    private boolean parseSignedHeaders(int start, int end) {
+        if (charAt(start) == SignedHeaders.NAME_SEPARATOR || charAt(end - 1) == SignedHeaders.NAME_SEPARATOR) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            int c = charAt(i);
+            if (c == SignedHeaders.NAME_SEPARATOR) {
+                if (charAt(i - 1) == SignedHeaders.NAME_SEPARATOR) {
+                    return false;
+                }
+            } else if (!SignedHeaders.isTokenChar(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean parseTimestamp(int start, int end) {
+        if (end - start > MAXIMUM_TIMESTAMP_DIGITS) {
+            return false;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int c = charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            value = value * 10 + (c - '0');
+            if (value < 0) {
+                return false;
+            }
+        }
+        timestamp = value;
+        return true;
+    }
+
+    private static boolean isValueChar(int c) {
+        return c > ' ' && c < 0x7F && c != ',' && c != '=';
+    }
+
+    private static boolean isBase64UrlChar(int c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+
+    private boolean regionEquals(int start, int end, String value) {
+        if (end - start != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (charAt(start + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int charAt(int index) {
+        if (bytes != null) {
+            return bytes[index] & 0xFF;
+        }
+        if (buffer != null) {
+            return buffer.get(index) & 0xFF;
+        }
+        return chars.charAt(index);
+    }
+
+    private String substring(int start, int end) {
+        if (bytes != null) {
+            return new String(bytes, start, end - start, StandardCharsets.US_ASCII);
+        }
+        if (chars != null) {
+            return chars.subSequence(start, end).toString();
+        }
+        byte[] value = new byte[end - start];
+        for (int i = start; i < end; i++) {
+            value[i - start] = buffer.get(i);
+        }
+        return new String(value, StandardCharsets.US_ASCII);
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    private void checkValid() {
+        if (!valid) {
+            throw new IllegalStateException("Authorization header is not valid");
+        }
+    }
+
+    public String getAuthenticationType() {
+        checkValid();
+        return substring(authenticationTypeStart, authenticationTypeEnd);
+    }
+
+    public int getAuthenticationTypeStart() {
+        return authenticationTypeStart;
+    }
+
+    public int getAuthenticationTypeEnd() {
+        return authenticationTypeEnd;
+    }
+
+    public boolean isAuthenticationType(String authenticationType) {
+        checkValid();
+        return regionEquals(authenticationTypeStart, authenticationTypeEnd, authenticationType);
+    }
+
+    public String getApiKey() {
+        checkValid();
+        return substring(getApiKeyStart(), getApiKeyEnd());
+    }
+
+    public int getApiKeyStart() {
+        return starts[Component.API_KEY.ordinal()];
+    }
+
+    public int getApiKeyEnd() {
+        return ends[Component.API_KEY.ordinal()];
+    }
+
+    public String getApiVersion() {
+        checkValid();
+        return substring(starts[Component.API_VERSION.ordinal()], ends[Component.API_VERSION.ordinal()]);
+    }
+
+    public int getApiVersionStart() {
+        return starts[Component.API_VERSION.ordinal()];
+    }
+
+    public int getApiVersionEnd() {
+        return ends[Component.API_VERSION.ordinal()];
+    }
+
+    public String getKeyId() {
+        checkValid();
+        if ((parsedComponents & Component.KEY_ID.mask()) == 0) {
+            return null;
+        }
+        return substring(starts[Component.KEY_ID.ordinal()], ends[Component.KEY_ID.ordinal()]);
+    }
+
+    public boolean isSignedHost() {
+        checkValid();
+        return signedHost;
+    }
+
+    public boolean isSignedPayload() {
+        checkValid();
+        return signedPayload;
+    }
+
+    public SignedHeaders getSignedHeaders() {
+        checkValid();
+        if ((parsedComponents & Component.SIGNED_HEADERS.mask()) == 0) {
+            return null;
+        }
+        return SignedHeaders.parse(substring(starts[Component.SIGNED_HEADERS.ordinal()], ends[Component.SIGNED_HEADERS.ordinal()]));
+    }
+
+    public boolean isCanonicalQuery() {
+        checkValid();
+        return canonicalQuery;
+    }
+
+    public long getTimestamp() {
+        checkValid();
+        return timestamp;
+    }
+
+    public String getSignature() {
+        checkValid();
+        return substring(getSignatureStart(), getSignatureEnd());
+    }
+
+    public int getSignatureStart() {
+        return starts[Component.SIGNATURE.ordinal()];
+    }
+
+    public int getSignatureEnd() {
+        return ends[Component.SIGNATURE.ordinal()];
+    }
+
+    public RequestAuthenticationSchema toRequestAuthenticationSchema() {
+        return new RequestAuthenticationSchema(getAuthenticationType(), getApiKey(), getApiVersion(), getKeyId(), isSignedHost(), isSignedPayload(), getSignedHeaders(), isCanonicalQuery(), getTimestamp(), getSignature());
+    }
+
+    @Override
+    public String toString() {
+        return "AuthorizationHeaderView{" +
+                "valid=" + valid +
+                (valid ? ", authorizationHeader='" + substring(authenticationTypeStart, headerEnd) + '\'' : "") +
+                '}';
+    }
+
+    private enum Component {
+        API_KEY(RequestAuthenticationSchema.API_KEY),
+        API_VERSION(RequestAuthenticationSchema.API_VERSION),
+        KEY_ID(RequestAuthenticationSchema.KEY_ID),
+        SIGNED_HOST(RequestAuthenticationSchema.SIGNED_HOST),
+        SIGNED_PAYLOAD(RequestAuthenticationSchema.SIGNED_PAYLOAD),
+        SIGNED_HEADERS(RequestAuthenticationSchema.SIGNED_HEADERS),
+        CANONICAL_QUERY(RequestAuthenticationSchema.CANONICAL_QUERY),
+        TIMESTAMP(RequestAuthenticationSchema.TIMESTAMP),
+        SIGNATURE(RequestAuthenticationSchema.SIGNATURE);
+
+        private final String name;
+
+        Component(String name) {
+            this.name = name;
+        }
+
+        private int mask() {
+            return 1 << ordinal();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.adelehedde.signer;
+
+import java.nio.ByteBuffer;
+import java.text.MessageFormat;
+
+public final class Base64Url {
+
+    private static final byte[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(AbstractRequestSigner.UTF8_CHARSET);
+
+    private Base64Url() {
+    }
+
+    public static int encodedLength(int length) {
+        return (length / 3) * 4 + ((length % 3) * 4 + 2) / 3;
+    }
+
+    public static int encode(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+        int encodedLength = encodedLength(length);
+        if (dst.length - dstOffset < encodedLength) {
+            throw new RequestSignerException(MessageFormat.format("Destination is too small to encode {0} bytes", length));
+        }
+        int srcIndex = srcOffset;
+        int dstIndex = dstOffset;
+        int end = srcOffset + (length / 3) * 3;
+        while (srcIndex < end) {
+            int bits = (src[srcIndex++] & 0xff) << 16 | (src[srcIndex++] & 0xff) << 8 | (src[srcIndex++] & 0xff);
+            dst[dstIndex++] = ALPHABET[(bits >>> 18) & 0x3f];
+            dst[dstIndex++] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[dstIndex++] = ALPHABET[(bits >>> 6) & 0x3f];
+            dst[dstIndex++] = ALPHABET[bits & 0x3f];
+        }
+        int remaining = srcOffset + length - srcIndex;
+        if (remaining == 1) {
+            int bits = (src[srcIndex] & 0xff) << 16;
+            dst[dstIndex++] = ALPHABET[(bits >>> 18) & 0x3f];
+            dst[dstIndex++] = ALPHABET[(bits >>> 12) & 0x3f];
+        } else if (remaining == 2) {
+            int bits = (src[srcIndex] & 0xff) << 16 | (src[srcIndex + 1] & 0xff) << 8;
+            dst[dstIndex++] = ALPHABET[(bits >>> 18) & 0x3f];
+            dst[dstIndex++] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[dstIndex++] = ALPHABET[(bits >>> 6) & 0x3f];
+        }
+        return encodedLength;
+    }
+
+    public static int encode(byte[] src, int srcOffset, int length, ByteBuffer dst) {
+        int encodedLength = encodedLength(length);
+        if (dst.remaining() < encodedLength) {
+            throw new RequestSignerException(MessageFormat.format("Destination is too small to encode {0} bytes", length));
+        }
+        if (dst.hasArray()) {
+            encode(src, srcOffset, length, dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + encodedLength);
+            return encodedLength;
+        }
+        int srcIndex = srcOffset;
+        int end = srcOffset + length;
+        while (srcIndex < end) {
+            int available = Math.min(3, end - srcIndex);
+            int bits = (src[srcIndex] & 0xff) << 16;
+            if (available > 1) bits |= (src[srcIndex + 1] & 0xff) << 8;
+            if (available > 2) bits |= src[srcIndex + 2] & 0xff;
+            dst.put(ALPHABET[(bits >>> 18) & 0x3f]);
+            dst.put(ALPHABET[(bits >>> 12) & 0x3f]);
+            if (available > 1) dst.put(ALPHABET[(bits >>> 6) & 0x3f]);
+            if (available > 2) dst.put(ALPHABET[bits & 0x3f]);
+            srcIndex += available;
+        }
+        return encodedLength;
+    }
+}
@@ -0,0 +1,94 @@
+package com.adelehedde.signer;
+
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilterReplayCache extends AbstractReplayCache {
+
+    public static final double DEFAULT_FALSE_POSITIVE_PROBABILITY = 0.0001;
+
+    private final long bucketEntries;
+    private final int bitCount;
+    private final int hashCount;
+
+    public BloomFilterReplayCache(Duration window, long maximumEntries) {
+        this(window, DEFAULT_BUCKET_WIDTH, maximumEntries, DEFAULT_FALSE_POSITIVE_PROBABILITY, OverflowPolicy.REJECT);
+    }
+
+    public BloomFilterReplayCache(Duration window, Duration bucketWidth, long maximumEntries, double falsePositiveProbability, OverflowPolicy overflowPolicy) {
+        super(window, bucketWidth, maximumEntries, overflowPolicy);
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException(MessageFormat.format("False positive probability must be between 0 and 1 : {0}", falsePositiveProbability));
+        }
+        this.bucketEntries = Math.max(1, maximumEntries / getWindowBucketCount());
+        long bits = (long) Math.ceil(-bucketEntries * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / bucketEntries * Math.log(2)));
+    }
+
+    public long getMemoryUsage() {
+        return (long) getBucketCount() * ((bitCount + 63) / 64) * Long.BYTES;
+    }
+
+    @Override
+    protected Bucket createBucket(long epoch) {
+        return new BloomFilterBucket(epoch, bitCount, hashCount);
+    }
+
+    @Override
+    protected boolean isFull(Bucket bucket) {
+        return bucket.size() >= bucketEntries;
+    }
+
+    private static final class BloomFilterBucket extends Bucket {
+
+        private final AtomicLongArray bits;
+        private final int bitCount;
+        private final int hashCount;
+        private final AtomicLong size = new AtomicLong();
+
+        private BloomFilterBucket(long epoch, int bitCount, int hashCount) {
+            super(epoch);
+            this.bits = new AtomicLongArray((bitCount + 63) / 64);
+            this.bitCount = bitCount;
+            this.hashCount = hashCount;
+        }
+
+        @Override
+        protected boolean add(String apiKey, long timestamp, String signature) {
+            long hash = hash(apiKey, timestamp, signature);
+            int hash1 = (int) hash;
+            int hash2 = (int) (hash >>> 32);
+            boolean added = false;
+            for (int i = 1; i <= hashCount; i++) {
+                int combinedHash = hash1 + i * hash2;
+                int bitIndex = (combinedHash & Integer.MAX_VALUE) % bitCount;
+                added |= setBit(bitIndex);
+            }
+            if (added) {
+                size.incrementAndGet();
+            }
+            return added;
+        }
+
+        private boolean setBit(int bitIndex) {
+            int wordIndex = bitIndex >>> 6;
+            long mask = 1L << bitIndex;
+            long word;
+            do {
+                word = bits.get(wordIndex);
+                if ((word & mask) != 0) {
+                    return false;
+                }
+            } while (!bits.compareAndSet(wordIndex, word, word | mask));
+            return true;
+        }
+
+        @Override
+        protected long size() {
+            return size.get();
+        }
+    }
+}
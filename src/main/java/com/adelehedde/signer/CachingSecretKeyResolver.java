@@ -0,0 +1,195 @@
+package com.adelehedde.signer;
+
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CachingSecretKeyResolver implements SecretKeyResolver {
+
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10);
+    public static final Duration DEFAULT_REFRESH_AHEAD = Duration.ofMinutes(1);
+    public static final Duration DEFAULT_NEGATIVE_TIME_TO_LIVE = Duration.ofSeconds(30);
+    public static final int DEFAULT_MAXIMUM_SIZE = 100_000;
+
+    private final SecretKeyResolver delegate;
+    private final long timeToLive;
+    private final long refreshAhead;
+    private final long negativeTimeToLive;
+    private final int maximumSize;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> unknownApiKeys = new ConcurrentHashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder negativeHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+
+    public CachingSecretKeyResolver(SecretKeyResolver delegate) {
+        this(delegate, DEFAULT_TIME_TO_LIVE, DEFAULT_REFRESH_AHEAD, DEFAULT_NEGATIVE_TIME_TO_LIVE, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public CachingSecretKeyResolver(SecretKeyResolver delegate, Duration timeToLive, Duration refreshAhead, Duration negativeTimeToLive, int maximumSize) {
+        if (timeToLive.isNegative() || refreshAhead.isNegative() || negativeTimeToLive.isNegative() || refreshAhead.compareTo(timeToLive) > 0) {
+            throw new IllegalArgumentException(MessageFormat.format("Invalid durations : timeToLive={0}, refreshAhead={1}, negativeTimeToLive={2}", timeToLive, refreshAhead, negativeTimeToLive));
+        }
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException(MessageFormat.format("Maximum size must be positive : {0}", maximumSize));
+        }
+        this.delegate = delegate;
+        this.timeToLive = timeToLive.toMillis();
+        this.refreshAhead = refreshAhead.toMillis();
+        this.negativeTimeToLive = negativeTimeToLive.toMillis();
+        this.maximumSize = maximumSize;
+    }
+
+    protected long getCurrentTimestamp() {
+        return Instant.now().toEpochMilli();
+    }
+
+    @Override
+    public CompletableFuture<Optional<String>> resolve(String apiKey) {
+        long currentTimestamp = getCurrentTimestamp();
+        Long unknownSince = unknownApiKeys.get(apiKey);
+        if (unknownSince != null) {
+            if (currentTimestamp - unknownSince < negativeTimeToLive) {
+                negativeHitCount.increment();
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            unknownApiKeys.remove(apiKey, unknownSince);
+        }
+        while (true) {
+            Entry entry = entries.get(apiKey);
+            if (entry != null && isUsable(entry, currentTimestamp)) {
+                hitCount.increment();
+                refreshIfNecessary(apiKey, entry, currentTimestamp);
+                return entry.secretApiKey.copy();
+            }
+            Entry newEntry = new Entry();
+            boolean inserted = entry == null ? entries.putIfAbsent(apiKey, newEntry) == null : entries.replace(apiKey, entry, newEntry);
+            if (inserted) {
+                missCount.increment();
+                evictIfNecessary();
+                load(apiKey, newEntry);
+                return newEntry.secretApiKey.copy();
+            }
+        }
+    }
+
+    private boolean isUsable(Entry entry, long currentTimestamp) {
+        if (!entry.secretApiKey.isDone()) {
+            return true;
+        }
+        return !entry.secretApiKey.isCompletedExceptionally() && currentTimestamp - entry.loadedAt < timeToLive;
+    }
+
+    private void refreshIfNecessary(String apiKey, Entry entry, long currentTimestamp) {
+        if (!entry.secretApiKey.isDone() || currentTimestamp - entry.loadedAt < timeToLive - refreshAhead || !entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refreshCount.increment();
+        resolveDelegate(apiKey).whenComplete((secretApiKey, throwable) -> {
+            if (throwable != null) {
+                entry.refreshing.set(false);
+            } else if (secretApiKey.isPresent()) {
+                Entry refreshedEntry = new Entry();
+                refreshedEntry.loadedAt = getCurrentTimestamp();
+                refreshedEntry.secretApiKey.complete(secretApiKey);
+                entries.replace(apiKey, entry, refreshedEntry);
+            } else {
+                entries.remove(apiKey, entry);
+                markUnknown(apiKey);
+            }
+        });
+    }
+
+    private CompletableFuture<Optional<String>> resolveDelegate(String apiKey) {
+        CompletableFuture<Optional<String>> secretApiKeyFuture;
+        try {
+            secretApiKeyFuture = delegate.resolve(apiKey);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (secretApiKeyFuture == null) {
+            return CompletableFuture.failedFuture(new RequestSignerException(MessageFormat.format("Secret key resolver returned no future : {0}", apiKey)));
+        }
+        return secretApiKeyFuture.thenApply(secretApiKey -> secretApiKey != null ? secretApiKey : Optional.empty());
+    }
+
+    private void load(String apiKey, Entry entry) {
+        resolveDelegate(apiKey).whenComplete((secretApiKey, throwable) -> {
+            if (throwable != null) {
+                entries.remove(apiKey, entry);
+                entry.secretApiKey.completeExceptionally(throwable);
+                return;
+            }
+            entry.loadedAt = getCurrentTimestamp();
+            if (secretApiKey.isEmpty()) {
+                entries.remove(apiKey, entry);
+                markUnknown(apiKey);
+            }
+            entry.secretApiKey.complete(secretApiKey);
+        });
+    }
+
+    private void markUnknown(String apiKey) {
+        evictIfNecessary(unknownApiKeys);
+        unknownApiKeys.put(apiKey, getCurrentTimestamp());
+    }
+
+    private void evictIfNecessary() {
+        evictIfNecessary(entries);
+    }
+
+    private void evictIfNecessary(ConcurrentMap<String, ?> map) {
+        Iterator<String> iterator = map.keySet().iterator();
+        while (map.size() > maximumSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    public void invalidate(String apiKey) {
+        entries.remove(apiKey);
+        unknownApiKeys.remove(apiKey);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+        unknownApiKeys.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getNegativeHitCount() {
+        return negativeHitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getRefreshCount() {
+        return refreshCount.sum();
+    }
+
+    private static final class Entry {
+
+        private final CompletableFuture<Optional<String>> secretApiKey = new CompletableFuture<>();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long loadedAt;
+    }
+}
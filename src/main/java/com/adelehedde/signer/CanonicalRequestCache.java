@@ -0,0 +1,241 @@
+package com.adelehedde.signer;
+
+import java.text.MessageFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CanonicalRequestCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+    public static final int DEFAULT_MAXIMUM_URL_LENGTH = 2048;
+
+    private static final int MAXIMUM_STRIPES = 16;
+    private static final int MINIMUM_STRIPE_SIZE = 64;
+
+    private final int maximumSize;
+    private final int maximumUrlLength;
+    private final ConcurrentMap<CanonicalKey, CanonicalEntry> entries = new ConcurrentHashMap<>();
+    private final Stripe[] stripes;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public CanonicalRequestCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public CanonicalRequestCache(int maximumSize) {
+        this(maximumSize, DEFAULT_MAXIMUM_URL_LENGTH);
+    }
+
+    public CanonicalRequestCache(int maximumSize, int maximumUrlLength) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException(MessageFormat.format("Maximum size must be positive : {0}", maximumSize));
+        }
+        if (maximumUrlLength <= 0) {
+            throw new IllegalArgumentException(MessageFormat.format("Maximum url length must be positive : {0}", maximumUrlLength));
+        }
+        this.maximumSize = maximumSize;
+        this.maximumUrlLength = maximumUrlLength;
+        this.stripes = new Stripe[Math.min(MAXIMUM_STRIPES, Integer.highestOneBit(Math.max(1, maximumSize / MINIMUM_STRIPE_SIZE)))];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(maximumSize / stripes.length + (i < maximumSize % stripes.length ? 1 : 0));
+        }
+    }
+
+    public boolean isCacheable(String url) {
+        return url != null && url.length() <= maximumUrlLength;
+    }
+
+    public byte[] get(String hashAlgorithm, String httpMethod, String url, boolean signedHost) {
+        CanonicalEntry canonicalEntry = entries.get(new CanonicalKey(hashAlgorithm, httpMethod, url, signedHost));
+        if (canonicalEntry == null) {
+            missCount.increment();
+            return null;
+        }
+        if (!canonicalEntry.referenced) {
+            canonicalEntry.referenced = true;
+        }
+        hitCount.increment();
+        return canonicalEntry.digest;
+    }
+
+    public void put(String hashAlgorithm, String httpMethod, String url, boolean signedHost, byte[] digest) {
+        if (!isCacheable(url)) {
+            return;
+        }
+        CanonicalKey canonicalKey = new CanonicalKey(hashAlgorithm, httpMethod, url, signedHost);
+        if (entries.containsKey(canonicalKey)) {
+            return;
+        }
+        stripes[(canonicalKey.hash ^ (canonicalKey.hash >>> 16)) & (stripes.length - 1)].put(canonicalKey, digest);
+    }
+
+    void invalidate(String hashAlgorithm, String httpMethod, String url, boolean signedHost) {
+        CanonicalKey canonicalKey = new CanonicalKey(hashAlgorithm, httpMethod, url, signedHost);
+        stripes[(canonicalKey.hash ^ (canonicalKey.hash >>> 16)) & (stripes.length - 1)].remove(canonicalKey);
+    }
+
+    public void invalidateAll() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public int getMaximumUrlLength() {
+        return maximumUrlLength;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public double getHitRate() {
+        long hits = getHitCount();
+        long requests = hits + getMissCount();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CanonicalRequestCache{" +
+                "maximumSize=" + maximumSize +
+                ", maximumUrlLength=" + maximumUrlLength +
+                ", size=" + size() +
+                ", stripes=" + stripes.length +
+                ", hitCount=" + getHitCount() +
+                ", missCount=" + getMissCount() +
+                ", evictionCount=" + getEvictionCount() +
+                '}';
+    }
+
+    private static final class CanonicalKey {
+
+        private final String hashAlgorithm;
+        private final String httpMethod;
+        private final String url;
+        private final boolean signedHost;
+        private final int hash;
+
+        private CanonicalKey(String hashAlgorithm, String httpMethod, String url, boolean signedHost) {
+            this.hashAlgorithm = hashAlgorithm;
+            this.httpMethod = httpMethod;
+            this.url = url;
+            this.signedHost = signedHost;
+            int result = hashAlgorithm != null ? hashAlgorithm.hashCode() : 0;
+            result = 31 * result + (httpMethod != null ? httpMethod.hashCode() : 0);
+            result = 31 * result + (url != null ? url.hashCode() : 0);
+            this.hash = 31 * result + (signedHost ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CanonicalKey)) return false;
+
+            CanonicalKey that = (CanonicalKey) o;
+
+            if (signedHost != that.signedHost) return false;
+            if (hashAlgorithm != null ? !hashAlgorithm.equals(that.hashAlgorithm) : that.hashAlgorithm != null) return false;
+            if (httpMethod != null ? !httpMethod.equals(that.httpMethod) : that.httpMethod != null) return false;
+            return url != null ? url.equals(that.url) : that.url == null;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final class Stripe {
+
+        private final CanonicalEntry[] clock;
+        private int clockHand;
+        private int clockSize;
+
+        private Stripe(int maximumSize) {
+            this.clock = new CanonicalEntry[maximumSize];
+        }
+
+        private synchronized void put(CanonicalKey canonicalKey, byte[] digest) {
+            if (entries.containsKey(canonicalKey)) {
+                return;
+            }
+            CanonicalEntry canonicalEntry = new CanonicalEntry(canonicalKey, digest);
+            if (clockSize < clock.length) {
+                clock[clockSize++] = canonicalEntry;
+            } else {
+                clock[evict()] = canonicalEntry;
+            }
+            entries.put(canonicalKey, canonicalEntry);
+        }
+
+        private int evict() {
+            while (true) {
+                int index = clockHand;
+                clockHand = (clockHand + 1) % clock.length;
+                CanonicalEntry candidate = clock[index];
+                if (candidate.referenced) {
+                    candidate.referenced = false;
+                } else {
+                    entries.remove(candidate.key);
+                    evictionCount.increment();
+                    return index;
+                }
+            }
+        }
+
+        private synchronized void remove(CanonicalKey canonicalKey) {
+            for (int i = 0; i < clockSize; i++) {
+                if (clock[i].key.equals(canonicalKey)) {
+                    entries.remove(clock[i].key, clock[i]);
+                    clock[i] = clock[--clockSize];
+                    clock[clockSize] = null;
+                    if (clockHand >= clockSize) {
+                        clockHand = 0;
+                    }
+                    return;
+                }
+            }
+        }
+
+        private synchronized void clear() {
+            for (int i = 0; i < clockSize; i++) {
+                entries.remove(clock[i].key, clock[i]);
+                clock[i] = null;
+            }
+            clockSize = 0;
+            clockHand = 0;
+        }
+    }
+
+    private static final class CanonicalEntry {
+
+        private final CanonicalKey key;
+        private final byte[] digest;
+        private volatile boolean referenced;
+
+        private CanonicalEntry(CanonicalKey key, byte[] digest) {
+            this.key = key;
+            this.digest = digest;
+        }
+    }
+}
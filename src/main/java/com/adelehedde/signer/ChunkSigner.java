@@ -0,0 +1,91 @@
+package com.adelehedde.signer;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.text.MessageFormat;
+
+final class ChunkSigner {
+
+    static final String CHUNK_AUTHENTICATION_TYPE_SUFFIX = "-CHUNK";
+
+    private static final byte SPACE_BYTE = ' ';
+    private static final int MAXIMUM_SIGNATURE_LENGTH = 128;
+
+    private final MessageDigest messageDigest;
+    private final Mac mac;
+    private final byte[] prefix;
+    private final byte[] digest;
+    private final byte[] encodedDigest;
+    private final byte[] macBytes;
+    private final byte[] signature = new byte[MAXIMUM_SIGNATURE_LENGTH];
+    private int signatureLength;
+
+    ChunkSigner(CryptoEngine cryptoEngine, byte[] signingKey, String authenticationType, long timestamp, String seedSignature) {
+        if (seedSignature == null || seedSignature.isEmpty() || seedSignature.length() > MAXIMUM_SIGNATURE_LENGTH) {
+            throw new IllegalArgumentException(MessageFormat.format("Seed signature is not valid : {0}", seedSignature));
+        }
+        this.messageDigest = cryptoEngine.createMessageDigest();
+        this.mac = cryptoEngine.createMac(signingKey);
+        this.prefix = (authenticationType + CHUNK_AUTHENTICATION_TYPE_SUFFIX + RequestAuthenticationSchema.SPACE + timestamp + RequestAuthenticationSchema.SPACE).getBytes(StandardCharsets.US_ASCII);
+        this.digest = new byte[messageDigest.getDigestLength()];
+        this.encodedDigest = new byte[Base64Url.encodedLength(digest.length)];
+        this.macBytes = new byte[mac.getMacLength()];
+        byte[] seed = seedSignature.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(seed, 0, signature, 0, seed.length);
+        this.signatureLength = seed.length;
+    }
+
+    void update(byte[] data, int offset, int length) {
+        messageDigest.update(data, offset, length);
+    }
+
+    void update(ByteBuffer data) {
+        messageDigest.update(data);
+    }
+
+    void sign() {
+        try {
+            messageDigest.digest(digest, 0, digest.length);
+            Base64Url.encode(digest, 0, digest.length, encodedDigest, 0);
+            mac.update(prefix);
+            mac.update(signature, 0, signatureLength);
+            mac.update(SPACE_BYTE);
+            mac.update(encodedDigest);
+            mac.doFinal(macBytes, 0);
+        } catch (DigestException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to hash data : {0}", e.getMessage()), e);
+        } catch (ShortBufferException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to hash_hmac : {0}", e.getMessage()), e);
+        }
+        signatureLength = Base64Url.encode(macBytes, 0, macBytes.length, signature, 0);
+    }
+
+    int getSignatureLength() {
+        return signatureLength;
+    }
+
+    int getEncodedSignatureLength() {
+        return Base64Url.encodedLength(macBytes.length);
+    }
+
+    int writeSignature(byte[] destination, int offset) {
+        System.arraycopy(signature, 0, destination, offset, signatureLength);
+        return signatureLength;
+    }
+
+    String getSignature() {
+        return new String(signature, 0, signatureLength, StandardCharsets.US_ASCII);
+    }
+
+    boolean matches(byte[] candidate, int offset, int length) {
+        int result = signatureLength ^ length;
+        for (int i = 0; i < signatureLength; i++) {
+            result |= signature[i] ^ (i < length ? candidate[offset + i] : 0);
+        }
+        return result == 0;
+    }
+}
@@ -0,0 +1,178 @@
+package com.adelehedde.signer;
+
+import java.nio.ByteBuffer;
+import java.text.MessageFormat;
+
+public final class ChunkedPayloadDecoder {
+
+    private static final int MAXIMUM_CHUNK_SIZE_DIGITS = 8;
+
+    private final ChunkSigner chunkSigner;
+    private final byte[] chunk;
+    private final byte[] header;
+    private State state = State.HEADER;
+    private int headerLength;
+    private int signatureStart;
+    private int chunkSize;
+    private int chunkLength;
+    private int trailerPosition;
+    private int outputPosition;
+    private long chunkCount;
+
+    ChunkedPayloadDecoder(ChunkSigner chunkSigner, int maximumChunkSize) {
+        if (maximumChunkSize <= 0) {
+            throw new IllegalArgumentException(MessageFormat.format("Maximum chunk size must be positive : {0}", maximumChunkSize));
+        }
+        this.chunkSigner = chunkSigner;
+        this.chunk = new byte[maximumChunkSize];
+        this.header = new byte[MAXIMUM_CHUNK_SIZE_DIGITS + ChunkedPayloadEncoder.CHUNK_SIGNATURE_BYTES.length + chunkSigner.getEncodedSignatureLength() + ChunkedPayloadEncoder.CRLF_BYTES.length];
+    }
+
+    public int getMaximumChunkSize() {
+        return chunk.length;
+    }
+
+    public long getChunkCount() {
+        return chunkCount;
+    }
+
+    public boolean isFinished() {
+        return state == State.FINISHED;
+    }
+
+    public boolean decode(ByteBuffer source, ByteBuffer destination) {
+        while (true) {
+            switch (state) {
+                case HEADER:
+                    if (!readHeader(source)) {
+                        return false;
+                    }
+                    break;
+                case DATA:
+                    if (!readData(source)) {
+                        return false;
+                    }
+                    break;
+                case TRAILER:
+                    if (!readTrailer(source)) {
+                        return false;
+                    }
+                    break;
+                case OUTPUT:
+                    if (!writeOutput(destination)) {
+                        return false;
+                    }
+                    break;
+                case FINISHED:
+                    return true;
+            }
+        }
+    }
+
+    private boolean readHeader(ByteBuffer source) {
+        while (source.hasRemaining()) {
+            byte value = source.get();
+            if (headerLength == header.length) {
+                throw new RequestSignerException(MessageFormat.format("Chunk header is too long : chunk {0}", chunkCount));
+            }
+            header[headerLength++] = value;
+            if (value == '\n') {
+                parseHeader();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void parseHeader() {
+        int index = 0;
+        int size = 0;
+        while (index < headerLength && index <= MAXIMUM_CHUNK_SIZE_DIGITS && Character.digit(header[index], 16) >= 0) {
+            size = size << 4 | Character.digit(header[index], 16);
+            index++;
+        }
+        if (index == 0 || index > MAXIMUM_CHUNK_SIZE_DIGITS || !regionEquals(index, ChunkedPayloadEncoder.CHUNK_SIGNATURE_BYTES) || header[headerLength - 2] != '\r') {
+            throw new RequestSignerException(MessageFormat.format("Chunk header is malformed : chunk {0}", chunkCount));
+        }
+        if (size < 0 || size > chunk.length) {
+            throw new RequestSignerException(MessageFormat.format("Chunk size exceeds maximum : chunk {0}", chunkCount));
+        }
+        signatureStart = index + ChunkedPayloadEncoder.CHUNK_SIGNATURE_BYTES.length;
+        chunkSize = size;
+        chunkLength = 0;
+        trailerPosition = 0;
+        state = State.DATA;
+    }
+
+    private boolean regionEquals(int offset, byte[] value) {
+        if (headerLength - offset < value.length) {
+            return false;
+        }
+        for (int i = 0; i < value.length; i++) {
+            if (header[offset + i] != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean readData(ByteBuffer source) {
+        int length = Math.min(source.remaining(), chunkSize - chunkLength);
+        source.get(chunk, chunkLength, length);
+        chunkSigner.update(chunk, chunkLength, length);
+        chunkLength += length;
+        if (chunkLength < chunkSize) {
+            return false;
+        }
+        state = State.TRAILER;
+        return true;
+    }
+
+    private boolean readTrailer(ByteBuffer source) {
+        while (trailerPosition < ChunkedPayloadEncoder.CRLF_BYTES.length) {
+            if (!source.hasRemaining()) {
+                return false;
+            }
+            if (source.get() != ChunkedPayloadEncoder.CRLF_BYTES[trailerPosition++]) {
+                throw new RequestSignerException(MessageFormat.format("Chunk trailer is malformed : chunk {0}", chunkCount));
+            }
+        }
+        chunkSigner.sign();
+        if (!chunkSigner.matches(header, signatureStart, headerLength - 2 - signatureStart)) {
+            throw new RequestSignerException(MessageFormat.format("Chunk signature is not valid : chunk {0}", chunkCount));
+        }
+        chunkCount++;
+        headerLength = 0;
+        outputPosition = 0;
+        state = chunkSize == 0 ? State.FINISHED : State.OUTPUT;
+        return true;
+    }
+
+    private boolean writeOutput(ByteBuffer destination) {
+        int length = Math.min(destination.remaining(), chunkSize - outputPosition);
+        destination.put(chunk, outputPosition, length);
+        outputPosition += length;
+        if (outputPosition < chunkSize) {
+            return false;
+        }
+        state = State.HEADER;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkedPayloadDecoder{" +
+                "maximumChunkSize=" + chunk.length +
+                ", chunkCount=" + chunkCount +
+                ", finished=" + isFinished() +
+                '}';
+    }
+
+    private enum State {
+        HEADER,
+        DATA,
+        TRAILER,
+        OUTPUT,
+        FINISHED
+    }
+}
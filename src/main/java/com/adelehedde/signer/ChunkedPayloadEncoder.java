@@ -0,0 +1,150 @@
+package com.adelehedde.signer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+
+public final class ChunkedPayloadEncoder {
+
+    public static final String STREAMING_PAYLOAD = "STREAMING-PAYLOAD";
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    static final byte[] CHUNK_SIGNATURE_BYTES = ";chunk-signature=".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] CRLF_BYTES = {'\r', '\n'};
+
+    private static final int MAXIMUM_CHUNK_SIZE_DIGITS = 8;
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final ChunkSigner chunkSigner;
+    private final byte[] chunk;
+    private final byte[] header;
+    private int chunkLength;
+    private int headerLength;
+    private int headerPosition;
+    private int dataLength;
+    private int dataPosition;
+    private int trailerPosition;
+    private boolean pending;
+    private boolean finished;
+    private long chunkCount;
+
+    ChunkedPayloadEncoder(ChunkSigner chunkSigner, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException(MessageFormat.format("Chunk size must be positive : {0}", chunkSize));
+        }
+        this.chunkSigner = chunkSigner;
+        this.chunk = new byte[chunkSize];
+        this.header = new byte[MAXIMUM_CHUNK_SIZE_DIGITS + CHUNK_SIGNATURE_BYTES.length + chunkSigner.getEncodedSignatureLength() + CRLF_BYTES.length];
+    }
+
+    public int getChunkSize() {
+        return chunk.length;
+    }
+
+    public long getChunkCount() {
+        return chunkCount;
+    }
+
+    public boolean isFinished() {
+        return finished && !pending;
+    }
+
+    public String getSignature() {
+        return chunkSigner.getSignature();
+    }
+
+    public long encodedLength(long payloadLength) {
+        long chunks = payloadLength / chunk.length;
+        int lastChunkLength = (int) (payloadLength % chunk.length);
+        long encodedLength = chunks * frameLength(chunk.length) + frameLength(0);
+        if (lastChunkLength > 0) {
+            encodedLength += frameLength(lastChunkLength);
+        }
+        return encodedLength;
+    }
+
+    private int frameLength(int length) {
+        return hexDigits(length) + CHUNK_SIGNATURE_BYTES.length + chunkSigner.getEncodedSignatureLength() + CRLF_BYTES.length + length + CRLF_BYTES.length;
+    }
+
+    public void encode(ByteBuffer source, ByteBuffer destination) {
+        while (drain(destination) && source.hasRemaining()) {
+            if (finished) {
+                throw new IllegalStateException("Chunked payload encoder is finished");
+            }
+            int length = Math.min(source.remaining(), chunk.length - chunkLength);
+            source.get(chunk, chunkLength, length);
+            chunkLength += length;
+            if (chunkLength == chunk.length) {
+                frame();
+            }
+        }
+    }
+
+    public boolean finish(ByteBuffer destination) {
+        while (drain(destination)) {
+            if (finished) {
+                return true;
+            }
+            finished = chunkLength == 0;
+            frame();
+        }
+        return false;
+    }
+
+    private void frame() {
+        chunkSigner.update(chunk, 0, chunkLength);
+        chunkSigner.sign();
+        int digits = hexDigits(chunkLength);
+        for (int i = digits - 1, value = chunkLength; i >= 0; i--, value >>>= 4) {
+            header[i] = HEX_DIGITS[value & 0xf];
+        }
+        System.arraycopy(CHUNK_SIGNATURE_BYTES, 0, header, digits, CHUNK_SIGNATURE_BYTES.length);
+        int index = digits + CHUNK_SIGNATURE_BYTES.length;
+        index += chunkSigner.writeSignature(header, index);
+        header[index++] = '\r';
+        header[index++] = '\n';
+        headerLength = index;
+        headerPosition = 0;
+        dataLength = chunkLength;
+        dataPosition = 0;
+        trailerPosition = 0;
+        chunkLength = 0;
+        pending = true;
+        chunkCount++;
+    }
+
+    private boolean drain(ByteBuffer destination) {
+        if (!pending) {
+            return true;
+        }
+        int length = Math.min(destination.remaining(), headerLength - headerPosition);
+        destination.put(header, headerPosition, length);
+        headerPosition += length;
+        length = Math.min(destination.remaining(), dataLength - dataPosition);
+        destination.put(chunk, dataPosition, length);
+        dataPosition += length;
+        length = Math.min(destination.remaining(), CRLF_BYTES.length - trailerPosition);
+        destination.put(CRLF_BYTES, trailerPosition, length);
+        trailerPosition += length;
+        pending = trailerPosition < CRLF_BYTES.length;
+        return !pending;
+    }
+
+    private static int hexDigits(int value) {
+        int digits = 1;
+        for (int remaining = value >>> 4; remaining > 0; remaining >>>= 4) {
+            digits++;
+        }
+        return digits;
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkedPayloadEncoder{" +
+                "chunkSize=" + chunk.length +
+                ", chunkCount=" + chunkCount +
+                ", finished=" + isFinished() +
+                '}';
+    }
+}
@@ -0,0 +1,84 @@
+package com.adelehedde.signer;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConcurrentReplayCache extends AbstractReplayCache {
+
+    public static final long DEFAULT_MAXIMUM_ENTRIES = 1_000_000L;
+
+    public ConcurrentReplayCache(Duration window) {
+        this(window, DEFAULT_MAXIMUM_ENTRIES, OverflowPolicy.REJECT);
+    }
+
+    public ConcurrentReplayCache(Duration window, long maximumEntries, OverflowPolicy overflowPolicy) {
+        this(window, DEFAULT_BUCKET_WIDTH, maximumEntries, overflowPolicy);
+    }
+
+    public ConcurrentReplayCache(Duration window, Duration bucketWidth, long maximumEntries, OverflowPolicy overflowPolicy) {
+        super(window, bucketWidth, maximumEntries, overflowPolicy);
+    }
+
+    @Override
+    protected Bucket createBucket(long epoch) {
+        return new ConcurrentBucket(epoch);
+    }
+
+    private static final class ConcurrentBucket extends Bucket {
+
+        private final Set<ReplayKey> keys = ConcurrentHashMap.newKeySet();
+        private final AtomicLong size = new AtomicLong();
+
+        private ConcurrentBucket(long epoch) {
+            super(epoch);
+        }
+
+        @Override
+        protected boolean add(String apiKey, long timestamp, String signature) {
+            if (!keys.add(new ReplayKey(apiKey, timestamp, signature))) {
+                return false;
+            }
+            size.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        protected long size() {
+            return size.get();
+        }
+    }
+
+    private static final class ReplayKey {
+
+        private final String apiKey;
+        private final long timestamp;
+        private final String signature;
+        private final int hash;
+
+        private ReplayKey(String apiKey, long timestamp, String signature) {
+            this.apiKey = apiKey;
+            this.timestamp = timestamp;
+            this.signature = signature;
+            this.hash = Long.hashCode(hash(apiKey, timestamp, signature));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ReplayKey)) return false;
+
+            ReplayKey that = (ReplayKey) o;
+
+            if (timestamp != that.timestamp) return false;
+            if (!apiKey.equals(that.apiKey)) return false;
+            return signature.equals(that.signature);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
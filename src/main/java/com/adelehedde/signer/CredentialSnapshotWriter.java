@@ -0,0 +1,171 @@
+package com.adelehedde.signer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.Arrays;
+
+public final class CredentialSnapshotWriter {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INITIAL_CREDENTIALS = 16;
+
+    private final RequestSigner requestSigner;
+    private byte[] records = new byte[INITIAL_CAPACITY];
+    private int recordsLength;
+    private int[] offsets = new int[INITIAL_CREDENTIALS];
+    private int size;
+
+    public CredentialSnapshotWriter() {
+        this(new RequestSigner());
+    }
+
+    public CredentialSnapshotWriter(RequestSigner requestSigner) {
+        this.requestSigner = requestSigner;
+    }
+
+    public CredentialSnapshotWriter add(String apiKey, String secretApiKey, String apiVersion) {
+        return add(apiKey, secretApiKey, apiVersion, RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE);
+    }
+
+    public CredentialSnapshotWriter add(String apiKey, String secretApiKey, String apiVersion, String authenticationType) {
+        if (secretApiKey == null || apiVersion == null || authenticationType == null) {
+            throw new IllegalArgumentException(MessageFormat.format("Secret api key, api version and authentication type are required : {0}", apiKey));
+        }
+        return addSecretApiVersionKey(apiKey, apiVersion, authenticationType, requestSigner.computeSecretApiVersionKey(secretApiKey, apiVersion, authenticationType));
+    }
+
+    public CredentialSnapshotWriter addSecretApiVersionKey(String apiKey, String apiVersion, String authenticationType, byte[] secretApiVersionKey) {
+        checkField(apiKey);
+        checkField(apiVersion);
+        checkField(authenticationType);
+        if (secretApiVersionKey == null || secretApiVersionKey.length > CredentialStore.MAXIMUM_FIELD_LENGTH) {
+            throw new IllegalArgumentException(MessageFormat.format("Secret api version key is not valid : {0}", apiKey));
+        }
+        int recordLength = CredentialStore.RECORD_HEADER_LENGTH + apiKey.length() + apiVersion.length() + authenticationType.length() + secretApiVersionKey.length;
+        if (recordsLength + recordLength > records.length) {
+            records = Arrays.copyOf(records, Math.max(records.length * 2, recordsLength + recordLength));
+        }
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+        }
+        offsets[size++] = recordsLength;
+        int hash = CredentialStore.hash(apiKey, apiVersion, authenticationType);
+        records[recordsLength++] = (byte) (hash >>> 24);
+        records[recordsLength++] = (byte) (hash >>> 16);
+        records[recordsLength++] = (byte) (hash >>> 8);
+        records[recordsLength++] = (byte) hash;
+        records[recordsLength++] = (byte) apiKey.length();
+        records[recordsLength++] = (byte) apiVersion.length();
+        records[recordsLength++] = (byte) authenticationType.length();
+        records[recordsLength++] = (byte) secretApiVersionKey.length;
+        appendAscii(apiKey);
+        appendAscii(apiVersion);
+        appendAscii(authenticationType);
+        System.arraycopy(secretApiVersionKey, 0, records, recordsLength, secretApiVersionKey.length);
+        recordsLength += secretApiVersionKey.length;
+        return this;
+    }
+
+    private static void checkField(String value) {
+        if (value == null || value.isEmpty() || value.length() > CredentialStore.MAXIMUM_FIELD_LENGTH) {
+            throw new IllegalArgumentException(MessageFormat.format("Credential field must have between 1 and {0} characters : {1}", CredentialStore.MAXIMUM_FIELD_LENGTH, value));
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                throw new IllegalArgumentException(MessageFormat.format("Credential field must be ascii : {0}", value));
+            }
+        }
+    }
+
+    private void appendAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            records[recordsLength++] = (byte) value.charAt(i);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ByteBuffer toByteBuffer() {
+        int slotCount = Integer.highestOneBit(Math.max(2, size * 2) - 1) << 1;
+        int[] slots = new int[slotCount];
+        int credentials = 0;
+        for (int i = 0; i < size; i++) {
+            int offset = offsets[i];
+            int slot = readInt(offset) & (slotCount - 1);
+            while (slots[slot] != 0 && !sameCredential(slots[slot] - 1, offset)) {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+            if (slots[slot] == 0) {
+                credentials++;
+            }
+            slots[slot] = offset + 1;
+        }
+        int compactedLength = 0;
+        for (int slot : slots) {
+            if (slot != 0) {
+                compactedLength += recordLength(slot - 1);
+            }
+        }
+        int recordsStart = CredentialStore.HEADER_LENGTH + 4 * slotCount;
+        ByteBuffer buffer = ByteBuffer.allocate(recordsStart + compactedLength);
+        buffer.putInt(CredentialStore.MAGIC)
+                .putInt(CredentialStore.FORMAT_VERSION)
+                .putInt(credentials)
+                .putInt(slotCount)
+                .putInt(compactedLength);
+        int position = recordsStart;
+        for (int slot : slots) {
+            buffer.putInt(slot != 0 ? position : 0);
+            position += slot != 0 ? recordLength(slot - 1) : 0;
+        }
+        for (int slot : slots) {
+            if (slot != 0) {
+                buffer.put(records, slot - 1, recordLength(slot - 1));
+            }
+        }
+        return buffer.flip();
+    }
+
+    public void write(Path path) {
+        ByteBuffer buffer = toByteBuffer();
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to write credential snapshot : {0}", e.getMessage()), e);
+        }
+    }
+
+    private int readInt(int offset) {
+        return (records[offset] & 0xFF) << 24 | (records[offset + 1] & 0xFF) << 16 | (records[offset + 2] & 0xFF) << 8 | (records[offset + 3] & 0xFF);
+    }
+
+    private int recordLength(int offset) {
+        return CredentialStore.RECORD_HEADER_LENGTH + (records[offset + 4] & 0xFF) + (records[offset + 5] & 0xFF) + (records[offset + 6] & 0xFF) + (records[offset + 7] & 0xFF);
+    }
+
+    private boolean sameCredential(int offset, int other) {
+        int length = CredentialStore.RECORD_HEADER_LENGTH + (records[offset + 4] & 0xFF) + (records[offset + 5] & 0xFF) + (records[offset + 6] & 0xFF);
+        for (int i = 0; i < length; i++) {
+            if (i != 7 && records[offset + i] != records[other + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "CredentialSnapshotWriter{" +
+                "size=" + size +
+                ", recordsLength=" + recordsLength +
+                '}';
+    }
+}
@@ -0,0 +1,225 @@
+package com.adelehedde.signer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+
+public class CredentialStore {
+
+    static final int MAGIC = 0x52534353;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_LENGTH = 20;
+    static final int RECORD_HEADER_LENGTH = 8;
+    static final int MAXIMUM_FIELD_LENGTH = 255;
+
+    private static final int FNV_OFFSET_BASIS = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final Snapshot EMPTY_SNAPSHOT = new Snapshot(new CredentialSnapshotWriter(null).toByteBuffer());
+
+    private volatile Snapshot snapshot = EMPTY_SNAPSHOT;
+
+    public CredentialStore() {
+    }
+
+    public CredentialStore(ByteBuffer snapshot) {
+        swap(snapshot);
+    }
+
+    public void load(Path path) {
+        load(path, true);
+    }
+
+    public void load(Path path, boolean memoryMapped) {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = fileChannel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new RequestSignerException(MessageFormat.format("Unable to load credential snapshot : {0} is too large", path));
+            }
+            ByteBuffer buffer;
+            if (memoryMapped) {
+                buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                buffer = ByteBuffer.allocate((int) size);
+                int read = 0;
+                while (read >= 0 && buffer.hasRemaining()) {
+                    read = fileChannel.read(buffer);
+                }
+                buffer.flip();
+            }
+            swap(buffer);
+        } catch (IOException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to load credential snapshot : {0}", e.getMessage()), e);
+        }
+    }
+
+    public void swap(ByteBuffer snapshot) {
+        this.snapshot = new Snapshot(snapshot.duplicate().order(ByteOrder.BIG_ENDIAN));
+    }
+
+    public int size() {
+        return snapshot.size;
+    }
+
+    public int getSnapshotLength() {
+        return snapshot.buffer.limit();
+    }
+
+    public byte[] getSecretApiVersionKey(CharSequence apiKey, CharSequence apiVersion, CharSequence authenticationType) {
+        Snapshot current = snapshot;
+        int record = current.find(apiKey, apiVersion, authenticationType, null);
+        if (record < 0) {
+            return null;
+        }
+        byte[] secretApiVersionKey = new byte[current.secretApiVersionKeyLength(record)];
+        current.copySecretApiVersionKey(record, secretApiVersionKey, 0);
+        return secretApiVersionKey;
+    }
+
+    public int copySecretApiVersionKey(CharSequence apiKey, CharSequence apiVersion, CharSequence authenticationType, byte[] destination, int offset) {
+        Snapshot current = snapshot;
+        int record = current.find(apiKey, apiVersion, authenticationType, null);
+        return record < 0 ? -1 : current.copySecretApiVersionKey(record, destination, offset);
+    }
+
+    public int copySecretApiVersionKey(AuthorizationHeaderView authorizationHeaderView, byte[] destination, int offset) {
+        if (!authorizationHeaderView.isValid()) {
+            throw new IllegalStateException("Authorization header is not valid");
+        }
+        Snapshot current = snapshot;
+        int record = current.find(null, null, null, authorizationHeaderView);
+        return record < 0 ? -1 : current.copySecretApiVersionKey(record, destination, offset);
+    }
+
+    static int hash(CharSequence apiKey, CharSequence apiVersion, CharSequence authenticationType) {
+        int hash = hash(FNV_OFFSET_BASIS, apiKey, null, 0, apiKey.length());
+        hash = hash(hash, apiVersion, null, 0, apiVersion.length());
+        hash = hash(hash, authenticationType, null, 0, authenticationType.length());
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int hash(AuthorizationHeaderView authorizationHeaderView) {
+        int hash = hash(FNV_OFFSET_BASIS, null, authorizationHeaderView, authorizationHeaderView.getApiKeyStart(), authorizationHeaderView.getApiKeyEnd());
+        hash = hash(hash, null, authorizationHeaderView, authorizationHeaderView.getApiVersionStart(), authorizationHeaderView.getApiVersionEnd());
+        hash = hash(hash, null, authorizationHeaderView, authorizationHeaderView.getAuthenticationTypeStart(), authorizationHeaderView.getAuthenticationTypeEnd());
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int hash(int hash, CharSequence chars, AuthorizationHeaderView authorizationHeaderView, int start, int end) {
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ charAt(chars, authorizationHeaderView, i)) * FNV_PRIME;
+        }
+        return hash * FNV_PRIME;
+    }
+
+    private static int charAt(CharSequence chars, AuthorizationHeaderView authorizationHeaderView, int index) {
+        return chars != null ? chars.charAt(index) : authorizationHeaderView.charAt(index);
+    }
+
+    @Override
+    public String toString() {
+        Snapshot current = snapshot;
+        return "CredentialStore{" +
+                "size=" + current.size +
+                ", snapshotLength=" + current.buffer.limit() +
+                ", direct=" + current.buffer.isDirect() +
+                '}';
+    }
+
+    private static final class Snapshot {
+
+        private final ByteBuffer buffer;
+        private final int size;
+        private final int mask;
+
+        private Snapshot(ByteBuffer buffer) {
+            if (buffer.limit() < HEADER_LENGTH || buffer.getInt(0) != MAGIC) {
+                throw new RequestSignerException("Credential snapshot is not valid : bad header");
+            }
+            if (buffer.getInt(4) != FORMAT_VERSION) {
+                throw new RequestSignerException(MessageFormat.format("Credential snapshot is not valid : unsupported version {0}", buffer.getInt(4)));
+            }
+            int size = buffer.getInt(8);
+            int slotCount = buffer.getInt(12);
+            int recordsLength = buffer.getInt(16);
+            if (size < 0 || slotCount <= size || Integer.bitCount(slotCount) != 1 || recordsLength < 0 || (long) HEADER_LENGTH + 4L * slotCount + recordsLength != buffer.limit()) {
+                throw new RequestSignerException("Credential snapshot is not valid : bad layout");
+            }
+            int recordsStart = HEADER_LENGTH + 4 * slotCount;
+            int occupiedSlots = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                int record = buffer.getInt(HEADER_LENGTH + 4 * slot);
+                if (record == 0) {
+                    continue;
+                }
+                if (record < recordsStart || record > buffer.limit() - RECORD_HEADER_LENGTH || record + recordLength(buffer, record) > buffer.limit()) {
+                    throw new RequestSignerException(MessageFormat.format("Credential snapshot is not valid : bad record in slot {0}", slot));
+                }
+                occupiedSlots++;
+            }
+            if (occupiedSlots != size) {
+                throw new RequestSignerException("Credential snapshot is not valid : bad layout");
+            }
+            this.buffer = buffer;
+            this.size = size;
+            this.mask = slotCount - 1;
+        }
+
+        private static int recordLength(ByteBuffer buffer, int record) {
+            return RECORD_HEADER_LENGTH + (buffer.get(record + 4) & 0xFF) + (buffer.get(record + 5) & 0xFF) + (buffer.get(record + 6) & 0xFF) + (buffer.get(record + 7) & 0xFF);
+        }
+
+        private int find(CharSequence apiKey, CharSequence apiVersion, CharSequence authenticationType, AuthorizationHeaderView authorizationHeaderView) {
+            if (authorizationHeaderView == null && (apiKey == null || apiVersion == null || authenticationType == null)) {
+                return -1;
+            }
+            int hash = authorizationHeaderView != null ? hash(authorizationHeaderView) : hash(apiKey, apiVersion, authenticationType);
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int record = buffer.getInt(HEADER_LENGTH + 4 * slot);
+                if (record == 0) {
+                    return -1;
+                }
+                if (buffer.getInt(record) == hash && matches(record, apiKey, apiVersion, authenticationType, authorizationHeaderView)) {
+                    return record;
+                }
+            }
+        }
+
+        private boolean matches(int record, CharSequence apiKey, CharSequence apiVersion, CharSequence authenticationType, AuthorizationHeaderView authorizationHeaderView) {
+            int position = record + RECORD_HEADER_LENGTH;
+            if (authorizationHeaderView != null) {
+                return regionEquals(position, buffer.get(record + 4) & 0xFF, null, authorizationHeaderView, authorizationHeaderView.getApiKeyStart(), authorizationHeaderView.getApiKeyEnd())
+                        && regionEquals(position += buffer.get(record + 4) & 0xFF, buffer.get(record + 5) & 0xFF, null, authorizationHeaderView, authorizationHeaderView.getApiVersionStart(), authorizationHeaderView.getApiVersionEnd())
+                        && regionEquals(position + (buffer.get(record + 5) & 0xFF), buffer.get(record + 6) & 0xFF, null, authorizationHeaderView, authorizationHeaderView.getAuthenticationTypeStart(), authorizationHeaderView.getAuthenticationTypeEnd());
+            }
+            return regionEquals(position, buffer.get(record + 4) & 0xFF, apiKey, null, 0, apiKey.length())
+                    && regionEquals(position += buffer.get(record + 4) & 0xFF, buffer.get(record + 5) & 0xFF, apiVersion, null, 0, apiVersion.length())
+                    && regionEquals(position + (buffer.get(record + 5) & 0xFF), buffer.get(record + 6) & 0xFF, authenticationType, null, 0, authenticationType.length());
+        }
+
+        private boolean regionEquals(int position, int length, CharSequence chars, AuthorizationHeaderView authorizationHeaderView, int start, int end) {
+            if (end - start != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if ((buffer.get(position + i) & 0xFF) != charAt(chars, authorizationHeaderView, start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int secretApiVersionKeyLength(int record) {
+            return buffer.get(record + 7) & 0xFF;
+        }
+
+        private int copySecretApiVersionKey(int record, byte[] destination, int offset) {
+            int length = secretApiVersionKeyLength(record);
+            buffer.get(record + recordLength(buffer, record) - length, destination, offset, length);
+            return length;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.adelehedde.signer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.ref.WeakReference;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.text.MessageFormat;
+
+public class CryptoEngine {
+
+    private static final byte[] PROTOTYPE_KEY = new byte[]{0};
+
+    private final String hashAlgorithm;
+    private final String hashMacAlgorithm;
+    private final Provider provider;
+
+    private final ThreadLocal<MessageDigest> messageDigests = new ThreadLocal<>();
+    private final ThreadLocal<KeyedMac> macs = new ThreadLocal<>();
+
+    private volatile MessageDigest messageDigestPrototype;
+    private volatile Mac macPrototype;
+
+    public CryptoEngine(String hashAlgorithm, String hashMacAlgorithm) {
+        this(hashAlgorithm, hashMacAlgorithm, null);
+    }
+
+    public CryptoEngine(String hashAlgorithm, String hashMacAlgorithm, Provider provider) {
+        this.hashAlgorithm = hashAlgorithm;
+        this.hashMacAlgorithm = hashMacAlgorithm;
+        this.provider = provider;
+    }
+
+    public String getHashAlgorithm() {
+        return hashAlgorithm;
+    }
+
+    public String getHashMacAlgorithm() {
+        return hashMacAlgorithm;
+    }
+
+    public Provider getProvider() {
+        return provider;
+    }
+
+    public boolean supports(String hashAlgorithm, String hashMacAlgorithm) {
+        return this.hashAlgorithm.equals(hashAlgorithm) && this.hashMacAlgorithm.equals(hashMacAlgorithm);
+    }
+
+    public byte[] hash(byte[] data) {
+        try {
+            MessageDigest messageDigest = messageDigest();
+            messageDigest.update(data);
+            return messageDigest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to hash data : {0}", e.getMessage()), e);
+        }
+    }
+
+    public byte[] hashHmac(byte[] data, byte[] key) {
+        try {
+            return mac(key).doFinal(data);
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to hash_hmac : {0}", e.getMessage()), e);
+        }
+    }
+
+    public MessageDigest getMessageDigest() {
+        try {
+            return messageDigest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to get message digest : {0}", e.getMessage()), e);
+        }
+    }
+
+    public MessageDigest createMessageDigest() {
+        try {
+            return newMessageDigest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to get message digest : {0}", e.getMessage()), e);
+        }
+    }
+
+    public Mac getMac(byte[] key) {
+        try {
+            return mac(key);
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to get mac : {0}", e.getMessage()), e);
+        }
+    }
+
+    public Mac getMac(byte[] key, int offset, int length) {
+        try {
+            KeyedMac keyedMac = keyedMac();
+            keyedMac.key = null;
+            keyedMac.mac.init(new SecretKeySpec(key, offset, length, hashMacAlgorithm));
+            return keyedMac.mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to get mac : {0}", e.getMessage()), e);
+        }
+    }
+
+    public Mac createMac(byte[] key) {
+        try {
+            Mac mac = newMac();
+            mac.init(new SecretKeySpec(key, hashMacAlgorithm));
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to get mac : {0}", e.getMessage()), e);
+        }
+    }
+
+    private MessageDigest messageDigest() throws NoSuchAlgorithmException {
+        MessageDigest messageDigest = messageDigests.get();
+        if (messageDigest == null) {
+            messageDigest = newMessageDigest();
+            messageDigests.set(messageDigest);
+        } else {
+            messageDigest.reset();
+        }
+        return messageDigest;
+    }
+
+    private KeyedMac keyedMac() throws NoSuchAlgorithmException, InvalidKeyException {
+        KeyedMac keyedMac = macs.get();
+        if (keyedMac == null) {
+            keyedMac = new KeyedMac(newMac());
+            macs.set(keyedMac);
+        }
+        return keyedMac;
+    }
+
+    private Mac mac(byte[] key) throws NoSuchAlgorithmException, InvalidKeyException {
+        KeyedMac keyedMac = keyedMac();
+        keyedMac.key = null;
+        keyedMac.mac.init(new SecretKeySpec(key, hashMacAlgorithm));
+        return keyedMac.mac;
+    }
+
+    Mac getMacForImmutableKey(byte[] key) {
+        try {
+            KeyedMac keyedMac = keyedMac();
+            if (keyedMac.key != null && keyedMac.key.get() == key) {
+                keyedMac.mac.reset();
+            } else {
+                keyedMac.key = null;
+                keyedMac.mac.init(new SecretKeySpec(key, hashMacAlgorithm));
+                keyedMac.key = new WeakReference<>(key);
+            }
+            return keyedMac.mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to get mac : {0}", e.getMessage()), e);
+        }
+    }
+
+    private MessageDigest newMessageDigest() throws NoSuchAlgorithmException {
+        MessageDigest prototype = messageDigestPrototype;
+        if (prototype == null) {
+            prototype = provider != null ? MessageDigest.getInstance(hashAlgorithm, provider) : MessageDigest.getInstance(hashAlgorithm);
+            messageDigestPrototype = prototype;
+        }
+        try {
+            synchronized (prototype) {
+                return (MessageDigest) prototype.clone();
+            }
+        } catch (CloneNotSupportedException e) {
+            return provider != null ? MessageDigest.getInstance(hashAlgorithm, provider) : MessageDigest.getInstance(hashAlgorithm);
+        }
+    }
+
+    private Mac newMac() throws NoSuchAlgorithmException, InvalidKeyException {
+        Mac prototype = macPrototype;
+        if (prototype == null) {
+            prototype = provider != null ? Mac.getInstance(hashMacAlgorithm, provider) : Mac.getInstance(hashMacAlgorithm);
+            prototype.init(new SecretKeySpec(PROTOTYPE_KEY, hashMacAlgorithm));
+            macPrototype = prototype;
+        }
+        try {
+            synchronized (prototype) {
+                return (Mac) prototype.clone();
+            }
+        } catch (CloneNotSupportedException e) {
+            return provider != null ? Mac.getInstance(hashMacAlgorithm, provider) : Mac.getInstance(hashMacAlgorithm);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CryptoEngine{" +
+                "hashAlgorithm='" + hashAlgorithm + '\'' +
+                ", hashMacAlgorithm='" + hashMacAlgorithm + '\'' +
+                ", provider=" + (provider != null ? provider.getName() : null) +
+                '}';
+    }
+
+    private static final class KeyedMac {
+
+        private final Mac mac;
+        private WeakReference<byte[]> key;
+
+        private KeyedMac(Mac mac) {
+            this.mac = mac;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.adelehedde.signer;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemorySecretKeyResolver implements SecretKeyResolver {
+
+    private final Map<String, String> secretApiKeys = new ConcurrentHashMap<>();
+
+    public InMemorySecretKeyResolver() {
+    }
+
+    public InMemorySecretKeyResolver(Map<String, String> secretApiKeys) {
+        this.secretApiKeys.putAll(secretApiKeys);
+    }
+
+    public void put(String apiKey, String secretApiKey) {
+        secretApiKeys.put(apiKey, secretApiKey);
+    }
+
+    public void remove(String apiKey) {
+        secretApiKeys.remove(apiKey);
+    }
+
+    @Override
+    public CompletableFuture<Optional<String>> resolve(String apiKey) {
+        return CompletableFuture.completedFuture(Optional.ofNullable(secretApiKeys.get(apiKey)));
+    }
+}
@@ -0,0 +1,100 @@
+package com.adelehedde.signer;
+
+import java.text.MessageFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+
+    public static final int BUCKET_COUNT = Long.SIZE + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong maximum = new AtomicLong();
+
+    public void record(long durationNanos) {
+        long duration = Math.max(0L, durationNanos);
+        buckets.incrementAndGet(bucketIndex(duration));
+        count.increment();
+        total.add(duration);
+        long currentMaximum = maximum.get();
+        while (duration > currentMaximum && !maximum.compareAndSet(currentMaximum, duration)) {
+            currentMaximum = maximum.get();
+        }
+    }
+
+    static int bucketIndex(long duration) {
+        return Long.SIZE - Long.numberOfLeadingZeros(duration);
+    }
+
+    static long bucketUpperBound(int bucketIndex) {
+        return bucketIndex >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << bucketIndex) - 1;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getMaximum() {
+        return maximum.get();
+    }
+
+    public double getMean() {
+        long currentCount = getCount();
+        return currentCount == 0 ? 0 : (double) getTotal() / currentCount;
+    }
+
+    public long getBucketCount(int bucketIndex) {
+        return buckets.get(bucketIndex);
+    }
+
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException(MessageFormat.format("Percentile must be between 0 and 1 : {0}", percentile));
+        }
+        long[] snapshot = new long[BUCKET_COUNT];
+        long snapshotCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            snapshotCount += snapshot[i];
+        }
+        if (snapshotCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * snapshotCount);
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulativeCount += snapshot[i];
+            if (cumulativeCount >= rank && snapshot[i] > 0) {
+                return Math.min(bucketUpperBound(i), getMaximum());
+            }
+        }
+        return getMaximum();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        maximum.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+                "count=" + getCount() +
+                ", mean=" + getMean() +
+                ", p50=" + getPercentile(0.5) +
+                ", p99=" + getPercentile(0.99) +
+                ", maximum=" + getMaximum() +
+                '}';
+    }
+}
@@ -0,0 +1,101 @@
+package com.adelehedde.signer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.text.MessageFormat;
+
+public class PayloadDigest {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final long DEFAULT_MAPPING_SIZE = 64L * 1024 * 1024;
+
+    private final MessageDigest messageDigest;
+    private final long mappingSize;
+    private byte[] buffer;
+
+    public PayloadDigest(MessageDigest messageDigest) {
+        this(messageDigest, DEFAULT_MAPPING_SIZE);
+    }
+
+    public PayloadDigest(MessageDigest messageDigest, long mappingSize) {
+        this.messageDigest = messageDigest;
+        this.mappingSize = mappingSize;
+    }
+
+    public PayloadDigest update(byte[] data) {
+        messageDigest.update(data);
+        return this;
+    }
+
+    public PayloadDigest update(byte[] data, int offset, int length) {
+        messageDigest.update(data, offset, length);
+        return this;
+    }
+
+    public PayloadDigest update(ByteBuffer data) {
+        messageDigest.update(data);
+        return this;
+    }
+
+    public PayloadDigest update(InputStream inputStream) {
+        byte[] readBuffer = buffer();
+        try {
+            int read;
+            while ((read = inputStream.read(readBuffer)) != -1) {
+                messageDigest.update(readBuffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to hash payload : {0}", e.getMessage()), e);
+        }
+        return this;
+    }
+
+    public PayloadDigest update(ReadableByteChannel channel) {
+        ByteBuffer readBuffer = ByteBuffer.wrap(buffer());
+        try {
+            while (channel.read(readBuffer) != -1) {
+                readBuffer.flip();
+                messageDigest.update(readBuffer);
+                readBuffer.clear();
+            }
+        } catch (IOException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to hash payload : {0}", e.getMessage()), e);
+        }
+        return this;
+    }
+
+    public PayloadDigest update(Path path) {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = fileChannel.size();
+            for (long position = 0; position < size; position += mappingSize) {
+                MappedByteBuffer mappedByteBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(mappingSize, size - position));
+                messageDigest.update(mappedByteBuffer);
+            }
+        } catch (IOException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to hash payload : {0}", e.getMessage()), e);
+        }
+        return this;
+    }
+
+    public String digest() {
+        byte[] hash = messageDigest.digest();
+        byte[] encoded = new byte[Base64Url.encodedLength(hash.length)];
+        Base64Url.encode(hash, 0, hash.length, encoded, 0);
+        return new String(encoded, StandardCharsets.US_ASCII);
+    }
+
+    private byte[] buffer() {
+        if (buffer == null) {
+            buffer = new byte[DEFAULT_BUFFER_SIZE];
+        }
+        return buffer;
+    }
+}
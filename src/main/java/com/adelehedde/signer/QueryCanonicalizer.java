@@ -0,0 +1,250 @@
+package com.adelehedde.signer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+final class QueryCanonicalizer {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int INITIAL_PARAMETERS = 16;
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final boolean[] UNRESERVED = new boolean[256];
+
+    static {
+        for (int c = 'A'; c <= 'Z'; c++) {
+            UNRESERVED[c] = true;
+            UNRESERVED[c + ('a' - 'A')] = true;
+        }
+        for (int c = '0'; c <= '9'; c++) {
+            UNRESERVED[c] = true;
+        }
+        UNRESERVED['-'] = true;
+        UNRESERVED['.'] = true;
+        UNRESERVED['_'] = true;
+        UNRESERVED['~'] = true;
+    }
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int length;
+    private int[] starts = new int[INITIAL_PARAMETERS];
+    private int[] separators = new int[INITIAL_PARAMETERS];
+    private int[] ends = new int[INITIAL_PARAMETERS];
+    private int[] order = new int[INITIAL_PARAMETERS];
+    private int[] merged = new int[INITIAL_PARAMETERS];
+    private int size;
+
+    QueryCanonicalizer reset() {
+        length = 0;
+        size = 0;
+        return this;
+    }
+
+    int size() {
+        return size;
+    }
+
+    QueryCanonicalizer addRawQuery(CharSequence source, int start, int end) {
+        int index = start;
+        while (index < end) {
+            int parameterEnd = index;
+            while (parameterEnd < end && source.charAt(parameterEnd) != '&') {
+                parameterEnd++;
+            }
+            if (parameterEnd > index) {
+                int separator = index;
+                while (separator < parameterEnd && source.charAt(separator) != '=') {
+                    separator++;
+                }
+                beginParameter();
+                appendRaw(source, index, separator);
+                separators[size] = length;
+                if (separator < parameterEnd) {
+                    appendRaw(source, separator + 1, parameterEnd);
+                }
+                ends[size++] = length;
+            }
+            index = parameterEnd + 1;
+        }
+        return this;
+    }
+
+    QueryCanonicalizer add(CharSequence name, CharSequence value) {
+        beginParameter();
+        appendDecoded(name, 0, name.length());
+        separators[size] = length;
+        if (value != null) {
+            appendDecoded(value, 0, value.length());
+        }
+        ends[size++] = length;
+        return this;
+    }
+
+    QueryCanonicalizer add(QueryParameters queryParameters) {
+        if (queryParameters != null) {
+            for (int i = 0; i < queryParameters.size(); i++) {
+                add(queryParameters.getName(i), queryParameters.getValue(i));
+            }
+        }
+        return this;
+    }
+
+    void writeTo(SigningBuffer signingBuffer) {
+        sort();
+        for (int i = 0; i < size; i++) {
+            int parameter = order[i];
+            if (i > 0) {
+                signingBuffer.append((byte) '&');
+            }
+            signingBuffer.append(bytes, starts[parameter], separators[parameter] - starts[parameter])
+                    .append((byte) '=')
+                    .append(bytes, separators[parameter], ends[parameter] - separators[parameter]);
+        }
+    }
+
+    StringBuilder appendTo(StringBuilder destination) {
+        sort();
+        for (int i = 0; i < size; i++) {
+            int parameter = order[i];
+            if (i > 0) {
+                destination.append('&');
+            }
+            appendAscii(destination, starts[parameter], separators[parameter]);
+            destination.append('=');
+            appendAscii(destination, separators[parameter], ends[parameter]);
+        }
+        return destination;
+    }
+
+    private void appendAscii(StringBuilder destination, int start, int end) {
+        for (int i = start; i < end; i++) {
+            destination.append((char) bytes[i]);
+        }
+    }
+
+    private void beginParameter() {
+        if (size == starts.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            separators = Arrays.copyOf(separators, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            order = new int[capacity];
+            merged = new int[capacity];
+        }
+        starts[size] = length;
+    }
+
+    private void appendRaw(CharSequence source, int start, int end) {
+        int index = start;
+        while (index < end) {
+            char c = source.charAt(index++);
+            if (c == '%' && index + 1 < end && hexValue(source.charAt(index)) >= 0 && hexValue(source.charAt(index + 1)) >= 0) {
+                encode(hexValue(source.charAt(index)) << 4 | hexValue(source.charAt(index + 1)));
+                index += 2;
+            } else if (c == '+') {
+                encode(' ');
+            } else if (c < 0x80) {
+                encode(c);
+            } else {
+                index = encodeNonAscii(source, c, index, end);
+            }
+        }
+    }
+
+    private void appendDecoded(CharSequence source, int start, int end) {
+        int index = start;
+        while (index < end) {
+            char c = source.charAt(index++);
+            if (c < 0x80) {
+                encode(c);
+            } else {
+                index = encodeNonAscii(source, c, index, end);
+            }
+        }
+    }
+
+    private int encodeNonAscii(CharSequence source, char c, int index, int end) {
+        if (c < 0x800) {
+            encode(0xc0 | (c >> 6));
+            encode(0x80 | (c & 0x3f));
+        } else if (Character.isSurrogate(c)) {
+            if (Character.isHighSurrogate(c) && index < end && Character.isLowSurrogate(source.charAt(index))) {
+                int codePoint = Character.toCodePoint(c, source.charAt(index++));
+                encode(0xf0 | (codePoint >> 18));
+                encode(0x80 | ((codePoint >> 12) & 0x3f));
+                encode(0x80 | ((codePoint >> 6) & 0x3f));
+                encode(0x80 | (codePoint & 0x3f));
+            } else {
+                encode('?');
+            }
+        } else {
+            encode(0xe0 | (c >> 12));
+            encode(0x80 | ((c >> 6) & 0x3f));
+            encode(0x80 | (c & 0x3f));
+        }
+        return index;
+    }
+
+    private void encode(int value) {
+        if (length + 3 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        if (UNRESERVED[value]) {
+            bytes[length++] = (byte) value;
+        } else {
+            bytes[length++] = '%';
+            bytes[length++] = HEX[value >> 4];
+            bytes[length++] = HEX[value & 0xf];
+        }
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+
+    private void sort() {
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        for (int width = 1; width < size; width *= 2) {
+            for (int low = 0; low < size; low += 2 * width) {
+                int middle = Math.min(low + width, size);
+                int high = Math.min(low + 2 * width, size);
+                int left = low;
+                int right = middle;
+                int index = low;
+                while (left < middle && right < high) {
+                    merged[index++] = compareNames(order[right], order[left]) < 0 ? order[right++] : order[left++];
+                }
+                while (left < middle) {
+                    merged[index++] = order[left++];
+                }
+                while (right < high) {
+                    merged[index++] = order[right++];
+                }
+            }
+            int[] sorted = merged;
+            merged = order;
+            order = sorted;
+        }
+    }
+
+    private int compareNames(int parameter, int other) {
+        int length = Math.min(separators[parameter] - starts[parameter], separators[other] - starts[other]);
+        for (int i = 0; i < length; i++) {
+            int comparison = bytes[starts[parameter] + i] - bytes[starts[other] + i];
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return (separators[parameter] - starts[parameter]) - (separators[other] - starts[other]);
+    }
+}
@@ -0,0 +1,105 @@
+package com.adelehedde.signer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class QueryParameters {
+
+    private final List<String> names = new ArrayList<>();
+    private final List<String> values = new ArrayList<>();
+
+    public static QueryParameters parse(CharSequence query) {
+        QueryParameters queryParameters = new QueryParameters();
+        int index = 0;
+        while (index < query.length()) {
+            int parameterEnd = index;
+            while (parameterEnd < query.length() && query.charAt(parameterEnd) != '&') {
+                parameterEnd++;
+            }
+            if (parameterEnd > index) {
+                int separator = index;
+                while (separator < parameterEnd && query.charAt(separator) != '=') {
+                    separator++;
+                }
+                queryParameters.add(decode(query, index, separator), separator < parameterEnd ? decode(query, separator + 1, parameterEnd) : null);
+            }
+            index = parameterEnd + 1;
+        }
+        return queryParameters;
+    }
+
+    private static String decode(CharSequence query, int start, int end) {
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream(end - start);
+        int index = start;
+        while (index < end) {
+            char c = query.charAt(index++);
+            if (c == '%' && index + 1 < end && Character.digit(query.charAt(index), 16) >= 0 && Character.digit(query.charAt(index + 1), 16) >= 0) {
+                decoded.write(Character.digit(query.charAt(index), 16) << 4 | Character.digit(query.charAt(index + 1), 16));
+                index += 2;
+            } else if (c == '+') {
+                decoded.write(' ');
+            } else if (c < 0x80) {
+                decoded.write(c);
+            } else {
+                int codePointEnd = Character.isHighSurrogate(c) && index < end ? index + 1 : index;
+                byte[] bytes = query.subSequence(index - 1, codePointEnd).toString().getBytes(StandardCharsets.UTF_8);
+                decoded.write(bytes, 0, bytes.length);
+                index = codePointEnd;
+            }
+        }
+        return new String(decoded.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    public QueryParameters add(String name, String value) {
+        if (name == null) {
+            throw new IllegalArgumentException("Query parameter name must not be null");
+        }
+        names.add(name);
+        values.add(value);
+        return this;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public String getName(int index) {
+        return names.get(index);
+    }
+
+    public String getValue(int index) {
+        return values.get(index);
+    }
+
+    public String toCanonicalQuery() {
+        return new QueryCanonicalizer().add(this).appendTo(new StringBuilder()).toString();
+    }
+
+    @Override
+    public String toString() {
+        return "QueryParameters{" +
+                "names=" + names +
+                ", values=" + values +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof QueryParameters)) return false;
+
+        QueryParameters that = (QueryParameters) o;
+
+        if (names != null ? !names.equals(that.names) : that.names != null) return false;
+        return values != null ? values.equals(that.values) : that.values == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = names != null ? names.hashCode() : 0;
+        result = 31 * result + (values != null ? values.hashCode() : 0);
+        return result;
+    }
+}
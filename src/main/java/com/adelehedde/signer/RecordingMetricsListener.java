@@ -0,0 +1,119 @@
+package com.adelehedde.signer;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RecordingMetricsListener implements SigningMetricsListener {
+
+    private final Map<SigningStage, LatencyHistogram> latencyHistograms = new EnumMap<>(SigningStage.class);
+    private final Map<RequestVerificationResult, LongAdder> verificationCounts = new EnumMap<>(RequestVerificationResult.class);
+    private final ConcurrentMap<Class<? extends Throwable>, LongAdder> failureCounts = new ConcurrentHashMap<>();
+    private final LongAdder signatureCount = new LongAdder();
+    private final LongAdder signingKeyCacheHitCount = new LongAdder();
+    private final LongAdder signingKeyCacheMissCount = new LongAdder();
+    private final LongAdder canonicalRequestCacheHitCount = new LongAdder();
+    private final LongAdder canonicalRequestCacheMissCount = new LongAdder();
+
+    public RecordingMetricsListener() {
+        for (SigningStage signingStage : SigningStage.values()) {
+            latencyHistograms.put(signingStage, new LatencyHistogram());
+        }
+        for (RequestVerificationResult requestVerificationResult : RequestVerificationResult.values()) {
+            verificationCounts.put(requestVerificationResult, new LongAdder());
+        }
+    }
+
+    @Override
+    public void onStage(SigningStage signingStage, long durationNanos) {
+        latencyHistograms.get(signingStage).record(durationNanos);
+    }
+
+    @Override
+    public void onSignature() {
+        signatureCount.increment();
+    }
+
+    @Override
+    public void onFailure(RequestSignerException exception) {
+        Class<? extends Throwable> cause = exception.getCause() != null ? exception.getCause().getClass() : exception.getClass();
+        failureCounts.computeIfAbsent(cause, key -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void onSigningKeyCacheAccess(boolean hit) {
+        if (hit) {
+            signingKeyCacheHitCount.increment();
+        } else {
+            signingKeyCacheMissCount.increment();
+        }
+    }
+
+    @Override
+    public void onCanonicalRequestCacheAccess(boolean hit) {
+        if (hit) {
+            canonicalRequestCacheHitCount.increment();
+        } else {
+            canonicalRequestCacheMissCount.increment();
+        }
+    }
+
+    @Override
+    public void onVerification(RequestVerificationResult requestVerificationResult) {
+        verificationCounts.get(requestVerificationResult).increment();
+    }
+
+    public LatencyHistogram getLatencyHistogram(SigningStage signingStage) {
+        return latencyHistograms.get(signingStage);
+    }
+
+    public long getSignatureCount() {
+        return signatureCount.sum();
+    }
+
+    public long getFailureCount() {
+        return failureCounts.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public Map<Class<? extends Throwable>, Long> getFailureCounts() {
+        Map<Class<? extends Throwable>, Long> counts = new HashMap<>();
+        failureCounts.forEach((cause, count) -> counts.put(cause, count.sum()));
+        return counts;
+    }
+
+    public long getSigningKeyCacheHitCount() {
+        return signingKeyCacheHitCount.sum();
+    }
+
+    public long getSigningKeyCacheMissCount() {
+        return signingKeyCacheMissCount.sum();
+    }
+
+    public long getCanonicalRequestCacheHitCount() {
+        return canonicalRequestCacheHitCount.sum();
+    }
+
+    public long getCanonicalRequestCacheMissCount() {
+        return canonicalRequestCacheMissCount.sum();
+    }
+
+    public long getVerificationCount(RequestVerificationResult requestVerificationResult) {
+        return verificationCounts.get(requestVerificationResult).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "RecordingMetricsListener{" +
+                "latencyHistograms=" + latencyHistograms +
+                ", signatureCount=" + getSignatureCount() +
+                ", failureCounts=" + getFailureCounts() +
+                ", signingKeyCacheHitCount=" + getSigningKeyCacheHitCount() +
+                ", signingKeyCacheMissCount=" + getSigningKeyCacheMissCount() +
+                ", canonicalRequestCacheHitCount=" + getCanonicalRequestCacheHitCount() +
+                ", canonicalRequestCacheMissCount=" + getCanonicalRequestCacheMissCount() +
+                '}';
+    }
+}
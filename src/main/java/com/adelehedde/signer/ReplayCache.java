@@ -0,0 +1,13 @@
+package com.adelehedde.signer;
+
+public interface ReplayCache {
+
+    boolean register(String apiKey, long timestamp, String signature, long currentTimestamp);
+
+    long size();
+
+    enum OverflowPolicy {
+        REJECT,
+        ACCEPT
+    }
+}
@@ -10,7 +10,11 @@ public class RequestAuthenticationSchema {
 
     public static final String API_KEY = "ApiKey";
     public static final String API_VERSION = "ApiVersion";
+    public static final String KEY_ID = "KeyId";
     public static final String SIGNED_HOST = "SignedHost";
+    public static final String SIGNED_PAYLOAD = "SignedPayload";
+    public static final String SIGNED_HEADERS = "SignedHeaders";
+    public static final String CANONICAL_QUERY = "CanonicalQuery";
     public static final String TIMESTAMP = "Timestamp";
     public static final String SIGNATURE = "Signature";
 
@@ -21,9 +25,14 @@ public class RequestAuthenticationSchema {
     private String authenticationType;
     private String apiKey;
     private String apiVersion;
+    private String keyId;
     private boolean signedHost;
+    private boolean signedPayload;
+    private SignedHeaders signedHeaders;
+    private boolean canonicalQuery;
     private long timestamp;
     private String signature;
+    private AuthorizationHeader.Prefix authorizationHeaderPrefix;
     private String authorizationHeader;
 
     public RequestAuthenticationSchema() {
@@ -33,74 +42,159 @@ public class RequestAuthenticationSchema {
         this.authenticationType = requestSignerParameters.getAuthenticationType();
         this.apiKey = requestSignerParameters.getApiKey();
         this.apiVersion = requestSignerParameters.getApiVersion();
+        this.keyId = requestSignerParameters.getKeyId();
         this.signedHost = requestSignerParameters.isSignedHost();
+        this.signedPayload = requestSignerParameters.isSignedPayload();
+        this.signedHeaders = requestSignerParameters.getSignedHeaders();
+        this.canonicalQuery = requestSignerParameters.isCanonicalQuery();
         this.timestamp = timestamp;
         this.signature = signature;
-        this.authorizationHeader = computeAuthorizationHeader();
+        this.authorizationHeaderPrefix = requestSignerParameters.getAuthorizationHeaderPrefix();
     }
 
-    private String computeAuthorizationHeader() {
-        return new StringBuilder()
-                .append(authenticationType)
-                .append(SPACE)
-                .append(API_KEY).append(KEY_VALUE_SEPARATOR).append(apiKey).append(COMPONENT_SEPARATOR)
-                .append(API_VERSION).append(KEY_VALUE_SEPARATOR).append(apiVersion).append(COMPONENT_SEPARATOR)
-                .append(SIGNED_HOST).append(KEY_VALUE_SEPARATOR).append(signedHost).append(COMPONENT_SEPARATOR)
-                .append(TIMESTAMP).append(KEY_VALUE_SEPARATOR).append(timestamp).append(COMPONENT_SEPARATOR)
-                .append(SIGNATURE).append(KEY_VALUE_SEPARATOR).append(signature)
-                .toString();
+    public RequestAuthenticationSchema(AuthorizationHeader authorizationHeader) {
+        this.authenticationType = authorizationHeader.getAuthenticationType();
+        this.apiKey = authorizationHeader.getApiKey();
+        this.apiVersion = authorizationHeader.getApiVersion();
+        this.keyId = authorizationHeader.getKeyId();
+        this.signedHost = authorizationHeader.isSignedHost();
+        this.signedPayload = authorizationHeader.isSignedPayload();
+        this.signedHeaders = authorizationHeader.getSignedHeaders();
+        this.canonicalQuery = authorizationHeader.isCanonicalQuery();
+        this.timestamp = authorizationHeader.getTimestamp();
+        this.signature = authorizationHeader.getSignature();
+        this.authorizationHeaderPrefix = authorizationHeader.getPrefix();
+    }
+
+    RequestAuthenticationSchema(String authenticationType, String apiKey, String apiVersion, String keyId, boolean signedHost, boolean signedPayload, SignedHeaders signedHeaders, boolean canonicalQuery, long timestamp, String signature) {
+        this.authenticationType = authenticationType;
+        this.apiKey = apiKey;
+        this.apiVersion = apiVersion;
+        this.keyId = keyId;
+        this.signedHost = signedHost;
+        this.signedPayload = signedPayload;
+        this.signedHeaders = signedHeaders;
+        this.canonicalQuery = canonicalQuery;
+        this.timestamp = timestamp;
+        this.signature = signature;
+    }
+
+    public AuthorizationHeader toAuthorizationHeader() {
+        AuthorizationHeader.Prefix prefix = authorizationHeaderPrefix;
+        if (prefix == null || !prefix.matches(this)) {
+            prefix = AuthorizationHeader.Prefix.of(this);
+            authorizationHeaderPrefix = prefix;
+        }
+        return new AuthorizationHeader(prefix, timestamp, signature);
     }
 
     public String getAuthenticationType() {
         return authenticationType;
     }
 
+    @Deprecated
     public void setAuthenticationType(String authenticationType) {
         this.authenticationType = authenticationType;
+        this.authorizationHeader = null;
     }
 
     public String getApiKey() {
         return apiKey;
     }
 
+    @Deprecated
     public void setApiKey(String apiKey) {
         this.apiKey = apiKey;
+        this.authorizationHeader = null;
     }
 
     public String getApiVersion() {
         return apiVersion;
     }
 
+    @Deprecated
     public void setApiVersion(String apiVersion) {
         this.apiVersion = apiVersion;
+        this.authorizationHeader = null;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    @Deprecated
+    public void setKeyId(String keyId) {
+        this.keyId = keyId;
+        this.authorizationHeader = null;
     }
 
     public boolean isSignedHost() {
         return signedHost;
     }
 
+    @Deprecated
     public void setSignedHost(boolean signedHost) {
         this.signedHost = signedHost;
+        this.authorizationHeader = null;
+    }
+
+    public boolean isSignedPayload() {
+        return signedPayload;
+    }
+
+    @Deprecated
+    public void setSignedPayload(boolean signedPayload) {
+        this.signedPayload = signedPayload;
+        this.authorizationHeader = null;
+    }
+
+    public SignedHeaders getSignedHeaders() {
+        return signedHeaders;
+    }
+
+    @Deprecated
+    public void setSignedHeaders(SignedHeaders signedHeaders) {
+        this.signedHeaders = signedHeaders;
+        this.authorizationHeader = null;
+    }
+
+    public boolean isCanonicalQuery() {
+        return canonicalQuery;
+    }
+
+    @Deprecated
+    public void setCanonicalQuery(boolean canonicalQuery) {
+        this.canonicalQuery = canonicalQuery;
+        this.authorizationHeader = null;
     }
 
     public long getTimestamp() {
         return timestamp;
     }
 
+    @Deprecated
     public void setTimestamp(long timestamp) {
         this.timestamp = timestamp;
+        this.authorizationHeader = null;
     }
 
     public String getSignature() {
         return signature;
     }
 
+    @Deprecated
     public void setSignature(String signature) {
         this.signature = signature;
+        this.authorizationHeader = null;
     }
 
     public String getAuthorizationHeader() {
-        return authorizationHeader;
+        String currentAuthorizationHeader = authorizationHeader;
+        if (currentAuthorizationHeader == null && signature != null) {
+            currentAuthorizationHeader = toAuthorizationHeader().getValue();
+            authorizationHeader = currentAuthorizationHeader;
+        }
+        return currentAuthorizationHeader;
     }
 
     public void setAuthorizationHeader(String authorizationHeader) {
@@ -113,10 +207,13 @@ public class RequestAuthenticationSchema {
                 "authenticationType='" + authenticationType + '\'' +
                 ", apiKey='" + apiKey + '\'' +
                 ", apiVersion='" + apiVersion + '\'' +
+                ", keyId='" + keyId + '\'' +
                 ", signedHost=" + signedHost +
+                ", signedPayload=" + signedPayload +
+                ", signedHeaders=" + signedHeaders +
+                ", canonicalQuery=" + canonicalQuery +
                 ", timestamp=" + timestamp +
                 ", signature='" + signature + '\'' +
-                ", authorizationHeader='" + authorizationHeader + '\'' +
                 '}';
     }
 
@@ -128,12 +225,15 @@ public class RequestAuthenticationSchema {
         RequestAuthenticationSchema that = (RequestAuthenticationSchema) o;
 
         if (signedHost != that.signedHost) return false;
+        if (signedPayload != that.signedPayload) return false;
+        if (canonicalQuery != that.canonicalQuery) return false;
         if (timestamp != that.timestamp) return false;
         if (authenticationType != null ? !authenticationType.equals(that.authenticationType) : that.authenticationType != null) return false;
         if (apiKey != null ? !apiKey.equals(that.apiKey) : that.apiKey != null) return false;
         if (apiVersion != null ? !apiVersion.equals(that.apiVersion) : that.apiVersion != null) return false;
-        if (signature != null ? !signature.equals(that.signature) : that.signature != null) return false;
-        return authorizationHeader != null ? authorizationHeader.equals(that.authorizationHeader) : that.authorizationHeader == null;
+        if (keyId != null ? !keyId.equals(that.keyId) : that.keyId != null) return false;
+        if (signedHeaders != null ? !signedHeaders.equals(that.signedHeaders) : that.signedHeaders != null) return false;
+        return signature != null ? signature.equals(that.signature) : that.signature == null;
     }
 
     @Override
@@ -141,10 +241,13 @@ public class RequestAuthenticationSchema {
         int result = authenticationType != null ? authenticationType.hashCode() : 0;
         result = 31 * result + (apiKey != null ? apiKey.hashCode() : 0);
         result = 31 * result + (apiVersion != null ? apiVersion.hashCode() : 0);
+        result = 31 * result + (keyId != null ? keyId.hashCode() : 0);
         result = 31 * result + (signedHost ? 1 : 0);
+        result = 31 * result + (signedPayload ? 1 : 0);
+        result = 31 * result + (signedHeaders != null ? signedHeaders.hashCode() : 0);
+        result = 31 * result + (canonicalQuery ? 1 : 0);
         result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
         result = 31 * result + (signature != null ? signature.hashCode() : 0);
-        result = 31 * result + (authorizationHeader != null ? authorizationHeader.hashCode() : 0);
         return result;
     }
 }
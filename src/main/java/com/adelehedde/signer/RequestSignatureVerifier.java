@@ -0,0 +1,421 @@
+package com.adelehedde.signer;
+
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+public class RequestSignatureVerifier {
+
+    public static final Duration DEFAULT_TIMESTAMP_TOLERANCE = Duration.ofMinutes(5);
+
+    private static final ThreadLocal<byte[]> SECRET_API_VERSION_KEYS = ThreadLocal.withInitial(() -> new byte[CredentialStore.MAXIMUM_FIELD_LENGTH]);
+
+    private final RequestSigner requestSigner;
+    private final CredentialResolver credentialResolver;
+    private final long timestampTolerance;
+    private final ReplayCache replayCache;
+
+    public RequestSignatureVerifier(Function<String, String> secretApiKeyProvider) {
+        this(new RequestSigner(), secretApiKeyProvider, DEFAULT_TIMESTAMP_TOLERANCE);
+    }
+
+    public RequestSignatureVerifier(SecretKeyResolver secretKeyResolver) {
+        this(new RequestSigner(), secretKeyResolver, DEFAULT_TIMESTAMP_TOLERANCE, null);
+    }
+
+    public RequestSignatureVerifier(SecretKeyRing secretKeyRing) {
+        this(new RequestSigner(), secretKeyRing, DEFAULT_TIMESTAMP_TOLERANCE, null);
+    }
+
+    public RequestSignatureVerifier(CredentialStore credentialStore) {
+        this(new RequestSigner(), credentialStore, DEFAULT_TIMESTAMP_TOLERANCE, null);
+    }
+
+    public RequestSignatureVerifier(RequestSigner requestSigner, Function<String, String> secretApiKeyProvider, Duration timestampTolerance) {
+        this(requestSigner, secretApiKeyProvider, timestampTolerance, null);
+    }
+
+    public RequestSignatureVerifier(RequestSigner requestSigner, Function<String, String> secretApiKeyProvider, Duration timestampTolerance, ReplayCache replayCache) {
+        this(requestSigner, new SecretApiKeyProviderResolver(secretApiKeyProvider), timestampTolerance, replayCache);
+    }
+
+    public RequestSignatureVerifier(RequestSigner requestSigner, SecretKeyResolver secretKeyResolver, Duration timestampTolerance, ReplayCache replayCache) {
+        this(requestSigner, new SecretKeyResolverResolver(secretKeyResolver), timestampTolerance, replayCache);
+    }
+
+    public RequestSignatureVerifier(RequestSigner requestSigner, SecretKeyRing secretKeyRing, Duration timestampTolerance, ReplayCache replayCache) {
+        this(requestSigner, new SecretKeyRingResolver(secretKeyRing), timestampTolerance, replayCache);
+    }
+
+    public RequestSignatureVerifier(RequestSigner requestSigner, CredentialStore credentialStore, Duration timestampTolerance, ReplayCache replayCache) {
+        this(requestSigner, new CredentialStoreResolver(credentialStore), timestampTolerance, replayCache);
+    }
+
+    private RequestSignatureVerifier(RequestSigner requestSigner, CredentialResolver credentialResolver, Duration timestampTolerance, ReplayCache replayCache) {
+        if (timestampTolerance.isNegative()) {
+            throw new IllegalArgumentException(MessageFormat.format("Timestamp tolerance must not be negative : {0}", timestampTolerance));
+        }
+        this.requestSigner = requestSigner;
+        this.credentialResolver = credentialResolver;
+        this.timestampTolerance = timestampTolerance.toMillis();
+        this.replayCache = replayCache;
+    }
+
+    public RequestSigner getRequestSigner() {
+        return requestSigner;
+    }
+
+    public Duration getTimestampTolerance() {
+        return Duration.ofMillis(timestampTolerance);
+    }
+
+    public ReplayCache getReplayCache() {
+        return replayCache;
+    }
+
+    public SecretKeyRing getSecretKeyRing() {
+        return credentialResolver.getSecretKeyRing();
+    }
+
+    public CredentialStore getCredentialStore() {
+        return credentialResolver.getCredentialStore();
+    }
+
+    public ChunkedPayloadDecoder newChunkedPayloadDecoder(RequestAuthenticationSchema requestAuthenticationSchema) {
+        return newChunkedPayloadDecoder(requestAuthenticationSchema, ChunkedPayloadEncoder.DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedPayloadDecoder newChunkedPayloadDecoder(RequestAuthenticationSchema requestAuthenticationSchema, int maximumChunkSize) {
+        return credentialResolver.newChunkedPayloadDecoder(this, requestAuthenticationSchema, maximumChunkSize);
+    }
+
+    private ChunkedPayloadDecoder newChunkedPayloadDecoder(RequestAuthenticationSchema requestAuthenticationSchema, String secretApiKey, int maximumChunkSize) {
+        if (secretApiKey == null) {
+            throw new RequestSignerException(MessageFormat.format("Unknown api key : {0}", requestAuthenticationSchema.getApiKey()));
+        }
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters(requestAuthenticationSchema.getApiKey(), secretApiKey, requestAuthenticationSchema.getApiVersion(), requestAuthenticationSchema.isSignedHost(), requestAuthenticationSchema.getAuthenticationType());
+        return requestSigner.newChunkedPayloadDecoder(requestAuthenticationSchema, requestSignerParameters, maximumChunkSize);
+    }
+
+    protected long getCurrentTimestamp() {
+        return Instant.now().toEpochMilli();
+    }
+
+    public RequestVerificationResult verify(RequestAuthenticationSchema requestAuthenticationSchema, String httpMethod, String url) {
+        return verify(requestAuthenticationSchema, new SignableRequest(httpMethod, url), getCurrentTimestamp());
+    }
+
+    public RequestVerificationResult verify(RequestAuthenticationSchema requestAuthenticationSchema, String httpMethod, String url, long currentTimestamp) {
+        return verify(requestAuthenticationSchema, new SignableRequest(httpMethod, url), currentTimestamp);
+    }
+
+    public RequestVerificationResult verify(RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest) {
+        return verify(requestAuthenticationSchema, signableRequest, getCurrentTimestamp());
+    }
+
+    public RequestVerificationResult verify(RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest, long currentTimestamp) {
+        long start = startVerification();
+        RequestVerificationResult result = verifyRequest(requestAuthenticationSchema, signableRequest, currentTimestamp);
+        if (result == null) {
+            result = credentialResolver.verify(this, requestAuthenticationSchema, signableRequest, currentTimestamp);
+        }
+        return endVerification(result, start);
+    }
+
+    public RequestVerificationResult verify(AuthorizationHeaderView authorizationHeaderView, SignableRequest signableRequest) {
+        return verify(authorizationHeaderView, signableRequest, getCurrentTimestamp());
+    }
+
+    public RequestVerificationResult verify(AuthorizationHeaderView authorizationHeaderView, SignableRequest signableRequest, long currentTimestamp) {
+        if (!authorizationHeaderView.isValid()) {
+            return endVerification(RequestVerificationResult.MALFORMED_REQUEST, startVerification());
+        }
+        if (!isTimestampValid(authorizationHeaderView.getTimestamp(), currentTimestamp)) {
+            return endVerification(RequestVerificationResult.EXPIRED_TIMESTAMP, startVerification());
+        }
+        return verify(authorizationHeaderView.toRequestAuthenticationSchema(), signableRequest, currentTimestamp);
+    }
+
+    public CompletableFuture<RequestVerificationResult> verifyAsync(RequestAuthenticationSchema requestAuthenticationSchema, String httpMethod, String url) {
+        return verifyAsync(requestAuthenticationSchema, new SignableRequest(httpMethod, url), getCurrentTimestamp());
+    }
+
+    public CompletableFuture<RequestVerificationResult> verifyAsync(RequestAuthenticationSchema requestAuthenticationSchema, String httpMethod, String url, long currentTimestamp) {
+        return verifyAsync(requestAuthenticationSchema, new SignableRequest(httpMethod, url), currentTimestamp);
+    }
+
+    public CompletableFuture<RequestVerificationResult> verifyAsync(RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest) {
+        return verifyAsync(requestAuthenticationSchema, signableRequest, getCurrentTimestamp());
+    }
+
+    public CompletableFuture<RequestVerificationResult> verifyAsync(RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest, long currentTimestamp) {
+        long start = startVerification();
+        RequestVerificationResult result = verifyRequest(requestAuthenticationSchema, signableRequest, currentTimestamp);
+        if (result != null) {
+            return CompletableFuture.completedFuture(endVerification(result, start));
+        }
+        return credentialResolver.verifyAsync(this, requestAuthenticationSchema, signableRequest, currentTimestamp)
+                .thenApply(verificationResult -> endVerification(verificationResult, start));
+    }
+
+    private long startVerification() {
+        return requestSigner.getMetricsListener() != null ? System.nanoTime() : 0L;
+    }
+
+    private RequestVerificationResult endVerification(RequestVerificationResult result, long start) {
+        SigningMetricsListener metricsListener = requestSigner.getMetricsListener();
+        if (metricsListener != null) {
+            metricsListener.onStage(SigningStage.VERIFY_REQUEST, System.nanoTime() - start);
+            metricsListener.onVerification(result);
+        }
+        return result;
+    }
+
+    private static String resolveSecretApiKey(SecretKeyResolver secretKeyResolver, String apiKey) {
+        try {
+            return secretKeyResolver.resolve(apiKey).join().orElse(null);
+        } catch (CompletionException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to resolve secret api key : {0}", e.getCause().getMessage()), e.getCause());
+        }
+    }
+
+    private RequestVerificationResult verifyRequest(RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest, long currentTimestamp) {
+        if (!isWellFormed(requestAuthenticationSchema, signableRequest)) {
+            return RequestVerificationResult.MALFORMED_REQUEST;
+        }
+        if (!isTimestampValid(requestAuthenticationSchema.getTimestamp(), currentTimestamp)) {
+            return RequestVerificationResult.EXPIRED_TIMESTAMP;
+        }
+        return null;
+    }
+
+    private RequestVerificationResult verifySecretKeyRing(SecretKeyRing secretKeyRing, RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest, long currentTimestamp) {
+        if (requestAuthenticationSchema.getKeyId() != null) {
+            String secretApiKey = secretKeyRing.getSecretApiKey(requestAuthenticationSchema.getApiKey(), requestAuthenticationSchema.getKeyId());
+            return verifySecretApiKey(requestAuthenticationSchema, signableRequest, secretApiKey, currentTimestamp);
+        }
+        List<String> secretApiKeys = secretKeyRing.getTrialSecretApiKeys(requestAuthenticationSchema.getApiKey());
+        if (secretApiKeys.isEmpty() && secretKeyRing.getPrimarySecretApiKey(requestAuthenticationSchema.getApiKey()) == null) {
+            return RequestVerificationResult.UNKNOWN_API_KEY;
+        }
+        RequestVerificationResult result = RequestVerificationResult.INVALID_SIGNATURE;
+        for (String secretApiKey : secretApiKeys) {
+            result = verifySignature(requestAuthenticationSchema, signableRequest, secretApiKey);
+            if (result != RequestVerificationResult.INVALID_SIGNATURE) {
+                break;
+            }
+        }
+        return registerRequest(requestAuthenticationSchema, result, currentTimestamp);
+    }
+
+    private RequestVerificationResult verifyCredentialStore(CredentialStore credentialStore, RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest, long currentTimestamp) {
+        byte[] secretApiVersionKey = SECRET_API_VERSION_KEYS.get();
+        int secretApiVersionKeyLength = credentialStore.copySecretApiVersionKey(requestAuthenticationSchema.getApiKey(), requestAuthenticationSchema.getApiVersion(), requestAuthenticationSchema.getAuthenticationType(), secretApiVersionKey, 0);
+        if (secretApiVersionKeyLength < 0) {
+            return RequestVerificationResult.UNKNOWN_API_KEY;
+        }
+        RequestSignerParameters requestSignerParameters = createRequestSignerParameters(requestAuthenticationSchema, null);
+        String expectedSignature;
+        try {
+            byte[] signingKey = requestSigner.computeSigningKey(secretApiVersionKey, secretApiVersionKeyLength, requestAuthenticationSchema.getAuthenticationType(), requestAuthenticationSchema.getTimestamp());
+            expectedSignature = requestSigner.calculateSignature(signableRequest, requestSignerParameters, requestAuthenticationSchema.getTimestamp(), signingKey);
+        } catch (RequestSignerException e) {
+            return RequestVerificationResult.MALFORMED_REQUEST;
+        }
+        RequestVerificationResult result = constantTimeEquals(expectedSignature, requestAuthenticationSchema.getSignature()) ? RequestVerificationResult.VALID : RequestVerificationResult.INVALID_SIGNATURE;
+        return registerRequest(requestAuthenticationSchema, result, currentTimestamp);
+    }
+
+    private RequestVerificationResult verifySecretApiKey(RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest, String secretApiKey, long currentTimestamp) {
+        if (secretApiKey == null) {
+            return RequestVerificationResult.UNKNOWN_API_KEY;
+        }
+        RequestVerificationResult result = verifySignature(requestAuthenticationSchema, signableRequest, secretApiKey);
+        return registerRequest(requestAuthenticationSchema, result, currentTimestamp);
+    }
+
+    private RequestVerificationResult registerRequest(RequestAuthenticationSchema requestAuthenticationSchema, RequestVerificationResult result, long currentTimestamp) {
+        if (result.isValid() && replayCache != null && !replayCache.register(requestAuthenticationSchema.getApiKey(), requestAuthenticationSchema.getTimestamp(), requestAuthenticationSchema.getSignature(), currentTimestamp)) {
+            return RequestVerificationResult.REPLAYED_REQUEST;
+        }
+        return result;
+    }
+
+    protected boolean isWellFormed(RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest) {
+        return requestAuthenticationSchema != null
+                && signableRequest != null
+                && signableRequest.getHttpMethod() != null
+                && signableRequest.getUrl() != null
+                && (!requestAuthenticationSchema.isSignedPayload() || signableRequest.getPayloadHash() != null)
+                && (requestAuthenticationSchema.getSignedHeaders() == null || signableRequest.getHeaders() != null)
+                && requestAuthenticationSchema.getAuthenticationType() != null
+                && requestSigner.supportsAuthenticationType(requestAuthenticationSchema.getAuthenticationType())
+                && requestAuthenticationSchema.getApiKey() != null
+                && requestAuthenticationSchema.getApiVersion() != null
+                && requestAuthenticationSchema.getSignature() != null;
+    }
+
+    protected boolean isTimestampValid(long timestamp, long currentTimestamp) {
+        return timestamp >= currentTimestamp - timestampTolerance && timestamp <= currentTimestamp + timestampTolerance;
+    }
+
+    protected RequestVerificationResult verifySignature(RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest, String secretApiKey) {
+        RequestSignerParameters requestSignerParameters = createRequestSignerParameters(requestAuthenticationSchema, secretApiKey);
+        String expectedSignature;
+        try {
+            expectedSignature = requestSigner.calculateSignature(signableRequest, requestSignerParameters, requestAuthenticationSchema.getTimestamp());
+        } catch (RequestSignerException e) {
+            return RequestVerificationResult.MALFORMED_REQUEST;
+        }
+        return constantTimeEquals(expectedSignature, requestAuthenticationSchema.getSignature()) ? RequestVerificationResult.VALID : RequestVerificationResult.INVALID_SIGNATURE;
+    }
+
+    private static RequestSignerParameters createRequestSignerParameters(RequestAuthenticationSchema requestAuthenticationSchema, String secretApiKey) {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters(requestAuthenticationSchema.getApiKey(), secretApiKey, requestAuthenticationSchema.getApiVersion(), requestAuthenticationSchema.isSignedHost(), requestAuthenticationSchema.getAuthenticationType());
+        requestSignerParameters.setSignedPayload(requestAuthenticationSchema.isSignedPayload());
+        requestSignerParameters.setSignedHeaders(requestAuthenticationSchema.getSignedHeaders());
+        requestSignerParameters.setCanonicalQuery(requestAuthenticationSchema.isCanonicalQuery());
+        return requestSignerParameters;
+    }
+
+    private ChunkedPayloadDecoder newCredentialStoreChunkedPayloadDecoder(CredentialStore credentialStore, RequestAuthenticationSchema requestAuthenticationSchema, int maximumChunkSize) {
+        byte[] secretApiVersionKey = SECRET_API_VERSION_KEYS.get();
+        int secretApiVersionKeyLength = credentialStore.copySecretApiVersionKey(requestAuthenticationSchema.getApiKey(), requestAuthenticationSchema.getApiVersion(), requestAuthenticationSchema.getAuthenticationType(), secretApiVersionKey, 0);
+        if (secretApiVersionKeyLength < 0) {
+            throw new RequestSignerException(MessageFormat.format("Unknown api key : {0}", requestAuthenticationSchema.getApiKey()));
+        }
+        byte[] signingKey = requestSigner.computeSigningKey(secretApiVersionKey, secretApiVersionKeyLength, requestAuthenticationSchema.getAuthenticationType(), requestAuthenticationSchema.getTimestamp());
+        return new ChunkedPayloadDecoder(requestSigner.newChunkSigner(requestAuthenticationSchema, requestAuthenticationSchema.getAuthenticationType(), signingKey), maximumChunkSize);
+    }
+
+    static boolean constantTimeEquals(String expected, String actual) {
+        int expectedLength = expected.length();
+        int actualLength = actual.length();
+        int result = expectedLength ^ actualLength;
+        for (int i = 0; i < expectedLength; i++) {
+            char actualChar = i < actualLength ? actual.charAt(i) : 0;
+            result |= expected.charAt(i) ^ actualChar;
+        }
+        return result == 0;
+    }
+
+    private interface CredentialResolver {
+
+        RequestVerificationResult verify(RequestSignatureVerifier requestSignatureVerifier, RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest, long currentTimestamp);
+
+        default CompletableFuture<RequestVerificationResult> verifyAsync(RequestSignatureVerifier requestSignatureVerifier, RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest, long currentTimestamp) {
+            return CompletableFuture.completedFuture(verify(requestSignatureVerifier, requestAuthenticationSchema, signableRequest, currentTimestamp));
+        }
+
+        ChunkedPayloadDecoder newChunkedPayloadDecoder(RequestSignatureVerifier requestSignatureVerifier, RequestAuthenticationSchema requestAuthenticationSchema, int maximumChunkSize);
+
+        default SecretKeyRing getSecretKeyRing() {
+            return null;
+        }
+
+        default CredentialStore getCredentialStore() {
+            return null;
+        }
+    }
+
+    private static final class SecretApiKeyProviderResolver implements CredentialResolver {
+
+        private final Function<String, String> secretApiKeyProvider;
+
+        private SecretApiKeyProviderResolver(Function<String, String> secretApiKeyProvider) {
+            this.secretApiKeyProvider = secretApiKeyProvider;
+        }
+
+        @Override
+        public RequestVerificationResult verify(RequestSignatureVerifier requestSignatureVerifier, RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest, long currentTimestamp) {
+            String secretApiKey = secretApiKeyProvider.apply(requestAuthenticationSchema.getApiKey());
+            return requestSignatureVerifier.verifySecretApiKey(requestAuthenticationSchema, signableRequest, secretApiKey, currentTimestamp);
+        }
+
+        @Override
+        public ChunkedPayloadDecoder newChunkedPayloadDecoder(RequestSignatureVerifier requestSignatureVerifier, RequestAuthenticationSchema requestAuthenticationSchema, int maximumChunkSize) {
+            return requestSignatureVerifier.newChunkedPayloadDecoder(requestAuthenticationSchema, secretApiKeyProvider.apply(requestAuthenticationSchema.getApiKey()), maximumChunkSize);
+        }
+    }
+
+    private static final class SecretKeyResolverResolver implements CredentialResolver {
+
+        private final SecretKeyResolver secretKeyResolver;
+
+        private SecretKeyResolverResolver(SecretKeyResolver secretKeyResolver) {
+            this.secretKeyResolver = secretKeyResolver;
+        }
+
+        @Override
+        public RequestVerificationResult verify(RequestSignatureVerifier requestSignatureVerifier, RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest, long currentTimestamp) {
+            String secretApiKey = resolveSecretApiKey(secretKeyResolver, requestAuthenticationSchema.getApiKey());
+            return requestSignatureVerifier.verifySecretApiKey(requestAuthenticationSchema, signableRequest, secretApiKey, currentTimestamp);
+        }
+
+        @Override
+        public CompletableFuture<RequestVerificationResult> verifyAsync(RequestSignatureVerifier requestSignatureVerifier, RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest, long currentTimestamp) {
+            return secretKeyResolver.resolve(requestAuthenticationSchema.getApiKey())
+                    .thenApply(secretApiKey -> requestSignatureVerifier.verifySecretApiKey(requestAuthenticationSchema, signableRequest, secretApiKey.orElse(null), currentTimestamp));
+        }
+
+        @Override
+        public ChunkedPayloadDecoder newChunkedPayloadDecoder(RequestSignatureVerifier requestSignatureVerifier, RequestAuthenticationSchema requestAuthenticationSchema, int maximumChunkSize) {
+            return requestSignatureVerifier.newChunkedPayloadDecoder(requestAuthenticationSchema, resolveSecretApiKey(secretKeyResolver, requestAuthenticationSchema.getApiKey()), maximumChunkSize);
+        }
+    }
+
+    private static final class SecretKeyRingResolver implements CredentialResolver {
+
+        private final SecretKeyRing secretKeyRing;
+
+        private SecretKeyRingResolver(SecretKeyRing secretKeyRing) {
+            this.secretKeyRing = secretKeyRing;
+        }
+
+        @Override
+        public RequestVerificationResult verify(RequestSignatureVerifier requestSignatureVerifier, RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest, long currentTimestamp) {
+            return requestSignatureVerifier.verifySecretKeyRing(secretKeyRing, requestAuthenticationSchema, signableRequest, currentTimestamp);
+        }
+
+        @Override
+        public ChunkedPayloadDecoder newChunkedPayloadDecoder(RequestSignatureVerifier requestSignatureVerifier, RequestAuthenticationSchema requestAuthenticationSchema, int maximumChunkSize) {
+            String secretApiKey = requestAuthenticationSchema.getKeyId() != null
+                    ? secretKeyRing.getSecretApiKey(requestAuthenticationSchema.getApiKey(), requestAuthenticationSchema.getKeyId())
+                    : secretKeyRing.getPrimarySecretApiKey(requestAuthenticationSchema.getApiKey());
+            return requestSignatureVerifier.newChunkedPayloadDecoder(requestAuthenticationSchema, secretApiKey, maximumChunkSize);
+        }
+
+        @Override
+        public SecretKeyRing getSecretKeyRing() {
+            return secretKeyRing;
+        }
+    }
+
+    private static final class CredentialStoreResolver implements CredentialResolver {
+
+        private final CredentialStore credentialStore;
+
+        private CredentialStoreResolver(CredentialStore credentialStore) {
+            this.credentialStore = credentialStore;
+        }
+
+        @Override
+        public RequestVerificationResult verify(RequestSignatureVerifier requestSignatureVerifier, RequestAuthenticationSchema requestAuthenticationSchema, SignableRequest signableRequest, long currentTimestamp) {
+            return requestSignatureVerifier.verifyCredentialStore(credentialStore, requestAuthenticationSchema, signableRequest, currentTimestamp);
+        }
+
+        @Override
+        public ChunkedPayloadDecoder newChunkedPayloadDecoder(RequestSignatureVerifier requestSignatureVerifier, RequestAuthenticationSchema requestAuthenticationSchema, int maximumChunkSize) {
+            return requestSignatureVerifier.newCredentialStoreChunkedPayloadDecoder(credentialStore, requestAuthenticationSchema, maximumChunkSize);
+        }
+
+        @Override
+        public CredentialStore getCredentialStore() {
+            return credentialStore;
+        }
+    }
+}
@@ -1,55 +1,563 @@
 package com.adelehedde.signer;
 
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
 import java.net.MalformedURLException;
+import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.Provider;
 import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 public class RequestSigner extends AbstractRequestSigner {
 
+    public static final int DEFAULT_WARM_UP_ITERATIONS = 2000;
+    public static final Duration DEFAULT_WARM_UP_DURATION = Duration.ofMillis(500);
+
+    private static final int MINIMUM_PARALLEL_BATCH_SIZE = 64;
+    private static final byte SPACE_BYTE = ' ';
+    private static final byte[] REQUEST_SIGNER_REQUEST_BYTES = RequestAuthenticationSchema.REQUEST_SIGNER_REQUEST.getBytes(UTF8_CHARSET);
+    private static final String[] WARM_UP_HTTP_METHODS = {"GET", "POST"};
+    private static final String[] WARM_UP_URLS = {
+            "https://warm-up.local/",
+            "https://warm-up.local/search?product_id=prd1&customer_id=c1",
+            "http://user@warm-up.local:8080/a/./b/../c?q=1#fragment",
+            "https://warm-up.local/caf\u00e9?name=\ud83d\ude00"
+    };
+
+    private final SigningKeyCache signingKeyCache;
+    private final SigningMetricsListener metricsListener;
+    private final CanonicalRequestCache canonicalRequestCache;
+    private final boolean signingHooksOverridden;
+
+    public RequestSigner() {
+        this(null);
+    }
+
+    public RequestSigner(SigningKeyCache signingKeyCache) {
+        this(null, signingKeyCache);
+    }
+
+    public RequestSigner(Provider provider, SigningKeyCache signingKeyCache) {
+        this(provider, signingKeyCache, null);
+    }
+
+    public RequestSigner(Provider provider, SigningKeyCache signingKeyCache, SigningMetricsListener metricsListener) {
+        this(provider, signingKeyCache, metricsListener, null);
+    }
+
+    public RequestSigner(Provider provider, SigningKeyCache signingKeyCache, SigningMetricsListener metricsListener, CanonicalRequestCache canonicalRequestCache) {
+        super(provider);
+        this.signingKeyCache = signingKeyCache;
+        this.metricsListener = metricsListener;
+        this.canonicalRequestCache = canonicalRequestCache;
+        this.signingHooksOverridden = usesSigningHooks();
+    }
+
+    protected boolean usesSigningHooks() {
+        return getClass() != RequestSigner.class;
+    }
+
+    public SigningKeyCache getSigningKeyCache() {
+        return signingKeyCache;
+    }
+
+    public CanonicalRequestCache getCanonicalRequestCache() {
+        return canonicalRequestCache;
+    }
+
+    public SigningMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
     public RequestAuthenticationSchema signRequest(String httpMethod, String url, RequestSignerParameters requestSignerParameters) {
         long timestamp = getCurrentTimestamp();
         return signRequest(httpMethod, url, requestSignerParameters, timestamp);
     }
 
     public RequestAuthenticationSchema signRequest(String httpMethod, String url, RequestSignerParameters requestSignerParameters, long timestamp) {
-        String signature = calculateSignature(httpMethod, url, requestSignerParameters, timestamp);
+        long start = startStage();
+        try {
+            String signature = calculateSignature(httpMethod, url, requestSignerParameters, timestamp);
+            return createRequestAuthenticationSchema(requestSignerParameters, timestamp, signature, start);
+        } catch (RequestSignerException e) {
+            throw recordFailure(e);
+        }
+    }
+
+    public RequestAuthenticationSchema signRequest(String httpMethod, URI uri, RequestSignerParameters requestSignerParameters) {
+        long timestamp = getCurrentTimestamp();
+        return signRequest(httpMethod, uri, requestSignerParameters, timestamp);
+    }
+
+    public RequestAuthenticationSchema signRequest(String httpMethod, URI uri, RequestSignerParameters requestSignerParameters, long timestamp) {
+        long start = startStage();
+        try {
+            UrlComponents urlComponents = SigningBuffer.urlComponents().split(uri);
+            endStage(SigningStage.URL_PARSING, start);
+            String signature = calculateSignature(new SignableRequest(httpMethod, uri.toString()), urlComponents, requestSignerParameters, timestamp, signingKey(requestSignerParameters, timestamp));
+            return createRequestAuthenticationSchema(requestSignerParameters, timestamp, signature, start);
+        } catch (RequestSignerException e) {
+            throw recordFailure(e);
+        }
+    }
+
+    public RequestAuthenticationSchema signRequest(String httpMethod, URI uri, Map<String, List<String>> headers, RequestSignerParameters requestSignerParameters) {
+        long timestamp = getCurrentTimestamp();
+        return signRequest(httpMethod, uri, headers, requestSignerParameters, timestamp);
+    }
+
+    public RequestAuthenticationSchema signRequest(String httpMethod, URI uri, Map<String, List<String>> headers, RequestSignerParameters requestSignerParameters, long timestamp) {
+        long start = startStage();
+        try {
+            UrlComponents urlComponents = SigningBuffer.urlComponents().split(uri);
+            endStage(SigningStage.URL_PARSING, start);
+            String signature = calculateSignature(new SignableRequest(httpMethod, uri.toString(), null, headers), urlComponents, requestSignerParameters, timestamp, signingKey(requestSignerParameters, timestamp));
+            return createRequestAuthenticationSchema(requestSignerParameters, timestamp, signature, start);
+        } catch (RequestSignerException e) {
+            throw recordFailure(e);
+        }
+    }
+
+    public RequestAuthenticationSchema signRequest(String httpMethod, UrlComponents urlComponents, RequestSignerParameters requestSignerParameters, long timestamp) {
+        long start = startStage();
+        try {
+            String signature = calculateSignature(new SignableRequest(httpMethod, signingHooksOverridden ? urlComponents.toUrl() : null), urlComponents, requestSignerParameters, timestamp, signingKey(requestSignerParameters, timestamp));
+            return createRequestAuthenticationSchema(requestSignerParameters, timestamp, signature, start);
+        } catch (RequestSignerException e) {
+            throw recordFailure(e);
+        }
+    }
+
+    public RequestAuthenticationSchema signRequest(SignableRequest signableRequest, RequestSignerParameters requestSignerParameters) {
+        long timestamp = getCurrentTimestamp();
+        return signRequest(signableRequest, requestSignerParameters, timestamp);
+    }
+
+    public RequestAuthenticationSchema signRequest(SignableRequest signableRequest, RequestSignerParameters requestSignerParameters, long timestamp) {
+        long start = startStage();
+        try {
+            String signature = calculateSignature(signableRequest, requestSignerParameters, timestamp);
+            return createRequestAuthenticationSchema(requestSignerParameters, timestamp, signature, start);
+        } catch (RequestSignerException e) {
+            throw recordFailure(e);
+        }
+    }
+
+    public AuthorizationHeader signAuthorizationHeader(SignableRequest signableRequest, RequestSignerParameters requestSignerParameters) {
+        long timestamp = getCurrentTimestamp();
+        return signAuthorizationHeader(signableRequest, requestSignerParameters, timestamp);
+    }
+
+    public AuthorizationHeader signAuthorizationHeader(SignableRequest signableRequest, RequestSignerParameters requestSignerParameters, long timestamp) {
+        long start = startStage();
+        try {
+            String signature = calculateSignature(signableRequest, requestSignerParameters, timestamp);
+            recordSignature(start);
+            return new AuthorizationHeader(requestSignerParameters.getAuthorizationHeaderPrefix(), timestamp, signature);
+        } catch (RequestSignerException e) {
+            throw recordFailure(e);
+        }
+    }
+
+    private RequestAuthenticationSchema createRequestAuthenticationSchema(RequestSignerParameters requestSignerParameters, long timestamp, String signature, long start) {
+        recordSignature(start);
         return new RequestAuthenticationSchema(requestSignerParameters, timestamp, signature);
     }
 
-    protected String calculateSignature(String httpMethod, String url, RequestSignerParameters requestSignerParameters, long timestamp) {
-        String canonicalRequest = createCanonicalRequest(httpMethod, url, requestSignerParameters.isSignedHost());
-        String stringToSign = createStringToSign(requestSignerParameters.getAuthenticationType(), requestSignerParameters.getApiKey(), requestSignerParameters.getApiVersion(), timestamp, canonicalRequest);
-        byte[] signingKey = computeSigningKey(requestSignerParameters.getSecretApiKey(), requestSignerParameters.getApiVersion(), timestamp);
-        return sign(stringToSign, signingKey);
+    private void recordSignature(long start) {
+        if (metricsListener != null) {
+            endStage(SigningStage.SIGN_REQUEST, start);
+            metricsListener.onSignature();
+        }
     }
 
-    protected String createCanonicalRequest(String httpMethod, String url, boolean isSignedHost) {
+    private RequestSignerException recordFailure(RequestSignerException e) {
+        if (metricsListener != null) {
+            metricsListener.onFailure(e);
+        }
+        return e;
+    }
+
+    private long startStage() {
+        return metricsListener != null ? System.nanoTime() : 0L;
+    }
+
+    private long endStage(SigningStage signingStage, long start) {
+        if (metricsListener == null) {
+            return 0L;
+        }
+        long end = System.nanoTime();
+        metricsListener.onStage(signingStage, end - start);
+        return end;
+    }
+
+    public PayloadDigest newPayloadDigest() {
+        return new PayloadDigest(getCryptoEngine().createMessageDigest());
+    }
+
+    public PayloadDigest newPayloadDigest(String authenticationType) {
+        return new PayloadDigest(getCryptoEngine(authenticationType).createMessageDigest());
+    }
+
+    public String hashPayload(byte[] payload) {
+        return newPayloadDigest().update(payload).digest();
+    }
+
+    public String hashPayload(byte[] payload, String authenticationType) {
+        return newPayloadDigest(authenticationType).update(payload).digest();
+    }
+
+    public ChunkedPayloadEncoder newChunkedPayloadEncoder(RequestAuthenticationSchema requestAuthenticationSchema, RequestSignerParameters requestSignerParameters) {
+        return newChunkedPayloadEncoder(requestAuthenticationSchema, requestSignerParameters, ChunkedPayloadEncoder.DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedPayloadEncoder newChunkedPayloadEncoder(RequestAuthenticationSchema requestAuthenticationSchema, RequestSignerParameters requestSignerParameters, int chunkSize) {
+        return new ChunkedPayloadEncoder(newChunkSigner(requestAuthenticationSchema, requestSignerParameters), chunkSize);
+    }
+
+    public ChunkedPayloadDecoder newChunkedPayloadDecoder(RequestAuthenticationSchema requestAuthenticationSchema, RequestSignerParameters requestSignerParameters) {
+        return newChunkedPayloadDecoder(requestAuthenticationSchema, requestSignerParameters, ChunkedPayloadEncoder.DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedPayloadDecoder newChunkedPayloadDecoder(RequestAuthenticationSchema requestAuthenticationSchema, RequestSignerParameters requestSignerParameters, int maximumChunkSize) {
+        return new ChunkedPayloadDecoder(newChunkSigner(requestAuthenticationSchema, requestSignerParameters), maximumChunkSize);
+    }
+
+    private ChunkSigner newChunkSigner(RequestAuthenticationSchema requestAuthenticationSchema, RequestSignerParameters requestSignerParameters) {
+        byte[] signingKey = signingKey(requestSignerParameters, requestAuthenticationSchema.getTimestamp());
+        return newChunkSigner(requestAuthenticationSchema, requestSignerParameters.getAuthenticationType(), signingKey);
+    }
+
+    ChunkSigner newChunkSigner(RequestAuthenticationSchema requestAuthenticationSchema, String authenticationType, byte[] signingKey) {
+        return new ChunkSigner(getCryptoEngine(authenticationType), signingKey, authenticationType, requestAuthenticationSchema.getTimestamp(), requestAuthenticationSchema.getSignature());
+    }
+
+    public int warmUp() {
+        return warmUp(DEFAULT_WARM_UP_ITERATIONS, DEFAULT_WARM_UP_DURATION);
+    }
+
+    public int warmUp(int iterations, Duration maximumDuration) {
+        if (iterations < 0) {
+            throw new IllegalArgumentException(MessageFormat.format("Warm up iterations must not be negative : {0}", iterations));
+        }
+        for (SignatureAlgorithmSuite suite : SignatureAlgorithmSuite.values()) {
+            CryptoEngine cryptoEngine = getCryptoEngine(suite.getAuthenticationType());
+            cryptoEngine.getMessageDigest();
+            cryptoEngine.getMac(REQUEST_SIGNER_REQUEST_BYTES);
+        }
         try {
-            URL endpointUrl = new URL(url);
-            return createCanonicalRequest(httpMethod, endpointUrl, isSignedHost);
+            new UrlComponents().set(new URL(WARM_UP_URLS[0]));
         } catch (MalformedURLException e) {
             throw new RequestSignerException(MessageFormat.format("Unable to parse url : {0}", e.getMessage()), e);
         }
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("warm-up", "warm-up", "v1");
+        long deadline = System.nanoTime() + maximumDuration.toNanos();
+        int iteration = 0;
+        while (iteration < iterations && System.nanoTime() - deadline < 0) {
+            String signature = calculateSignature(WARM_UP_HTTP_METHODS[iteration % WARM_UP_HTTP_METHODS.length], WARM_UP_URLS[iteration % WARM_UP_URLS.length], requestSignerParameters, iteration);
+            new RequestAuthenticationSchema(requestSignerParameters, iteration, signature).getAuthorizationHeader();
+            iteration++;
+        }
+        invalidateWarmUpEntries(requestSignerParameters);
+        return iteration;
+    }
+
+    private void invalidateWarmUpEntries(RequestSignerParameters requestSignerParameters) {
+        CryptoEngine cryptoEngine = getCryptoEngine(requestSignerParameters.getAuthenticationType());
+        if (signingKeyCache != null) {
+            signingKeyCache.invalidate(requestSignerParameters.getSecretApiKey(), requestSignerParameters.getApiVersion(), cryptoEngine.getHashMacAlgorithm());
+        }
+        if (canonicalRequestCache != null) {
+            for (String httpMethod : WARM_UP_HTTP_METHODS) {
+                for (String url : WARM_UP_URLS) {
+                    canonicalRequestCache.invalidate(cryptoEngine.getHashAlgorithm(), httpMethod, url, requestSignerParameters.isSignedHost());
+                }
+            }
+        }
+    }
+
+    public List<SigningResult> signRequests(List<SignableRequest> signableRequests, RequestSignerParameters requestSignerParameters) {
+        return signRequests(signableRequests, requestSignerParameters, getCurrentTimestamp(), null);
+    }
+
+    public List<SigningResult> signRequests(List<SignableRequest> signableRequests, RequestSignerParameters requestSignerParameters, long timestamp) {
+        return signRequests(signableRequests, requestSignerParameters, timestamp, null);
+    }
+
+    public List<SigningResult> signRequests(List<SignableRequest> signableRequests, RequestSignerParameters requestSignerParameters, long timestamp, Executor executor) {
+        byte[] signingKey = signingKey(requestSignerParameters, timestamp);
+        SigningResult[] signingResults = new SigningResult[signableRequests.size()];
+        int batchSize = signableRequests.size() <= MINIMUM_PARALLEL_BATCH_SIZE ? signableRequests.size() : Math.max(MINIMUM_PARALLEL_BATCH_SIZE, signableRequests.size() / (Runtime.getRuntime().availableProcessors() * 4));
+        if (executor == null || batchSize >= signableRequests.size()) {
+            signRequests(signableRequests, requestSignerParameters, timestamp, signingKey, signingResults, 0, signableRequests.size());
+            return Arrays.asList(signingResults);
+        }
+        CompletableFuture<?>[] batches = new CompletableFuture<?>[(signableRequests.size() + batchSize - 1) / batchSize];
+        for (int batch = 0; batch < batches.length; batch++) {
+            int batchStart = batch * batchSize;
+            int batchEnd = Math.min(batchStart + batchSize, signableRequests.size());
+            batches[batch] = CompletableFuture.runAsync(() -> signRequests(signableRequests, requestSignerParameters, timestamp, signingKey, signingResults, batchStart, batchEnd), executor);
+        }
+        try {
+            CompletableFuture.allOf(batches).join();
+        } catch (CompletionException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to sign requests : {0}", e.getCause().getMessage()), e.getCause());
+        }
+        return Arrays.asList(signingResults);
+    }
+
+    private void signRequests(List<SignableRequest> signableRequests, RequestSignerParameters requestSignerParameters, long timestamp, byte[] signingKey, SigningResult[] signingResults, int start, int end) {
+        UrlComponents urlComponents = SigningBuffer.urlComponents();
+        for (int i = start; i < end; i++) {
+            SignableRequest signableRequest = signableRequests.get(i);
+            long signingStart = startStage();
+            try {
+                checkSignableRequest(signableRequest);
+                urlComponents.split(signableRequest.getUrl());
+                endStage(SigningStage.URL_PARSING, signingStart);
+                String signature = calculateSignature(signableRequest, urlComponents, requestSignerParameters, timestamp, signingKey);
+                signingResults[i] = SigningResult.success(signableRequest, createRequestAuthenticationSchema(requestSignerParameters, timestamp, signature, signingStart));
+            } catch (RequestSignerException e) {
+                signingResults[i] = SigningResult.failure(signableRequest, recordFailure(e));
+            } catch (RuntimeException e) {
+                signingResults[i] = SigningResult.failure(signableRequest, recordFailure(new RequestSignerException(MessageFormat.format("Unable to sign request : {0}", e.getMessage()), e)));
+            }
+        }
+    }
+
+    private static void checkSignableRequest(SignableRequest signableRequest) {
+        if (signableRequest == null || signableRequest.getHttpMethod() == null || signableRequest.getUrl() == null) {
+            throw new RequestSignerException(MessageFormat.format("Http method and url are required to sign request : {0}", signableRequest));
+        }
+    }
+
+    protected String calculateSignature(String httpMethod, String url, RequestSignerParameters requestSignerParameters, long timestamp) {
+        return calculateSignature(httpMethod, url, null, null, null, requestSignerParameters, timestamp);
+    }
+
+    protected String calculateSignature(SignableRequest signableRequest, RequestSignerParameters requestSignerParameters, long timestamp) {
+        return calculateSignature(signableRequest.getHttpMethod(), signableRequest.getUrl(), signableRequest.getPayloadHash(), signableRequest.getHeaders(), signableRequest.getQueryParameters(), requestSignerParameters, timestamp);
+    }
+
+    String calculateSignature(SignableRequest signableRequest, RequestSignerParameters requestSignerParameters, long timestamp, byte[] signingKey) {
+        long start = startStage();
+        UrlComponents urlComponents = SigningBuffer.urlComponents().split(signableRequest.getUrl());
+        endStage(SigningStage.URL_PARSING, start);
+        return calculateSignature(signableRequest, urlComponents, requestSignerParameters, timestamp, signingKey);
+    }
+
+    private String calculateSignature(String httpMethod, String url, String payloadHash, Map<String, List<String>> headers, QueryParameters queryParameters, RequestSignerParameters requestSignerParameters, long timestamp) {
+        if (signingHooksOverridden) {
+            SignableRequest signableRequest = new SignableRequest(httpMethod, url, payloadHash, headers, queryParameters);
+            return calculateSignatureWithSigningHooks(signableRequest, new UrlComponents().split(url), requestSignerParameters, timestamp, signingKey(requestSignerParameters, timestamp));
+        }
+        if (canonicalRequestCache != null && !requestSignerParameters.isSignedPayload() && requestSignerParameters.getSignedHeaders() == null && !requestSignerParameters.isCanonicalQuery() && queryParameters == null && canonicalRequestCache.isCacheable(url)) {
+            return calculateSignatureWithCanonicalRequestCache(httpMethod, url, requestSignerParameters, timestamp);
+        }
+        long start = startStage();
+        UrlComponents urlComponents = SigningBuffer.urlComponents().split(url);
+        endStage(SigningStage.URL_PARSING, start);
+        byte[] signingKey = signingKey(requestSignerParameters, timestamp);
+        return calculateSignature(httpMethod, urlComponents, payloadHash, headers, queryParameters, requestSignerParameters, timestamp, signingKey);
+    }
+
+    private String calculateSignatureWithCanonicalRequestCache(String httpMethod, String url, RequestSignerParameters requestSignerParameters, long timestamp) {
+        CryptoEngine cryptoEngine = getCryptoEngine(requestSignerParameters.getAuthenticationType());
+        long start = startStage();
+        byte[] encodedDigest = canonicalRequestCache.get(cryptoEngine.getHashAlgorithm(), httpMethod, url, requestSignerParameters.isSignedHost());
+        if (metricsListener != null) {
+            metricsListener.onCanonicalRequestCacheAccess(encodedDigest != null);
+        }
+        SigningBuffer signingBuffer = SigningBuffer.get();
+        if (encodedDigest == null) {
+            UrlComponents urlComponents = SigningBuffer.urlComponents().split(url);
+            start = endStage(SigningStage.URL_PARSING, start);
+            writeCanonicalRequest(signingBuffer, httpMethod, urlComponents, requestSignerParameters.isSignedHost(), null, null);
+            int digestLength = digest(cryptoEngine, signingBuffer);
+            encodedDigest = new byte[Base64Url.encodedLength(digestLength)];
+            Base64Url.encode(signingBuffer.digest, 0, digestLength, encodedDigest, 0);
+            canonicalRequestCache.put(cryptoEngine.getHashAlgorithm(), httpMethod, url, requestSignerParameters.isSignedHost(), encodedDigest);
+        }
+        endStage(SigningStage.CANONICAL_REQUEST, start);
+        byte[] signingKey = computeSigningKey(cryptoEngine, requestSignerParameters.getSecretApiKey(), requestSignerParameters.getApiVersion(), timestamp);
+        start = startStage();
+        signingBuffer.reset();
+        writeStringToSign(signingBuffer, requestSignerParameters.getAuthenticationType(), requestSignerParameters.getApiKey(), requestSignerParameters.getApiVersion(), timestamp);
+        signingBuffer.append(encodedDigest);
+        return sign(cryptoEngine, signingBuffer, signingKey, start);
+    }
+
+    String calculateSignature(SignableRequest signableRequest, UrlComponents urlComponents, RequestSignerParameters requestSignerParameters, long timestamp, byte[] signingKey) {
+        if (signingHooksOverridden) {
+            return calculateSignatureWithSigningHooks(signableRequest, urlComponents, requestSignerParameters, timestamp, signingKey);
+        }
+        return calculateSignature(signableRequest.getHttpMethod(), urlComponents, signableRequest.getPayloadHash(), signableRequest.getHeaders(), signableRequest.getQueryParameters(), requestSignerParameters, timestamp, signingKey);
+    }
+
+    private String calculateSignature(String httpMethod, UrlComponents urlComponents, String payloadHash, Map<String, List<String>> headers, QueryParameters queryParameters, RequestSignerParameters requestSignerParameters, long timestamp, byte[] signingKey) {
+        String signedPayloadHash = getSignedPayloadHash(requestSignerParameters, payloadHash);
+        CryptoEngine cryptoEngine = getCryptoEngine(requestSignerParameters.getAuthenticationType());
+        long start = startStage();
+        SigningBuffer signingBuffer = SigningBuffer.get();
+        QueryCanonicalizer queryCanonicalizer = canonicalizeQuery(urlComponents, requestSignerParameters.isCanonicalQuery(), queryParameters);
+        writeCanonicalRequest(signingBuffer, httpMethod, urlComponents, requestSignerParameters.isSignedHost(), queryCanonicalizer, signedPayloadHash);
+        if (requestSignerParameters.getSignedHeaders() != null) {
+            requestSignerParameters.getSignedHeaders().writeTo(signingBuffer, headers);
+        }
+        int digestLength = digest(cryptoEngine, signingBuffer);
+        start = endStage(SigningStage.CANONICAL_REQUEST, start);
+        signingBuffer.reset();
+        writeStringToSign(signingBuffer, requestSignerParameters.getAuthenticationType(), requestSignerParameters.getApiKey(), requestSignerParameters.getApiVersion(), timestamp);
+        signingBuffer.appendBase64Url(signingBuffer.digest, 0, digestLength);
+        return sign(cryptoEngine, signingBuffer, signingKey, start);
+    }
+
+    private String calculateSignatureWithSigningHooks(SignableRequest signableRequest, UrlComponents urlComponents, RequestSignerParameters requestSignerParameters, long timestamp, byte[] signingKey) {
+        String canonicalRequest = createCanonicalRequest(signableRequest, urlComponents, requestSignerParameters);
+        String stringToSign = createStringToSign(requestSignerParameters.getAuthenticationType(), requestSignerParameters.getApiKey(), requestSignerParameters.getApiVersion(), timestamp, canonicalRequest);
+        CryptoEngine cryptoEngine = getCryptoEngine(requestSignerParameters.getAuthenticationType());
+        return cryptoEngine == getCryptoEngine() ? sign(stringToSign, signingKey) : sign(cryptoEngine, stringToSign, signingKey);
+    }
+
+    private String getSignedPayloadHash(RequestSignerParameters requestSignerParameters, String payloadHash) {
+        if (!requestSignerParameters.isSignedPayload()) {
+            return null;
+        }
+        if (payloadHash == null) {
+            throw new RequestSignerException("Payload hash is required to sign payload");
+        }
+        return payloadHash;
+    }
+
+    private QueryCanonicalizer canonicalizeQuery(UrlComponents urlComponents, boolean canonicalQuery, QueryParameters queryParameters) {
+        if (!canonicalQuery) {
+            if (queryParameters != null && queryParameters.size() > 0) {
+                throw new RequestSignerException("Canonical query is required to sign query parameters");
+            }
+            return null;
+        }
+        QueryCanonicalizer queryCanonicalizer = SigningBuffer.queryCanonicalizer();
+        if (urlComponents.hasQuery()) {
+            queryCanonicalizer.addRawQuery(urlComponents.getQuerySource(), urlComponents.getQueryStart(), urlComponents.getQueryEnd());
+        }
+        return queryCanonicalizer.add(queryParameters);
+    }
+
+    private void writeCanonicalRequest(SigningBuffer signingBuffer, String httpMethod, UrlComponents urlComponents, boolean isSignedHost, QueryCanonicalizer queryCanonicalizer, String payloadHash) {
+        signingBuffer.append(httpMethod.toUpperCase());
+        if (isSignedHost) {
+            signingBuffer.append(SPACE_BYTE).append(urlComponents.getHostSource(), urlComponents.getHostStart(), urlComponents.getHostEnd());
+        }
+        signingBuffer.append(SPACE_BYTE).append(urlComponents.getPathSource(), urlComponents.getPathStart(), urlComponents.getPathEnd());
+        if (queryCanonicalizer != null) {
+            if (queryCanonicalizer.size() > 0) {
+                signingBuffer.append(SPACE_BYTE);
+                queryCanonicalizer.writeTo(signingBuffer);
+            }
+        } else if (urlComponents.hasQuery()) {
+            signingBuffer.append(SPACE_BYTE).append(urlComponents.getQuerySource(), urlComponents.getQueryStart(), urlComponents.getQueryEnd());
+        }
+        if (payloadHash != null) {
+            signingBuffer.append(SPACE_BYTE).append(payloadHash);
+        }
+    }
+
+    private void writeStringToSign(SigningBuffer signingBuffer, String authenticationType, String apiKey, String apiVersion, long timestamp) {
+        signingBuffer.append(authenticationType).append(SPACE_BYTE)
+                .append(apiKey).append(SPACE_BYTE)
+                .append(apiVersion).append(SPACE_BYTE)
+                .append(timestamp).append(SPACE_BYTE);
+    }
+
+    private int digest(CryptoEngine cryptoEngine, SigningBuffer signingBuffer) {
+        try {
+            MessageDigest messageDigest = cryptoEngine.getMessageDigest();
+            messageDigest.update(signingBuffer.array(), 0, signingBuffer.length());
+            return messageDigest.digest(signingBuffer.digest, 0, signingBuffer.digest.length);
+        } catch (DigestException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to hash data : {0}", e.getMessage()), e);
+        }
+    }
+
+    private String sign(CryptoEngine cryptoEngine, SigningBuffer signingBuffer, byte[] signingKey, long start) {
+        try {
+            Mac mac = cryptoEngine.getMacForImmutableKey(signingKey);
+            mac.update(signingBuffer.array(), 0, signingBuffer.length());
+            mac.doFinal(signingBuffer.digest, 0);
+            start = endStage(SigningStage.SIGNATURE, start);
+            int encodedLength = Base64Url.encode(signingBuffer.digest, 0, mac.getMacLength(), signingBuffer.encoded, 0);
+            String signature = new String(signingBuffer.encoded, 0, encodedLength, StandardCharsets.US_ASCII);
+            endStage(SigningStage.ENCODING, start);
+            return signature;
+        } catch (ShortBufferException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to hash_hmac : {0}", e.getMessage()), e);
+        }
+    }
+
+    protected String createCanonicalRequest(String httpMethod, String url, boolean isSignedHost) {
+        if (signingHooksOverridden) {
+            try {
+                return createCanonicalRequest(httpMethod, new URL(url), isSignedHost);
+            } catch (MalformedURLException e) {
+                throw new RequestSignerException(MessageFormat.format("Unable to parse url : {0}", e.getMessage()), e);
+            }
+        }
+        return createCanonicalRequest(httpMethod, new UrlComponents().split(url), isSignedHost, null, null, null, false, null);
     }
 
     protected String createCanonicalRequest(String httpMethod, URL url, boolean isSignedHost) {
+        return createCanonicalRequest(httpMethod, new UrlComponents().set(url), isSignedHost, null, null, null, false, null);
+    }
+
+    protected String createCanonicalRequest(SignableRequest signableRequest, UrlComponents urlComponents, RequestSignerParameters requestSignerParameters) {
+        if (signingHooksOverridden && signableRequest.getUrl() != null && !requestSignerParameters.isSignedPayload() && requestSignerParameters.getSignedHeaders() == null && !requestSignerParameters.isCanonicalQuery() && signableRequest.getQueryParameters() == null) {
+            return createCanonicalRequest(signableRequest.getHttpMethod(), signableRequest.getUrl(), requestSignerParameters.isSignedHost());
+        }
+        return createCanonicalRequest(signableRequest.getHttpMethod(), urlComponents, requestSignerParameters.isSignedHost(), getSignedPayloadHash(requestSignerParameters, signableRequest.getPayloadHash()), requestSignerParameters.getSignedHeaders(), signableRequest.getHeaders(), requestSignerParameters.isCanonicalQuery(), signableRequest.getQueryParameters());
+    }
+
+    private String createCanonicalRequest(String httpMethod, UrlComponents urlComponents, boolean isSignedHost, String payloadHash, SignedHeaders signedHeaders, Map<String, List<String>> headers, boolean canonicalQuery, QueryParameters queryParameters) {
+        QueryCanonicalizer queryCanonicalizer = canonicalizeQuery(urlComponents, canonicalQuery, queryParameters);
         StringBuilder canonicalRequest = new StringBuilder();
         canonicalRequest.append(httpMethod.toUpperCase());
         if (isSignedHost) {
             canonicalRequest.append(RequestAuthenticationSchema.SPACE);
-            canonicalRequest.append(url.getHost());
+            canonicalRequest.append(urlComponents.getHostSource(), urlComponents.getHostStart(), urlComponents.getHostEnd());
         }
         canonicalRequest.append(RequestAuthenticationSchema.SPACE);
-        canonicalRequest.append(url.getPath());
-        String query = url.getQuery();
-        if (query != null && !"".equals(query)) {
+        canonicalRequest.append(urlComponents.getPathSource(), urlComponents.getPathStart(), urlComponents.getPathEnd());
+        if (queryCanonicalizer != null) {
+            if (queryCanonicalizer.size() > 0) {
+                queryCanonicalizer.appendTo(canonicalRequest.append(RequestAuthenticationSchema.SPACE));
+            }
+        } else if (urlComponents.hasQuery()) {
             canonicalRequest.append(RequestAuthenticationSchema.SPACE);
-            canonicalRequest.append(url.getQuery());
+            canonicalRequest.append(urlComponents.getQuerySource(), urlComponents.getQueryStart(), urlComponents.getQueryEnd());
+        }
+        if (payloadHash != null) {
+            canonicalRequest.append(RequestAuthenticationSchema.SPACE).append(payloadHash);
+        }
+        if (signedHeaders != null) {
+            signedHeaders.appendTo(canonicalRequest, headers);
         }
         return canonicalRequest.toString();
     }
 
     protected String createStringToSign(String authenticationType, String apiKey, String apiVersion, long timestamp, String canonicalRequest) {
+        CryptoEngine cryptoEngine = getCryptoEngine(authenticationType);
+        if (cryptoEngine != getCryptoEngine()) {
+            return createStringToSign(cryptoEngine, authenticationType, apiKey, apiVersion, timestamp, canonicalRequest);
+        }
         return new StringBuilder()
                 .append(authenticationType).append(RequestAuthenticationSchema.SPACE)
                 .append(apiKey).append(RequestAuthenticationSchema.SPACE)
@@ -59,15 +567,119 @@ public class RequestSigner extends AbstractRequestSigner {
                 .toString();
     }
 
+    private String createStringToSign(CryptoEngine cryptoEngine, String authenticationType, String apiKey, String apiVersion, long timestamp, String canonicalRequest) {
+        return new StringBuilder()
+                .append(authenticationType).append(RequestAuthenticationSchema.SPACE)
+                .append(apiKey).append(RequestAuthenticationSchema.SPACE)
+                .append(apiVersion).append(RequestAuthenticationSchema.SPACE)
+                .append(timestamp).append(RequestAuthenticationSchema.SPACE)
+                .append(encode(cryptoEngine.hash(canonicalRequest.getBytes(getCharset()))))
+                .toString();
+    }
+
+    private byte[] signingKey(RequestSignerParameters requestSignerParameters, long timestamp) {
+        if (signingHooksOverridden) {
+            return computeSigningKey(requestSignerParameters, timestamp);
+        }
+        return computeSigningKey(getCryptoEngine(requestSignerParameters.getAuthenticationType()), requestSignerParameters.getSecretApiKey(), requestSignerParameters.getApiVersion(), timestamp);
+    }
+
+    protected byte[] computeSigningKey(RequestSignerParameters requestSignerParameters, long timestamp) {
+        CryptoEngine cryptoEngine = getCryptoEngine(requestSignerParameters.getAuthenticationType());
+        if (signingHooksOverridden && cryptoEngine == getCryptoEngine()) {
+            return computeSigningKey(requestSignerParameters.getSecretApiKey(), requestSignerParameters.getApiVersion(), timestamp);
+        }
+        return copySigningKey(computeSigningKey(cryptoEngine, requestSignerParameters.getSecretApiKey(), requestSignerParameters.getApiVersion(), timestamp));
+    }
+
     protected byte[] computeSigningKey(String secretApiKey, String apiVersion, long timestamp) {
+        if (signingHooksOverridden) {
+            byte[] secretKey = (RequestAuthenticationSchema.REQUEST_SIGNER_SCHEMA + secretApiKey).getBytes(getCharset());
+            byte[] secretApiVersionKey = hash_hmac(apiVersion, secretKey);
+            byte[] secretTimestampKey = hash_hmac(Long.toString(timestamp), secretApiVersionKey);
+            return hash_hmac(RequestAuthenticationSchema.REQUEST_SIGNER_REQUEST, secretTimestampKey);
+        }
+        return copySigningKey(computeSigningKey(getCryptoEngine(), secretApiKey, apiVersion, timestamp));
+    }
+
+    private byte[] copySigningKey(byte[] signingKey) {
+        return signingKeyCache != null ? signingKey.clone() : signingKey;
+    }
+
+    private byte[] computeSigningKey(CryptoEngine cryptoEngine, String secretApiKey, String apiVersion, long timestamp) {
+        if (metricsListener == null) {
+            if (signingKeyCache != null) {
+                return signingKeyCache.signingKey(secretApiKey, apiVersion, cryptoEngine.getHashMacAlgorithm(), timestamp, (secret, version) -> computeSecretApiVersionKey(cryptoEngine, secret, version), (secretApiVersionKey, signingTimestamp) -> computeSigningKey(cryptoEngine, secretApiVersionKey, signingTimestamp));
+            }
+            return computeSigningKey(cryptoEngine, computeSecretApiVersionKey(cryptoEngine, secretApiKey, apiVersion), timestamp);
+        }
+        long start = System.nanoTime();
+        byte[] signingKey;
+        if (signingKeyCache != null) {
+            boolean[] signingKeyCacheMiss = new boolean[1];
+            signingKey = signingKeyCache.signingKey(secretApiKey, apiVersion, cryptoEngine.getHashMacAlgorithm(), timestamp, (secret, version) -> computeSecretApiVersionKey(cryptoEngine, secret, version), (secretApiVersionKey, signingTimestamp) -> {
+                signingKeyCacheMiss[0] = true;
+                return computeSigningKey(cryptoEngine, secretApiVersionKey, signingTimestamp);
+            });
+            metricsListener.onSigningKeyCacheAccess(!signingKeyCacheMiss[0]);
+        } else {
+            signingKey = computeSigningKey(cryptoEngine, computeSecretApiVersionKey(cryptoEngine, secretApiKey, apiVersion), timestamp);
+        }
+        endStage(SigningStage.SIGNING_KEY, start);
+        return signingKey;
+    }
+
+    protected byte[] computeSecretApiVersionKey(String secretApiKey, String apiVersion) {
+        return computeSecretApiVersionKey(getCryptoEngine(), secretApiKey, apiVersion);
+    }
+
+    protected byte[] computeSecretApiVersionKey(String secretApiKey, String apiVersion, String authenticationType) {
+        return computeSecretApiVersionKey(getCryptoEngine(authenticationType), secretApiKey, apiVersion);
+    }
+
+    private byte[] computeSecretApiVersionKey(CryptoEngine cryptoEngine, String secretApiKey, String apiVersion) {
         byte[] secretKey = (RequestAuthenticationSchema.REQUEST_SIGNER_SCHEMA + secretApiKey).getBytes(getCharset());
-        byte[] secretApiVersionKey = hash_hmac(apiVersion, secretKey);
-        byte[] secretTimestampKey = hash_hmac(Long.toString(timestamp), secretApiVersionKey);
-        return hash_hmac(RequestAuthenticationSchema.REQUEST_SIGNER_REQUEST, secretTimestampKey);
+        return cryptoEngine.hashHmac(apiVersion.getBytes(getCharset()), secretKey);
+    }
+
+    protected byte[] computeSigningKey(byte[] secretApiVersionKey, long timestamp) {
+        return computeSigningKey(getCryptoEngine(), secretApiVersionKey, timestamp);
+    }
+
+    protected byte[] computeSigningKey(byte[] secretApiVersionKey, String authenticationType, long timestamp) {
+        return computeSigningKey(getCryptoEngine(authenticationType), secretApiVersionKey, timestamp);
+    }
+
+    private byte[] computeSigningKey(CryptoEngine cryptoEngine, byte[] secretApiVersionKey, long timestamp) {
+        if (signingHooksOverridden) {
+            byte[] secretTimestampKey = cryptoEngine.hashHmac(Long.toString(timestamp).getBytes(getCharset()), secretApiVersionKey);
+            return cryptoEngine.hashHmac(RequestAuthenticationSchema.REQUEST_SIGNER_REQUEST.getBytes(getCharset()), secretTimestampKey);
+        }
+        return computeSigningKey(cryptoEngine, cryptoEngine.getMac(secretApiVersionKey), timestamp);
+    }
+
+    byte[] computeSigningKey(byte[] secretApiVersionKey, int length, String authenticationType, long timestamp) {
+        CryptoEngine cryptoEngine = getCryptoEngine(authenticationType);
+        if (signingHooksOverridden) {
+            return computeSigningKey(cryptoEngine, Arrays.copyOf(secretApiVersionKey, length), timestamp);
+        }
+        return computeSigningKey(cryptoEngine, cryptoEngine.getMac(secretApiVersionKey, 0, length), timestamp);
+    }
+
+    private byte[] computeSigningKey(CryptoEngine cryptoEngine, Mac secretApiVersionMac, long timestamp) {
+        SigningBuffer signingBuffer = SigningBuffer.get().append(timestamp);
+        secretApiVersionMac.update(signingBuffer.array(), 0, signingBuffer.length());
+        byte[] secretTimestampKey = secretApiVersionMac.doFinal();
+        return cryptoEngine.getMac(secretTimestampKey).doFinal(REQUEST_SIGNER_REQUEST_BYTES);
     }
 
     protected String sign(String text, byte[] signingKey) {
         byte[] signature = hash_hmac(text, signingKey);
         return encode(signature);
     }
+
+    private String sign(CryptoEngine cryptoEngine, String text, byte[] signingKey) {
+        byte[] signature = cryptoEngine.hashHmac(text.getBytes(getCharset()), signingKey);
+        return encode(signature);
+    }
 }
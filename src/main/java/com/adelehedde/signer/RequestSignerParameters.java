@@ -10,6 +10,11 @@ public class RequestSignerParameters {
     private String apiVersion;
     private boolean signedHost;
     private String authenticationType;
+    private boolean signedPayload;
+    private String keyId;
+    private SignedHeaders signedHeaders;
+    private boolean canonicalQuery;
+    private AuthorizationHeader.Prefix authorizationHeaderPrefix;
 
     public RequestSignerParameters() {
     }
@@ -32,6 +37,7 @@ public class RequestSignerParameters {
 
     public void setApiKey(String apiKey) {
         this.apiKey = apiKey;
+        this.authorizationHeaderPrefix = null;
     }
 
     public String getSecretApiKey() {
@@ -48,6 +54,7 @@ public class RequestSignerParameters {
 
     public void setApiVersion(String apiVersion) {
         this.apiVersion = apiVersion;
+        this.authorizationHeaderPrefix = null;
     }
 
     public boolean isSignedHost() {
@@ -56,6 +63,7 @@ public class RequestSignerParameters {
 
     public void setSignedHost(boolean signedHost) {
         this.signedHost = signedHost;
+        this.authorizationHeaderPrefix = null;
     }
 
     public String getAuthenticationType() {
@@ -64,6 +72,52 @@ public class RequestSignerParameters {
 
     public void setAuthenticationType(String authenticationType) {
         this.authenticationType = authenticationType;
+        this.authorizationHeaderPrefix = null;
+    }
+
+    public boolean isSignedPayload() {
+        return signedPayload;
+    }
+
+    public void setSignedPayload(boolean signedPayload) {
+        this.signedPayload = signedPayload;
+        this.authorizationHeaderPrefix = null;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public void setKeyId(String keyId) {
+        this.keyId = keyId;
+        this.authorizationHeaderPrefix = null;
+    }
+
+    public SignedHeaders getSignedHeaders() {
+        return signedHeaders;
+    }
+
+    public void setSignedHeaders(SignedHeaders signedHeaders) {
+        this.signedHeaders = signedHeaders;
+        this.authorizationHeaderPrefix = null;
+    }
+
+    public boolean isCanonicalQuery() {
+        return canonicalQuery;
+    }
+
+    public void setCanonicalQuery(boolean canonicalQuery) {
+        this.canonicalQuery = canonicalQuery;
+        this.authorizationHeaderPrefix = null;
+    }
+
+    AuthorizationHeader.Prefix getAuthorizationHeaderPrefix() {
+        AuthorizationHeader.Prefix prefix = authorizationHeaderPrefix;
+        if (prefix == null) {
+            prefix = AuthorizationHeader.Prefix.of(this);
+            authorizationHeaderPrefix = prefix;
+        }
+        return prefix;
     }
 
     @Override
@@ -74,6 +128,10 @@ public class RequestSignerParameters {
                 ", apiVersion='" + apiVersion + '\'' +
                 ", signedHost=" + signedHost +
                 ", authenticationType=" + authenticationType +
+                ", signedPayload=" + signedPayload +
+                ", keyId='" + keyId + '\'' +
+                ", signedHeaders=" + signedHeaders +
+                ", canonicalQuery=" + canonicalQuery +
                 '}';
     }
 
@@ -85,10 +143,14 @@ public class RequestSignerParameters {
         RequestSignerParameters that = (RequestSignerParameters) o;
 
         if (signedHost != that.signedHost) return false;
+        if (signedPayload != that.signedPayload) return false;
+        if (canonicalQuery != that.canonicalQuery) return false;
         if (apiKey != null ? !apiKey.equals(that.apiKey) : that.apiKey != null) return false;
         if (secretApiKey != null ? !secretApiKey.equals(that.secretApiKey) : that.secretApiKey != null) return false;
         if (apiVersion != null ? !apiVersion.equals(that.apiVersion) : that.apiVersion != null) return false;
-        return authenticationType != null ? authenticationType.equals(that.authenticationType) : that.authenticationType == null;
+        if (authenticationType != null ? !authenticationType.equals(that.authenticationType) : that.authenticationType != null) return false;
+        if (keyId != null ? !keyId.equals(that.keyId) : that.keyId != null) return false;
+        return signedHeaders != null ? signedHeaders.equals(that.signedHeaders) : that.signedHeaders == null;
     }
 
     @Override
@@ -98,6 +160,10 @@ public class RequestSignerParameters {
         result = 31 * result + (apiVersion != null ? apiVersion.hashCode() : 0);
         result = 31 * result + (signedHost ? 1 : 0);
         result = 31 * result + (authenticationType != null ? authenticationType.hashCode() : 0);
+        result = 31 * result + (signedPayload ? 1 : 0);
+        result = 31 * result + (keyId != null ? keyId.hashCode() : 0);
+        result = 31 * result + (signedHeaders != null ? signedHeaders.hashCode() : 0);
+        result = 31 * result + (canonicalQuery ? 1 : 0);
         return result;
     }
 }
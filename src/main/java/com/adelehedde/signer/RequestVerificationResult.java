@@ -0,0 +1,15 @@
+package com.adelehedde.signer;
+
+public enum RequestVerificationResult {
+
+    VALID,
+    MALFORMED_REQUEST,
+    EXPIRED_TIMESTAMP,
+    UNKNOWN_API_KEY,
+    INVALID_SIGNATURE,
+    REPLAYED_REQUEST;
+
+    public boolean isValid() {
+        return this == VALID;
+    }
+}
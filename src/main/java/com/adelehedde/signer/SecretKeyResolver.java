@@ -0,0 +1,10 @@
+package com.adelehedde.signer;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+@FunctionalInterface
+public interface SecretKeyResolver {
+
+    CompletableFuture<Optional<String>> resolve(String apiKey);
+}
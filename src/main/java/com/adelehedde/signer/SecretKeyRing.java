@@ -0,0 +1,150 @@
+package com.adelehedde.signer;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class SecretKeyRing {
+
+    public static final int DEFAULT_MAXIMUM_TRIALS = 2;
+
+    private final int maximumTrials;
+    private final ConcurrentMap<String, KeyVersions> entries = new ConcurrentHashMap<>();
+
+    public SecretKeyRing() {
+        this(DEFAULT_MAXIMUM_TRIALS);
+    }
+
+    public SecretKeyRing(int maximumTrials) {
+        if (maximumTrials < 0) {
+            throw new IllegalArgumentException(MessageFormat.format("Maximum trials must not be negative : {0}", maximumTrials));
+        }
+        this.maximumTrials = maximumTrials;
+    }
+
+    public int getMaximumTrials() {
+        return maximumTrials;
+    }
+
+    public void rotate(String apiKey, String keyId, String secretApiKey) {
+        if (apiKey == null || keyId == null || secretApiKey == null) {
+            throw new IllegalArgumentException(MessageFormat.format("Api key, key id and secret api key are required : {0}, {1}", apiKey, keyId));
+        }
+        entries.compute(apiKey, (key, keyVersions) -> keyVersions == null ? new KeyVersions(new String[]{keyId}, new String[]{secretApiKey}) : keyVersions.rotate(keyId, secretApiKey));
+    }
+
+    public void retire(String apiKey, String keyId) {
+        entries.computeIfPresent(apiKey, (key, keyVersions) -> keyVersions.retire(keyId));
+    }
+
+    public void remove(String apiKey) {
+        entries.remove(apiKey);
+    }
+
+    public String getSecretApiKey(String apiKey, String keyId) {
+        KeyVersions keyVersions = entries.get(apiKey);
+        if (keyVersions == null) {
+            return null;
+        }
+        int index = keyVersions.indexOf(keyId);
+        return index >= 0 ? keyVersions.secretApiKeys[index] : null;
+    }
+
+    public String getPrimaryKeyId(String apiKey) {
+        KeyVersions keyVersions = entries.get(apiKey);
+        return keyVersions != null ? keyVersions.keyIds[0] : null;
+    }
+
+    public String getPrimarySecretApiKey(String apiKey) {
+        KeyVersions keyVersions = entries.get(apiKey);
+        return keyVersions != null ? keyVersions.secretApiKeys[0] : null;
+    }
+
+    public List<String> getTrialSecretApiKeys(String apiKey) {
+        KeyVersions keyVersions = entries.get(apiKey);
+        if (keyVersions == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(keyVersions.secretApiKeys).subList(0, Math.min(maximumTrials, keyVersions.secretApiKeys.length));
+    }
+
+    public RequestSignerParameters createRequestSignerParameters(String apiKey, String apiVersion) {
+        KeyVersions keyVersions = entries.get(apiKey);
+        if (keyVersions == null) {
+            return null;
+        }
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters(apiKey, keyVersions.secretApiKeys[0], apiVersion);
+        requestSignerParameters.setKeyId(keyVersions.keyIds[0]);
+        return requestSignerParameters;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public String toString() {
+        return "SecretKeyRing{" +
+                "maximumTrials=" + maximumTrials +
+                ", size=" + size() +
+                '}';
+    }
+
+    private static final class KeyVersions {
+
+        private final String[] keyIds;
+        private final String[] secretApiKeys;
+
+        private KeyVersions(String[] keyIds, String[] secretApiKeys) {
+            this.keyIds = keyIds;
+            this.secretApiKeys = secretApiKeys;
+        }
+
+        private int indexOf(String keyId) {
+            for (int i = 0; i < keyIds.length; i++) {
+                if (keyIds[i].equals(keyId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private KeyVersions rotate(String keyId, String secretApiKey) {
+            int index = indexOf(keyId);
+            int length = index >= 0 ? keyIds.length : keyIds.length + 1;
+            String[] rotatedKeyIds = new String[length];
+            String[] rotatedSecretApiKeys = new String[length];
+            rotatedKeyIds[0] = keyId;
+            rotatedSecretApiKeys[0] = secretApiKey;
+            for (int i = 0, j = 1; i < keyIds.length; i++) {
+                if (i != index) {
+                    rotatedKeyIds[j] = keyIds[i];
+                    rotatedSecretApiKeys[j++] = secretApiKeys[i];
+                }
+            }
+            return new KeyVersions(rotatedKeyIds, rotatedSecretApiKeys);
+        }
+
+        private KeyVersions retire(String keyId) {
+            int index = indexOf(keyId);
+            if (index < 0) {
+                return this;
+            }
+            if (keyIds.length == 1) {
+                return null;
+            }
+            String[] retiredKeyIds = new String[keyIds.length - 1];
+            String[] retiredSecretApiKeys = new String[keyIds.length - 1];
+            for (int i = 0, j = 0; i < keyIds.length; i++) {
+                if (i != index) {
+                    retiredKeyIds[j] = keyIds[i];
+                    retiredSecretApiKeys[j++] = secretApiKeys[i];
+                }
+            }
+            return new KeyVersions(retiredKeyIds, retiredSecretApiKeys);
+        }
+    }
+}
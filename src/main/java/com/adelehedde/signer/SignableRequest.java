@@ -0,0 +1,88 @@
+package com.adelehedde.signer;
+
+import java.util.List;
+import java.util.Map;
+
+public class SignableRequest {
+
+    private final String httpMethod;
+    private final String url;
+    private final String payloadHash;
+    private final Map<String, List<String>> headers;
+    private final QueryParameters queryParameters;
+
+    public SignableRequest(String httpMethod, String url) {
+        this(httpMethod, url, null);
+    }
+
+    public SignableRequest(String httpMethod, String url, String payloadHash) {
+        this(httpMethod, url, payloadHash, null);
+    }
+
+    public SignableRequest(String httpMethod, String url, String payloadHash, Map<String, List<String>> headers) {
+        this(httpMethod, url, payloadHash, headers, null);
+    }
+
+    public SignableRequest(String httpMethod, String url, String payloadHash, Map<String, List<String>> headers, QueryParameters queryParameters) {
+        this.httpMethod = httpMethod;
+        this.url = url;
+        this.payloadHash = payloadHash;
+        this.headers = headers;
+        this.queryParameters = queryParameters;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getPayloadHash() {
+        return payloadHash;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public QueryParameters getQueryParameters() {
+        return queryParameters;
+    }
+
+    @Override
+    public String toString() {
+        return "SignableRequest{" +
+                "httpMethod='" + httpMethod + '\'' +
+                ", url='" + url + '\'' +
+                ", payloadHash='" + payloadHash + '\'' +
+                ", headers=" + headers +
+                ", queryParameters=" + queryParameters +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SignableRequest)) return false;
+
+        SignableRequest that = (SignableRequest) o;
+
+        if (httpMethod != null ? !httpMethod.equals(that.httpMethod) : that.httpMethod != null) return false;
+        if (url != null ? !url.equals(that.url) : that.url != null) return false;
+        if (payloadHash != null ? !payloadHash.equals(that.payloadHash) : that.payloadHash != null) return false;
+        if (headers != null ? !headers.equals(that.headers) : that.headers != null) return false;
+        return queryParameters != null ? queryParameters.equals(that.queryParameters) : that.queryParameters == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = httpMethod != null ? httpMethod.hashCode() : 0;
+        result = 31 * result + (url != null ? url.hashCode() : 0);
+        result = 31 * result + (payloadHash != null ? payloadHash.hashCode() : 0);
+        result = 31 * result + (headers != null ? headers.hashCode() : 0);
+        result = 31 * result + (queryParameters != null ? queryParameters.hashCode() : 0);
+        return result;
+    }
+}
@@ -0,0 +1,41 @@
+package com.adelehedde.signer;
+
+public enum SignatureAlgorithmSuite {
+
+    REQUEST_SIGNATURE(RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE, AbstractRequestSigner.SHA_256_ALGORITHM, AbstractRequestSigner.HMAC_SHA_256_ALGORITHM),
+    REQUEST_SIGNATURE_SHA384("REQUEST-SIGNATURE-SHA384", "SHA-384", "HmacSHA384"),
+    REQUEST_SIGNATURE_SHA512("REQUEST-SIGNATURE-SHA512", "SHA-512", "HmacSHA512");
+
+    private static final SignatureAlgorithmSuite[] SUITES = values();
+
+    private final String authenticationType;
+    private final String hashAlgorithm;
+    private final String hashMacAlgorithm;
+
+    SignatureAlgorithmSuite(String authenticationType, String hashAlgorithm, String hashMacAlgorithm) {
+        this.authenticationType = authenticationType;
+        this.hashAlgorithm = hashAlgorithm;
+        this.hashMacAlgorithm = hashMacAlgorithm;
+    }
+
+    public String getAuthenticationType() {
+        return authenticationType;
+    }
+
+    public String getHashAlgorithm() {
+        return hashAlgorithm;
+    }
+
+    public String getHashMacAlgorithm() {
+        return hashMacAlgorithm;
+    }
+
+    public static SignatureAlgorithmSuite fromAuthenticationType(String authenticationType) {
+        for (SignatureAlgorithmSuite suite : SUITES) {
+            if (suite.authenticationType.equals(authenticationType)) {
+                return suite;
+            }
+        }
+        return null;
+    }
+}
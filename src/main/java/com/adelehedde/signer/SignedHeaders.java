@@ -0,0 +1,244 @@
+package com.adelehedde.signer;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public final class SignedHeaders {
+
+    public static final char NAME_SEPARATOR = ';';
+
+    private static final char HEADER_SEPARATOR = '\n';
+    private static final char NAME_VALUE_SEPARATOR = ':';
+    private static final char VALUE_SEPARATOR = ',';
+
+    private final String[] names;
+    private final String value;
+
+    private SignedHeaders(String[] names) {
+        this.names = names;
+        this.value = String.join(String.valueOf(NAME_SEPARATOR), names);
+    }
+
+    public static SignedHeaders of(String... names) {
+        return of(Arrays.asList(names));
+    }
+
+    public static SignedHeaders of(Collection<String> names) {
+        String[] canonicalNames = new String[names.size()];
+        int size = 0;
+        for (String name : names) {
+            String canonicalName = canonicalName(name);
+            int index = Arrays.binarySearch(canonicalNames, 0, size, canonicalName);
+            if (index < 0) {
+                index = -index - 1;
+                System.arraycopy(canonicalNames, index, canonicalNames, index + 1, size - index);
+                canonicalNames[index] = canonicalName;
+                size++;
+            }
+        }
+        if (size == 0) {
+            throw new IllegalArgumentException("Signed headers must not be empty");
+        }
+        return new SignedHeaders(Arrays.copyOf(canonicalNames, size));
+    }
+
+    public static SignedHeaders parse(CharSequence value) {
+        return of(Arrays.asList(value.toString().split(String.valueOf(NAME_SEPARATOR), -1)));
+    }
+
+    private static String canonicalName(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Signed header name must not be null");
+        }
+        int start = 0;
+        int end = name.length();
+        while (start < end && name.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && name.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            throw new IllegalArgumentException(MessageFormat.format("Signed header name must not be empty : {0}", name));
+        }
+        char[] canonicalName = new char[end - start];
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (!isTokenChar(c)) {
+                throw new IllegalArgumentException(MessageFormat.format("Signed header name is not valid : {0}", name));
+            }
+            canonicalName[i - start] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return new String(canonicalName);
+    }
+
+    static boolean isTokenChar(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '!' || c == '#' || c == '$' || c == '%' || c == '&' || c == '\'' || c == '*'
+                || c == '+' || c == '-' || c == '.' || c == '^' || c == '_' || c == '`' || c == '|' || c == '~';
+    }
+
+    public List<String> getNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    void writeTo(SigningBuffer signingBuffer, Map<String, List<String>> headers) {
+        HeaderValues[] values = matchHeaders(headers);
+        for (int i = 0; i < names.length; i++) {
+            signingBuffer.append((byte) HEADER_SEPARATOR).append(names[i]).append((byte) NAME_VALUE_SEPARATOR);
+            boolean first = true;
+            for (HeaderValues headerValues = values[i]; headerValues != null; headerValues = headerValues.next) {
+                for (String headerValue : headerValues.values) {
+                    if (!first) {
+                        signingBuffer.append((byte) VALUE_SEPARATOR);
+                    }
+                    signingBuffer.append(headerValue, trimStart(headerValue), trimEnd(headerValue));
+                    first = false;
+                }
+            }
+        }
+    }
+
+    void appendTo(StringBuilder canonicalRequest, Map<String, List<String>> headers) {
+        HeaderValues[] values = matchHeaders(headers);
+        for (int i = 0; i < names.length; i++) {
+            canonicalRequest.append(HEADER_SEPARATOR).append(names[i]).append(NAME_VALUE_SEPARATOR);
+            boolean first = true;
+            for (HeaderValues headerValues = values[i]; headerValues != null; headerValues = headerValues.next) {
+                for (String headerValue : headerValues.values) {
+                    if (!first) {
+                        canonicalRequest.append(VALUE_SEPARATOR);
+                    }
+                    canonicalRequest.append(headerValue, trimStart(headerValue), trimEnd(headerValue));
+                    first = false;
+                }
+            }
+        }
+    }
+
+    private HeaderValues[] matchHeaders(Map<String, List<String>> headers) {
+        HeaderValues[] values = new HeaderValues[names.length];
+        if (headers != null) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                int index = indexOf(header.getKey());
+                if (index < 0 || header.getValue() == null) {
+                    continue;
+                }
+                values[index] = HeaderValues.insert(values[index], header.getKey(), header.getValue());
+            }
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (values[i] == null) {
+                throw new RequestSignerException(MessageFormat.format("Signed header is missing : {0}", names[i]));
+            }
+        }
+        return values;
+    }
+
+    private int indexOf(String headerName) {
+        if (headerName == null) {
+            return -1;
+        }
+        int start = trimStart(headerName);
+        int end = trimEnd(headerName);
+        int low = 0;
+        int high = names.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(names[middle], headerName, start, end);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private static int compare(String name, String headerName, int start, int end) {
+        int length = Math.min(name.length(), end - start);
+        for (int i = 0; i < length; i++) {
+            char c = headerName.charAt(start + i);
+            char lowerCase = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+            if (name.charAt(i) != lowerCase) {
+                return name.charAt(i) - lowerCase;
+            }
+        }
+        return name.length() - (end - start);
+    }
+
+    private static int trimStart(String value) {
+        int start = 0;
+        while (start < value.length() && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return Math.max(end, trimStart(value));
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    private static final class HeaderValues {
+
+        private final String name;
+        private final List<String> values;
+        private HeaderValues next;
+
+        private HeaderValues(String name, List<String> values, HeaderValues next) {
+            this.name = name;
+            this.values = values;
+            this.next = next;
+        }
+
+        private static HeaderValues insert(HeaderValues head, String name, List<String> values) {
+            if (head == null || name.compareTo(head.name) < 0) {
+                return new HeaderValues(name, values, head);
+            }
+            HeaderValues previous = head;
+            while (previous.next != null && name.compareTo(previous.next.name) >= 0) {
+                previous = previous.next;
+            }
+            previous.next = new HeaderValues(name, values, previous.next);
+            return head;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SignedHeaders)) return false;
+
+        SignedHeaders that = (SignedHeaders) o;
+
+        return Arrays.equals(names, that.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(names);
+    }
+}
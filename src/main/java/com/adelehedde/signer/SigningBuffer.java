@@ -0,0 +1,147 @@
+package com.adelehedde.signer;
+
+import java.util.Arrays;
+
+final class SigningBuffer {
+
+    private static final int INITIAL_CAPACITY = 512;
+    private static final int SCRATCH_CAPACITY = 128;
+    private static final byte[] NULL_BYTES = {'n', 'u', 'l', 'l'};
+    private static final byte[] MIN_LONG_BYTES = Long.toString(Long.MIN_VALUE).getBytes(AbstractRequestSigner.UTF8_CHARSET);
+
+    private static final ThreadLocal<SigningBuffer> BUFFERS = ThreadLocal.withInitial(SigningBuffer::new);
+    private static final ThreadLocal<UrlComponents> URL_COMPONENTS = ThreadLocal.withInitial(UrlComponents::new);
+    private static final ThreadLocal<QueryCanonicalizer> QUERY_CANONICALIZERS = ThreadLocal.withInitial(QueryCanonicalizer::new);
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int length;
+
+    final byte[] digest = new byte[SCRATCH_CAPACITY];
+    final byte[] encoded = new byte[SCRATCH_CAPACITY * 2];
+
+    static SigningBuffer get() {
+        SigningBuffer signingBuffer = BUFFERS.get();
+        signingBuffer.reset();
+        return signingBuffer;
+    }
+
+    static UrlComponents urlComponents() {
+        return URL_COMPONENTS.get();
+    }
+
+    static QueryCanonicalizer queryCanonicalizer() {
+        return QUERY_CANONICALIZERS.get().reset();
+    }
+
+    void reset() {
+        length = 0;
+    }
+
+    byte[] array() {
+        return bytes;
+    }
+
+    int length() {
+        return length;
+    }
+
+    SigningBuffer append(byte value) {
+        ensureCapacity(1);
+        bytes[length++] = value;
+        return this;
+    }
+
+    SigningBuffer append(byte[] value) {
+        return append(value, 0, value.length);
+    }
+
+    SigningBuffer append(byte[] value, int offset, int valueLength) {
+        ensureCapacity(valueLength);
+        System.arraycopy(value, offset, bytes, length, valueLength);
+        length += valueLength;
+        return this;
+    }
+
+    SigningBuffer append(CharSequence value) {
+        if (value == null) {
+            return append(NULL_BYTES);
+        }
+        return append(value, 0, value.length());
+    }
+
+    SigningBuffer append(CharSequence value, int start, int end) {
+        ensureCapacity(end - start);
+        int index = start;
+        while (index < end) {
+            char c = value.charAt(index++);
+            if (c < 0x80) {
+                bytes[length++] = (byte) c;
+            } else {
+                index = appendNonAscii(value, c, index, end);
+            }
+        }
+        return this;
+    }
+
+    private int appendNonAscii(CharSequence value, char c, int index, int end) {
+        ensureCapacity(4 + end - index);
+        if (c < 0x800) {
+            bytes[length++] = (byte) (0xc0 | (c >> 6));
+            bytes[length++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isSurrogate(c)) {
+            if (Character.isHighSurrogate(c) && index < end && Character.isLowSurrogate(value.charAt(index))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(index++));
+                bytes[length++] = (byte) (0xf0 | (codePoint >> 18));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                bytes[length++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else {
+                bytes[length++] = '?';
+            }
+        } else {
+            bytes[length++] = (byte) (0xe0 | (c >> 12));
+            bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            bytes[length++] = (byte) (0x80 | (c & 0x3f));
+        }
+        return index;
+    }
+
+    SigningBuffer append(boolean value) {
+        return append(value ? "true" : "false");
+    }
+
+    SigningBuffer append(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append(MIN_LONG_BYTES);
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            bytes[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        int index = length + digits;
+        do {
+            bytes[--index] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value > 0);
+        length += digits;
+        return this;
+    }
+
+    SigningBuffer appendBase64Url(byte[] value, int offset, int valueLength) {
+        ensureCapacity(Base64Url.encodedLength(valueLength));
+        length += Base64Url.encode(value, offset, valueLength, bytes, length);
+        return this;
+    }
+
+    private void ensureCapacity(int additionalLength) {
+        int requiredLength = length + additionalLength;
+        if (requiredLength > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(requiredLength, bytes.length * 2));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.adelehedde.signer;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+public class SigningHttpClient extends HttpClient {
+
+    public static final int DEFAULT_MAXIMUM_RETRIES = 0;
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE");
+
+    private final HttpClient httpClient;
+    private final RequestSigner requestSigner;
+    private final RequestSignerParameters requestSignerParameters;
+    private final int maximumRetries;
+
+    public SigningHttpClient(HttpClient httpClient, RequestSignerParameters requestSignerParameters) {
+        this(httpClient, new RequestSigner(), requestSignerParameters);
+    }
+
+    public SigningHttpClient(HttpClient httpClient, RequestSigner requestSigner, RequestSignerParameters requestSignerParameters) {
+        this(httpClient, requestSigner, requestSignerParameters, DEFAULT_MAXIMUM_RETRIES);
+    }
+
+    public SigningHttpClient(HttpClient httpClient, RequestSigner requestSigner, RequestSignerParameters requestSignerParameters, int maximumRetries) {
+        if (maximumRetries < 0) {
+            throw new IllegalArgumentException(MessageFormat.format("Maximum retries must not be negative : {0}", maximumRetries));
+        }
+        this.httpClient = httpClient;
+        this.requestSigner = requestSigner;
+        this.requestSignerParameters = requestSignerParameters;
+        this.maximumRetries = maximumRetries;
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public RequestSigner getRequestSigner() {
+        return requestSigner;
+    }
+
+    public int getMaximumRetries() {
+        return maximumRetries;
+    }
+
+    protected long getCurrentTimestamp() {
+        return Instant.now().toEpochMilli();
+    }
+
+    public HttpRequest sign(HttpRequest httpRequest) {
+        return sign(httpRequest, getCurrentTimestamp());
+    }
+
+    public HttpRequest sign(HttpRequest httpRequest, long timestamp) {
+        return sign(copy(httpRequest), httpRequest, timestamp);
+    }
+
+    public HttpRequest sign(HttpRequest.Builder httpRequestBuilder) {
+        return sign(httpRequestBuilder, getCurrentTimestamp());
+    }
+
+    public HttpRequest sign(HttpRequest.Builder httpRequestBuilder, long timestamp) {
+        return sign(httpRequestBuilder, httpRequestBuilder.build(), timestamp);
+    }
+
+    private HttpRequest sign(HttpRequest.Builder httpRequestBuilder, HttpRequest httpRequest, long timestamp) {
+        RequestAuthenticationSchema requestAuthenticationSchema = requestSigner.signRequest(httpRequest.method(), httpRequest.uri(), httpRequest.headers().map(), requestSignerParameters, timestamp);
+        return httpRequestBuilder.setHeader(RequestAuthenticationSchema.AUTHORIZATION_HEADER, requestAuthenticationSchema.getAuthorizationHeader()).build();
+    }
+
+    private static HttpRequest.Builder copy(HttpRequest httpRequest) {
+        HttpRequest.Builder httpRequestBuilder = HttpRequest.newBuilder(httpRequest.uri())
+                .method(httpRequest.method(), httpRequest.bodyPublisher().orElse(HttpRequest.BodyPublishers.noBody()))
+                .expectContinue(httpRequest.expectContinue());
+        httpRequest.timeout().ifPresent(httpRequestBuilder::timeout);
+        httpRequest.version().ifPresent(httpRequestBuilder::version);
+        httpRequest.headers().map().forEach((name, values) -> {
+            if (!RequestAuthenticationSchema.AUTHORIZATION_HEADER.equalsIgnoreCase(name)) {
+                values.forEach(value -> httpRequestBuilder.header(name, value));
+            }
+        });
+        return httpRequestBuilder;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest httpRequest, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        HttpRequest.Builder httpRequestBuilder = copy(httpRequest);
+        int retries = getRetries(httpRequest);
+        for (int retry = 0; ; retry++) {
+            HttpRequest signedHttpRequest = sign(httpRequestBuilder, httpRequest, getCurrentTimestamp());
+            try {
+                return httpClient.send(signedHttpRequest, responseBodyHandler);
+            } catch (IOException e) {
+                if (retry >= retries) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest httpRequest, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return signAndSendAsync(httpRequest, signedHttpRequest -> httpClient.sendAsync(signedHttpRequest, responseBodyHandler));
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest httpRequest, HttpResponse.BodyHandler<T> responseBodyHandler, HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return signAndSendAsync(httpRequest, signedHttpRequest -> httpClient.sendAsync(signedHttpRequest, responseBodyHandler, pushPromiseHandler));
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> signAndSendAsync(HttpRequest httpRequest, Function<HttpRequest, CompletableFuture<HttpResponse<T>>> sender) {
+        return sendAsync(copy(httpRequest), httpRequest, getRetries(httpRequest), 0, sender);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest.Builder httpRequestBuilder, HttpRequest httpRequest, int retries, int retry, Function<HttpRequest, CompletableFuture<HttpResponse<T>>> sender) {
+        HttpRequest signedHttpRequest;
+        try {
+            signedHttpRequest = sign(httpRequestBuilder, httpRequest, getCurrentTimestamp());
+        } catch (RequestSignerException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return sender.apply(signedHttpRequest).handle((httpResponse, throwable) -> {
+            if (throwable == null) {
+                return CompletableFuture.completedFuture(httpResponse);
+            }
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            if (!(cause instanceof IOException) || retry >= retries) {
+                return CompletableFuture.<HttpResponse<T>>failedFuture(cause);
+            }
+            return sendAsync(httpRequestBuilder, httpRequest, retries, retry + 1, sender);
+        }).thenCompose(Function.identity());
+    }
+
+    private int getRetries(HttpRequest httpRequest) {
+        return IDEMPOTENT_METHODS.contains(httpRequest.method()) ? maximumRetries : 0;
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return httpClient.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return httpClient.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return httpClient.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return httpClient.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return httpClient.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return httpClient.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return httpClient.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return httpClient.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return httpClient.executor();
+    }
+
+    @Override
+    public String toString() {
+        return "SigningHttpClient{" +
+                "httpClient=" + httpClient +
+                ", maximumRetries=" + maximumRetries +
+                '}';
+    }
+}
@@ -0,0 +1,316 @@
+package com.adelehedde.signer;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+public class SigningKeyCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private static final int MAXIMUM_STRIPES = 16;
+    private static final int MINIMUM_STRIPE_SIZE = 64;
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+    private static final ThreadLocal<CredentialKey> LOOKUP_KEYS = ThreadLocal.withInitial(CredentialKey::new);
+
+    private final int maximumSize;
+    private final ConcurrentMap<CredentialKey, CredentialEntry> entries = new ConcurrentHashMap<>();
+    private final Stripe[] stripes;
+
+    private final LongAdder secretApiVersionKeyHitCount = new LongAdder();
+    private final LongAdder secretApiVersionKeyMissCount = new LongAdder();
+    private final LongAdder signingKeyHitCount = new LongAdder();
+    private final LongAdder signingKeyMissCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public SigningKeyCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public SigningKeyCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException(MessageFormat.format("Maximum size must be positive : {0}", maximumSize));
+        }
+        this.maximumSize = maximumSize;
+        this.stripes = new Stripe[Math.min(MAXIMUM_STRIPES, Integer.highestOneBit(Math.max(1, maximumSize / MINIMUM_STRIPE_SIZE)))];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(maximumSize / stripes.length + (i < maximumSize % stripes.length ? 1 : 0));
+        }
+    }
+
+    public byte[] getSecretApiVersionKey(String secretApiKey, String apiVersion, BiFunction<String, String, byte[]> secretApiVersionKeyLoader) {
+        return getSecretApiVersionKey(secretApiKey, apiVersion, null, secretApiVersionKeyLoader);
+    }
+
+    public byte[] getSecretApiVersionKey(String secretApiKey, String apiVersion, String algorithm, BiFunction<String, String, byte[]> secretApiVersionKeyLoader) {
+        return getCredentialEntry(secretApiKey, apiVersion, algorithm, secretApiVersionKeyLoader).secretApiVersionKey.clone();
+    }
+
+    public byte[] getSigningKey(String secretApiKey, String apiVersion, long timestamp, BiFunction<String, String, byte[]> secretApiVersionKeyLoader, SigningKeyLoader signingKeyLoader) {
+        return getSigningKey(secretApiKey, apiVersion, null, timestamp, secretApiVersionKeyLoader, signingKeyLoader);
+    }
+
+    public byte[] getSigningKey(String secretApiKey, String apiVersion, String algorithm, long timestamp, BiFunction<String, String, byte[]> secretApiVersionKeyLoader, SigningKeyLoader signingKeyLoader) {
+        return signingKey(secretApiKey, apiVersion, algorithm, timestamp, secretApiVersionKeyLoader, signingKeyLoader).clone();
+    }
+
+    byte[] signingKey(String secretApiKey, String apiVersion, String algorithm, long timestamp, BiFunction<String, String, byte[]> secretApiVersionKeyLoader, SigningKeyLoader signingKeyLoader) {
+        CredentialEntry credentialEntry = getCredentialEntry(secretApiKey, apiVersion, algorithm, secretApiVersionKeyLoader);
+        TimestampEntry timestampEntry = credentialEntry.latest;
+        if (timestampEntry != null && timestampEntry.timestamp == timestamp) {
+            signingKeyHitCount.increment();
+            return timestampEntry.signingKey;
+        }
+        signingKeyMissCount.increment();
+        byte[] signingKey = signingKeyLoader.load(credentialEntry.secretApiVersionKey, timestamp);
+        credentialEntry.latest = new TimestampEntry(timestamp, signingKey);
+        return signingKey;
+    }
+
+    private CredentialEntry getCredentialEntry(String secretApiKey, String apiVersion, String algorithm, BiFunction<String, String, byte[]> secretApiVersionKeyLoader) {
+        CredentialKey lookupKey = LOOKUP_KEYS.get().set(secretApiKey, apiVersion, algorithm);
+        CredentialEntry credentialEntry = entries.get(lookupKey);
+        if (credentialEntry != null) {
+            secretApiVersionKeyHitCount.increment();
+            if (!credentialEntry.referenced) {
+                credentialEntry.referenced = true;
+            }
+            return credentialEntry;
+        }
+        secretApiVersionKeyMissCount.increment();
+        CredentialKey credentialKey = lookupKey.copy();
+        byte[] secretApiVersionKey = secretApiVersionKeyLoader.apply(secretApiKey, apiVersion);
+        return stripes[credentialKey.hash & (stripes.length - 1)].put(credentialKey, secretApiVersionKey);
+    }
+
+    void invalidate(String secretApiKey, String apiVersion, String algorithm) {
+        CredentialKey lookupKey = LOOKUP_KEYS.get().set(secretApiKey, apiVersion, algorithm);
+        stripes[lookupKey.hash & (stripes.length - 1)].remove(lookupKey);
+    }
+
+    public void invalidateAll() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getSecretApiVersionKeyHitCount() {
+        return secretApiVersionKeyHitCount.sum();
+    }
+
+    public long getSecretApiVersionKeyMissCount() {
+        return secretApiVersionKeyMissCount.sum();
+    }
+
+    public long getSigningKeyHitCount() {
+        return signingKeyHitCount.sum();
+    }
+
+    public long getSigningKeyMissCount() {
+        return signingKeyMissCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "SigningKeyCache{" +
+                "maximumSize=" + maximumSize +
+                ", size=" + size() +
+                ", stripes=" + stripes.length +
+                ", secretApiVersionKeyHitCount=" + getSecretApiVersionKeyHitCount() +
+                ", secretApiVersionKeyMissCount=" + getSecretApiVersionKeyMissCount() +
+                ", signingKeyHitCount=" + getSigningKeyHitCount() +
+                ", signingKeyMissCount=" + getSigningKeyMissCount() +
+                ", evictionCount=" + getEvictionCount() +
+                '}';
+    }
+
+    @FunctionalInterface
+    public interface SigningKeyLoader {
+
+        byte[] load(byte[] secretApiVersionKey, long timestamp);
+    }
+
+    private static final class CredentialKey {
+
+        private final byte[] fingerprint;
+        private final MessageDigest messageDigest;
+        private final byte[] scratch;
+        private int hash;
+
+        private CredentialKey() {
+            try {
+                this.messageDigest = MessageDigest.getInstance(FINGERPRINT_ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                throw new RequestSignerException(MessageFormat.format("Unable to hash data : {0}", e.getMessage()), e);
+            }
+            this.fingerprint = new byte[messageDigest.getDigestLength()];
+            this.scratch = new byte[64];
+        }
+
+        private CredentialKey(byte[] fingerprint, int hash) {
+            this.fingerprint = fingerprint;
+            this.messageDigest = null;
+            this.scratch = null;
+            this.hash = hash;
+        }
+
+        private CredentialKey set(String secretApiKey, String apiVersion, String algorithm) {
+            update(secretApiKey);
+            update(apiVersion);
+            update(algorithm);
+            try {
+                messageDigest.digest(fingerprint, 0, fingerprint.length);
+            } catch (DigestException e) {
+                throw new RequestSignerException(MessageFormat.format("Unable to hash data : {0}", e.getMessage()), e);
+            }
+            int result = (fingerprint[0] & 0xFF) << 24 | (fingerprint[1] & 0xFF) << 16 | (fingerprint[2] & 0xFF) << 8 | (fingerprint[3] & 0xFF);
+            this.hash = result ^ (result >>> 16);
+            return this;
+        }
+
+        private void update(String value) {
+            int length = value != null ? value.length() : -1;
+            int position = 0;
+            scratch[position++] = (byte) (length >>> 24);
+            scratch[position++] = (byte) (length >>> 16);
+            scratch[position++] = (byte) (length >>> 8);
+            scratch[position++] = (byte) length;
+            for (int i = 0; i < length; i++) {
+                if (position == scratch.length) {
+                    messageDigest.update(scratch, 0, position);
+                    position = 0;
+                }
+                char c = value.charAt(i);
+                scratch[position++] = (byte) (c >>> 8);
+                scratch[position++] = (byte) c;
+            }
+            messageDigest.update(scratch, 0, position);
+            Arrays.fill(scratch, (byte) 0);
+        }
+
+        private CredentialKey copy() {
+            return new CredentialKey(fingerprint.clone(), hash);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CredentialKey)) return false;
+
+            CredentialKey that = (CredentialKey) o;
+
+            return hash == that.hash && Arrays.equals(fingerprint, that.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final class Stripe {
+
+        private final CredentialEntry[] clock;
+        private int clockHand;
+        private int clockSize;
+
+        private Stripe(int maximumSize) {
+            this.clock = new CredentialEntry[maximumSize];
+        }
+
+        private synchronized CredentialEntry put(CredentialKey credentialKey, byte[] secretApiVersionKey) {
+            CredentialEntry existingEntry = entries.get(credentialKey);
+            if (existingEntry != null) {
+                return existingEntry;
+            }
+            CredentialEntry credentialEntry = new CredentialEntry(credentialKey, secretApiVersionKey);
+            if (clockSize < clock.length) {
+                clock[clockSize++] = credentialEntry;
+            } else {
+                clock[evict()] = credentialEntry;
+            }
+            entries.put(credentialKey, credentialEntry);
+            return credentialEntry;
+        }
+
+        private int evict() {
+            while (true) {
+                int index = clockHand;
+                clockHand = (clockHand + 1) % clock.length;
+                CredentialEntry candidate = clock[index];
+                if (candidate.referenced) {
+                    candidate.referenced = false;
+                } else {
+                    entries.remove(candidate.key);
+                    evictionCount.increment();
+                    return index;
+                }
+            }
+        }
+
+        private synchronized void remove(CredentialKey credentialKey) {
+            for (int i = 0; i < clockSize; i++) {
+                if (clock[i].key.equals(credentialKey)) {
+                    entries.remove(clock[i].key, clock[i]);
+                    clock[i] = clock[--clockSize];
+                    clock[clockSize] = null;
+                    if (clockHand >= clockSize) {
+                        clockHand = 0;
+                    }
+                    return;
+                }
+            }
+        }
+
+        private synchronized void clear() {
+            for (int i = 0; i < clockSize; i++) {
+                entries.remove(clock[i].key, clock[i]);
+                clock[i] = null;
+            }
+            clockSize = 0;
+            clockHand = 0;
+        }
+    }
+
+    private static final class CredentialEntry {
+
+        private final CredentialKey key;
+        private final byte[] secretApiVersionKey;
+        private volatile TimestampEntry latest;
+        private volatile boolean referenced;
+
+        private CredentialEntry(CredentialKey key, byte[] secretApiVersionKey) {
+            this.key = key;
+            this.secretApiVersionKey = secretApiVersionKey;
+        }
+    }
+
+    private static final class TimestampEntry {
+
+        private final long timestamp;
+        private final byte[] signingKey;
+
+        private TimestampEntry(long timestamp, byte[] signingKey) {
+            this.timestamp = timestamp;
+            this.signingKey = signingKey;
+        }
+    }
+}
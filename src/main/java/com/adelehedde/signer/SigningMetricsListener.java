@@ -0,0 +1,22 @@
+package com.adelehedde.signer;
+
+public interface SigningMetricsListener {
+
+    default void onStage(SigningStage signingStage, long durationNanos) {
+    }
+
+    default void onSignature() {
+    }
+
+    default void onFailure(RequestSignerException exception) {
+    }
+
+    default void onSigningKeyCacheAccess(boolean hit) {
+    }
+
+    default void onCanonicalRequestCacheAccess(boolean hit) {
+    }
+
+    default void onVerification(RequestVerificationResult requestVerificationResult) {
+    }
+}
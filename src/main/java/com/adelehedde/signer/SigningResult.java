@@ -0,0 +1,67 @@
+package com.adelehedde.signer;
+
+public class SigningResult {
+
+    private final SignableRequest signableRequest;
+    private final RequestAuthenticationSchema requestAuthenticationSchema;
+    private final RequestSignerException exception;
+
+    private SigningResult(SignableRequest signableRequest, RequestAuthenticationSchema requestAuthenticationSchema, RequestSignerException exception) {
+        this.signableRequest = signableRequest;
+        this.requestAuthenticationSchema = requestAuthenticationSchema;
+        this.exception = exception;
+    }
+
+    public static SigningResult success(SignableRequest signableRequest, RequestAuthenticationSchema requestAuthenticationSchema) {
+        return new SigningResult(signableRequest, requestAuthenticationSchema, null);
+    }
+
+    public static SigningResult failure(SignableRequest signableRequest, RequestSignerException exception) {
+        return new SigningResult(signableRequest, null, exception);
+    }
+
+    public boolean isSuccess() {
+        return exception == null;
+    }
+
+    public SignableRequest getSignableRequest() {
+        return signableRequest;
+    }
+
+    public RequestAuthenticationSchema getRequestAuthenticationSchema() {
+        return requestAuthenticationSchema;
+    }
+
+    public RequestSignerException getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return "SigningResult{" +
+                "signableRequest=" + signableRequest +
+                ", requestAuthenticationSchema=" + requestAuthenticationSchema +
+                ", exception=" + exception +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SigningResult)) return false;
+
+        SigningResult that = (SigningResult) o;
+
+        if (signableRequest != null ? !signableRequest.equals(that.signableRequest) : that.signableRequest != null) return false;
+        if (requestAuthenticationSchema != null ? !requestAuthenticationSchema.equals(that.requestAuthenticationSchema) : that.requestAuthenticationSchema != null) return false;
+        return exception != null ? exception.equals(that.exception) : that.exception == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = signableRequest != null ? signableRequest.hashCode() : 0;
+        result = 31 * result + (requestAuthenticationSchema != null ? requestAuthenticationSchema.hashCode() : 0);
+        result = 31 * result + (exception != null ? exception.hashCode() : 0);
+        return result;
+    }
+}
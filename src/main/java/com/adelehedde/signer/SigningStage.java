@@ -0,0 +1,11 @@
+package com.adelehedde.signer;
+
+public enum SigningStage {
+    URL_PARSING,
+    CANONICAL_REQUEST,
+    SIGNING_KEY,
+    SIGNATURE,
+    ENCODING,
+    SIGN_REQUEST,
+    VERIFY_REQUEST
+}
@@ -0,0 +1,278 @@
+package com.adelehedde.signer;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.text.MessageFormat;
+
+public final class UrlComponents {
+
+    private static final int MAXIMUM_PORT_DIGITS = 9;
+
+    private CharSequence hostSource;
+    private int hostStart;
+    private int hostEnd;
+    private CharSequence pathSource;
+    private int pathStart;
+    private int pathEnd;
+    private CharSequence querySource;
+    private int queryStart;
+    private int queryEnd;
+
+    public static UrlComponents of(CharSequence url) {
+        return new UrlComponents().split(url);
+    }
+
+    public static UrlComponents of(URI uri) {
+        return new UrlComponents().split(uri);
+    }
+
+    public static UrlComponents of(String host, String path, String query) {
+        return new UrlComponents().set(host, path, query);
+    }
+
+    public UrlComponents split(CharSequence url) {
+        if (url == null || !splitHttpUrl(url)) {
+            splitWithUrl(url != null ? url.toString() : null);
+        }
+        return this;
+    }
+
+    public UrlComponents split(URI uri) {
+        if (!splitHttpUri(uri)) {
+            split(uri.toString());
+        }
+        return this;
+    }
+
+    public UrlComponents set(CharSequence host, CharSequence path, CharSequence query) {
+        setHost(host, 0, host.length());
+        setPath(path, 0, path.length());
+        if (query != null) {
+            setQuery(query, 0, query.length());
+        } else {
+            setQuery(null, 0, 0);
+        }
+        return this;
+    }
+
+    private boolean splitHttpUrl(CharSequence url) {
+        int length = url.length();
+        if (length == 0 || url.charAt(0) <= ' ' || url.charAt(length - 1) <= ' ') {
+            return false;
+        }
+        int authorityStart = schemeLength(url, 0, length);
+        if (authorityStart < 0 || authorityStart >= length || url.charAt(authorityStart) == '/') {
+            return false;
+        }
+        int limit = indexOf(url, '#', authorityStart, length);
+        if (limit < 0) {
+            limit = length;
+        }
+        int pathLimit = indexOf(url, '?', authorityStart, limit);
+        if (pathLimit >= 0) {
+            setQuery(url, pathLimit + 1, limit);
+        } else {
+            setQuery(null, 0, 0);
+            pathLimit = limit;
+        }
+        int authorityEnd = indexOf(url, '/', authorityStart, pathLimit);
+        if (authorityEnd < 0) {
+            authorityEnd = pathLimit;
+        }
+        if (!splitAuthority(url, authorityStart, authorityEnd)) {
+            return false;
+        }
+        setPath(url, authorityEnd, pathLimit);
+        return true;
+    }
+
+    private boolean splitHttpUri(URI uri) {
+        String scheme = uri.getScheme();
+        String authority = uri.getRawAuthority();
+        if (scheme == null || authority == null || !("https".equalsIgnoreCase(scheme) || "http".equalsIgnoreCase(scheme))) {
+            return false;
+        }
+        if (!splitAuthority(authority, 0, authority.length())) {
+            return false;
+        }
+        String path = uri.getRawPath();
+        setPath(path, 0, path.length());
+        String query = uri.getRawQuery();
+        setQuery(query, 0, query != null ? query.length() : 0);
+        return true;
+    }
+
+    private boolean splitAuthority(CharSequence source, int start, int end) {
+        if (start == end) {
+            return false;
+        }
+        int portSeparator = -1;
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (c == '@' || c == '[') {
+                return false;
+            }
+            if (c == ':' && portSeparator < 0) {
+                portSeparator = i;
+            }
+        }
+        if (portSeparator < 0) {
+            setHost(source, start, end);
+            return true;
+        }
+        if (end - portSeparator - 1 > MAXIMUM_PORT_DIGITS) {
+            return false;
+        }
+        for (int i = portSeparator + 1; i < end; i++) {
+            char c = source.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        setHost(source, start, portSeparator);
+        return true;
+    }
+
+    private static int schemeLength(CharSequence url, int start, int end) {
+        if (regionMatches(url, start, end, "https://")) {
+            return start + 8;
+        }
+        if (regionMatches(url, start, end, "http://")) {
+            return start + 7;
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(CharSequence url, int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = url.charAt(start + i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence source, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (source.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void splitWithUrl(String url) {
+        URL endpointUrl;
+        try {
+            endpointUrl = new URL(url);
+        } catch (MalformedURLException e) {
+            throw new RequestSignerException(MessageFormat.format("Unable to parse url : {0}", e.getMessage()), e);
+        }
+        set(endpointUrl);
+    }
+
+    public UrlComponents set(URL url) {
+        String host = url.getHost();
+        String path = url.getPath();
+        String query = url.getQuery();
+        setHost(host, 0, host.length());
+        setPath(path, 0, path.length());
+        setQuery(query, 0, query != null ? query.length() : 0);
+        return this;
+    }
+
+    private void setHost(CharSequence source, int start, int end) {
+        hostSource = source;
+        hostStart = start;
+        hostEnd = end;
+    }
+
+    private void setPath(CharSequence source, int start, int end) {
+        pathSource = source;
+        pathStart = start;
+        pathEnd = end;
+    }
+
+    private void setQuery(CharSequence source, int start, int end) {
+        querySource = source;
+        queryStart = start;
+        queryEnd = end;
+    }
+
+    public CharSequence getHostSource() {
+        return hostSource;
+    }
+
+    public int getHostStart() {
+        return hostStart;
+    }
+
+    public int getHostEnd() {
+        return hostEnd;
+    }
+
+    public CharSequence getPathSource() {
+        return pathSource;
+    }
+
+    public int getPathStart() {
+        return pathStart;
+    }
+
+    public int getPathEnd() {
+        return pathEnd;
+    }
+
+    public CharSequence getQuerySource() {
+        return querySource;
+    }
+
+    public int getQueryStart() {
+        return queryStart;
+    }
+
+    public int getQueryEnd() {
+        return queryEnd;
+    }
+
+    public boolean hasQuery() {
+        return querySource != null && queryEnd > queryStart;
+    }
+
+    public String getHost() {
+        return hostSource.subSequence(hostStart, hostEnd).toString();
+    }
+
+    public String getPath() {
+        return pathSource.subSequence(pathStart, pathEnd).toString();
+    }
+
+    public String getQuery() {
+        return querySource != null ? querySource.subSequence(queryStart, queryEnd).toString() : null;
+    }
+
+    String toUrl() {
+        StringBuilder url = new StringBuilder("https://").append(hostSource, hostStart, hostEnd).append(pathSource, pathStart, pathEnd);
+        if (hasQuery()) {
+            url.append('?').append(querySource, queryStart, queryEnd);
+        }
+        return url.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "UrlComponents{" +
+                "host='" + getHost() + '\'' +
+                ", path='" + getPath() + '\'' +
+                ", query='" + getQuery() + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,5 @@
+module com.adelehedde.signer {
+    requires transitive java.net.http;
+
+    exports com.adelehedde.signer;
+}
@@ -0,0 +1,21 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class AuditSummaryTest {
+
+    @Test
+    public void shouldMergeSummaries() {
+        AuditSummary first = new AuditSummary();
+        first.record(RequestVerificationResult.VALID);
+        first.record(RequestVerificationResult.INVALID_SIGNATURE);
+        AuditSummary second = new AuditSummary();
+        second.record(RequestVerificationResult.VALID);
+        AuditSummary merged = first.merge(second);
+        Assertions.assertEquals(3, merged.getRecordCount());
+        Assertions.assertEquals(2, merged.getCount(RequestVerificationResult.VALID));
+        Assertions.assertEquals(1, merged.getMismatchCount());
+        Assertions.assertEquals(2, first.getRecordCount());
+    }
+}
@@ -0,0 +1,47 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class AuditToolTest {
+
+    private static final String URL = "https://api.com/search?product_id=prd1";
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @TempDir
+    Path tempDir;
+
+    private int run(String... args) {
+        return AuditTool.run(args, new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    @Test
+    public void shouldAuditLogs() throws IOException {
+        String authorizationHeader = new RequestSigner().signRequest("GET", URL, new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1"), 1585733039477L).getAuthorizationHeader();
+        Path secrets = Files.writeString(tempDir.resolve("secrets.properties"), "aaa-bbb-ccc=secret-aaa-bbb-ccc\n");
+        Path validLog = Files.writeString(tempDir.resolve("valid.log"), "GET\t" + URL + "\t" + authorizationHeader + "\n");
+        Path invalidLog = Files.writeString(tempDir.resolve("invalid.log"), "POST\t" + URL + "\t" + authorizationHeader + "\n");
+        Assertions.assertEquals(AuditTool.EXIT_SUCCESS, run("--threads", "2", secrets.toString(), validLog.toString()));
+        Assertions.assertTrue(out.toString().contains("recordCount=1"));
+        out.reset();
+        Assertions.assertEquals(AuditTool.EXIT_MISMATCH, run(secrets.toString(), validLog.toString(), invalidLog.toString()));
+        Assertions.assertTrue(out.toString().contains(invalidLog + ":0\tINVALID_SIGNATURE\tPOST\t" + URL));
+        Assertions.assertTrue(out.toString().contains("recordCount=2"));
+    }
+
+    @Test
+    public void shouldPrintUsage() {
+        Assertions.assertEquals(AuditTool.EXIT_USAGE, run("secrets.properties"));
+        Assertions.assertEquals(AuditTool.EXIT_USAGE, run("--threads", "many", "secrets.properties", "audit.log"));
+        Assertions.assertTrue(err.toString().startsWith("Usage: AuditTool"));
+    }
+}
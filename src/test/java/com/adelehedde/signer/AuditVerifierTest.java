@@ -0,0 +1,131 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class AuditVerifierTest {
+
+    private static final long TIMESTAMP = 1585733039477L;
+    private static final String URL = "https://api.com/search?product_id=prd1";
+
+    private final RequestSigner requestSigner = new RequestSigner();
+    private final RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+    private final Map<String, String> secretApiKeys = Map.of("aaa-bbb-ccc", "secret-aaa-bbb-ccc");
+    private final List<AuditMismatch> mismatches = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    Path tempDir;
+
+    private String logLine(String httpMethod, String url, long timestamp) {
+        return httpMethod + "\t" + url + "\t" + requestSigner.signRequest(httpMethod, url, requestSignerParameters, timestamp).getAuthorizationHeader() + "\n";
+    }
+
+    private Path writeLog(String content) throws IOException {
+        return Files.writeString(tempDir.resolve("audit.log"), content, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void shouldAuditValidRecords() throws IOException {
+        Path log = writeLog(logLine("GET", URL, TIMESTAMP) + logLine("POST", "https://api.com/orders", TIMESTAMP + 1));
+        AuditSummary auditSummary = new AuditVerifier(secretApiKeys::get).audit(log, mismatches::add);
+        Assertions.assertEquals(2, auditSummary.getRecordCount());
+        Assertions.assertEquals(2, auditSummary.getCount(RequestVerificationResult.VALID));
+        Assertions.assertEquals(0, auditSummary.getMismatchCount());
+        Assertions.assertTrue(mismatches.isEmpty());
+    }
+
+    @Test
+    public void shouldReportMismatches() throws IOException {
+        String valid = logLine("GET", URL, TIMESTAMP);
+        String tampered = logLine("GET", URL, TIMESTAMP).replace("prd1", "prd2");
+        String unknown = "GET\t" + URL + "\t" + requestSigner.signRequest("GET", URL, new RequestSignerParameters("unknown", "secret", "v1"), TIMESTAMP).getAuthorizationHeader() + "\r\n";
+        Path log = writeLog(valid + tampered + "\n" + unknown + "GET\t" + URL + "\tREQUEST-SIGNATURE ApiKey=aaa-bbb-ccc\n");
+        AuditSummary auditSummary = new AuditVerifier(secretApiKeys::get).audit(log, mismatches::add);
+        Assertions.assertEquals(4, auditSummary.getRecordCount());
+        Assertions.assertEquals(1, auditSummary.getCount(RequestVerificationResult.VALID));
+        Assertions.assertEquals(1, auditSummary.getCount(RequestVerificationResult.INVALID_SIGNATURE));
+        Assertions.assertEquals(1, auditSummary.getCount(RequestVerificationResult.UNKNOWN_API_KEY));
+        Assertions.assertEquals(1, auditSummary.getCount(RequestVerificationResult.MALFORMED_REQUEST));
+        Assertions.assertEquals(3, mismatches.size());
+        Assertions.assertEquals(valid.length(), mismatches.get(0).getPosition());
+        Assertions.assertEquals("https://api.com/search?product_id=prd2", mismatches.get(0).getUrl());
+        Assertions.assertEquals(RequestVerificationResult.INVALID_SIGNATURE, mismatches.get(0).getRequestVerificationResult());
+    }
+
+    @Test
+    public void shouldRejectUnknownAuthenticationTypeAsMalformed() throws IOException {
+        RequestSignerParameters unknownTypeParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1", true, "UNKNOWN-SIGNATURE");
+        Path log = writeLog("GET\t" + URL + "\t" + requestSigner.signRequest("GET", URL, unknownTypeParameters, TIMESTAMP).getAuthorizationHeader() + "\n");
+        AuditSummary auditSummary = new AuditVerifier(secretApiKeys::get).audit(log, mismatches::add);
+        Assertions.assertEquals(1, auditSummary.getCount(RequestVerificationResult.MALFORMED_REQUEST));
+        Assertions.assertEquals(0, auditSummary.getCount(RequestVerificationResult.INVALID_SIGNATURE));
+    }
+
+    @Test
+    public void shouldAuditSignedPayloadRecords() throws IOException {
+        RequestSignerParameters signedPayloadParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        signedPayloadParameters.setSignedPayload(true);
+        String payloadHash = requestSigner.hashPayload(new byte[]{1, 2, 3});
+        String authorizationHeader = requestSigner.signRequest(new SignableRequest("POST", URL, payloadHash), signedPayloadParameters, TIMESTAMP).getAuthorizationHeader();
+        Path log = writeLog("POST\t" + URL + "\t" + authorizationHeader + "\t" + payloadHash + "\nPOST\t" + URL + "\t" + authorizationHeader + "\n");
+        AuditSummary auditSummary = new AuditVerifier(secretApiKeys::get).audit(log, mismatches::add);
+        Assertions.assertEquals(1, auditSummary.getCount(RequestVerificationResult.VALID));
+        Assertions.assertEquals(1, auditSummary.getCount(RequestVerificationResult.MALFORMED_REQUEST));
+    }
+
+    @Test
+    public void shouldReuseSigningKeysOfInterleavedCredentials() throws IOException {
+        RequestSignerParameters otherParameters = new RequestSignerParameters("ddd-eee-fff", "secret-ddd-eee-fff", "v1");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            content.append(logLine("GET", URL + "&page=" + i, TIMESTAMP));
+            content.append("GET\t").append(URL).append("\t").append(requestSigner.signRequest("GET", URL, otherParameters, TIMESTAMP).getAuthorizationHeader()).append("\n");
+        }
+        RecordingMetricsListener metricsListener = new RecordingMetricsListener();
+        Map<String, String> interleavedSecretApiKeys = Map.of("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "ddd-eee-fff", "secret-ddd-eee-fff");
+        AuditSummary auditSummary = new AuditVerifier(new RequestSigner(null, null, metricsListener), interleavedSecretApiKeys::get, AuditVerifier.DEFAULT_CHUNK_SIZE).audit(writeLog(content.toString()), mismatches::add);
+        Assertions.assertEquals(20, auditSummary.getCount(RequestVerificationResult.VALID));
+        Assertions.assertEquals(2, metricsListener.getLatencyHistogram(SigningStage.SIGNING_KEY).getCount());
+    }
+
+    @Test
+    public void shouldAuditChunksInParallel() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            content.append(logLine("GET", URL + "&page=" + i, TIMESTAMP + i / 10));
+        }
+        content.append(logLine("GET", URL, TIMESTAMP).replace("GET", "PUT"));
+        Path log = writeLog(content.toString());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            AuditSummary auditSummary = new AuditVerifier(requestSigner, secretApiKeys::get, 1024).audit(log, mismatches::add, executor);
+            Assertions.assertEquals(501, auditSummary.getRecordCount());
+            Assertions.assertEquals(500, auditSummary.getCount(RequestVerificationResult.VALID));
+            Assertions.assertEquals(1, mismatches.size());
+            Assertions.assertEquals("PUT", mismatches.get(0).getHttpMethod());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenLogIsMissing() {
+        Assertions.assertThrows(RequestSignerException.class, () -> new AuditVerifier(secretApiKeys::get).audit(tempDir.resolve("missing.log"), mismatches::add));
+    }
+
+    @Test
+    public void shouldRejectNonPositiveChunkSize() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AuditVerifier(requestSigner, secretApiKeys::get, 0));
+    }
+}
@@ -0,0 +1,115 @@
+package com.adelehedde.signer;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class AuthorizationHeaderTest {
+
+    private static final String AUTHORIZATION_HEADER = "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=1585658784903,Signature=abcde";
+
+    private final RequestSignerParameters requestSignerParameters = new RequestSignerParameters("api-key", "secret-api-key", "v1");
+
+    @Test
+    public void shouldCheckEqualsAndHashcode() {
+        EqualsVerifier.forClass(AuthorizationHeader.class).suppress(new Warning[]{Warning.STRICT_INHERITANCE}).withIgnoredFields("value").verify();
+        EqualsVerifier.forClass(AuthorizationHeader.Prefix.class).suppress(new Warning[]{Warning.STRICT_INHERITANCE}).withIgnoredFields("value", "bytes").verify();
+    }
+
+    @Test
+    public void shouldGetValue() {
+        AuthorizationHeader authorizationHeader = AuthorizationHeader.of(requestSignerParameters, 1585658784903L, "abcde");
+        Assertions.assertEquals(AUTHORIZATION_HEADER, authorizationHeader.getValue());
+        Assertions.assertSame(authorizationHeader.getValue(), authorizationHeader.getValue());
+        Assertions.assertEquals(AUTHORIZATION_HEADER.length(), authorizationHeader.length());
+        Assertions.assertEquals("REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,", authorizationHeader.getPrefix().getValue());
+    }
+
+    @Test
+    public void shouldWriteToByteBuffer() {
+        AuthorizationHeader authorizationHeader = AuthorizationHeader.of(requestSignerParameters, 1585658784903L, "abcde");
+        ByteBuffer byteBuffer = ByteBuffer.allocate(256);
+        byteBuffer.put((byte) '>');
+        authorizationHeader.writeTo(byteBuffer);
+        Assertions.assertEquals(">" + AUTHORIZATION_HEADER, new String(byteBuffer.array(), 0, byteBuffer.position(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void shouldWriteNegativeTimestampToByteBuffer() {
+        AuthorizationHeader authorizationHeader = AuthorizationHeader.of(requestSignerParameters, -42L, "abcde");
+        ByteBuffer byteBuffer = authorizationHeader.writeTo(ByteBuffer.allocate(authorizationHeader.length()));
+        Assertions.assertEquals(authorizationHeader.getValue(), new String(byteBuffer.array(), StandardCharsets.US_ASCII));
+        Assertions.assertFalse(byteBuffer.hasRemaining());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenByteBufferIsTooSmall() {
+        AuthorizationHeader authorizationHeader = AuthorizationHeader.of(requestSignerParameters, 1585658784903L, "abcde");
+        ByteBuffer byteBuffer = ByteBuffer.allocate(authorizationHeader.length() - 1);
+        Assertions.assertThrows(RequestSignerException.class, () -> authorizationHeader.writeTo(byteBuffer));
+        Assertions.assertEquals(0, byteBuffer.position());
+    }
+
+    @Test
+    public void shouldAppendToAppendable() {
+        AuthorizationHeader authorizationHeader = AuthorizationHeader.of(requestSignerParameters, 1585658784903L, "abcde");
+        Assertions.assertEquals(AUTHORIZATION_HEADER, authorizationHeader.appendTo(new StringBuilder()).toString());
+        Assertions.assertEquals(AUTHORIZATION_HEADER, authorizationHeader.appendTo(new StringBuffer()).toString());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenAppendableFails() {
+        AuthorizationHeader authorizationHeader = AuthorizationHeader.of(requestSignerParameters, 1585658784903L, "abcde");
+        Writer writer = new Writer() {
+            @Override
+            public void write(char[] chars, int offset, int length) throws IOException {
+                throw new IOException("Closed");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Assertions.assertThrows(RequestSignerException.class, () -> authorizationHeader.appendTo(writer));
+    }
+
+    @Test
+    public void shouldRenderNonAsciiComponentsButNotWriteThemAsBytes() {
+        requestSignerParameters.setApiKey("api-k\u00e9y");
+        AuthorizationHeader authorizationHeader = new AuthorizationHeader(AuthorizationHeader.Prefix.of(requestSignerParameters), 1585658784903L, "abcd");
+        Assertions.assertTrue(authorizationHeader.getValue().contains("ApiKey=api-k\u00e9y,"));
+        Assertions.assertEquals(authorizationHeader.getValue(), authorizationHeader.appendTo(new StringBuilder()).toString());
+        Assertions.assertThrows(RequestSignerException.class, () -> authorizationHeader.writeTo(ByteBuffer.allocate(authorizationHeader.length())));
+        AuthorizationHeader nonAsciiSignature = new AuthorizationHeader(AuthorizationHeader.Prefix.of(new RequestSignerParameters("api-key", "secret-api-key", "v1")), 1585658784903L, "abcd\u00e9");
+        Assertions.assertThrows(RequestSignerException.class, () -> nonAsciiSignature.writeTo(ByteBuffer.allocate(nonAsciiSignature.length())));
+    }
+
+    @Test
+    public void shouldMatchRequestSignerParameters() {
+        AuthorizationHeader.Prefix prefix = AuthorizationHeader.Prefix.of(requestSignerParameters);
+        Assertions.assertTrue(prefix.matches(requestSignerParameters));
+        requestSignerParameters.setSignedHost(false);
+        Assertions.assertFalse(prefix.matches(requestSignerParameters));
+    }
+
+    @Test
+    public void shouldMatchKeyId() {
+        requestSignerParameters.setKeyId("k1");
+        AuthorizationHeader.Prefix prefix = AuthorizationHeader.Prefix.of(requestSignerParameters);
+        Assertions.assertTrue(prefix.matches(requestSignerParameters));
+        requestSignerParameters.setKeyId(null);
+        Assertions.assertFalse(prefix.matches(requestSignerParameters));
+        requestSignerParameters.setKeyId("k2");
+        Assertions.assertFalse(prefix.matches(requestSignerParameters));
+    }
+}
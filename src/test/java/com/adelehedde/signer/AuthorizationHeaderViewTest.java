@@ -0,0 +1,165 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+public class AuthorizationHeaderViewTest {
+
+    private static final String AUTHORIZATION_HEADER = "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=1585658784903,Signature=kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po";
+
+    private static Stream<String> MALFORMED_AUTHORIZATION_HEADER_PARAMETERS() {
+        return Stream.of(
+                "",
+                "REQUEST-SIGNATURE",
+                "REQUEST-SIGNATURE ",
+                " ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE  ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=1",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,Unknown=1,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=,ApiVersion=v1,SignedHost=true,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=yes,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,SignedPayload=1,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=-1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,KeyId=,SignedHost=true,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,KeyId=k1,KeyId=k2,SignedHost=true,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,SignedHeaders=;date,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,SignedHeaders=date;,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,SignedHeaders=date;;host,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,SignedHeaders=date:host,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,CanonicalQuery=yes,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=1a,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=9999999999999999999,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=12345678901234567890,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=1,Signature=ab+c/",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=1,Signature=abc,",
+                "REQUEST-SIGNATURE ApiKey=api key,ApiVersion=v1,SignedHost=true,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-kéy,ApiVersion=v1,SignedHost=true,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api=key,ApiVersion=v1,SignedHost=true,Timestamp=1,Signature=abc",
+                "REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=1,Signature=abc".repeat(20)
+        );
+    }
+
+    @Test
+    public void shouldParseCharSequence() {
+        AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView();
+        Assertions.assertTrue(authorizationHeaderView.parse(AUTHORIZATION_HEADER));
+        Assertions.assertEquals("REQUEST-SIGNATURE", authorizationHeaderView.getAuthenticationType());
+        Assertions.assertTrue(authorizationHeaderView.isAuthenticationType(RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE));
+        Assertions.assertEquals("api-key", authorizationHeaderView.getApiKey());
+        Assertions.assertEquals("v1", authorizationHeaderView.getApiVersion());
+        Assertions.assertTrue(authorizationHeaderView.isSignedHost());
+        Assertions.assertFalse(authorizationHeaderView.isSignedPayload());
+        Assertions.assertEquals(1585658784903L, authorizationHeaderView.getTimestamp());
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", authorizationHeaderView.getSignature());
+    }
+
+    @Test
+    public void shouldParseBytesAtOffset() {
+        byte[] bytes = ("Authorization: " + AUTHORIZATION_HEADER + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView();
+        Assertions.assertTrue(authorizationHeaderView.parse(bytes, 15, AUTHORIZATION_HEADER.length()));
+        Assertions.assertEquals(15 + AUTHORIZATION_HEADER.indexOf("api-key"), authorizationHeaderView.getApiKeyStart());
+        Assertions.assertEquals("api-key", authorizationHeaderView.getApiKey());
+        Assertions.assertEquals(1585658784903L, authorizationHeaderView.getTimestamp());
+    }
+
+    @Test
+    public void shouldParseByteBuffer() {
+        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(512);
+        byteBuffer.put((byte) '>').put(AUTHORIZATION_HEADER.getBytes(StandardCharsets.US_ASCII)).flip().position(1);
+        AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView();
+        Assertions.assertTrue(authorizationHeaderView.parse(byteBuffer));
+        Assertions.assertEquals(1, byteBuffer.position());
+        Assertions.assertEquals(new RequestAuthenticationSchema(AuthorizationHeader.of(new RequestSignerParameters("api-key", "secret", "v1"), 1585658784903L, "kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po")), authorizationHeaderView.toRequestAuthenticationSchema());
+    }
+
+    @Test
+    public void shouldParseRenderedAuthorizationHeader() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("api-key", "secret", "v1", false, RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE);
+        requestSignerParameters.setSignedPayload(true);
+        AuthorizationHeader authorizationHeader = AuthorizationHeader.of(requestSignerParameters, 1585658784903L, "abc-_");
+        AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView();
+        Assertions.assertTrue(authorizationHeaderView.parse(authorizationHeader.writeTo(ByteBuffer.allocate(authorizationHeader.length())).flip()));
+        Assertions.assertFalse(authorizationHeaderView.isSignedHost());
+        Assertions.assertTrue(authorizationHeaderView.isSignedPayload());
+        Assertions.assertEquals(new RequestAuthenticationSchema(authorizationHeader), authorizationHeaderView.toRequestAuthenticationSchema());
+    }
+
+    @Test
+    public void shouldParseKeyId() {
+        AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView();
+        Assertions.assertTrue(authorizationHeaderView.parse(AUTHORIZATION_HEADER));
+        Assertions.assertNull(authorizationHeaderView.getKeyId());
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("api-key", "secret", "v1");
+        requestSignerParameters.setKeyId("2026-10");
+        AuthorizationHeader authorizationHeader = AuthorizationHeader.of(requestSignerParameters, 1585658784903L, "abc");
+        Assertions.assertTrue(authorizationHeaderView.parse(authorizationHeader.getValue()));
+        Assertions.assertEquals("2026-10", authorizationHeaderView.getKeyId());
+        Assertions.assertEquals(new RequestAuthenticationSchema(authorizationHeader), authorizationHeaderView.toRequestAuthenticationSchema());
+    }
+
+    @Test
+    public void shouldParseSignedHeaders() {
+        AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView();
+        Assertions.assertTrue(authorizationHeaderView.parse(AUTHORIZATION_HEADER));
+        Assertions.assertNull(authorizationHeaderView.getSignedHeaders());
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("api-key", "secret", "v1");
+        requestSignerParameters.setSignedHeaders(SignedHeaders.of("X-Tenant", "Date"));
+        AuthorizationHeader authorizationHeader = AuthorizationHeader.of(requestSignerParameters, 1585658784903L, "abc");
+        Assertions.assertTrue(authorizationHeaderView.parse(authorizationHeader.getValue()));
+        Assertions.assertEquals(SignedHeaders.of("date", "x-tenant"), authorizationHeaderView.getSignedHeaders());
+        Assertions.assertEquals(new RequestAuthenticationSchema(authorizationHeader), authorizationHeaderView.toRequestAuthenticationSchema());
+    }
+
+    @Test
+    public void shouldParseCanonicalQuery() {
+        AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView();
+        Assertions.assertTrue(authorizationHeaderView.parse(AUTHORIZATION_HEADER));
+        Assertions.assertFalse(authorizationHeaderView.isCanonicalQuery());
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("api-key", "secret", "v1");
+        requestSignerParameters.setCanonicalQuery(true);
+        AuthorizationHeader authorizationHeader = AuthorizationHeader.of(requestSignerParameters, 1585658784903L, "abc");
+        Assertions.assertTrue(authorizationHeaderView.parse(authorizationHeader.getValue()));
+        Assertions.assertTrue(authorizationHeaderView.isCanonicalQuery());
+        Assertions.assertEquals(new RequestAuthenticationSchema(authorizationHeader), authorizationHeaderView.toRequestAuthenticationSchema());
+    }
+
+    @Test
+    public void shouldParseComponentsInAnyOrder() {
+        AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView();
+        Assertions.assertTrue(authorizationHeaderView.parse("REQUEST-SIGNATURE Signature=abc,Timestamp=1,SignedHost=false,ApiVersion=v1,ApiKey=api-key"));
+        Assertions.assertEquals("api-key", authorizationHeaderView.getApiKey());
+        Assertions.assertEquals("abc", authorizationHeaderView.getSignature());
+    }
+
+    @ParameterizedTest
+    @MethodSource("MALFORMED_AUTHORIZATION_HEADER_PARAMETERS")
+    public void shouldRejectMalformedAuthorizationHeader(String authorizationHeader) {
+        AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView(256);
+        Assertions.assertFalse(authorizationHeaderView.parse(authorizationHeader));
+        Assertions.assertFalse(authorizationHeaderView.parse(authorizationHeader.getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertFalse(authorizationHeaderView.isValid());
+        Assertions.assertThrows(IllegalStateException.class, authorizationHeaderView::getApiKey);
+    }
+
+    @Test
+    public void shouldReuseView() {
+        AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView();
+        Assertions.assertTrue(authorizationHeaderView.parse("REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,SignedPayload=true,Timestamp=1,Signature=abc"));
+        Assertions.assertFalse(authorizationHeaderView.parse("garbage"));
+        Assertions.assertTrue(authorizationHeaderView.parse(AUTHORIZATION_HEADER));
+        Assertions.assertFalse(authorizationHeaderView.isSignedPayload());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenMaximumLengthIsNotPositive() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AuthorizationHeaderView(0));
+    }
+}
@@ -0,0 +1,55 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+public class Base64UrlTest {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @Test
+    public void shouldEncodeLikeBase64UrlWithoutPadding() {
+        Random random = new Random(42);
+        for (int length = 0; length < 70; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            byte[] encoded = new byte[Base64Url.encodedLength(length)];
+            Assertions.assertEquals(encoded.length, Base64Url.encode(data, 0, length, encoded, 0));
+            Assertions.assertEquals(ENCODER.encodeToString(data), new String(encoded, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    public void shouldEncodeIntoHeapAndDirectByteBuffers() {
+        byte[] data = "1 String To Encode".getBytes(StandardCharsets.UTF_8);
+        for (ByteBuffer byteBuffer : new ByteBuffer[]{ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64)}) {
+            byteBuffer.put((byte) '>');
+            int encodedLength = Base64Url.encode(data, 0, data.length, byteBuffer);
+            byteBuffer.flip();
+            byte[] encoded = new byte[byteBuffer.remaining()];
+            byteBuffer.get(encoded);
+            Assertions.assertEquals(24, encodedLength);
+            Assertions.assertEquals(">MSBTdHJpbmcgVG8gRW5jb2Rl", new String(encoded, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    public void shouldEncodeSliceOfData() {
+        byte[] data = "xxText to encodexx".getBytes(StandardCharsets.UTF_8);
+        byte[] encoded = new byte[32];
+        int encodedLength = Base64Url.encode(data, 2, data.length - 4, encoded, 1);
+        Assertions.assertEquals(ENCODER.encodeToString("Text to encode".getBytes(StandardCharsets.UTF_8)), new String(encoded, 1, encodedLength, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenDestinationIsTooSmall() {
+        byte[] data = new byte[32];
+        Assertions.assertThrows(RequestSignerException.class, () -> Base64Url.encode(data, 0, data.length, new byte[10], 0));
+        Assertions.assertThrows(RequestSignerException.class, () -> Base64Url.encode(data, 0, data.length, ByteBuffer.allocate(10)));
+    }
+}
@@ -0,0 +1,54 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class BloomFilterReplayCacheTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(5);
+    private static final long NOW = 1585733039477L;
+
+    @Test
+    public void shouldDetectReplay() {
+        BloomFilterReplayCache replayCache = new BloomFilterReplayCache(WINDOW, 10_000);
+        Assertions.assertTrue(replayCache.register("api-key", NOW, "signature", NOW));
+        Assertions.assertFalse(replayCache.register("api-key", NOW, "signature", NOW + 1000L));
+        Assertions.assertTrue(replayCache.register("api-key", NOW + 1, "signature", NOW));
+    }
+
+    @Test
+    public void shouldKeepFalsePositivesRare() {
+        BloomFilterReplayCache replayCache = new BloomFilterReplayCache(WINDOW, 100_000);
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (!replayCache.register("api-key", NOW - i * 30L, "signature-" + i, NOW)) {
+                falsePositives++;
+            }
+        }
+        Assertions.assertTrue(falsePositives < 10, "False positives : " + falsePositives);
+    }
+
+    @Test
+    public void shouldApplyOverflowPolicyWhenBucketIsFull() {
+        BloomFilterReplayCache replayCache = new BloomFilterReplayCache(WINDOW, AbstractReplayCache.DEFAULT_BUCKET_WIDTH, 320, 0.001, ReplayCache.OverflowPolicy.REJECT);
+        int registered = 0;
+        for (int i = 0; i < 100; i++) {
+            registered += replayCache.register("api-key", NOW, "signature-" + i, NOW) ? 1 : 0;
+        }
+        Assertions.assertEquals(10, registered);
+        Assertions.assertEquals(90, replayCache.getOverflowCount());
+    }
+
+    @Test
+    public void shouldUseCompactMemory() {
+        BloomFilterReplayCache replayCache = new BloomFilterReplayCache(WINDOW, 1_000_000);
+        Assertions.assertTrue(replayCache.getMemoryUsage() < 8 * 1024 * 1024, "Memory usage : " + replayCache.getMemoryUsage());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenFalsePositiveProbabilityIsInvalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BloomFilterReplayCache(WINDOW, AbstractReplayCache.DEFAULT_BUCKET_WIDTH, 1000, 1.5, ReplayCache.OverflowPolicy.REJECT));
+    }
+}
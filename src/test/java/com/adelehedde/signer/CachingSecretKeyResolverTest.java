@@ -0,0 +1,136 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CachingSecretKeyResolverTest {
+
+    private final AtomicLong currentTimestamp = new AtomicLong(1585733039477L);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final InMemorySecretKeyResolver inMemorySecretKeyResolver = new InMemorySecretKeyResolver(Map.of("api-key", "secret-api-key"));
+    private final SecretKeyResolver countingSecretKeyResolver = apiKey -> {
+        loads.incrementAndGet();
+        return inMemorySecretKeyResolver.resolve(apiKey);
+    };
+
+    private CachingSecretKeyResolver cachingSecretKeyResolver(SecretKeyResolver delegate) {
+        return new CachingSecretKeyResolver(delegate, Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofSeconds(30), 100) {
+            @Override
+            protected long getCurrentTimestamp() {
+                return currentTimestamp.get();
+            }
+        };
+    }
+
+    @Test
+    public void shouldCacheSecretApiKey() {
+        CachingSecretKeyResolver cachingSecretKeyResolver = cachingSecretKeyResolver(countingSecretKeyResolver);
+        Assertions.assertEquals(Optional.of("secret-api-key"), cachingSecretKeyResolver.resolve("api-key").join());
+        Assertions.assertEquals(Optional.of("secret-api-key"), cachingSecretKeyResolver.resolve("api-key").join());
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1, cachingSecretKeyResolver.getHitCount());
+        Assertions.assertEquals(1, cachingSecretKeyResolver.getMissCount());
+    }
+
+    @Test
+    public void shouldReloadExpiredSecretApiKey() {
+        CachingSecretKeyResolver cachingSecretKeyResolver = cachingSecretKeyResolver(countingSecretKeyResolver);
+        cachingSecretKeyResolver.resolve("api-key").join();
+        currentTimestamp.addAndGet(Duration.ofMinutes(10).toMillis());
+        inMemorySecretKeyResolver.put("api-key", "new-secret-api-key");
+        Assertions.assertEquals(Optional.of("new-secret-api-key"), cachingSecretKeyResolver.resolve("api-key").join());
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldRefreshAheadOfExpiration() {
+        CachingSecretKeyResolver cachingSecretKeyResolver = cachingSecretKeyResolver(countingSecretKeyResolver);
+        cachingSecretKeyResolver.resolve("api-key").join();
+        currentTimestamp.addAndGet(Duration.ofMinutes(9).toMillis() + 1);
+        inMemorySecretKeyResolver.put("api-key", "new-secret-api-key");
+        Assertions.assertEquals(Optional.of("secret-api-key"), cachingSecretKeyResolver.resolve("api-key").join());
+        Assertions.assertEquals(Optional.of("new-secret-api-key"), cachingSecretKeyResolver.resolve("api-key").join());
+        Assertions.assertEquals(1, cachingSecretKeyResolver.getRefreshCount());
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldCoalesceConcurrentLoads() {
+        CompletableFuture<Optional<String>> pendingSecretApiKey = new CompletableFuture<>();
+        CachingSecretKeyResolver cachingSecretKeyResolver = cachingSecretKeyResolver(apiKey -> {
+            loads.incrementAndGet();
+            return pendingSecretApiKey;
+        });
+        List<CompletableFuture<Optional<String>>> secretApiKeys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            secretApiKeys.add(cachingSecretKeyResolver.resolve("api-key"));
+        }
+        pendingSecretApiKey.complete(Optional.of("secret-api-key"));
+        for (CompletableFuture<Optional<String>> secretApiKey : secretApiKeys) {
+            Assertions.assertEquals(Optional.of("secret-api-key"), secretApiKey.join());
+        }
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void shouldCacheUnknownApiKey() {
+        CachingSecretKeyResolver cachingSecretKeyResolver = cachingSecretKeyResolver(countingSecretKeyResolver);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(Optional.empty(), cachingSecretKeyResolver.resolve("unknown").join());
+        }
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(99, cachingSecretKeyResolver.getNegativeHitCount());
+        currentTimestamp.addAndGet(Duration.ofSeconds(30).toMillis());
+        cachingSecretKeyResolver.resolve("unknown").join();
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldNotCacheFailures() {
+        CachingSecretKeyResolver cachingSecretKeyResolver = cachingSecretKeyResolver(apiKey -> {
+            if (loads.incrementAndGet() == 1) {
+                return CompletableFuture.failedFuture(new IllegalStateException("database unavailable"));
+            }
+            return inMemorySecretKeyResolver.resolve(apiKey);
+        });
+        Assertions.assertThrows(CompletionException.class, () -> cachingSecretKeyResolver.resolve("api-key").join());
+        Assertions.assertEquals(Optional.of("secret-api-key"), cachingSecretKeyResolver.resolve("api-key").join());
+    }
+
+    @Test
+    public void shouldTreatNullSecretApiKeyAsUnknown() {
+        CachingSecretKeyResolver cachingSecretKeyResolver = cachingSecretKeyResolver(apiKey -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+        Assertions.assertEquals(Optional.empty(), cachingSecretKeyResolver.resolve("api-key").join());
+        Assertions.assertEquals(Optional.empty(), cachingSecretKeyResolver.resolve("api-key").join());
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void shouldFailWhenDelegateReturnsNoFuture() {
+        CachingSecretKeyResolver cachingSecretKeyResolver = cachingSecretKeyResolver(apiKey -> null);
+        Assertions.assertThrows(CompletionException.class, () -> cachingSecretKeyResolver.resolve("api-key").join());
+        Assertions.assertEquals(0, cachingSecretKeyResolver.size());
+    }
+
+    @Test
+    public void shouldBoundSize() {
+        CachingSecretKeyResolver cachingSecretKeyResolver = cachingSecretKeyResolver(apiKey -> CompletableFuture.completedFuture(Optional.of("secret-" + apiKey)));
+        for (int i = 0; i < 1000; i++) {
+            cachingSecretKeyResolver.resolve("api-key-" + i).join();
+        }
+        Assertions.assertTrue(cachingSecretKeyResolver.size() <= 100);
+    }
+}
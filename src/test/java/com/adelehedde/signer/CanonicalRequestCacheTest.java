@@ -0,0 +1,98 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class CanonicalRequestCacheTest {
+
+    private static final byte[] DIGEST = {'d', 'i', 'g', 'e', 's', 't'};
+
+    @Test
+    public void shouldCacheDigest() {
+        CanonicalRequestCache canonicalRequestCache = new CanonicalRequestCache();
+        Assertions.assertNull(canonicalRequestCache.get("SHA-256", "GET", "https://api.com", true));
+        canonicalRequestCache.put("SHA-256", "GET", "https://api.com", true, DIGEST);
+        Assertions.assertSame(DIGEST, canonicalRequestCache.get("SHA-256", "GET", "https://api.com", true));
+        Assertions.assertNull(canonicalRequestCache.get("SHA-256", "GET", "https://api.com", false));
+        Assertions.assertNull(canonicalRequestCache.get("SHA-512", "GET", "https://api.com", true));
+        Assertions.assertNull(canonicalRequestCache.get("SHA-256", "POST", "https://api.com", true));
+        Assertions.assertEquals(1, canonicalRequestCache.getHitCount());
+        Assertions.assertEquals(4, canonicalRequestCache.getMissCount());
+        Assertions.assertEquals(0.2, canonicalRequestCache.getHitRate());
+    }
+
+    @Test
+    public void shouldEvictUnreferencedEntries() {
+        CanonicalRequestCache canonicalRequestCache = new CanonicalRequestCache(2);
+        canonicalRequestCache.put("SHA-256", "GET", "https://api.com/a", true, DIGEST);
+        canonicalRequestCache.put("SHA-256", "GET", "https://api.com/b", true, DIGEST);
+        canonicalRequestCache.get("SHA-256", "GET", "https://api.com/a", true);
+        canonicalRequestCache.put("SHA-256", "GET", "https://api.com/c", true, DIGEST);
+        Assertions.assertEquals(2, canonicalRequestCache.size());
+        Assertions.assertEquals(1, canonicalRequestCache.getEvictionCount());
+        Assertions.assertNotNull(canonicalRequestCache.get("SHA-256", "GET", "https://api.com/a", true));
+        Assertions.assertNull(canonicalRequestCache.get("SHA-256", "GET", "https://api.com/b", true));
+        Assertions.assertNotNull(canonicalRequestCache.get("SHA-256", "GET", "https://api.com/c", true));
+    }
+
+    @Test
+    public void shouldNotCacheLongUrls() {
+        CanonicalRequestCache canonicalRequestCache = new CanonicalRequestCache(16, 20);
+        Assertions.assertFalse(canonicalRequestCache.isCacheable("https://api.com/" + "a".repeat(10)));
+        canonicalRequestCache.put("SHA-256", "GET", "https://api.com/" + "a".repeat(10), true, DIGEST);
+        Assertions.assertEquals(0, canonicalRequestCache.size());
+    }
+
+    @Test
+    public void shouldStayBoundedUnderConcurrentPuts() {
+        CanonicalRequestCache canonicalRequestCache = new CanonicalRequestCache(64);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            int offset = thread;
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    String url = "https://api.com/" + (i * 8 + offset);
+                    if (canonicalRequestCache.get("SHA-256", "GET", url, true) == null) {
+                        canonicalRequestCache.put("SHA-256", "GET", url, true, DIGEST);
+                    }
+                }
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        Assertions.assertEquals(64, canonicalRequestCache.size());
+        Assertions.assertEquals(8000 - 64, canonicalRequestCache.getEvictionCount());
+    }
+
+    @Test
+    public void shouldStayBoundedAcrossStripes() {
+        CanonicalRequestCache canonicalRequestCache = new CanonicalRequestCache(1024);
+        for (int i = 0; i < 5000; i++) {
+            canonicalRequestCache.put("SHA-256", "GET", "https://api.com/" + i, true, DIGEST);
+        }
+        Assertions.assertEquals(1024, canonicalRequestCache.size());
+        Assertions.assertEquals(5000 - 1024, canonicalRequestCache.getEvictionCount());
+        Assertions.assertNotNull(canonicalRequestCache.get("SHA-256", "GET", "https://api.com/4999", true));
+        canonicalRequestCache.invalidateAll();
+        Assertions.assertEquals(0, canonicalRequestCache.size());
+    }
+
+    @Test
+    public void shouldInvalidateAll() {
+        CanonicalRequestCache canonicalRequestCache = new CanonicalRequestCache(2);
+        canonicalRequestCache.put("SHA-256", "GET", "https://api.com/a", true, DIGEST);
+        canonicalRequestCache.invalidateAll();
+        Assertions.assertEquals(0, canonicalRequestCache.size());
+        canonicalRequestCache.put("SHA-256", "GET", "https://api.com/b", true, DIGEST);
+        Assertions.assertNotNull(canonicalRequestCache.get("SHA-256", "GET", "https://api.com/b", true));
+    }
+
+    @Test
+    public void shouldRejectNonPositiveSize() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CanonicalRequestCache(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CanonicalRequestCache(1, 0));
+    }
+}
@@ -0,0 +1,94 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class ChunkedPayloadDecoderTest {
+
+    private static final long TIMESTAMP = 1585733039477L;
+
+    private final RequestSigner requestSigner = new RequestSigner();
+    private final RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+    private final RequestAuthenticationSchema requestAuthenticationSchema = requestSigner.signRequest(new SignableRequest("PUT", "https://api.com/uploads/1"), requestSignerParameters, TIMESTAMP);
+
+    private byte[] encode(byte[] payload, int chunkSize) {
+        return ChunkedPayloadEncoderTest.encode(requestSigner.newChunkedPayloadEncoder(requestAuthenticationSchema, requestSignerParameters, chunkSize), payload, payload.length, 4096);
+    }
+
+    private static byte[] decode(ChunkedPayloadDecoder decoder, byte[] encoded, int sourceSliceLength, int destinationLength) {
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        ByteBuffer destination = ByteBuffer.allocate(destinationLength);
+        boolean finished = false;
+        for (int offset = 0; offset < encoded.length && !finished; offset += sourceSliceLength) {
+            ByteBuffer source = ByteBuffer.wrap(encoded, offset, Math.min(sourceSliceLength, encoded.length - offset));
+            do {
+                finished = decoder.decode(source, destination);
+                decoded.write(destination.array(), 0, destination.position());
+                destination.clear();
+            } while (source.hasRemaining() && !finished);
+        }
+        return decoded.toByteArray();
+    }
+
+    @Test
+    public void shouldDecodeEncodedPayload() {
+        byte[] payload = ChunkedPayloadEncoderTest.payload(10_000);
+        byte[] encoded = encode(payload, 1024);
+        ChunkedPayloadDecoder decoder = requestSigner.newChunkedPayloadDecoder(requestAuthenticationSchema, requestSignerParameters, 1024);
+        Assertions.assertArrayEquals(payload, decode(decoder, encoded, encoded.length, 4096));
+        Assertions.assertTrue(decoder.isFinished());
+        Assertions.assertEquals(11, decoder.getChunkCount());
+    }
+
+    @Test
+    public void shouldDecodeWithSmallBuffers() {
+        byte[] payload = ChunkedPayloadEncoderTest.payload(3000);
+        byte[] encoded = encode(payload, 512);
+        Assertions.assertArrayEquals(payload, decode(requestSigner.newChunkedPayloadDecoder(requestAuthenticationSchema, requestSignerParameters), encoded, 1, 3));
+        Assertions.assertArrayEquals(payload, decode(requestSigner.newChunkedPayloadDecoder(requestAuthenticationSchema, requestSignerParameters), encoded, 17, 1));
+    }
+
+    @Test
+    public void shouldNotReleaseTamperedChunk() {
+        byte[] payload = ChunkedPayloadEncoderTest.payload(300);
+        byte[] encoded = encode(payload, 100);
+        encoded[encoded.length - 150] ^= 1;
+        ChunkedPayloadDecoder decoder = requestSigner.newChunkedPayloadDecoder(requestAuthenticationSchema, requestSignerParameters, 100);
+        ByteBuffer destination = ByteBuffer.allocate(1000);
+        RequestSignerException exception = Assertions.assertThrows(RequestSignerException.class, () -> decoder.decode(ByteBuffer.wrap(encoded), destination));
+        Assertions.assertEquals("Chunk signature is not valid : chunk 2", exception.getMessage());
+        Assertions.assertEquals(200, destination.position());
+    }
+
+    @Test
+    public void shouldRejectChunkFromAnotherSeed() {
+        byte[] encoded = encode(ChunkedPayloadEncoderTest.payload(10), 100);
+        RequestAuthenticationSchema otherRequestAuthenticationSchema = requestSigner.signRequest(new SignableRequest("PUT", "https://api.com/uploads/2"), requestSignerParameters, TIMESTAMP);
+        ChunkedPayloadDecoder decoder = requestSigner.newChunkedPayloadDecoder(otherRequestAuthenticationSchema, requestSignerParameters);
+        Assertions.assertThrows(RequestSignerException.class, () -> decoder.decode(ByteBuffer.wrap(encoded), ByteBuffer.allocate(100)));
+    }
+
+    @Test
+    public void shouldNotFinishTruncatedPayload() {
+        byte[] encoded = encode(ChunkedPayloadEncoderTest.payload(300), 100);
+        ChunkedPayloadDecoder decoder = requestSigner.newChunkedPayloadDecoder(requestAuthenticationSchema, requestSignerParameters, 100);
+        Assertions.assertFalse(decoder.decode(ByteBuffer.wrap(encoded, 0, encoded.length - 60), ByteBuffer.allocate(1000)));
+        Assertions.assertFalse(decoder.isFinished());
+    }
+
+    @Test
+    public void shouldRejectMalformedChunk() {
+        ChunkedPayloadDecoder decoder = requestSigner.newChunkedPayloadDecoder(requestAuthenticationSchema, requestSignerParameters, 100);
+        Assertions.assertThrows(RequestSignerException.class, () -> decoder.decode(ByteBuffer.wrap("65;chunk-signature=abc\r\n".getBytes(StandardCharsets.US_ASCII)), ByteBuffer.allocate(100)));
+        Assertions.assertThrows(RequestSignerException.class, () -> requestSigner.newChunkedPayloadDecoder(requestAuthenticationSchema, requestSignerParameters).decode(ByteBuffer.wrap("zz;chunk-signature=abc\r\n".getBytes(StandardCharsets.US_ASCII)), ByteBuffer.allocate(100)));
+        Assertions.assertThrows(RequestSignerException.class, () -> requestSigner.newChunkedPayloadDecoder(requestAuthenticationSchema, requestSignerParameters).decode(ByteBuffer.wrap("1;signature=abc\r\n".getBytes(StandardCharsets.US_ASCII)), ByteBuffer.allocate(100)));
+        Assertions.assertThrows(RequestSignerException.class, () -> requestSigner.newChunkedPayloadDecoder(requestAuthenticationSchema, requestSignerParameters).decode(ByteBuffer.wrap(("1;chunk-signature=" + "a".repeat(100) + "\r\n").getBytes(StandardCharsets.US_ASCII)), ByteBuffer.allocate(100)));
+        byte[] encoded = encode(ChunkedPayloadEncoderTest.payload(10), 100);
+        encoded[encoded.length - 1] = 'x';
+        Assertions.assertThrows(RequestSignerException.class, () -> requestSigner.newChunkedPayloadDecoder(requestAuthenticationSchema, requestSignerParameters).decode(ByteBuffer.wrap(encoded), ByteBuffer.allocate(100)));
+    }
+}
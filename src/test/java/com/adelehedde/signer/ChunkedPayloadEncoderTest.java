@@ -0,0 +1,115 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class ChunkedPayloadEncoderTest {
+
+    private static final long TIMESTAMP = 1585733039477L;
+
+    private final RequestSigner requestSigner = new RequestSigner();
+    private final RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+
+    private RequestAuthenticationSchema signRequest() {
+        requestSignerParameters.setSignedPayload(true);
+        return requestSigner.signRequest(new SignableRequest("PUT", "https://api.com/uploads/1", ChunkedPayloadEncoder.STREAMING_PAYLOAD), requestSignerParameters, TIMESTAMP);
+    }
+
+    static byte[] payload(int length) {
+        byte[] payload = new byte[length];
+        for (int i = 0; i < length; i++) {
+            payload[i] = (byte) (i * 31 + 7);
+        }
+        return payload;
+    }
+
+    static byte[] encode(ChunkedPayloadEncoder encoder, byte[] payload, int sourceSliceLength, int destinationLength) {
+        ByteBuffer encoded = ByteBuffer.allocate((int) encoder.encodedLength(payload.length));
+        ByteBuffer destination = ByteBuffer.allocate(destinationLength);
+        for (int offset = 0; offset < payload.length; offset += sourceSliceLength) {
+            ByteBuffer source = ByteBuffer.wrap(payload, offset, Math.min(sourceSliceLength, payload.length - offset));
+            while (source.hasRemaining()) {
+                encoder.encode(source, destination);
+                encoded.put(destination.flip());
+                destination.clear();
+            }
+        }
+        boolean finished;
+        do {
+            finished = encoder.finish(destination);
+            encoded.put(destination.flip());
+            destination.clear();
+        } while (!finished);
+        Assertions.assertFalse(encoded.hasRemaining());
+        return encoded.array();
+    }
+
+    private String chunkSignature(String previousSignature, byte[] chunk) {
+        String stringToSign = "REQUEST-SIGNATURE-CHUNK " + TIMESTAMP + " " + previousSignature + " " + requestSigner.hashPayload(chunk);
+        return requestSigner.sign(stringToSign, requestSigner.computeSigningKey("secret-aaa-bbb-ccc", "v1", TIMESTAMP));
+    }
+
+    @Test
+    public void shouldEncodeChainedChunks() {
+        RequestAuthenticationSchema requestAuthenticationSchema = signRequest();
+        byte[] payload = payload(150);
+        ChunkedPayloadEncoder encoder = requestSigner.newChunkedPayloadEncoder(requestAuthenticationSchema, requestSignerParameters, 64);
+        String encoded = new String(encode(encoder, payload, payload.length, 1024), StandardCharsets.ISO_8859_1);
+        String firstSignature = chunkSignature(requestAuthenticationSchema.getSignature(), Arrays.copyOfRange(payload, 0, 64));
+        String secondSignature = chunkSignature(firstSignature, Arrays.copyOfRange(payload, 64, 128));
+        String thirdSignature = chunkSignature(secondSignature, Arrays.copyOfRange(payload, 128, 150));
+        String finalSignature = chunkSignature(thirdSignature, new byte[0]);
+        String expected = "40;chunk-signature=" + firstSignature + "\r\n" + new String(payload, 0, 64, StandardCharsets.ISO_8859_1) + "\r\n"
+                + "40;chunk-signature=" + secondSignature + "\r\n" + new String(payload, 64, 64, StandardCharsets.ISO_8859_1) + "\r\n"
+                + "16;chunk-signature=" + thirdSignature + "\r\n" + new String(payload, 128, 22, StandardCharsets.ISO_8859_1) + "\r\n"
+                + "0;chunk-signature=" + finalSignature + "\r\n\r\n";
+        Assertions.assertEquals(expected, encoded);
+        Assertions.assertEquals(4, encoder.getChunkCount());
+        Assertions.assertEquals(finalSignature, encoder.getSignature());
+        Assertions.assertTrue(encoder.isFinished());
+    }
+
+    @Test
+    public void shouldEncodeWithSmallBuffers() {
+        RequestAuthenticationSchema requestAuthenticationSchema = signRequest();
+        byte[] payload = payload(1000);
+        byte[] expected = encode(requestSigner.newChunkedPayloadEncoder(requestAuthenticationSchema, requestSignerParameters, 128), payload, payload.length, 4096);
+        Assertions.assertArrayEquals(expected, encode(requestSigner.newChunkedPayloadEncoder(requestAuthenticationSchema, requestSignerParameters, 128), payload, 7, 1));
+        Assertions.assertArrayEquals(expected, encode(requestSigner.newChunkedPayloadEncoder(requestAuthenticationSchema, requestSignerParameters, 128), payload, 1, 13));
+    }
+
+    @Test
+    public void shouldEncodeEmptyPayload() {
+        RequestAuthenticationSchema requestAuthenticationSchema = signRequest();
+        ChunkedPayloadEncoder encoder = requestSigner.newChunkedPayloadEncoder(requestAuthenticationSchema, requestSignerParameters);
+        String encoded = new String(encode(encoder, new byte[0], 1, 256), StandardCharsets.US_ASCII);
+        Assertions.assertEquals("0;chunk-signature=" + chunkSignature(requestAuthenticationSchema.getSignature(), new byte[0]) + "\r\n\r\n", encoded);
+        Assertions.assertEquals(ChunkedPayloadEncoder.DEFAULT_CHUNK_SIZE, encoder.getChunkSize());
+    }
+
+    @Test
+    public void shouldComputeEncodedLengthForAlgorithmSuites() {
+        RequestSignerParameters sha512Parameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1", true, SignatureAlgorithmSuite.REQUEST_SIGNATURE_SHA512.getAuthenticationType());
+        RequestAuthenticationSchema requestAuthenticationSchema = requestSigner.signRequest(new SignableRequest("PUT", "https://api.com/uploads/1"), sha512Parameters, TIMESTAMP);
+        byte[] payload = payload(64 * 3);
+        ChunkedPayloadEncoder encoder = requestSigner.newChunkedPayloadEncoder(requestAuthenticationSchema, sha512Parameters, 64);
+        Assertions.assertEquals(encoder.encodedLength(payload.length), encode(encoder, payload, 50, 100).length);
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenEncodingAfterFinish() {
+        ChunkedPayloadEncoder encoder = requestSigner.newChunkedPayloadEncoder(signRequest(), requestSignerParameters);
+        Assertions.assertTrue(encoder.finish(ByteBuffer.allocate(256)));
+        Assertions.assertThrows(IllegalStateException.class, () -> encoder.encode(ByteBuffer.wrap(new byte[1]), ByteBuffer.allocate(256)));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenChunkSizeIsNotPositive() {
+        RequestAuthenticationSchema requestAuthenticationSchema = signRequest();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> requestSigner.newChunkedPayloadEncoder(requestAuthenticationSchema, requestSignerParameters, 0));
+    }
+}
@@ -0,0 +1,87 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ConcurrentReplayCacheTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(5);
+    private static final long NOW = 1585733039477L;
+
+    @Test
+    public void shouldDetectReplay() {
+        ConcurrentReplayCache replayCache = new ConcurrentReplayCache(WINDOW);
+        Assertions.assertTrue(replayCache.register("api-key", NOW, "signature", NOW));
+        Assertions.assertFalse(replayCache.register("api-key", NOW, "signature", NOW + 1000L));
+        Assertions.assertTrue(replayCache.register("api-key", NOW, "other-signature", NOW));
+        Assertions.assertTrue(replayCache.register("other-api-key", NOW, "signature", NOW));
+        Assertions.assertEquals(3, replayCache.size());
+    }
+
+    @Test
+    public void shouldRejectTimestampOutsideWindow() {
+        ConcurrentReplayCache replayCache = new ConcurrentReplayCache(WINDOW);
+        Assertions.assertFalse(replayCache.register("api-key", NOW - WINDOW.toMillis() - 1, "signature", NOW));
+        Assertions.assertFalse(replayCache.register("api-key", NOW + WINDOW.toMillis() + 1, "signature", NOW));
+    }
+
+    @Test
+    public void shouldExpireBucketsWhenWindowMoves() {
+        ConcurrentReplayCache replayCache = new ConcurrentReplayCache(WINDOW);
+        for (int i = 0; i < 100; i++) {
+            replayCache.register("api-key", NOW, "signature-" + i, NOW);
+        }
+        Assertions.assertEquals(100, replayCache.size());
+        long later = NOW + 2 * WINDOW.toMillis();
+        Assertions.assertTrue(replayCache.register("api-key", later, "signature", later));
+        Assertions.assertEquals(1, replayCache.size());
+    }
+
+    @Test
+    public void shouldApplyOverflowPolicy() {
+        ConcurrentReplayCache rejectingReplayCache = new ConcurrentReplayCache(WINDOW, 2, ReplayCache.OverflowPolicy.REJECT);
+        Assertions.assertTrue(rejectingReplayCache.register("api-key", NOW, "signature-1", NOW));
+        Assertions.assertTrue(rejectingReplayCache.register("api-key", NOW, "signature-2", NOW));
+        Assertions.assertFalse(rejectingReplayCache.register("api-key", NOW, "signature-3", NOW));
+        Assertions.assertEquals(1, rejectingReplayCache.getOverflowCount());
+
+        ConcurrentReplayCache acceptingReplayCache = new ConcurrentReplayCache(WINDOW, 2, ReplayCache.OverflowPolicy.ACCEPT);
+        acceptingReplayCache.register("api-key", NOW, "signature-1", NOW);
+        acceptingReplayCache.register("api-key", NOW, "signature-2", NOW);
+        Assertions.assertTrue(acceptingReplayCache.register("api-key", NOW, "signature-3", NOW));
+        Assertions.assertEquals(2, acceptingReplayCache.size());
+    }
+
+    @Test
+    public void shouldRegisterOnceConcurrently() throws Exception {
+        ConcurrentReplayCache replayCache = new ConcurrentReplayCache(WINDOW);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                tasks.add(() -> replayCache.register("api-key", NOW, "signature", NOW));
+            }
+            long registered = 0;
+            for (Future<Boolean> result : executorService.invokeAll(tasks)) {
+                registered += result.get() ? 1 : 0;
+            }
+            Assertions.assertEquals(1, registered);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenConfigurationIsInvalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConcurrentReplayCache(Duration.ZERO));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConcurrentReplayCache(WINDOW, 0, ReplayCache.OverflowPolicy.REJECT));
+    }
+}
@@ -0,0 +1,129 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+public class CredentialStoreTest {
+
+    private static final String SHA512_AUTHENTICATION_TYPE = SignatureAlgorithmSuite.REQUEST_SIGNATURE_SHA512.getAuthenticationType();
+
+    private final RequestSigner requestSigner = new RequestSigner();
+
+    private CredentialSnapshotWriter createWriter(int size) {
+        CredentialSnapshotWriter credentialSnapshotWriter = new CredentialSnapshotWriter(requestSigner);
+        for (int i = 0; i < size; i++) {
+            credentialSnapshotWriter.add("api-key-" + i, "secret-" + i, "v1");
+        }
+        return credentialSnapshotWriter;
+    }
+
+    @Test
+    public void shouldGetSecretApiVersionKey() {
+        CredentialStore credentialStore = new CredentialStore(createWriter(1000).add("api-key-1", "secret-sha512", "v1", SHA512_AUTHENTICATION_TYPE).toByteBuffer());
+        Assertions.assertEquals(1001, credentialStore.size());
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertArrayEquals(requestSigner.computeSecretApiVersionKey("secret-" + i, "v1"), credentialStore.getSecretApiVersionKey("api-key-" + i, "v1", RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE));
+        }
+        Assertions.assertArrayEquals(requestSigner.computeSecretApiVersionKey("secret-sha512", "v1", SHA512_AUTHENTICATION_TYPE), credentialStore.getSecretApiVersionKey("api-key-1", "v1", SHA512_AUTHENTICATION_TYPE));
+        Assertions.assertEquals(64, credentialStore.getSecretApiVersionKey("api-key-1", "v1", SHA512_AUTHENTICATION_TYPE).length);
+        Assertions.assertNull(credentialStore.getSecretApiVersionKey("api-key-1000", "v1", RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE));
+        Assertions.assertNull(credentialStore.getSecretApiVersionKey("api-key-1", "v2", RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE));
+        Assertions.assertNull(credentialStore.getSecretApiVersionKey("api-key-1", "v1", null));
+    }
+
+    @Test
+    public void shouldCopySecretApiVersionKey() {
+        CredentialStore credentialStore = new CredentialStore(createWriter(10).toByteBuffer());
+        byte[] destination = new byte[40];
+        Assertions.assertEquals(32, credentialStore.copySecretApiVersionKey(new StringBuilder("api-key-3"), "v1", RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE, destination, 8));
+        byte[] expected = requestSigner.computeSecretApiVersionKey("secret-3", "v1");
+        for (int i = 0; i < expected.length; i++) {
+            Assertions.assertEquals(expected[i], destination[8 + i]);
+        }
+        Assertions.assertEquals(-1, credentialStore.copySecretApiVersionKey("api-key-é", "v1", RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE, destination, 0));
+    }
+
+    @Test
+    public void shouldCopySecretApiVersionKeyFromAuthorizationHeaderView() {
+        CredentialStore credentialStore = new CredentialStore(createWriter(10).toByteBuffer());
+        RequestAuthenticationSchema requestAuthenticationSchema = new RequestSigner().signRequest("GET", "https://api.com/search", new RequestSignerParameters("api-key-7", "secret-7", "v1"), 1585733039477L);
+        AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView();
+        Assertions.assertTrue(authorizationHeaderView.parse(requestAuthenticationSchema.getAuthorizationHeader().getBytes()));
+        byte[] destination = new byte[32];
+        Assertions.assertEquals(32, credentialStore.copySecretApiVersionKey(authorizationHeaderView, destination, 0));
+        Assertions.assertArrayEquals(requestSigner.computeSecretApiVersionKey("secret-7", "v1"), destination);
+        Assertions.assertTrue(authorizationHeaderView.parse(requestAuthenticationSchema.getAuthorizationHeader().replace("api-key-7", "api-key-8").getBytes()));
+        Assertions.assertArrayEquals(requestSigner.computeSecretApiVersionKey("secret-7", "v1"), destination);
+        Assertions.assertEquals(32, credentialStore.copySecretApiVersionKey(authorizationHeaderView, destination, 0));
+        Assertions.assertArrayEquals(requestSigner.computeSecretApiVersionKey("secret-8", "v1"), destination);
+        Assertions.assertTrue(authorizationHeaderView.parse(requestAuthenticationSchema.getAuthorizationHeader().replace("api-key-7", "api-key-99").getBytes()));
+        Assertions.assertEquals(-1, credentialStore.copySecretApiVersionKey(authorizationHeaderView, destination, 0));
+    }
+
+    @Test
+    public void shouldKeepLastCredentialWhenDuplicated() {
+        CredentialStore credentialStore = new CredentialStore(createWriter(3).add("api-key-1", "rotated", "v1").toByteBuffer());
+        Assertions.assertEquals(3, credentialStore.size());
+        Assertions.assertArrayEquals(requestSigner.computeSecretApiVersionKey("rotated", "v1"), credentialStore.getSecretApiVersionKey("api-key-1", "v1", RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE));
+        Assertions.assertEquals(createWriter(3).toByteBuffer().limit(), credentialStore.getSnapshotLength());
+    }
+
+    @Test
+    public void shouldSwapSnapshot() {
+        CredentialStore credentialStore = new CredentialStore();
+        Assertions.assertEquals(0, credentialStore.size());
+        Assertions.assertNull(credentialStore.getSecretApiVersionKey("api-key-1", "v1", RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE));
+        credentialStore.swap(createWriter(2).toByteBuffer());
+        Assertions.assertNotNull(credentialStore.getSecretApiVersionKey("api-key-1", "v1", RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE));
+        ByteBuffer snapshot = new CredentialSnapshotWriter(requestSigner).add("api-key-5", "secret-5", "v1").toByteBuffer();
+        ByteBuffer directSnapshot = ByteBuffer.allocateDirect(snapshot.remaining()).put(snapshot).flip();
+        credentialStore.swap(directSnapshot);
+        Assertions.assertEquals(1, credentialStore.size());
+        Assertions.assertNull(credentialStore.getSecretApiVersionKey("api-key-1", "v1", RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE));
+        Assertions.assertNotNull(credentialStore.getSecretApiVersionKey("api-key-5", "v1", RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE));
+    }
+
+    @Test
+    public void shouldLoadSnapshotFile(@TempDir Path directory) {
+        Path path = directory.resolve("credentials.snapshot");
+        CredentialSnapshotWriter credentialSnapshotWriter = createWriter(100);
+        credentialSnapshotWriter.write(path);
+        for (boolean memoryMapped : new boolean[]{true, false}) {
+            CredentialStore credentialStore = new CredentialStore();
+            credentialStore.load(path, memoryMapped);
+            Assertions.assertEquals(100, credentialStore.size());
+            Assertions.assertEquals(credentialSnapshotWriter.toByteBuffer().remaining(), credentialStore.getSnapshotLength());
+            Assertions.assertArrayEquals(requestSigner.computeSecretApiVersionKey("secret-42", "v1"), credentialStore.getSecretApiVersionKey("api-key-42", "v1", RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE));
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenSnapshotIsNotValid(@TempDir Path directory) {
+        CredentialStore credentialStore = new CredentialStore(createWriter(3).toByteBuffer());
+        Assertions.assertThrows(RequestSignerException.class, () -> credentialStore.swap(ByteBuffer.allocate(CredentialStore.HEADER_LENGTH)));
+        ByteBuffer truncated = createWriter(3).toByteBuffer();
+        truncated.limit(truncated.limit() - 1);
+        Assertions.assertThrows(RequestSignerException.class, () -> credentialStore.swap(truncated));
+        ByteBuffer corrupted = createWriter(3).toByteBuffer();
+        corrupted.putInt(CredentialStore.HEADER_LENGTH, 1);
+        corrupted.putInt(CredentialStore.HEADER_LENGTH + 4, 1);
+        Assertions.assertThrows(RequestSignerException.class, () -> credentialStore.swap(corrupted));
+        Assertions.assertThrows(RequestSignerException.class, () -> credentialStore.load(directory.resolve("missing.snapshot")));
+        Assertions.assertEquals(3, credentialStore.size());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenCredentialIsNotValid() {
+        CredentialSnapshotWriter credentialSnapshotWriter = new CredentialSnapshotWriter(requestSigner);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> credentialSnapshotWriter.add("api-key-é", "secret", "v1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> credentialSnapshotWriter.add("", "secret", "v1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> credentialSnapshotWriter.add("a".repeat(256), "secret", "v1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> credentialSnapshotWriter.add("api-key", null, "v1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> credentialSnapshotWriter.addSecretApiVersionKey("api-key", "v1", RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE, null));
+        Assertions.assertEquals(0, credentialSnapshotWriter.size());
+    }
+}
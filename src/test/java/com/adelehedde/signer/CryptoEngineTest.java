@@ -0,0 +1,115 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class CryptoEngineTest {
+
+    private CryptoEngine cryptoEngine = new CryptoEngine(AbstractRequestSigner.SHA_256_ALGORITHM, AbstractRequestSigner.HMAC_SHA_256_ALGORITHM);
+
+    private static String encode(byte[] data) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(data);
+    }
+
+    @Test
+    public void shouldHashData() {
+        byte[] data = "Text to hash".getBytes(StandardCharsets.UTF_8);
+        Assertions.assertEquals("mzNZbNHJHn_WJE_LJrFpDLqysK1-2FcqS2vANNIYlts", encode(cryptoEngine.hash(data)));
+        Assertions.assertEquals("mzNZbNHJHn_WJE_LJrFpDLqysK1-2FcqS2vANNIYlts", encode(cryptoEngine.hash(data)));
+    }
+
+    @Test
+    public void shouldHashHmacData() {
+        byte[] data = "Text to Hash Hmac".getBytes(StandardCharsets.UTF_8);
+        byte[] key = "Secret Key".getBytes(StandardCharsets.UTF_8);
+        Assertions.assertEquals("Y1Ub2H4Cu-qDfS_34NcTMlAMdfRHhvEgRfZn0BQoVtE", encode(cryptoEngine.hashHmac(data, key)));
+        Assertions.assertEquals("Y1Ub2H4Cu-qDfS_34NcTMlAMdfRHhvEgRfZn0BQoVtE", encode(cryptoEngine.hashHmac(data, key)));
+    }
+
+    @Test
+    public void shouldReinitializeMacWhenKeyChanges() {
+        byte[] data = "Text to Hash Hmac".getBytes(StandardCharsets.UTF_8);
+        byte[] first = cryptoEngine.hashHmac(data, "Secret Key".getBytes(StandardCharsets.UTF_8));
+        byte[] second = cryptoEngine.hashHmac(data, "Xecret Key".getBytes(StandardCharsets.UTF_8));
+        byte[] third = cryptoEngine.hashHmac(data, "Secret Key".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertFalse(MessageDigest.isEqual(first, second));
+        Assertions.assertArrayEquals(first, third);
+    }
+
+    @Test
+    public void shouldReinitializeMacFromReusedKeyBuffer() {
+        byte[] data = "Text to Hash Hmac".getBytes(StandardCharsets.UTF_8);
+        byte[] keyBuffer = "Secret Key----".getBytes(StandardCharsets.UTF_8);
+        byte[] first = cryptoEngine.getMac(keyBuffer, 0, 10).doFinal(data);
+        keyBuffer[0] = 'X';
+        byte[] second = cryptoEngine.getMac(keyBuffer, 0, 10).doFinal(data);
+        Assertions.assertArrayEquals(cryptoEngine.hashHmac(data, "Secret Key".getBytes(StandardCharsets.UTF_8)), first);
+        Assertions.assertArrayEquals(cryptoEngine.hashHmac(data, "Xecret Key".getBytes(StandardCharsets.UTF_8)), second);
+    }
+
+    @Test
+    public void shouldReinitializeMacWhenKeyArrayIsRefilled() {
+        byte[] data = "Text to Hash Hmac".getBytes(StandardCharsets.UTF_8);
+        byte[] key = "Secret Key".getBytes(StandardCharsets.UTF_8);
+        byte[] first = cryptoEngine.hashHmac(data, key);
+        key[0] = 'X';
+        byte[] second = cryptoEngine.hashHmac(data, key);
+        Assertions.assertArrayEquals(cryptoEngine.hashHmac(data, "Xecret Key".getBytes(StandardCharsets.UTF_8)), second);
+        Assertions.assertFalse(MessageDigest.isEqual(first, second));
+    }
+
+    @Test
+    public void shouldResetReusedMessageDigest() {
+        MessageDigest messageDigest = cryptoEngine.getMessageDigest();
+        messageDigest.update("garbage".getBytes(StandardCharsets.UTF_8));
+        byte[] data = "Text to hash".getBytes(StandardCharsets.UTF_8);
+        Assertions.assertEquals("mzNZbNHJHn_WJE_LJrFpDLqysK1-2FcqS2vANNIYlts", encode(cryptoEngine.hash(data)));
+    }
+
+    @Test
+    public void shouldUseExplicitProvider() {
+        CryptoEngine sunCryptoEngine = new CryptoEngine(AbstractRequestSigner.SHA_256_ALGORITHM, AbstractRequestSigner.HMAC_SHA_256_ALGORITHM, Security.getProvider("SUN"));
+        Assertions.assertEquals("SUN", sunCryptoEngine.getMessageDigest().getProvider().getName());
+        CryptoEngine sunJceCryptoEngine = new CryptoEngine(AbstractRequestSigner.SHA_256_ALGORITHM, AbstractRequestSigner.HMAC_SHA_256_ALGORITHM, Security.getProvider("SunJCE"));
+        Assertions.assertEquals("SunJCE", sunJceCryptoEngine.getMac("key".getBytes(StandardCharsets.UTF_8)).getProvider().getName());
+    }
+
+    @Test
+    public void shouldHashConcurrently() throws Exception {
+        byte[] data = "Text to Hash Hmac".getBytes(StandardCharsets.UTF_8);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<String>> tasks = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                byte[] key = ("Secret Key " + (i % 4)).getBytes(StandardCharsets.UTF_8);
+                tasks.add(() -> encode(cryptoEngine.hashHmac(data, key)));
+            }
+            List<Future<String>> results = executorService.invokeAll(tasks);
+            for (int i = 0; i < results.size(); i++) {
+                byte[] key = ("Secret Key " + (i % 4)).getBytes(StandardCharsets.UTF_8);
+                Assertions.assertEquals(encode(new CryptoEngine(AbstractRequestSigner.SHA_256_ALGORITHM, AbstractRequestSigner.HMAC_SHA_256_ALGORITHM).hashHmac(data, key)), results.get(i).get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenAlgorithmIsWrong() {
+        CryptoEngine wrongCryptoEngine = new CryptoEngine("SHA-666", "HmacSHA666");
+        Assertions.assertThrows(RequestSignerException.class, () -> wrongCryptoEngine.hash("text".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertThrows(RequestSignerException.class, () -> wrongCryptoEngine.hashHmac("text".getBytes(StandardCharsets.UTF_8), "key".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertThrows(RequestSignerException.class, wrongCryptoEngine::getMessageDigest);
+    }
+}
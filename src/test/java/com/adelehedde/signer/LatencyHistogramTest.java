@@ -0,0 +1,83 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldRecordInLog2Buckets() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        latencyHistogram.record(0);
+        latencyHistogram.record(1);
+        latencyHistogram.record(1000);
+        latencyHistogram.record(1023);
+        latencyHistogram.record(1024);
+        Assertions.assertEquals(1, latencyHistogram.getBucketCount(0));
+        Assertions.assertEquals(1, latencyHistogram.getBucketCount(1));
+        Assertions.assertEquals(2, latencyHistogram.getBucketCount(10));
+        Assertions.assertEquals(1, latencyHistogram.getBucketCount(11));
+        Assertions.assertEquals(5, latencyHistogram.getCount());
+        Assertions.assertEquals(3048, latencyHistogram.getTotal());
+        Assertions.assertEquals(1024, latencyHistogram.getMaximum());
+    }
+
+    @Test
+    public void shouldGetPercentiles() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            latencyHistogram.record(100);
+        }
+        latencyHistogram.record(1_000_000);
+        Assertions.assertEquals(127, latencyHistogram.getPercentile(0.5));
+        Assertions.assertEquals(127, latencyHistogram.getPercentile(0.99));
+        Assertions.assertEquals(1_000_000, latencyHistogram.getPercentile(1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> latencyHistogram.getPercentile(1.5));
+    }
+
+    @Test
+    public void shouldGetZeroWhenEmpty() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        Assertions.assertEquals(0, latencyHistogram.getPercentile(0.99));
+        Assertions.assertEquals(0, latencyHistogram.getMean());
+    }
+
+    @Test
+    public void shouldRecordNegativeDurationAsZero() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        latencyHistogram.record(-5);
+        Assertions.assertEquals(1, latencyHistogram.getBucketCount(0));
+        Assertions.assertEquals(0, latencyHistogram.getTotal());
+    }
+
+    @Test
+    public void shouldRecordConcurrently() throws InterruptedException {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executorService.execute(() -> {
+                for (int i = 1; i <= 10_000; i++) {
+                    latencyHistogram.record(i);
+                }
+            });
+        }
+        executorService.shutdown();
+        Assertions.assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(40_000, latencyHistogram.getCount());
+        Assertions.assertEquals(10_000, latencyHistogram.getMaximum());
+    }
+
+    @Test
+    public void shouldReset() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        latencyHistogram.record(42);
+        latencyHistogram.reset();
+        Assertions.assertEquals(0, latencyHistogram.getCount());
+        Assertions.assertEquals(0, latencyHistogram.getBucketCount(6));
+        Assertions.assertEquals(0, latencyHistogram.getMaximum());
+    }
+}
@@ -0,0 +1,109 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+
+public class PayloadDigestTest {
+
+    private static final String EMPTY_PAYLOAD_HASH = "47DEQpj8HBSa-_TImW-5JCeuQeRkm5NMpJWZG3hSuFU";
+
+    private final CryptoEngine cryptoEngine = new CryptoEngine(AbstractRequestSigner.SHA_256_ALGORITHM, AbstractRequestSigner.HMAC_SHA_256_ALGORITHM);
+
+    private static byte[] payload() {
+        byte[] payload = new byte[200_000];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (i * 31);
+        }
+        return payload;
+    }
+
+    private String expectedHash(byte[] payload) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cryptoEngine.hash(payload));
+    }
+
+    @Test
+    public void shouldHashEmptyPayload() {
+        Assertions.assertEquals(EMPTY_PAYLOAD_HASH, new PayloadDigest(cryptoEngine.createMessageDigest()).digest());
+    }
+
+    @Test
+    public void shouldHashByteArrayIncrementally() {
+        byte[] payload = payload();
+        String payloadHash = new PayloadDigest(cryptoEngine.createMessageDigest())
+                .update(payload, 0, 1000)
+                .update(Arrays.copyOfRange(payload, 1000, payload.length))
+                .digest();
+        Assertions.assertEquals(expectedHash(payload), payloadHash);
+    }
+
+    @Test
+    public void shouldHashByteBuffer() {
+        byte[] payload = payload();
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(payload.length).put(payload).flip();
+        Assertions.assertEquals(expectedHash(payload), new PayloadDigest(cryptoEngine.createMessageDigest()).update(directBuffer).digest());
+    }
+
+    @Test
+    public void shouldHashInputStream() {
+        byte[] payload = payload();
+        Assertions.assertEquals(expectedHash(payload), new PayloadDigest(cryptoEngine.createMessageDigest()).update(new ByteArrayInputStream(payload)).digest());
+    }
+
+    @Test
+    public void shouldHashChannel() {
+        byte[] payload = payload();
+        String payloadHash = new PayloadDigest(cryptoEngine.createMessageDigest()).update(Channels.newChannel(new ByteArrayInputStream(payload))).digest();
+        Assertions.assertEquals(expectedHash(payload), payloadHash);
+    }
+
+    @Test
+    public void shouldHashMemoryMappedFile(@TempDir Path directory) throws IOException {
+        byte[] payload = payload();
+        Path file = Files.write(directory.resolve("payload.bin"), payload);
+        Assertions.assertEquals(expectedHash(payload), new PayloadDigest(cryptoEngine.createMessageDigest()).update(file).digest());
+        Assertions.assertEquals(expectedHash(payload), new PayloadDigest(cryptoEngine.createMessageDigest(), 4096).update(file).digest());
+    }
+
+    @Test
+    public void shouldHashEmptyFile(@TempDir Path directory) throws IOException {
+        Path file = Files.write(directory.resolve("empty.bin"), new byte[0]);
+        Assertions.assertEquals(EMPTY_PAYLOAD_HASH, new PayloadDigest(cryptoEngine.createMessageDigest()).update(file).digest());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenStreamFails() {
+        InputStream inputStream = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Broken stream");
+            }
+        };
+        PayloadDigest payloadDigest = new PayloadDigest(cryptoEngine.createMessageDigest());
+        RequestSignerException exception = Assertions.assertThrows(RequestSignerException.class, () -> payloadDigest.update(inputStream));
+        Assertions.assertEquals("Unable to hash payload : Broken stream", exception.getMessage());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenFileIsMissing(@TempDir Path directory) {
+        PayloadDigest payloadDigest = new PayloadDigest(cryptoEngine.createMessageDigest());
+        Assertions.assertThrows(RequestSignerException.class, () -> payloadDigest.update(directory.resolve("missing.bin")));
+    }
+
+    @Test
+    public void shouldHashUtf8Text() {
+        byte[] payload = "{\"product_id\":\"prd1\"}".getBytes(StandardCharsets.UTF_8);
+        Assertions.assertEquals(expectedHash(payload), new PayloadDigest(cryptoEngine.createMessageDigest()).update(payload).digest());
+    }
+}
@@ -0,0 +1,68 @@
+package com.adelehedde.signer;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class QueryParametersTest {
+
+    private static String canonicalQuery(String rawQuery) {
+        return SigningBuffer.queryCanonicalizer().addRawQuery(rawQuery, 0, rawQuery.length()).appendTo(new StringBuilder()).toString();
+    }
+
+    @Test
+    public void shouldCreateCanonicalQuery() {
+        QueryParameters queryParameters = new QueryParameters()
+                .add("q", "my product id")
+                .add("customer_id", "c1")
+                .add("sort", "price,desc")
+                .add("tag", "b")
+                .add("tag", "a")
+                .add("empty", null);
+        Assertions.assertEquals("customer_id=c1&empty=&q=my%20product%20id&sort=price%2Cdesc&tag=b&tag=a", queryParameters.toCanonicalQuery());
+    }
+
+    @Test
+    public void shouldEncodeNonAsciiCharacters() {
+        Assertions.assertEquals("name=caf%C3%A9%F0%9F%98%80&~-._=%2B%2F", new QueryParameters().add("name", "café😀").add("~-._", "+/").toCanonicalQuery());
+    }
+
+    @Test
+    public void shouldNormalizeRawQuery() {
+        Assertions.assertEquals("a=1&b=my%20product&c=%2A&d=", canonicalQuery("c=*&b=my+product&&a=%31&d"));
+        Assertions.assertEquals(canonicalQuery("b=caf%c3%a9&a=1"), canonicalQuery("a=1&b=café"));
+        Assertions.assertEquals("a=%25&b=%25zz", canonicalQuery("b=%zz&a=%"));
+    }
+
+    @Test
+    public void shouldSortLargeQueryStably() {
+        StringBuilder rawQuery = new StringBuilder();
+        QueryParameters queryParameters = new QueryParameters();
+        for (int i = 99; i >= 0; i--) {
+            rawQuery.append("p").append(i % 10).append('=').append(i).append('&');
+            queryParameters.add("p" + (i % 10), Integer.toString(i));
+        }
+        String canonicalQuery = queryParameters.toCanonicalQuery();
+        Assertions.assertEquals(canonicalQuery, canonicalQuery(rawQuery.toString()));
+        Assertions.assertTrue(canonicalQuery.startsWith("p0=90&p0=80&p0=70&"));
+        Assertions.assertTrue(canonicalQuery.endsWith("&p9=19&p9=9"));
+    }
+
+    @Test
+    public void shouldParseQuery() {
+        QueryParameters queryParameters = QueryParameters.parse("b=my+product&a=%C3%A9&c&&d=");
+        Assertions.assertEquals(new QueryParameters().add("b", "my product").add("a", "é").add("c", null).add("d", ""), queryParameters);
+        Assertions.assertEquals("a=%C3%A9&b=my%20product&c=&d=", queryParameters.toCanonicalQuery());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenNameIsNull() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new QueryParameters().add(null, "value"));
+    }
+
+    @Test
+    public void shouldCheckEqualsAndHashcode() {
+        EqualsVerifier.forClass(QueryParameters.class).suppress(new Warning[]{Warning.STRICT_INHERITANCE}).verify();
+    }
+}
@@ -0,0 +1,78 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.MalformedURLException;
+import java.util.List;
+import java.util.Map;
+
+public class RecordingMetricsListenerTest {
+
+    private static final long TIMESTAMP = 1585733039477L;
+    private static final String URL = "https://api.com/search?product_id=prd1";
+
+    private final RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+    private final RecordingMetricsListener metricsListener = new RecordingMetricsListener();
+    private final RequestSigner requestSigner = new RequestSigner(null, new SigningKeyCache(), metricsListener);
+
+    @Test
+    public void shouldRecordStagesOfSignedRequest() {
+        RequestAuthenticationSchema requestAuthenticationSchema = requestSigner.signRequest("GET", URL, requestSignerParameters, TIMESTAMP);
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", requestAuthenticationSchema.getSignature());
+        Assertions.assertEquals(1, metricsListener.getSignatureCount());
+        for (SigningStage signingStage : List.of(SigningStage.URL_PARSING, SigningStage.CANONICAL_REQUEST, SigningStage.SIGNING_KEY, SigningStage.SIGNATURE, SigningStage.ENCODING, SigningStage.SIGN_REQUEST)) {
+            Assertions.assertEquals(1, metricsListener.getLatencyHistogram(signingStage).getCount(), signingStage.name());
+        }
+        Assertions.assertEquals(0, metricsListener.getLatencyHistogram(SigningStage.VERIFY_REQUEST).getCount());
+    }
+
+    @Test
+    public void shouldRecordSigningKeyCacheAccesses() {
+        requestSigner.signRequest("GET", URL, requestSignerParameters, TIMESTAMP);
+        requestSigner.signRequest("GET", URL, requestSignerParameters, TIMESTAMP);
+        Assertions.assertEquals(1, metricsListener.getSigningKeyCacheMissCount());
+        Assertions.assertEquals(1, metricsListener.getSigningKeyCacheHitCount());
+    }
+
+    @Test
+    public void shouldRecordCanonicalRequestCacheAccesses() {
+        RequestSigner cachedRequestSigner = new RequestSigner(null, null, metricsListener, new CanonicalRequestCache());
+        cachedRequestSigner.signRequest("GET", URL, requestSignerParameters, TIMESTAMP);
+        cachedRequestSigner.signRequest("GET", URL, requestSignerParameters, TIMESTAMP + 1);
+        cachedRequestSigner.signRequest("GET", URL, requestSignerParameters, TIMESTAMP + 2);
+        Assertions.assertEquals(1, metricsListener.getCanonicalRequestCacheMissCount());
+        Assertions.assertEquals(2, metricsListener.getCanonicalRequestCacheHitCount());
+    }
+
+    @Test
+    public void shouldRecordFailuresByCause() {
+        Assertions.assertThrows(RequestSignerException.class, () -> requestSigner.signRequest("GET", "signer://api.com", requestSignerParameters, TIMESTAMP));
+        RequestSignerParameters signedPayloadParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        signedPayloadParameters.setSignedPayload(true);
+        Assertions.assertThrows(RequestSignerException.class, () -> requestSigner.signRequest("POST", URL, signedPayloadParameters, TIMESTAMP));
+        Assertions.assertEquals(0, metricsListener.getSignatureCount());
+        Assertions.assertEquals(2, metricsListener.getFailureCount());
+        Assertions.assertEquals(Map.of(MalformedURLException.class, 1L, RequestSignerException.class, 1L), metricsListener.getFailureCounts());
+    }
+
+    @Test
+    public void shouldRecordBatchSignatures() {
+        List<SignableRequest> signableRequests = List.of(new SignableRequest("GET", URL), new SignableRequest("GET", "signer://api.com"));
+        requestSigner.signRequests(signableRequests, requestSignerParameters, TIMESTAMP);
+        Assertions.assertEquals(1, metricsListener.getSignatureCount());
+        Assertions.assertEquals(1, metricsListener.getFailureCount());
+    }
+
+    @Test
+    public void shouldRecordVerifications() {
+        RequestSignatureVerifier requestSignatureVerifier = new RequestSignatureVerifier(requestSigner, apiKey -> "secret-aaa-bbb-ccc", RequestSignatureVerifier.DEFAULT_TIMESTAMP_TOLERANCE);
+        RequestAuthenticationSchema requestAuthenticationSchema = requestSigner.signRequest("GET", URL, requestSignerParameters, TIMESTAMP);
+        requestSignatureVerifier.verify(requestAuthenticationSchema, "GET", URL, TIMESTAMP);
+        requestSignatureVerifier.verify(requestAuthenticationSchema, "GET", URL, TIMESTAMP + 3_600_000L);
+        Assertions.assertEquals(1, metricsListener.getVerificationCount(RequestVerificationResult.VALID));
+        Assertions.assertEquals(1, metricsListener.getVerificationCount(RequestVerificationResult.EXPIRED_TIMESTAMP));
+        Assertions.assertEquals(2, metricsListener.getLatencyHistogram(SigningStage.VERIFY_REQUEST).getCount());
+        Assertions.assertEquals(1, metricsListener.getSignatureCount());
+    }
+}
@@ -9,7 +9,7 @@ public class RequestAuthenticationSchemaTest {
 
     @Test
     public void shouldCheckEqualsAndHashcode() {
-        EqualsVerifier.forClass(RequestAuthenticationSchema.class).suppress(new Warning[]{Warning.STRICT_INHERITANCE, Warning.NONFINAL_FIELDS}).verify();
+        EqualsVerifier.forClass(RequestAuthenticationSchema.class).suppress(new Warning[]{Warning.STRICT_INHERITANCE, Warning.NONFINAL_FIELDS}).withIgnoredFields("authorizationHeaderPrefix", "authorizationHeader").verify();
     }
 
     @Test
@@ -20,4 +20,60 @@ public class RequestAuthenticationSchemaTest {
         Assertions.assertNotNull(authorizationHeader);
         Assertions.assertEquals("REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=1585658784903,Signature=abcde", authorizationHeader);
     }
+
+    @Test
+    public void shouldGetAuthorizationHeaderWithSignedPayload() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("api-key", "secret-api-key", "v1");
+        requestSignerParameters.setSignedPayload(true);
+        RequestAuthenticationSchema requestAuthenticationSchema = new RequestAuthenticationSchema(requestSignerParameters, 1585658784903L, "abcde");
+        Assertions.assertTrue(requestAuthenticationSchema.isSignedPayload());
+        Assertions.assertEquals("REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,SignedPayload=true,Timestamp=1585658784903,Signature=abcde", requestAuthenticationSchema.getAuthorizationHeader());
+    }
+
+    @Test
+    public void shouldGetAuthorizationHeaderWithKeyId() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("api-key", "secret-api-key", "v1");
+        requestSignerParameters.setKeyId("k2");
+        RequestAuthenticationSchema requestAuthenticationSchema = new RequestAuthenticationSchema(requestSignerParameters, 1585658784903L, "abcde");
+        Assertions.assertEquals("k2", requestAuthenticationSchema.getKeyId());
+        Assertions.assertEquals("REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,KeyId=k2,SignedHost=true,Timestamp=1585658784903,Signature=abcde", requestAuthenticationSchema.getAuthorizationHeader());
+        requestAuthenticationSchema.setKeyId(null);
+        Assertions.assertEquals("REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,Timestamp=1585658784903,Signature=abcde", requestAuthenticationSchema.getAuthorizationHeader());
+    }
+
+    @Test
+    public void shouldGetAuthorizationHeaderWithSignedHeaders() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("api-key", "secret-api-key", "v1");
+        requestSignerParameters.setSignedPayload(true);
+        requestSignerParameters.setSignedHeaders(SignedHeaders.of("Date", "Content-Type"));
+        RequestAuthenticationSchema requestAuthenticationSchema = new RequestAuthenticationSchema(requestSignerParameters, 1585658784903L, "abcde");
+        Assertions.assertEquals("REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,SignedPayload=true,SignedHeaders=content-type;date,Timestamp=1585658784903,Signature=abcde", requestAuthenticationSchema.getAuthorizationHeader());
+        requestAuthenticationSchema.setSignedHeaders(null);
+        Assertions.assertEquals("REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v1,SignedHost=true,SignedPayload=true,Timestamp=1585658784903,Signature=abcde", requestAuthenticationSchema.getAuthorizationHeader());
+    }
+
+    @Test
+    public void shouldRenderAuthorizationHeaderAfterUpdate() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("api-key", "secret-api-key", "v1");
+        RequestAuthenticationSchema requestAuthenticationSchema = new RequestAuthenticationSchema(requestSignerParameters, 1585658784903L, "abcde");
+        requestAuthenticationSchema.getAuthorizationHeader();
+        requestAuthenticationSchema.setSignature("fghij");
+        requestAuthenticationSchema.setApiVersion("v2");
+        Assertions.assertEquals("REQUEST-SIGNATURE ApiKey=api-key,ApiVersion=v2,SignedHost=true,Timestamp=1585658784903,Signature=fghij", requestAuthenticationSchema.getAuthorizationHeader());
+    }
+
+    @Test
+    public void shouldNotRenderAuthorizationHeaderWithoutSignature() {
+        Assertions.assertNull(new RequestAuthenticationSchema().getAuthorizationHeader());
+    }
+
+    @Test
+    public void shouldConvertAuthorizationHeader() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("api-key", "secret-api-key", "v1");
+        AuthorizationHeader authorizationHeader = AuthorizationHeader.of(requestSignerParameters, 1585658784903L, "abcde");
+        RequestAuthenticationSchema requestAuthenticationSchema = new RequestAuthenticationSchema(authorizationHeader);
+        Assertions.assertEquals(new RequestAuthenticationSchema(requestSignerParameters, 1585658784903L, "abcde"), requestAuthenticationSchema);
+        Assertions.assertEquals(authorizationHeader, requestAuthenticationSchema.toAuthorizationHeader());
+        Assertions.assertEquals(authorizationHeader.getValue(), requestAuthenticationSchema.getAuthorizationHeader());
+    }
 }
@@ -0,0 +1,259 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class RequestSignatureVerifierTest {
+
+    private static final long TIMESTAMP = 1585733039477L;
+    private static final String URL = "https://api.com/search?product_id=prd1";
+
+    private final RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+    private final AtomicInteger secretApiKeyLookups = new AtomicInteger();
+    private final Function<String, String> secretApiKeyProvider = apiKey -> {
+        secretApiKeyLookups.incrementAndGet();
+        return Map.of("aaa-bbb-ccc", "secret-aaa-bbb-ccc").get(apiKey);
+    };
+    private final RequestSigner requestSigner = Mockito.spy(new RequestSigner());
+    private final RequestSignatureVerifier requestSignatureVerifier = new RequestSignatureVerifier(requestSigner, secretApiKeyProvider, RequestSignatureVerifier.DEFAULT_TIMESTAMP_TOLERANCE);
+
+    private RequestAuthenticationSchema signRequest() {
+        return new RequestSigner().signRequest("GET", URL, requestSignerParameters, TIMESTAMP);
+    }
+
+    @Test
+    public void shouldVerifyValidRequest() {
+        Assertions.assertEquals(RequestVerificationResult.VALID, requestSignatureVerifier.verify(signRequest(), "GET", URL, TIMESTAMP + 1000L));
+    }
+
+    @Test
+    public void shouldRejectTamperedRequest() {
+        RequestAuthenticationSchema requestAuthenticationSchema = signRequest();
+        Assertions.assertEquals(RequestVerificationResult.INVALID_SIGNATURE, requestSignatureVerifier.verify(requestAuthenticationSchema, "GET", "https://api.com/search?product_id=prd2", TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.INVALID_SIGNATURE, requestSignatureVerifier.verify(requestAuthenticationSchema, "DELETE", URL, TIMESTAMP));
+        requestAuthenticationSchema.setSignature(requestAuthenticationSchema.getSignature().substring(1));
+        Assertions.assertEquals(RequestVerificationResult.INVALID_SIGNATURE, requestSignatureVerifier.verify(requestAuthenticationSchema, "GET", URL, TIMESTAMP));
+    }
+
+    @Test
+    public void shouldRejectExpiredRequestBeforeLookingUpSecret() {
+        long tolerance = RequestSignatureVerifier.DEFAULT_TIMESTAMP_TOLERANCE.toMillis();
+        Assertions.assertEquals(RequestVerificationResult.EXPIRED_TIMESTAMP, requestSignatureVerifier.verify(signRequest(), "GET", URL, TIMESTAMP + tolerance + 1));
+        Assertions.assertEquals(RequestVerificationResult.EXPIRED_TIMESTAMP, requestSignatureVerifier.verify(signRequest(), "GET", URL, TIMESTAMP - tolerance - 1));
+        Assertions.assertEquals(0, secretApiKeyLookups.get());
+        Mockito.verify(requestSigner, Mockito.never()).calculateSignature(ArgumentMatchers.any(SignableRequest.class), ArgumentMatchers.any(RequestSignerParameters.class), ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    public void shouldRejectUnknownApiKeyBeforeComputingSignature() {
+        RequestAuthenticationSchema requestAuthenticationSchema = signRequest();
+        requestAuthenticationSchema.setApiKey("unknown");
+        Assertions.assertEquals(RequestVerificationResult.UNKNOWN_API_KEY, requestSignatureVerifier.verify(requestAuthenticationSchema, "GET", URL, TIMESTAMP));
+        Mockito.verify(requestSigner, Mockito.never()).calculateSignature(ArgumentMatchers.any(SignableRequest.class), ArgumentMatchers.any(RequestSignerParameters.class), ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    public void shouldRejectMalformedRequest() {
+        Assertions.assertEquals(RequestVerificationResult.MALFORMED_REQUEST, requestSignatureVerifier.verify(null, "GET", URL, TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.MALFORMED_REQUEST, requestSignatureVerifier.verify(new RequestAuthenticationSchema(), "GET", URL, TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.MALFORMED_REQUEST, requestSignatureVerifier.verify(signRequest(), "GET", "api.com", TIMESTAMP));
+    }
+
+    @Test
+    public void shouldRejectUnknownAuthenticationType() {
+        RequestAuthenticationSchema requestAuthenticationSchema = signRequest();
+        requestAuthenticationSchema.setAuthenticationType("REQUEST-SIGNATURE-MD5");
+        Assertions.assertEquals(RequestVerificationResult.MALFORMED_REQUEST, requestSignatureVerifier.verify(requestAuthenticationSchema, "GET", URL, TIMESTAMP));
+    }
+
+    @Test
+    public void shouldUseCustomTimestampTolerance() {
+        RequestSignatureVerifier strictRequestSignatureVerifier = new RequestSignatureVerifier(new RequestSigner(), secretApiKeyProvider, Duration.ofSeconds(1));
+        Assertions.assertEquals(RequestVerificationResult.VALID, strictRequestSignatureVerifier.verify(signRequest(), "GET", URL, TIMESTAMP + 1000L));
+        Assertions.assertEquals(RequestVerificationResult.EXPIRED_TIMESTAMP, strictRequestSignatureVerifier.verify(signRequest(), "GET", URL, TIMESTAMP + 1001L));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RequestSignatureVerifier(new RequestSigner(), secretApiKeyProvider, Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    public void shouldRejectReplayedRequest() {
+        RequestSignatureVerifier replayRequestSignatureVerifier = new RequestSignatureVerifier(new RequestSigner(), secretApiKeyProvider, RequestSignatureVerifier.DEFAULT_TIMESTAMP_TOLERANCE, new ConcurrentReplayCache(RequestSignatureVerifier.DEFAULT_TIMESTAMP_TOLERANCE));
+        Assertions.assertEquals(RequestVerificationResult.VALID, replayRequestSignatureVerifier.verify(signRequest(), "GET", URL, TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.REPLAYED_REQUEST, replayRequestSignatureVerifier.verify(signRequest(), "GET", URL, TIMESTAMP + 1000L));
+    }
+
+    @Test
+    public void shouldVerifyAsynchronously() {
+        RequestSignatureVerifier asyncRequestSignatureVerifier = new RequestSignatureVerifier(new InMemorySecretKeyResolver(Map.of("aaa-bbb-ccc", "secret-aaa-bbb-ccc")));
+        Assertions.assertEquals(RequestVerificationResult.VALID, asyncRequestSignatureVerifier.verifyAsync(signRequest(), "GET", URL, TIMESTAMP).join());
+        Assertions.assertEquals(RequestVerificationResult.VALID, asyncRequestSignatureVerifier.verify(signRequest(), "GET", URL, TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.EXPIRED_TIMESTAMP, asyncRequestSignatureVerifier.verifyAsync(signRequest(), "GET", URL, 0L).join());
+        RequestAuthenticationSchema requestAuthenticationSchema = signRequest();
+        requestAuthenticationSchema.setApiKey("unknown");
+        Assertions.assertEquals(RequestVerificationResult.UNKNOWN_API_KEY, asyncRequestSignatureVerifier.verifyAsync(requestAuthenticationSchema, "GET", URL, TIMESTAMP).join());
+    }
+
+    @Test
+    public void shouldCompareInConstantTime() {
+        Assertions.assertTrue(RequestSignatureVerifier.constantTimeEquals("abcde", "abcde"));
+        Assertions.assertFalse(RequestSignatureVerifier.constantTimeEquals("abcde", "abcdf"));
+        Assertions.assertFalse(RequestSignatureVerifier.constantTimeEquals("abcde", "abcd"));
+        Assertions.assertFalse(RequestSignatureVerifier.constantTimeEquals("abcd", "abcde"));
+        Assertions.assertFalse(RequestSignatureVerifier.constantTimeEquals("", "a"));
+    }
+
+    @Test
+    public void shouldVerifySignedPayload() {
+        RequestSignerParameters signedPayloadParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        signedPayloadParameters.setSignedPayload(true);
+        String payloadHash = requestSigner.hashPayload(new byte[]{1, 2, 3});
+        RequestAuthenticationSchema requestAuthenticationSchema = new RequestSigner().signRequest(new SignableRequest("POST", URL, payloadHash), signedPayloadParameters, TIMESTAMP);
+        Assertions.assertEquals(RequestVerificationResult.VALID, requestSignatureVerifier.verify(requestAuthenticationSchema, new SignableRequest("POST", URL, payloadHash), TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.INVALID_SIGNATURE, requestSignatureVerifier.verify(requestAuthenticationSchema, new SignableRequest("POST", URL, requestSigner.hashPayload(new byte[]{1, 2})), TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.MALFORMED_REQUEST, requestSignatureVerifier.verify(requestAuthenticationSchema, "POST", URL, TIMESTAMP));
+    }
+
+    @Test
+    public void shouldVerifySignedHeaders() {
+        RequestSignerParameters signedHeadersParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        signedHeadersParameters.setSignedHeaders(SignedHeaders.of("x-tenant"));
+        SignableRequest signableRequest = new SignableRequest("GET", URL, null, Map.of("X-Tenant", List.of("tenant-1")));
+        AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView();
+        authorizationHeaderView.parse(new RequestSigner().signRequest(signableRequest, signedHeadersParameters, TIMESTAMP).getAuthorizationHeader());
+        Assertions.assertEquals(RequestVerificationResult.VALID, requestSignatureVerifier.verify(authorizationHeaderView, new SignableRequest("GET", URL, null, Map.of("x-tenant", List.of(" tenant-1"), "Accept", List.of("*/*"))), TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.INVALID_SIGNATURE, requestSignatureVerifier.verify(authorizationHeaderView, new SignableRequest("GET", URL, null, Map.of("X-Tenant", List.of("tenant-2"))), TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.MALFORMED_REQUEST, requestSignatureVerifier.verify(authorizationHeaderView, new SignableRequest("GET", URL, null, Map.of("Accept", List.of("*/*"))), TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.MALFORMED_REQUEST, requestSignatureVerifier.verify(authorizationHeaderView, new SignableRequest("GET", URL), TIMESTAMP));
+    }
+
+    @Test
+    public void shouldVerifyCanonicalQuery() {
+        RequestSignerParameters canonicalQueryParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        canonicalQueryParameters.setCanonicalQuery(true);
+        AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView();
+        authorizationHeaderView.parse(new RequestSigner().signRequest("GET", "https://api.com/search?product_id=prd1&customer_id=c%31", canonicalQueryParameters, TIMESTAMP).getAuthorizationHeader());
+        Assertions.assertTrue(authorizationHeaderView.isCanonicalQuery());
+        Assertions.assertEquals(RequestVerificationResult.VALID, requestSignatureVerifier.verify(authorizationHeaderView, new SignableRequest("GET", "https://api.com/search?customer_id=c1&product_id=prd1"), TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.VALID, requestSignatureVerifier.verify(authorizationHeaderView, new SignableRequest("GET", "https://api.com/search", null, null, QueryParameters.parse("customer_id=c1&product_id=prd1")), TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.INVALID_SIGNATURE, requestSignatureVerifier.verify(authorizationHeaderView, new SignableRequest("GET", "https://api.com/search?customer_id=c2&product_id=prd1"), TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.INVALID_SIGNATURE, requestSignatureVerifier.verify(authorizationHeaderView.toRequestAuthenticationSchema(), "GET", URL, TIMESTAMP));
+    }
+
+    @Test
+    public void shouldVerifyWithCredentialStore() {
+        CredentialStore credentialStore = new CredentialStore(new CredentialSnapshotWriter().add("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1").toByteBuffer());
+        RequestSignatureVerifier credentialStoreVerifier = new RequestSignatureVerifier(credentialStore);
+        RequestAuthenticationSchema requestAuthenticationSchema = signRequest();
+        Assertions.assertEquals(RequestVerificationResult.VALID, credentialStoreVerifier.verify(requestAuthenticationSchema, "GET", URL, TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.VALID, credentialStoreVerifier.verifyAsync(requestAuthenticationSchema, "GET", URL, TIMESTAMP).join());
+        Assertions.assertEquals(RequestVerificationResult.INVALID_SIGNATURE, credentialStoreVerifier.verify(requestAuthenticationSchema, "DELETE", URL, TIMESTAMP));
+        Assertions.assertSame(credentialStore, credentialStoreVerifier.getCredentialStore());
+        requestAuthenticationSchema.setApiVersion("v2");
+        Assertions.assertEquals(RequestVerificationResult.UNKNOWN_API_KEY, credentialStoreVerifier.verify(requestAuthenticationSchema, "GET", URL, TIMESTAMP));
+    }
+
+    @Test
+    public void shouldVerifyInterleavedCredentialsWithCredentialStore() {
+        String sha512AuthenticationType = SignatureAlgorithmSuite.REQUEST_SIGNATURE_SHA512.getAuthenticationType();
+        CredentialStore credentialStore = new CredentialStore(new CredentialSnapshotWriter()
+                .add("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1")
+                .add("ddd-eee-fff", "secret-ddd-eee-fff", "v1", sha512AuthenticationType)
+                .toByteBuffer());
+        RequestSignatureVerifier credentialStoreVerifier = new RequestSignatureVerifier(credentialStore);
+        RequestAuthenticationSchema first = signRequest();
+        RequestAuthenticationSchema second = new RequestSigner().signRequest("GET", URL, new RequestSignerParameters("ddd-eee-fff", "secret-ddd-eee-fff", "v1", true, sha512AuthenticationType), TIMESTAMP);
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertEquals(RequestVerificationResult.VALID, credentialStoreVerifier.verify(first, "GET", URL, TIMESTAMP));
+            Assertions.assertEquals(RequestVerificationResult.VALID, credentialStoreVerifier.verify(second, "GET", URL, TIMESTAMP));
+        }
+    }
+
+    @Test
+    public void shouldDecodeChunkedPayloadAfterVerification() {
+        RequestSignerParameters streamingParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        streamingParameters.setSignedPayload(true);
+        SignableRequest signableRequest = new SignableRequest("PUT", URL, ChunkedPayloadEncoder.STREAMING_PAYLOAD);
+        RequestAuthenticationSchema requestAuthenticationSchema = requestSigner.signRequest(signableRequest, streamingParameters, TIMESTAMP);
+        ChunkedPayloadEncoder encoder = requestSigner.newChunkedPayloadEncoder(requestAuthenticationSchema, streamingParameters, 16);
+        ByteBuffer encoded = ByteBuffer.allocate((int) encoder.encodedLength(20));
+        encoder.encode(ByteBuffer.wrap(new byte[20]), encoded);
+        Assertions.assertTrue(encoder.finish(encoded));
+        Assertions.assertEquals(RequestVerificationResult.VALID, requestSignatureVerifier.verify(requestAuthenticationSchema, signableRequest, TIMESTAMP));
+        ChunkedPayloadDecoder decoder = requestSignatureVerifier.newChunkedPayloadDecoder(requestAuthenticationSchema, 16);
+        ByteBuffer decoded = ByteBuffer.allocate(20);
+        Assertions.assertTrue(decoder.decode(encoded.flip(), decoded));
+        Assertions.assertFalse(decoded.hasRemaining());
+        requestAuthenticationSchema.setApiKey("unknown");
+        Assertions.assertThrows(RequestSignerException.class, () -> requestSignatureVerifier.newChunkedPayloadDecoder(requestAuthenticationSchema));
+    }
+
+    @Test
+    public void shouldVerifyAuthorizationHeaderView() {
+        AuthorizationHeaderView authorizationHeaderView = new AuthorizationHeaderView();
+        authorizationHeaderView.parse(signRequest().getAuthorizationHeader());
+        Assertions.assertEquals(RequestVerificationResult.VALID, requestSignatureVerifier.verify(authorizationHeaderView, new SignableRequest("GET", URL), TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.EXPIRED_TIMESTAMP, requestSignatureVerifier.verify(authorizationHeaderView, new SignableRequest("GET", URL), TIMESTAMP + 3_600_000L));
+        authorizationHeaderView.parse("REQUEST-SIGNATURE ApiKey=aaa-bbb-ccc");
+        Assertions.assertEquals(RequestVerificationResult.MALFORMED_REQUEST, requestSignatureVerifier.verify(authorizationHeaderView, new SignableRequest("GET", URL), TIMESTAMP));
+        Assertions.assertEquals(1, secretApiKeyLookups.get());
+    }
+
+    @Test
+    public void shouldVerifyRequestSignedWithAlgorithmSuite() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1", true, SignatureAlgorithmSuite.REQUEST_SIGNATURE_SHA512.getAuthenticationType());
+        RequestAuthenticationSchema requestAuthenticationSchema = new RequestSigner().signRequest("GET", URL, requestSignerParameters, TIMESTAMP);
+        Assertions.assertEquals(RequestVerificationResult.VALID, requestSignatureVerifier.verify(requestAuthenticationSchema, "GET", URL, TIMESTAMP));
+        requestAuthenticationSchema.setAuthenticationType(SignatureAlgorithmSuite.REQUEST_SIGNATURE_SHA384.getAuthenticationType());
+        Assertions.assertEquals(RequestVerificationResult.INVALID_SIGNATURE, requestSignatureVerifier.verify(requestAuthenticationSchema, "GET", URL, TIMESTAMP));
+    }
+
+    @Test
+    public void shouldVerifyKeyIdWithSecretKeyRing() {
+        SecretKeyRing secretKeyRing = new SecretKeyRing();
+        secretKeyRing.rotate("aaa-bbb-ccc", "k1", "secret-1");
+        secretKeyRing.rotate("aaa-bbb-ccc", "k2", "secret-2");
+        RequestSigner spiedRequestSigner = Mockito.spy(new RequestSigner());
+        RequestSignatureVerifier keyRingVerifier = new RequestSignatureVerifier(spiedRequestSigner, secretKeyRing, RequestSignatureVerifier.DEFAULT_TIMESTAMP_TOLERANCE, null);
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-1", "v1");
+        requestSignerParameters.setKeyId("k1");
+        RequestAuthenticationSchema requestAuthenticationSchema = new RequestSigner().signRequest("GET", URL, requestSignerParameters, TIMESTAMP);
+        Assertions.assertEquals(RequestVerificationResult.VALID, keyRingVerifier.verify(requestAuthenticationSchema, "GET", URL, TIMESTAMP));
+        Mockito.verify(spiedRequestSigner, Mockito.times(1)).calculateSignature(Mockito.any(SignableRequest.class), Mockito.any(RequestSignerParameters.class), Mockito.anyLong());
+        requestAuthenticationSchema.setKeyId("k3");
+        Assertions.assertEquals(RequestVerificationResult.UNKNOWN_API_KEY, keyRingVerifier.verify(requestAuthenticationSchema, "GET", URL, TIMESTAMP));
+    }
+
+    @Test
+    public void shouldVerifyLegacyRequestsWithBoundedTrials() {
+        SecretKeyRing secretKeyRing = new SecretKeyRing(2);
+        secretKeyRing.rotate("aaa-bbb-ccc", "k1", "secret-1");
+        secretKeyRing.rotate("aaa-bbb-ccc", "k2", "secret-2");
+        RequestSignatureVerifier keyRingVerifier = new RequestSignatureVerifier(secretKeyRing);
+        RequestAuthenticationSchema previousSecret = new RequestSigner().signRequest("GET", URL, new RequestSignerParameters("aaa-bbb-ccc", "secret-1", "v1"), TIMESTAMP);
+        Assertions.assertEquals(RequestVerificationResult.VALID, keyRingVerifier.verify(previousSecret, "GET", URL, TIMESTAMP));
+        Assertions.assertEquals(RequestVerificationResult.VALID, keyRingVerifier.verifyAsync(previousSecret, "GET", URL, TIMESTAMP).join());
+        secretKeyRing.rotate("aaa-bbb-ccc", "k3", "secret-3");
+        Assertions.assertEquals(RequestVerificationResult.INVALID_SIGNATURE, keyRingVerifier.verify(previousSecret, "GET", URL, TIMESTAMP));
+        secretKeyRing.remove("aaa-bbb-ccc");
+        Assertions.assertEquals(RequestVerificationResult.UNKNOWN_API_KEY, keyRingVerifier.verify(previousSecret, "GET", URL, TIMESTAMP));
+    }
+
+    @Test
+    public void shouldRejectLegacyRequestsWhenTrialsAreDisabled() {
+        SecretKeyRing secretKeyRing = new SecretKeyRing(0);
+        secretKeyRing.rotate("aaa-bbb-ccc", "k1", "secret-1");
+        RequestSignatureVerifier keyRingVerifier = new RequestSignatureVerifier(secretKeyRing);
+        RequestAuthenticationSchema legacyRequest = new RequestSigner().signRequest("GET", URL, new RequestSignerParameters("aaa-bbb-ccc", "secret-1", "v1"), TIMESTAMP);
+        Assertions.assertEquals(RequestVerificationResult.INVALID_SIGNATURE, keyRingVerifier.verify(legacyRequest, "GET", URL, TIMESTAMP));
+        legacyRequest.setApiKey("unknown");
+        Assertions.assertEquals(RequestVerificationResult.UNKNOWN_API_KEY, keyRingVerifier.verify(legacyRequest, "GET", URL, TIMESTAMP));
+    }
+}
@@ -2,12 +2,23 @@ package com.adelehedde.signer;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
 import nl.jqno.equalsverifier.Warning;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 public class RequestSignerParametersTest {
 
     @Test
     public void shouldCheckEqualsAndHashcode() {
-        EqualsVerifier.forClass(RequestSignerParameters.class).suppress(new Warning[]{Warning.STRICT_INHERITANCE, Warning.NONFINAL_FIELDS}).verify();
+        EqualsVerifier.forClass(RequestSignerParameters.class).suppress(new Warning[]{Warning.STRICT_INHERITANCE, Warning.NONFINAL_FIELDS}).withIgnoredFields("authorizationHeaderPrefix").verify();
+    }
+
+    @Test
+    public void shouldCacheAuthorizationHeaderPrefixPerCredential() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("api-key", "secret-api-key", "v1");
+        AuthorizationHeader.Prefix prefix = requestSignerParameters.getAuthorizationHeaderPrefix();
+        Assertions.assertSame(prefix, requestSignerParameters.getAuthorizationHeaderPrefix());
+        requestSignerParameters.setKeyId("k1");
+        Assertions.assertNotSame(prefix, requestSignerParameters.getAuthorizationHeaderPrefix());
+        Assertions.assertTrue(requestSignerParameters.getAuthorizationHeaderPrefix().matches(requestSignerParameters));
     }
 }
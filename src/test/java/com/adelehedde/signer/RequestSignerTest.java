@@ -7,7 +7,13 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.net.MalformedURLException;
+import java.net.URI;
 import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 public class RequestSignerTest {
@@ -30,8 +36,27 @@ public class RequestSignerTest {
         );
     }
 
+    private static Stream<String> URL_PARAMETERS() {
+        return Stream.of(
+                "https://api.com",
+                "https://api.com/",
+                "https://api.com/search?product_id=prd1&customer_id=c1",
+                "https://api.com/search?",
+                "http://user@api.com:8080/a/./b/../c?q=1#fragment",
+                "https://api.com/caf\u00e9?name=\ud83d\ude00",
+                "https://api.com/" + "long/".repeat(200) + "?" + "q=value&".repeat(200)
+        );
+    }
+
     private RequestSigner requestSigner = new RequestSigner();
 
+    private String calculateSignatureFromStrings(String httpMethod, String url, RequestSignerParameters requestSignerParameters, long timestamp) {
+        String canonicalRequest = requestSigner.createCanonicalRequest(httpMethod, url, requestSignerParameters.isSignedHost());
+        String stringToSign = requestSigner.createStringToSign(requestSignerParameters.getAuthenticationType(), requestSignerParameters.getApiKey(), requestSignerParameters.getApiVersion(), timestamp, canonicalRequest);
+        byte[] signingKey = requestSigner.computeSigningKey(requestSignerParameters.getSecretApiKey(), requestSignerParameters.getApiVersion(), timestamp);
+        return requestSigner.sign(stringToSign, signingKey);
+    }
+
     @Test
     public void shouldSignRequest() {
         RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
@@ -50,6 +75,80 @@ public class RequestSignerTest {
         Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", requestAuthenticationSchema.getSignature());
     }
 
+    @Test
+    public void shouldSignRequestWithUriAndUrlComponents() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        long timestamp = 1585733039477L;
+        RequestAuthenticationSchema withUri = requestSigner.signRequest("GET", URI.create("https://api.com/search?product_id=prd1"), requestSignerParameters, timestamp);
+        RequestAuthenticationSchema withUrlComponents = requestSigner.signRequest("GET", UrlComponents.of("api.com", "/search", "product_id=prd1"), requestSignerParameters, timestamp);
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", withUri.getSignature());
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", withUrlComponents.getSignature());
+    }
+
+    @Test
+    public void shouldCreateCanonicalRequestFromUri() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        Assertions.assertEquals("GET api.com /search product_id=prd1&customer_id=c1", requestSigner.createCanonicalRequest(new SignableRequest("get", null), UrlComponents.of(URI.create("https://api.com/search?product_id=prd1&customer_id=c1")), requestSignerParameters));
+        requestSignerParameters.setSignedHost(false);
+        Assertions.assertEquals("GET /search", requestSigner.createCanonicalRequest(new SignableRequest("get", null), UrlComponents.of(URI.create("https://api.com/search?")), requestSignerParameters));
+    }
+
+    @Test
+    public void shouldSignRequestsInBatch() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        long timestamp = 1585733039477L;
+        List<SignableRequest> signableRequests = List.of(
+                new SignableRequest("GET", "https://api.com/search?product_id=prd1"),
+                new SignableRequest("GET", "api.com"),
+                new SignableRequest("GET", "https://api.com")
+        );
+        List<SigningResult> signingResults = requestSigner.signRequests(signableRequests, requestSignerParameters, timestamp);
+        Assertions.assertEquals(3, signingResults.size());
+        Assertions.assertTrue(signingResults.get(0).isSuccess());
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", signingResults.get(0).getRequestAuthenticationSchema().getSignature());
+        Assertions.assertFalse(signingResults.get(1).isSuccess());
+        Assertions.assertNotNull(signingResults.get(1).getException());
+        Assertions.assertEquals(signableRequests.get(1), signingResults.get(1).getSignableRequest());
+        Assertions.assertEquals("oZw3_NJhq8GWvXZ_4B7lteZMHHkRI_yLmIgq4VJlfss", signingResults.get(2).getRequestAuthenticationSchema().getSignature());
+    }
+
+    @Test
+    public void shouldReturnFailuresForInvalidRequestsInBatch() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        List<SignableRequest> signableRequests = new ArrayList<>();
+        signableRequests.add(new SignableRequest(null, "https://api.com/search?product_id=prd1"));
+        signableRequests.add(new SignableRequest("GET", null));
+        signableRequests.add(null);
+        signableRequests.add(new SignableRequest("GET", "https://api.com/search?product_id=prd1"));
+        List<SigningResult> signingResults = requestSigner.signRequests(signableRequests, requestSignerParameters, 1585733039477L);
+        Assertions.assertEquals(4, signingResults.size());
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertFalse(signingResults.get(i).isSuccess());
+            Assertions.assertNotNull(signingResults.get(i).getException());
+        }
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", signingResults.get(3).getRequestAuthenticationSchema().getSignature());
+    }
+
+    @Test
+    public void shouldSignRequestsInParallelBatches() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        long timestamp = 1585733039477L;
+        List<SignableRequest> signableRequests = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            signableRequests.add(new SignableRequest("GET", i % 100 == 0 ? "malformed" : "https://api.com/search?product_id=prd" + i));
+        }
+        List<SigningResult> signingResults = requestSigner.signRequests(signableRequests, requestSignerParameters, timestamp, ForkJoinPool.commonPool());
+        Assertions.assertEquals(1000, signingResults.size());
+        for (int i = 0; i < signableRequests.size(); i++) {
+            SigningResult signingResult = signingResults.get(i);
+            Assertions.assertEquals(signableRequests.get(i), signingResult.getSignableRequest());
+            Assertions.assertEquals(i % 100 != 0, signingResult.isSuccess());
+            if (signingResult.isSuccess()) {
+                Assertions.assertEquals(requestSigner.calculateSignature("GET", signableRequests.get(i).getUrl(), requestSignerParameters, timestamp), signingResult.getRequestAuthenticationSchema().getSignature());
+            }
+        }
+    }
+
     @Test
     public void shouldCalculateSignature() {
         RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
@@ -58,6 +157,87 @@ public class RequestSignerTest {
         Assertions.assertEquals("oZw3_NJhq8GWvXZ_4B7lteZMHHkRI_yLmIgq4VJlfss", signature);
     }
 
+    @ParameterizedTest
+    @MethodSource("URL_PARAMETERS")
+    public void shouldCalculateSameSignatureAsCanonicalStrings(String url) {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-\u00e9", "secret-aaa-bbb-ccc", "v1");
+        Assertions.assertEquals(calculateSignatureFromStrings("get", url, requestSignerParameters, 1585733039477L), requestSigner.calculateSignature("get", url, requestSignerParameters, 1585733039477L));
+        requestSignerParameters.setSignedHost(false);
+        Assertions.assertEquals(calculateSignatureFromStrings("POST", url, requestSignerParameters, -1L), requestSigner.calculateSignature("POST", url, requestSignerParameters, -1L));
+    }
+
+    @Test
+    public void shouldUseOverriddenSigningHooks() {
+        RequestSigner hookedRequestSigner = new RequestSigner() {
+            @Override
+            protected String createCanonicalRequest(String httpMethod, URL url, boolean isSignedHost) {
+                return super.createCanonicalRequest(httpMethod, url, isSignedHost).toLowerCase();
+            }
+
+            @Override
+            protected String encode(byte[] data) {
+                StringBuilder hex = new StringBuilder();
+                for (byte b : data) {
+                    hex.append(String.format("%02x", b));
+                }
+                return hex.toString();
+            }
+        };
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        String url = "https://api.com/search?product_id=prd1";
+        String canonicalRequest = hookedRequestSigner.createCanonicalRequest("GET", url, true);
+        Assertions.assertEquals("get api.com /search product_id=prd1", canonicalRequest);
+        String stringToSign = hookedRequestSigner.createStringToSign("REQUEST-SIGNATURE", "aaa-bbb-ccc", "v1", 1585733039477L, canonicalRequest);
+        String expectedSignature = hookedRequestSigner.sign(stringToSign, hookedRequestSigner.computeSigningKey("secret-aaa-bbb-ccc", "v1", 1585733039477L));
+        Assertions.assertEquals(64, expectedSignature.length());
+        Assertions.assertEquals(expectedSignature, hookedRequestSigner.signRequest("GET", url, requestSignerParameters, 1585733039477L).getSignature());
+        Assertions.assertEquals(expectedSignature, hookedRequestSigner.signRequest(new SignableRequest("GET", url), requestSignerParameters, 1585733039477L).getSignature());
+        Assertions.assertEquals(expectedSignature, hookedRequestSigner.signRequests(List.of(new SignableRequest("GET", url)), requestSignerParameters, 1585733039477L).get(0).getRequestAuthenticationSchema().getSignature());
+        Assertions.assertNotEquals(requestSigner.signRequest("GET", url, requestSignerParameters, 1585733039477L).getSignature(), expectedSignature);
+    }
+
+    @Test
+    public void shouldUseOverriddenCanonicalRequestFromEveryOverload() throws Exception {
+        RequestSigner hookedRequestSigner = new RequestSigner() {
+            @Override
+            protected String createCanonicalRequest(String httpMethod, String url, boolean isSignedHost) {
+                return super.createCanonicalRequest(httpMethod, url, isSignedHost).toLowerCase();
+            }
+        };
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        String url = "https://api.com/Search?product_id=prd1";
+        String expectedSignature = hookedRequestSigner.signRequest("GET", url, requestSignerParameters, 1585733039477L).getSignature();
+        Assertions.assertNotEquals(requestSigner.signRequest("GET", url, requestSignerParameters, 1585733039477L).getSignature(), expectedSignature);
+        Assertions.assertEquals(expectedSignature, hookedRequestSigner.signRequest("GET", new URI(url), requestSignerParameters, 1585733039477L).getSignature());
+        Assertions.assertEquals(expectedSignature, hookedRequestSigner.signRequest("GET", new URI(url), Map.of(), requestSignerParameters, 1585733039477L).getSignature());
+        Assertions.assertEquals(expectedSignature, hookedRequestSigner.signRequest("GET", UrlComponents.of(url), requestSignerParameters, 1585733039477L).getSignature());
+    }
+
+    @Test
+    public void shouldSkipSigningHooksWhenDisabled() {
+        RequestSigner fastRequestSigner = new RequestSigner() {
+            @Override
+            protected boolean usesSigningHooks() {
+                return false;
+            }
+
+            @Override
+            protected String encode(byte[] data) {
+                return "encoded";
+            }
+        };
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", fastRequestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", requestSignerParameters, 1585733039477L).getSignature());
+    }
+
+    @Test
+    public void shouldComputeSameSigningKeyAsHashHmac() {
+        byte[] secretApiVersionKey = requestSigner.computeSecretApiVersionKey("SecretApiKey", "v1");
+        byte[] secretTimestampKey = requestSigner.hash_hmac("1585658784903", secretApiVersionKey);
+        byte[] signingKey = requestSigner.hash_hmac(RequestAuthenticationSchema.REQUEST_SIGNER_REQUEST, secretTimestampKey);
+        Assertions.assertArrayEquals(signingKey, requestSigner.computeSigningKey(secretApiVersionKey, 1585658784903L));
+    }
+
     @ParameterizedTest
     @MethodSource("MALFORMED_URL_PARAMETERS")
     public void shouldThrowExceptionWhenUrlIsMalformed(String url) {
@@ -82,9 +262,257 @@ public class RequestSignerTest {
         Assertions.assertEquals("uT-NHNKtsf6nl2smF3i57Cen7PiJ-7VDCvi_AjEyyNM", requestSigner.encode(signinKey));
     }
 
+    @Test
+    public void shouldSignRequestWithDefaultAlgorithmSuite() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1", true, SignatureAlgorithmSuite.REQUEST_SIGNATURE.getAuthenticationType());
+        RequestAuthenticationSchema requestAuthenticationSchema = requestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", requestSignerParameters, 1585733039477L);
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", requestAuthenticationSchema.getSignature());
+    }
+
+    @Test
+    public void shouldSignRequestWithNonAsciiApiKey() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("cl\u00e9", "secret-aaa-bbb-ccc", "v1");
+        RequestAuthenticationSchema requestAuthenticationSchema = requestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", requestSignerParameters, 1585733039477L);
+        Assertions.assertEquals("hupI-kzO-8Y7XCpTXU7rDKtOtflwIsaLvsmUAcqCZ84", requestAuthenticationSchema.getSignature());
+        Assertions.assertTrue(requestAuthenticationSchema.getAuthorizationHeader().startsWith("REQUEST-SIGNATURE ApiKey=cl\u00e9,"));
+    }
+
+    @Test
+    public void shouldSignRequestWithSha512AlgorithmSuite() {
+        RequestSigner sha512RequestSigner = new RequestSigner() {
+            @Override
+            protected String getHashAlgorithm() {
+                return "SHA-512";
+            }
+
+            @Override
+            protected String getHashMacAlgorithm() {
+                return "HmacSHA512";
+            }
+        };
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1", true, SignatureAlgorithmSuite.REQUEST_SIGNATURE_SHA512.getAuthenticationType());
+        RequestAuthenticationSchema requestAuthenticationSchema = requestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", requestSignerParameters, 1585733039477L);
+        Assertions.assertEquals(86, requestAuthenticationSchema.getSignature().length());
+        Assertions.assertEquals(sha512RequestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", requestSignerParameters, 1585733039477L).getSignature(), requestAuthenticationSchema.getSignature());
+        Assertions.assertTrue(requestAuthenticationSchema.getAuthorizationHeader().startsWith("REQUEST-SIGNATURE-SHA512 ApiKey=aaa-bbb-ccc,"));
+    }
+
+    @Test
+    public void shouldSeparateAlgorithmSuitesInSigningKeyCache() {
+        RequestSigner cachedRequestSigner = new RequestSigner(new SigningKeyCache());
+        RequestSignerParameters sha256Parameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        RequestSignerParameters sha384Parameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1", true, SignatureAlgorithmSuite.REQUEST_SIGNATURE_SHA384.getAuthenticationType());
+        RequestAuthenticationSchema sha384Schema = cachedRequestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", sha384Parameters, 1585733039477L);
+        RequestAuthenticationSchema sha256Schema = cachedRequestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", sha256Parameters, 1585733039477L);
+        Assertions.assertEquals(64, sha384Schema.getSignature().length());
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", sha256Schema.getSignature());
+        Assertions.assertEquals(0, cachedRequestSigner.getSigningKeyCache().getSecretApiVersionKeyHitCount());
+        Assertions.assertEquals(2, cachedRequestSigner.getSigningKeyCache().getSecretApiVersionKeyMissCount());
+    }
+
+    @Test
+    public void shouldSignRequestWithCanonicalRequestCache() {
+        CanonicalRequestCache canonicalRequestCache = new CanonicalRequestCache();
+        RequestSigner cachedRequestSigner = new RequestSigner(null, null, null, canonicalRequestCache);
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        RequestAuthenticationSchema miss = cachedRequestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", requestSignerParameters, 1585733039477L);
+        RequestAuthenticationSchema hit = cachedRequestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", requestSignerParameters, 1585733039477L);
+        RequestAuthenticationSchema otherTimestamp = cachedRequestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", requestSignerParameters, 1585733039478L);
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", miss.getSignature());
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", hit.getSignature());
+        Assertions.assertEquals(requestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", requestSignerParameters, 1585733039478L).getSignature(), otherTimestamp.getSignature());
+        Assertions.assertEquals(2, canonicalRequestCache.getHitCount());
+        Assertions.assertEquals(1, canonicalRequestCache.getMissCount());
+    }
+
+    @Test
+    public void shouldBypassCanonicalRequestCacheForSignedPayload() {
+        CanonicalRequestCache canonicalRequestCache = new CanonicalRequestCache();
+        RequestSigner cachedRequestSigner = new RequestSigner(null, null, null, canonicalRequestCache);
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        requestSignerParameters.setSignedPayload(true);
+        String payloadHash = requestSigner.hashPayload(new byte[]{1, 2, 3});
+        RequestAuthenticationSchema requestAuthenticationSchema = cachedRequestSigner.signRequest(new SignableRequest("POST", "https://api.com/orders", payloadHash), requestSignerParameters, 1585733039477L);
+        Assertions.assertEquals(requestSigner.signRequest(new SignableRequest("POST", "https://api.com/orders", payloadHash), requestSignerParameters, 1585733039477L).getSignature(), requestAuthenticationSchema.getSignature());
+        Assertions.assertEquals(0, canonicalRequestCache.size());
+    }
+
+    @Test
+    public void shouldSeparateAlgorithmSuitesInCanonicalRequestCache() {
+        RequestSigner cachedRequestSigner = new RequestSigner(null, null, null, new CanonicalRequestCache());
+        RequestSignerParameters sha512Parameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1", true, SignatureAlgorithmSuite.REQUEST_SIGNATURE_SHA512.getAuthenticationType());
+        cachedRequestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", sha512Parameters, 1585733039477L);
+        RequestAuthenticationSchema requestAuthenticationSchema = cachedRequestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1"), 1585733039477L);
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", requestAuthenticationSchema.getSignature());
+        Assertions.assertEquals(2, cachedRequestSigner.getCanonicalRequestCache().size());
+    }
+
+    @Test
+    public void shouldWarmUp() {
+        CanonicalRequestCache canonicalRequestCache = new CanonicalRequestCache();
+        RecordingMetricsListener metricsListener = new RecordingMetricsListener();
+        RequestSigner warmedUpRequestSigner = new RequestSigner(null, new SigningKeyCache(), metricsListener, canonicalRequestCache);
+        Assertions.assertEquals(100, warmedUpRequestSigner.warmUp(100, Duration.ofSeconds(10)));
+        Assertions.assertEquals(0, warmedUpRequestSigner.warmUp(0, Duration.ofSeconds(10)));
+        Assertions.assertEquals(0, warmedUpRequestSigner.getSigningKeyCache().size());
+        Assertions.assertEquals(0, canonicalRequestCache.size());
+        Assertions.assertTrue(canonicalRequestCache.getHitCount() > 0);
+        Assertions.assertTrue(warmedUpRequestSigner.getSigningKeyCache().getSecretApiVersionKeyHitCount() > 0);
+        Assertions.assertEquals(0, metricsListener.getSignatureCount());
+    }
+
+    @Test
+    public void shouldStopWarmUpAfterMaximumDuration() {
+        Assertions.assertEquals(0, requestSigner.warmUp(Integer.MAX_VALUE, Duration.ZERO));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> requestSigner.warmUp(-1, Duration.ZERO));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenWarmUpAlgorithmIsUnavailable() {
+        RequestSigner unavailableRequestSigner = new RequestSigner() {
+            @Override
+            protected String getHashAlgorithm() {
+                return "UNKNOWN";
+            }
+        };
+        Assertions.assertThrows(RequestSignerException.class, unavailableRequestSigner::warmUp);
+    }
+
+    @Test
+    public void shouldComputeSigningKeyWithCache() {
+        RequestSigner cachedRequestSigner = new RequestSigner(new SigningKeyCache());
+        byte[] signinKey = cachedRequestSigner.computeSigningKey("SecretApiKey", "v1", 1585658784903L);
+        byte[] cachedSigninKey = cachedRequestSigner.computeSigningKey("SecretApiKey", "v1", 1585658784903L);
+        Assertions.assertEquals("uT-NHNKtsf6nl2smF3i57Cen7PiJ-7VDCvi_AjEyyNM", cachedRequestSigner.encode(signinKey));
+        Assertions.assertArrayEquals(signinKey, cachedSigninKey);
+        Assertions.assertNotSame(signinKey, cachedSigninKey);
+        Assertions.assertEquals(1, cachedRequestSigner.getSigningKeyCache().getSigningKeyHitCount());
+    }
+
+    @Test
+    public void shouldSignRequestWithSigningKeyCache() {
+        RequestSigner cachedRequestSigner = new RequestSigner(new SigningKeyCache());
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        cachedRequestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", requestSignerParameters, 1585733039476L);
+        RequestAuthenticationSchema requestAuthenticationSchema = cachedRequestSigner.signRequest("GET", "https://api.com/search?product_id=prd1", requestSignerParameters, 1585733039477L);
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", requestAuthenticationSchema.getSignature());
+        Assertions.assertEquals(1, cachedRequestSigner.getSigningKeyCache().getSecretApiVersionKeyHitCount());
+    }
+
     @Test
     public void shouldSign() {
         String signature = requestSigner.sign("text to sign", "key".getBytes(requestSigner.getCharset()));
         Assertions.assertEquals("JSCFdQh6hHJ7yP702Il9CxR3FA6StoD2GMirIYdeOGU", signature);
     }
+
+    @Test
+    public void shouldSignRequestWithUnsignedPayloadByDefault() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        SignableRequest signableRequest = new SignableRequest("GET", "https://api.com/search?product_id=prd1", requestSigner.hashPayload(new byte[]{1, 2, 3}));
+        RequestAuthenticationSchema requestAuthenticationSchema = requestSigner.signRequest(signableRequest, requestSignerParameters, 1585733039477L);
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", requestAuthenticationSchema.getSignature());
+        Assertions.assertFalse(requestAuthenticationSchema.isSignedPayload());
+    }
+
+    @Test
+    public void shouldSignRequestWithSignedPayload() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        requestSignerParameters.setSignedPayload(true);
+        String payloadHash = requestSigner.newPayloadDigest().update("{\"product_id\":\"prd1\"}".getBytes(requestSigner.getCharset())).digest();
+        SignableRequest signableRequest = new SignableRequest("POST", "https://api.com/products", payloadHash);
+        RequestAuthenticationSchema requestAuthenticationSchema = requestSigner.signRequest(signableRequest, requestSignerParameters, 1585733039477L);
+        String canonicalRequest = requestSigner.createCanonicalRequest(new SignableRequest("POST", null, payloadHash), UrlComponents.of("https://api.com/products"), requestSignerParameters);
+        Assertions.assertEquals("POST api.com /products " + payloadHash, canonicalRequest);
+        String stringToSign = requestSigner.createStringToSign("REQUEST-SIGNATURE", "aaa-bbb-ccc", "v1", 1585733039477L, canonicalRequest);
+        String expectedSignature = requestSigner.sign(stringToSign, requestSigner.computeSigningKey("secret-aaa-bbb-ccc", "v1", 1585733039477L));
+        Assertions.assertEquals(expectedSignature, requestAuthenticationSchema.getSignature());
+        Assertions.assertTrue(requestAuthenticationSchema.isSignedPayload());
+        SignableRequest tamperedRequest = new SignableRequest("POST", "https://api.com/products", requestSigner.hashPayload(new byte[0]));
+        Assertions.assertNotEquals(expectedSignature, requestSigner.signRequest(tamperedRequest, requestSignerParameters, 1585733039477L).getSignature());
+    }
+
+    @Test
+    public void shouldSignRequestFromUriWithHeaders() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        Map<String, List<String>> headers = Map.of("X-Tenant", List.of("tenant-1"));
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", requestSigner.signRequest("GET", URI.create("https://api.com/search?product_id=prd1"), headers, requestSignerParameters, 1585733039477L).getSignature());
+        requestSignerParameters.setSignedHeaders(SignedHeaders.of("X-Tenant"));
+        RequestAuthenticationSchema expected = requestSigner.signRequest(new SignableRequest("GET", "https://api.com/search?product_id=prd1", null, headers), requestSignerParameters, 1585733039477L);
+        Assertions.assertEquals(expected.getSignature(), requestSigner.signRequest("GET", URI.create("https://api.com/search?product_id=prd1"), headers, requestSignerParameters, 1585733039477L).getSignature());
+    }
+
+    @Test
+    public void shouldHashPayloadWithSuiteDigest() {
+        String authenticationType = SignatureAlgorithmSuite.REQUEST_SIGNATURE_SHA512.getAuthenticationType();
+        Assertions.assertEquals(86, requestSigner.hashPayload(new byte[]{1, 2, 3}, authenticationType).length());
+        Assertions.assertEquals(requestSigner.hashPayload(new byte[]{1, 2, 3}, authenticationType), requestSigner.newPayloadDigest(authenticationType).update(new byte[]{1, 2, 3}).digest());
+        Assertions.assertEquals(requestSigner.hashPayload(new byte[]{1, 2, 3}), requestSigner.hashPayload(new byte[]{1, 2, 3}, RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE));
+    }
+
+    @Test
+    public void shouldSignRequestWithSignedHeaders() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        requestSignerParameters.setSignedHeaders(SignedHeaders.of("X-Tenant", "Content-Type"));
+        Map<String, List<String>> headers = Map.of("Content-Type", List.of("application/json"), "X-Tenant", List.of(" tenant-1 "), "Accept", List.of("*/*"));
+        RequestAuthenticationSchema requestAuthenticationSchema = requestSigner.signRequest(new SignableRequest("POST", "https://api.com/products", null, headers), requestSignerParameters, 1585733039477L);
+        String canonicalRequest = requestSigner.createCanonicalRequest(new SignableRequest("POST", null, null, headers), UrlComponents.of("https://api.com/products"), requestSignerParameters);
+        Assertions.assertEquals("POST api.com /products\ncontent-type:application/json\nx-tenant:tenant-1", canonicalRequest);
+        String stringToSign = requestSigner.createStringToSign("REQUEST-SIGNATURE", "aaa-bbb-ccc", "v1", 1585733039477L, canonicalRequest);
+        Assertions.assertEquals(requestSigner.sign(stringToSign, requestSigner.computeSigningKey("secret-aaa-bbb-ccc", "v1", 1585733039477L)), requestAuthenticationSchema.getSignature());
+        Assertions.assertEquals(requestSignerParameters.getSignedHeaders(), requestAuthenticationSchema.getSignedHeaders());
+        Assertions.assertTrue(requestAuthenticationSchema.getAuthorizationHeader().contains(",SignedHeaders=content-type;x-tenant,"));
+        Map<String, List<String>> tamperedHeaders = Map.of("content-type", List.of("application/json"), "x-tenant", List.of("tenant-2"));
+        Assertions.assertNotEquals(requestAuthenticationSchema.getSignature(), requestSigner.signRequest(new SignableRequest("POST", "https://api.com/products", null, tamperedHeaders), requestSignerParameters, 1585733039477L).getSignature());
+        Assertions.assertThrows(RequestSignerException.class, () -> requestSigner.signRequest("POST", "https://api.com/products", requestSignerParameters, 1585733039477L));
+    }
+
+    @Test
+    public void shouldSignRequestWithCanonicalQuery() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        requestSignerParameters.setCanonicalQuery(true);
+        RequestAuthenticationSchema requestAuthenticationSchema = requestSigner.signRequest("GET", "https://api.com/search?q=my+product&customer_id=c1", requestSignerParameters, 1585733039477L);
+        SignableRequest signableRequest = new SignableRequest("GET", "https://api.com/search", null, null, new QueryParameters().add("q", "my product").add("customer_id", "c1"));
+        String canonicalRequest = requestSigner.createCanonicalRequest(signableRequest, UrlComponents.of("https://api.com/search"), requestSignerParameters);
+        Assertions.assertEquals("GET api.com /search customer_id=c1&q=my%20product", canonicalRequest);
+        String stringToSign = requestSigner.createStringToSign("REQUEST-SIGNATURE", "aaa-bbb-ccc", "v1", 1585733039477L, canonicalRequest);
+        Assertions.assertEquals(requestSigner.sign(stringToSign, requestSigner.computeSigningKey("secret-aaa-bbb-ccc", "v1", 1585733039477L)), requestAuthenticationSchema.getSignature());
+        Assertions.assertEquals(requestAuthenticationSchema.getSignature(), requestSigner.signRequest(signableRequest, requestSignerParameters, 1585733039477L).getSignature());
+        Assertions.assertEquals(requestAuthenticationSchema.getSignature(), requestSigner.signRequest("GET", "https://api.com/search?customer_id=c1&q=my%20product", requestSignerParameters, 1585733039477L).getSignature());
+        Assertions.assertEquals(requestAuthenticationSchema.getSignature(), new RequestSigner(null, null, null, new CanonicalRequestCache()).signRequest("GET", "https://api.com/search?q=my+product&customer_id=c1", requestSignerParameters, 1585733039477L).getSignature());
+        Assertions.assertTrue(requestAuthenticationSchema.getAuthorizationHeader().contains(",CanonicalQuery=true,"));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenQueryParametersAreNotCanonical() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        SignableRequest signableRequest = new SignableRequest("GET", "https://api.com/search", null, null, new QueryParameters().add("q", "1"));
+        Assertions.assertThrows(RequestSignerException.class, () -> requestSigner.signRequest(signableRequest, requestSignerParameters, 1585733039477L));
+    }
+
+    @Test
+    public void shouldBypassCanonicalRequestCacheForSignedHeaders() {
+        RequestSigner cachedRequestSigner = new RequestSigner(null, null, null, new CanonicalRequestCache());
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        requestSignerParameters.setSignedHeaders(SignedHeaders.of("date"));
+        SignableRequest signableRequest = new SignableRequest("GET", "https://api.com/search?product_id=prd1", null, Map.of("Date", List.of("Wed, 01 Apr 2020 09:23:59 GMT")));
+        Assertions.assertEquals(requestSigner.signRequest(signableRequest, requestSignerParameters, 1585733039477L), cachedRequestSigner.signRequest(signableRequest, requestSignerParameters, 1585733039477L));
+        Assertions.assertEquals(0, cachedRequestSigner.getCanonicalRequestCache().size());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenSignedPayloadHashIsMissing() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        requestSignerParameters.setSignedPayload(true);
+        Assertions.assertThrows(RequestSignerException.class, () -> requestSigner.signRequest("POST", "https://api.com/products", requestSignerParameters, 1585733039477L));
+    }
+
+    @Test
+    public void shouldSignAuthorizationHeader() {
+        RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        SignableRequest signableRequest = new SignableRequest("GET", "https://api.com/search?product_id=prd1");
+        AuthorizationHeader authorizationHeader = requestSigner.signAuthorizationHeader(signableRequest, requestSignerParameters, 1585733039477L);
+        Assertions.assertEquals("kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po", authorizationHeader.getSignature());
+        Assertions.assertEquals(requestSigner.signRequest(signableRequest, requestSignerParameters, 1585733039477L).getAuthorizationHeader(), authorizationHeader.getValue());
+        Assertions.assertSame(authorizationHeader.getPrefix(), requestSigner.signAuthorizationHeader(signableRequest, requestSignerParameters, 1585733039478L).getPrefix());
+    }
 }
@@ -0,0 +1,61 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class SecretKeyRingTest {
+
+    private final SecretKeyRing secretKeyRing = new SecretKeyRing();
+
+    @Test
+    public void shouldRotateSecrets() {
+        secretKeyRing.rotate("api-key", "k1", "secret-1");
+        secretKeyRing.rotate("api-key", "k2", "secret-2");
+        Assertions.assertEquals("k2", secretKeyRing.getPrimaryKeyId("api-key"));
+        Assertions.assertEquals("secret-2", secretKeyRing.getPrimarySecretApiKey("api-key"));
+        Assertions.assertEquals("secret-1", secretKeyRing.getSecretApiKey("api-key", "k1"));
+        Assertions.assertEquals(List.of("secret-2", "secret-1"), secretKeyRing.getTrialSecretApiKeys("api-key"));
+        secretKeyRing.rotate("api-key", "k1", "secret-1b");
+        Assertions.assertEquals(List.of("secret-1b", "secret-2"), secretKeyRing.getTrialSecretApiKeys("api-key"));
+    }
+
+    @Test
+    public void shouldBoundTrialSecrets() {
+        SecretKeyRing boundedSecretKeyRing = new SecretKeyRing(1);
+        boundedSecretKeyRing.rotate("api-key", "k1", "secret-1");
+        boundedSecretKeyRing.rotate("api-key", "k2", "secret-2");
+        Assertions.assertEquals(List.of("secret-2"), boundedSecretKeyRing.getTrialSecretApiKeys("api-key"));
+        Assertions.assertEquals("secret-1", boundedSecretKeyRing.getSecretApiKey("api-key", "k1"));
+    }
+
+    @Test
+    public void shouldRetireSecrets() {
+        secretKeyRing.rotate("api-key", "k1", "secret-1");
+        secretKeyRing.rotate("api-key", "k2", "secret-2");
+        secretKeyRing.retire("api-key", "k1");
+        Assertions.assertNull(secretKeyRing.getSecretApiKey("api-key", "k1"));
+        Assertions.assertEquals(List.of("secret-2"), secretKeyRing.getTrialSecretApiKeys("api-key"));
+        secretKeyRing.retire("api-key", "k2");
+        Assertions.assertEquals(0, secretKeyRing.size());
+        Assertions.assertTrue(secretKeyRing.getTrialSecretApiKeys("api-key").isEmpty());
+        Assertions.assertNull(secretKeyRing.getPrimaryKeyId("api-key"));
+    }
+
+    @Test
+    public void shouldCreateRequestSignerParametersWithPrimarySecret() {
+        secretKeyRing.rotate("api-key", "k1", "secret-1");
+        secretKeyRing.rotate("api-key", "k2", "secret-2");
+        RequestSignerParameters requestSignerParameters = secretKeyRing.createRequestSignerParameters("api-key", "v1");
+        Assertions.assertEquals("secret-2", requestSignerParameters.getSecretApiKey());
+        Assertions.assertEquals("k2", requestSignerParameters.getKeyId());
+        Assertions.assertNull(secretKeyRing.createRequestSignerParameters("unknown", "v1"));
+    }
+
+    @Test
+    public void shouldRejectInvalidArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SecretKeyRing(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> secretKeyRing.rotate("api-key", null, "secret"));
+    }
+}
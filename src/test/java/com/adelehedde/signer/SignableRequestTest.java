@@ -0,0 +1,13 @@
+package com.adelehedde.signer;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
+import org.junit.jupiter.api.Test;
+
+public class SignableRequestTest {
+
+    @Test
+    public void shouldCheckEqualsAndHashcode() {
+        EqualsVerifier.forClass(SignableRequest.class).suppress(new Warning[]{Warning.STRICT_INHERITANCE}).verify();
+    }
+}
@@ -0,0 +1,22 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SignatureAlgorithmSuiteTest {
+
+    @Test
+    public void shouldResolveSuiteFromAuthenticationType() {
+        Assertions.assertEquals(SignatureAlgorithmSuite.REQUEST_SIGNATURE, SignatureAlgorithmSuite.fromAuthenticationType(RequestAuthenticationSchema.SIGNATURE_AUTHENTICATION_TYPE));
+        Assertions.assertEquals(SignatureAlgorithmSuite.REQUEST_SIGNATURE_SHA384, SignatureAlgorithmSuite.fromAuthenticationType("REQUEST-SIGNATURE-SHA384"));
+        Assertions.assertEquals(SignatureAlgorithmSuite.REQUEST_SIGNATURE_SHA512, SignatureAlgorithmSuite.fromAuthenticationType("REQUEST-SIGNATURE-SHA512"));
+        Assertions.assertNull(SignatureAlgorithmSuite.fromAuthenticationType("UNKNOWN"));
+        Assertions.assertNull(SignatureAlgorithmSuite.fromAuthenticationType(null));
+    }
+
+    @Test
+    public void shouldKeepDefaultSuiteAlgorithms() {
+        Assertions.assertEquals(AbstractRequestSigner.SHA_256_ALGORITHM, SignatureAlgorithmSuite.REQUEST_SIGNATURE.getHashAlgorithm());
+        Assertions.assertEquals(AbstractRequestSigner.HMAC_SHA_256_ALGORITHM, SignatureAlgorithmSuite.REQUEST_SIGNATURE.getHashMacAlgorithm());
+    }
+}
@@ -0,0 +1,88 @@
+package com.adelehedde.signer;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class SignedHeadersTest {
+
+    private static String canonicalHeaders(SignedHeaders signedHeaders, Map<String, List<String>> headers) {
+        StringBuilder canonicalHeaders = new StringBuilder();
+        signedHeaders.appendTo(canonicalHeaders, headers);
+        return canonicalHeaders.toString();
+    }
+
+    private static String writtenHeaders(SignedHeaders signedHeaders, Map<String, List<String>> headers) {
+        SigningBuffer signingBuffer = SigningBuffer.get();
+        signedHeaders.writeTo(signingBuffer, headers);
+        return new String(signingBuffer.array(), 0, signingBuffer.length());
+    }
+
+    @Test
+    public void shouldCanonicalizeNames() {
+        SignedHeaders signedHeaders = SignedHeaders.of(" X-Tenant ", "Date", "content-type", "DATE");
+        Assertions.assertEquals(List.of("content-type", "date", "x-tenant"), signedHeaders.getNames());
+        Assertions.assertEquals("content-type;date;x-tenant", signedHeaders.getValue());
+        Assertions.assertEquals(3, signedHeaders.size());
+        Assertions.assertEquals(signedHeaders, SignedHeaders.parse("x-tenant;Content-Type;date"));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenNameIsNotValid() {
+        Assertions.assertThrows(IllegalArgumentException.class, SignedHeaders::of);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SignedHeaders.of(" "));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SignedHeaders.of("content type"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SignedHeaders.of("date:"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SignedHeaders.parse("date;;host"));
+    }
+
+    @Test
+    public void shouldWriteCanonicalHeaders() {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("X-Tenant", List.of(" tenant-1 "));
+        headers.put("Accept", List.of("*/*"));
+        headers.put("Content-Type", List.of("application/json"));
+        headers.put("x-tenant", List.of("tenant-2", "tenant-3"));
+        SignedHeaders signedHeaders = SignedHeaders.of("x-tenant", "content-type");
+        Assertions.assertEquals("\ncontent-type:application/json\nx-tenant:tenant-1,tenant-2,tenant-3", canonicalHeaders(signedHeaders, headers));
+        Assertions.assertEquals(canonicalHeaders(signedHeaders, headers), writtenHeaders(signedHeaders, headers));
+    }
+
+    @Test
+    public void shouldMergeHeadersDifferingInCaseWhateverTheMapOrder() {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("x-tenant", List.of("tenant-2"));
+        headers.put("X-TENANT", List.of("tenant-0"));
+        headers.put("X-Tenant", List.of("tenant-1"));
+        SignedHeaders signedHeaders = SignedHeaders.of("x-tenant");
+        Assertions.assertEquals("\nx-tenant:tenant-0,tenant-1,tenant-2", canonicalHeaders(signedHeaders, headers));
+        Assertions.assertEquals(canonicalHeaders(signedHeaders, headers), canonicalHeaders(signedHeaders, new TreeMap<>(headers)));
+        Assertions.assertEquals(canonicalHeaders(signedHeaders, headers), writtenHeaders(signedHeaders, new HashMap<>(headers)));
+    }
+
+    @Test
+    public void shouldWriteEmptyHeaderValue() {
+        SignedHeaders signedHeaders = SignedHeaders.of("x-empty");
+        Assertions.assertEquals("\nx-empty:", canonicalHeaders(signedHeaders, Map.of("X-Empty", List.of("  "))));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenSignedHeaderIsMissing() {
+        SignedHeaders signedHeaders = SignedHeaders.of("date", "x-tenant");
+        RequestSignerException exception = Assertions.assertThrows(RequestSignerException.class, () -> canonicalHeaders(signedHeaders, Map.of("Date", List.of("today"))));
+        Assertions.assertEquals("Signed header is missing : x-tenant", exception.getMessage());
+        Assertions.assertThrows(RequestSignerException.class, () -> canonicalHeaders(signedHeaders, null));
+    }
+
+    @Test
+    public void shouldCheckEqualsAndHashcode() {
+        EqualsVerifier.forClass(SignedHeaders.class).suppress(new Warning[]{Warning.STRICT_INHERITANCE}).withIgnoredFields("value").verify();
+    }
+}
@@ -0,0 +1,49 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+public class SigningBufferTest {
+
+    private static Stream<String> TEXT_PARAMETERS() {
+        return Stream.of(
+                "",
+                "GET api.com /search product_id=prd1",
+                "café € 😀",
+                "unpaired \ud83d surrogate",
+                "trailing surrogate \ude00",
+                "x".repeat(2000)
+        );
+    }
+
+    private static byte[] content(SigningBuffer signingBuffer) {
+        return Arrays.copyOf(signingBuffer.array(), signingBuffer.length());
+    }
+
+    @ParameterizedTest
+    @MethodSource("TEXT_PARAMETERS")
+    public void shouldEncodeTextLikeString(String text) {
+        SigningBuffer signingBuffer = SigningBuffer.get().append(text);
+        Assertions.assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), content(signingBuffer));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 7L, -7L, 1585658784903L, Long.MAX_VALUE, Long.MIN_VALUE})
+    public void shouldEncodeLongLikeString(long value) {
+        SigningBuffer signingBuffer = SigningBuffer.get().append(value);
+        Assertions.assertArrayEquals(Long.toString(value).getBytes(StandardCharsets.UTF_8), content(signingBuffer));
+    }
+
+    @ParameterizedTest
+    @MethodSource("TEXT_PARAMETERS")
+    public void shouldAppendNullLikeStringBuilder(String text) {
+        SigningBuffer signingBuffer = SigningBuffer.get().append(text).append((String) null);
+        Assertions.assertArrayEquals((text + null).getBytes(StandardCharsets.UTF_8), content(signingBuffer));
+    }
+}
@@ -0,0 +1,170 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SigningHttpClientTest {
+
+    private static final long TIMESTAMP = 1585733039477L;
+    private static final URI URI = java.net.URI.create("https://api.com/search?product_id=prd1");
+    private static final String SIGNATURE = "kqZmfo4_lfLoAhmlg0XNFWbygQ7GRnTbjBBOcAVu_po";
+
+    private final RequestSignerParameters requestSignerParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+    private final HttpClient httpClient = Mockito.mock(HttpClient.class);
+    @SuppressWarnings("unchecked")
+    private final HttpResponse<String> httpResponse = Mockito.mock(HttpResponse.class);
+    private final AtomicLong currentTimestamp = new AtomicLong(TIMESTAMP);
+
+    private SigningHttpClient signingHttpClient(int maximumRetries) {
+        return new SigningHttpClient(httpClient, new RequestSigner(), requestSignerParameters, maximumRetries) {
+            @Override
+            protected long getCurrentTimestamp() {
+                return currentTimestamp.get();
+            }
+        };
+    }
+
+    private static String authorizationHeader(HttpRequest httpRequest) {
+        return httpRequest.headers().firstValue(RequestAuthenticationSchema.AUTHORIZATION_HEADER).orElse(null);
+    }
+
+    @Test
+    public void shouldSignRequestFromUri() {
+        HttpRequest httpRequest = HttpRequest.newBuilder(URI).GET()
+                .header("Accept", "application/json")
+                .header(RequestAuthenticationSchema.AUTHORIZATION_HEADER, "stale")
+                .timeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_2)
+                .build();
+        HttpRequest signedHttpRequest = signingHttpClient(0).sign(httpRequest, TIMESTAMP);
+        Assertions.assertEquals("REQUEST-SIGNATURE ApiKey=aaa-bbb-ccc,ApiVersion=v1,SignedHost=true,Timestamp=1585733039477,Signature=" + SIGNATURE, authorizationHeader(signedHttpRequest));
+        Assertions.assertEquals(1, signedHttpRequest.headers().allValues(RequestAuthenticationSchema.AUTHORIZATION_HEADER).size());
+        Assertions.assertEquals(List.of("application/json"), signedHttpRequest.headers().allValues("Accept"));
+        Assertions.assertEquals(httpRequest.method(), signedHttpRequest.method());
+        Assertions.assertEquals(httpRequest.uri(), signedHttpRequest.uri());
+        Assertions.assertEquals(httpRequest.timeout(), signedHttpRequest.timeout());
+        Assertions.assertEquals(httpRequest.version(), signedHttpRequest.version());
+    }
+
+    @Test
+    public void shouldSignRequestBuilder() {
+        HttpRequest signedHttpRequest = signingHttpClient(0).sign(HttpRequest.newBuilder(URI).GET(), TIMESTAMP);
+        Assertions.assertTrue(authorizationHeader(signedHttpRequest).endsWith("Signature=" + SIGNATURE));
+    }
+
+    @Test
+    public void shouldSendSignedRequest() throws IOException, InterruptedException {
+        Mockito.when(httpClient.send(ArgumentMatchers.any(), ArgumentMatchers.<HttpResponse.BodyHandler<String>>any())).thenReturn(httpResponse);
+        HttpResponse<String> response = signingHttpClient(0).send(HttpRequest.newBuilder(URI).GET().build(), HttpResponse.BodyHandlers.ofString());
+        Assertions.assertSame(httpResponse, response);
+        ArgumentCaptor<HttpRequest> httpRequestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        Mockito.verify(httpClient).send(httpRequestCaptor.capture(), ArgumentMatchers.any());
+        Assertions.assertTrue(authorizationHeader(httpRequestCaptor.getValue()).endsWith("Signature=" + SIGNATURE));
+    }
+
+    @Test
+    public void shouldNotRetryByDefault() throws IOException, InterruptedException {
+        Mockito.when(httpClient.send(ArgumentMatchers.any(), ArgumentMatchers.<HttpResponse.BodyHandler<String>>any())).thenThrow(new ConnectException("Connection refused"));
+        SigningHttpClient signingHttpClient = new SigningHttpClient(httpClient, requestSignerParameters);
+        Assertions.assertThrows(ConnectException.class, () -> signingHttpClient.send(HttpRequest.newBuilder(URI).GET().build(), HttpResponse.BodyHandlers.ofString()));
+        Mockito.verify(httpClient, Mockito.times(1)).send(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void shouldResignRequestOnEveryRetry() throws IOException, InterruptedException {
+        Mockito.when(httpClient.send(ArgumentMatchers.any(), ArgumentMatchers.<HttpResponse.BodyHandler<String>>any()))
+                .thenAnswer(invocation -> {
+                    currentTimestamp.addAndGet(10L);
+                    throw new ConnectException("Connection refused");
+                })
+                .thenAnswer(invocation -> {
+                    currentTimestamp.addAndGet(30L);
+                    throw new ConnectException("Connection refused");
+                })
+                .thenReturn(httpResponse);
+        HttpResponse<String> response = signingHttpClient(2).send(HttpRequest.newBuilder(URI).GET().build(), HttpResponse.BodyHandlers.ofString());
+        Assertions.assertSame(httpResponse, response);
+        ArgumentCaptor<HttpRequest> httpRequestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        Mockito.verify(httpClient, Mockito.times(3)).send(httpRequestCaptor.capture(), ArgumentMatchers.any());
+        List<HttpRequest> httpRequests = httpRequestCaptor.getAllValues();
+        Assertions.assertTrue(authorizationHeader(httpRequests.get(0)).contains("Timestamp=" + TIMESTAMP));
+        Assertions.assertTrue(authorizationHeader(httpRequests.get(1)).contains("Timestamp=" + (TIMESTAMP + 10L)));
+        Assertions.assertTrue(authorizationHeader(httpRequests.get(2)).contains("Timestamp=" + (TIMESTAMP + 40L)));
+    }
+
+    @Test
+    public void shouldNotRetryNonIdempotentRequests() throws IOException, InterruptedException {
+        Mockito.when(httpClient.send(ArgumentMatchers.any(), ArgumentMatchers.<HttpResponse.BodyHandler<String>>any())).thenThrow(new ConnectException("Connection refused"));
+        Mockito.when(httpClient.sendAsync(ArgumentMatchers.any(), ArgumentMatchers.<HttpResponse.BodyHandler<String>>any())).thenReturn(CompletableFuture.failedFuture(new ConnectException("Connection refused")));
+        HttpRequest httpRequest = HttpRequest.newBuilder(URI).POST(HttpRequest.BodyPublishers.ofString("{}")).build();
+        Assertions.assertThrows(ConnectException.class, () -> signingHttpClient(3).send(httpRequest, HttpResponse.BodyHandlers.ofString()));
+        Assertions.assertThrows(CompletionException.class, () -> signingHttpClient(3).sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString()).join());
+        Mockito.verify(httpClient, Mockito.times(1)).send(ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.verify(httpClient, Mockito.times(1)).sendAsync(ArgumentMatchers.any(), ArgumentMatchers.<HttpResponse.BodyHandler<String>>any());
+    }
+
+    @Test
+    public void shouldSignRequestWithSignedHeaders() {
+        RequestSignerParameters signedHeadersParameters = new RequestSignerParameters("aaa-bbb-ccc", "secret-aaa-bbb-ccc", "v1");
+        signedHeadersParameters.setSignedHeaders(SignedHeaders.of("X-Tenant"));
+        SigningHttpClient signingHttpClient = new SigningHttpClient(httpClient, new RequestSigner(), signedHeadersParameters);
+        HttpRequest signedHttpRequest = signingHttpClient.sign(HttpRequest.newBuilder(URI).GET().header("X-Tenant", "tenant-1").build(), TIMESTAMP);
+        RequestAuthenticationSchema expected = new RequestSigner().signRequest(new SignableRequest("GET", URI.toString(), null, Map.of("X-Tenant", List.of("tenant-1"))), signedHeadersParameters, TIMESTAMP);
+        Assertions.assertEquals(expected.getAuthorizationHeader(), authorizationHeader(signedHttpRequest));
+    }
+
+    @Test
+    public void shouldSendSignedRequestAsynchronously() {
+        Mockito.when(httpClient.sendAsync(ArgumentMatchers.any(), ArgumentMatchers.<HttpResponse.BodyHandler<String>>any())).thenReturn(CompletableFuture.completedFuture(httpResponse));
+        HttpResponse<String> response = signingHttpClient(0).sendAsync(HttpRequest.newBuilder(URI).GET().build(), HttpResponse.BodyHandlers.ofString()).join();
+        Assertions.assertSame(httpResponse, response);
+        ArgumentCaptor<HttpRequest> httpRequestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        Mockito.verify(httpClient).sendAsync(httpRequestCaptor.capture(), ArgumentMatchers.<HttpResponse.BodyHandler<String>>any());
+        Assertions.assertTrue(authorizationHeader(httpRequestCaptor.getValue()).endsWith("Signature=" + SIGNATURE));
+    }
+
+    @Test
+    public void shouldRetryAsynchronously() {
+        Mockito.when(httpClient.sendAsync(ArgumentMatchers.any(), ArgumentMatchers.<HttpResponse.BodyHandler<String>>any()))
+                .thenAnswer(invocation -> {
+                    currentTimestamp.addAndGet(10L);
+                    return CompletableFuture.failedFuture(new ConnectException("Connection refused"));
+                })
+                .thenReturn(CompletableFuture.completedFuture(httpResponse));
+        HttpResponse<String> response = signingHttpClient(1).sendAsync(HttpRequest.newBuilder(URI).GET().build(), HttpResponse.BodyHandlers.ofString()).join();
+        Assertions.assertSame(httpResponse, response);
+        ArgumentCaptor<HttpRequest> httpRequestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        Mockito.verify(httpClient, Mockito.times(2)).sendAsync(httpRequestCaptor.capture(), ArgumentMatchers.<HttpResponse.BodyHandler<String>>any());
+        Assertions.assertTrue(authorizationHeader(httpRequestCaptor.getAllValues().get(1)).contains("Timestamp=" + (TIMESTAMP + 10L)));
+    }
+
+    @Test
+    public void shouldNotRetryAsynchronouslyOnOtherFailures() {
+        Mockito.when(httpClient.sendAsync(ArgumentMatchers.any(), ArgumentMatchers.<HttpResponse.BodyHandler<String>>any())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Closed")));
+        CompletableFuture<HttpResponse<String>> response = signingHttpClient(3).sendAsync(HttpRequest.newBuilder(URI).GET().build(), HttpResponse.BodyHandlers.ofString());
+        CompletionException exception = Assertions.assertThrows(CompletionException.class, response::join);
+        Assertions.assertTrue(exception.getCause() instanceof IllegalStateException);
+        Mockito.verify(httpClient, Mockito.times(1)).sendAsync(ArgumentMatchers.any(), ArgumentMatchers.<HttpResponse.BodyHandler<String>>any());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenRetriesAreNegative() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SigningHttpClient(httpClient, new RequestSigner(), requestSignerParameters, -1));
+    }
+}
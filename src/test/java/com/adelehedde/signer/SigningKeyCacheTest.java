@@ -0,0 +1,114 @@
+package com.adelehedde.signer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SigningKeyCacheTest {
+
+    private final AtomicInteger secretApiVersionKeyLoads = new AtomicInteger();
+    private final AtomicInteger signingKeyLoads = new AtomicInteger();
+
+    private byte[] loadSecretApiVersionKey(String secretApiKey, String apiVersion) {
+        secretApiVersionKeyLoads.incrementAndGet();
+        return (secretApiKey + apiVersion).getBytes();
+    }
+
+    private byte[] loadSigningKey(byte[] secretApiVersionKey, long timestamp) {
+        signingKeyLoads.incrementAndGet();
+        return (new String(secretApiVersionKey) + timestamp).getBytes();
+    }
+
+    @Test
+    public void shouldComputeSecretApiVersionKeyOncePerCredential() {
+        SigningKeyCache signingKeyCache = new SigningKeyCache();
+        byte[] first = signingKeyCache.getSigningKey("secret", "v1", 1L, this::loadSecretApiVersionKey, this::loadSigningKey);
+        byte[] second = signingKeyCache.getSigningKey("secret", "v1", 2L, this::loadSecretApiVersionKey, this::loadSigningKey);
+        Assertions.assertArrayEquals("secretv11".getBytes(), first);
+        Assertions.assertArrayEquals("secretv12".getBytes(), second);
+        Assertions.assertEquals(1, secretApiVersionKeyLoads.get());
+        Assertions.assertEquals(2, signingKeyLoads.get());
+        Assertions.assertEquals(1, signingKeyCache.getSecretApiVersionKeyHitCount());
+        Assertions.assertEquals(1, signingKeyCache.getSecretApiVersionKeyMissCount());
+    }
+
+    @Test
+    public void shouldReuseSigningKeyForSameTimestamp() {
+        SigningKeyCache signingKeyCache = new SigningKeyCache();
+        byte[] first = signingKeyCache.getSigningKey("secret", "v1", 1L, this::loadSecretApiVersionKey, this::loadSigningKey);
+        byte[] second = signingKeyCache.getSigningKey("secret", "v1", 1L, this::loadSecretApiVersionKey, this::loadSigningKey);
+        Assertions.assertArrayEquals(first, second);
+        Assertions.assertEquals(1, signingKeyLoads.get());
+        Assertions.assertEquals(1, signingKeyCache.getSigningKeyHitCount());
+        Assertions.assertEquals(1, signingKeyCache.getSigningKeyMissCount());
+    }
+
+    @Test
+    public void shouldSeparateCredentials() {
+        SigningKeyCache signingKeyCache = new SigningKeyCache();
+        signingKeyCache.getSigningKey("secret", "v1", 1L, this::loadSecretApiVersionKey, this::loadSigningKey);
+        signingKeyCache.getSigningKey("secret", "v2", 1L, this::loadSecretApiVersionKey, this::loadSigningKey);
+        signingKeyCache.getSigningKey("other-secret", "v1", 1L, this::loadSecretApiVersionKey, this::loadSigningKey);
+        Assertions.assertEquals(3, secretApiVersionKeyLoads.get());
+        Assertions.assertEquals(3, signingKeyCache.size());
+    }
+
+    @Test
+    public void shouldEvictWhenMaximumSizeIsReached() {
+        SigningKeyCache signingKeyCache = new SigningKeyCache(2);
+        signingKeyCache.getSecretApiVersionKey("secret-1", "v1", this::loadSecretApiVersionKey);
+        signingKeyCache.getSecretApiVersionKey("secret-2", "v1", this::loadSecretApiVersionKey);
+        signingKeyCache.getSecretApiVersionKey("secret-3", "v1", this::loadSecretApiVersionKey);
+        Assertions.assertEquals(2, signingKeyCache.size());
+        Assertions.assertEquals(1, signingKeyCache.getEvictionCount());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedCredential() {
+        SigningKeyCache signingKeyCache = new SigningKeyCache(2);
+        signingKeyCache.getSecretApiVersionKey("secret-1", "v1", this::loadSecretApiVersionKey);
+        signingKeyCache.getSecretApiVersionKey("secret-2", "v1", this::loadSecretApiVersionKey);
+        signingKeyCache.getSecretApiVersionKey("secret-1", "v1", this::loadSecretApiVersionKey);
+        signingKeyCache.getSecretApiVersionKey("secret-3", "v1", this::loadSecretApiVersionKey);
+        signingKeyCache.getSecretApiVersionKey("secret-1", "v1", this::loadSecretApiVersionKey);
+        Assertions.assertEquals(3, secretApiVersionKeyLoads.get());
+        signingKeyCache.getSecretApiVersionKey("secret-2", "v1", this::loadSecretApiVersionKey);
+        Assertions.assertEquals(4, secretApiVersionKeyLoads.get());
+        Assertions.assertEquals(2, signingKeyCache.getEvictionCount());
+    }
+
+    @Test
+    public void shouldEvictOneCredentialPerInsert() {
+        SigningKeyCache signingKeyCache = new SigningKeyCache(200);
+        for (int i = 0; i < 500; i++) {
+            signingKeyCache.getSecretApiVersionKey("secret-" + i, "v1", this::loadSecretApiVersionKey);
+        }
+        Assertions.assertEquals(200, signingKeyCache.size());
+        Assertions.assertEquals(300, signingKeyCache.getEvictionCount());
+    }
+
+    @Test
+    public void shouldReturnDefensiveCopies() {
+        SigningKeyCache signingKeyCache = new SigningKeyCache();
+        byte[] secretApiVersionKey = signingKeyCache.getSecretApiVersionKey("secret", "v1", this::loadSecretApiVersionKey);
+        byte[] signingKey = signingKeyCache.getSigningKey("secret", "v1", 1L, this::loadSecretApiVersionKey, this::loadSigningKey);
+        secretApiVersionKey[0] = 'X';
+        signingKey[0] = 'X';
+        Assertions.assertArrayEquals("secretv1".getBytes(), signingKeyCache.getSecretApiVersionKey("secret", "v1", this::loadSecretApiVersionKey));
+        Assertions.assertArrayEquals("secretv11".getBytes(), signingKeyCache.getSigningKey("secret", "v1", 1L, this::loadSecretApiVersionKey, this::loadSigningKey));
+    }
+
+    @Test
+    public void shouldInvalidateAll() {
+        SigningKeyCache signingKeyCache = new SigningKeyCache();
+        signingKeyCache.getSecretApiVersionKey("secret", "v1", this::loadSecretApiVersionKey);
+        signingKeyCache.invalidateAll();
+        Assertions.assertEquals(0, signingKeyCache.size());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenMaximumSizeIsNotPositive() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SigningKeyCache(0));
+    }
+}